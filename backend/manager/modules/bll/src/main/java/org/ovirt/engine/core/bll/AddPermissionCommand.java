@@ -38,6 +38,8 @@ public class AddPermissionCommand<T extends PermissionsOperationsParameters> ext
     @Inject
     private PermissionDao permissionDao;
     @Inject
+    private PermissionGraph permissionGraph;
+    @Inject
     private RoleDao roleDao;
     @Inject
     private DbUserDao dbUserDao;
@@ -189,6 +191,7 @@ public class AddPermissionCommand<T extends PermissionsOperationsParameters> ext
 
             TransactionSupport.executeInNewTransaction(() -> {
                 permissionDao.save(paramPermission);
+                permissionGraph.invalidatePermission(paramPermission);
                 getCompensationContext().snapshotNewEntity(paramPermission);
                 getCompensationContext().stateChanged();
                 return null;
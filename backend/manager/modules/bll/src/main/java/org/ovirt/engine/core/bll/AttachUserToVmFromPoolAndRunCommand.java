@@ -55,6 +55,8 @@ public class AttachUserToVmFromPoolAndRunCommand<T extends AttachUserToVmFromPoo
     @Inject
     private PermissionDao permissionDao;
     @Inject
+    private PermissionGraph permissionGraph;
+    @Inject
     private DbUserDao dbUserDao;
     @Inject
     private VmDao vmDao;
@@ -318,6 +320,7 @@ public class AttachUserToVmFromPoolAndRunCommand<T extends AttachUserToVmFromPoo
                             getVmId());
             if (perm != null) {
                 permissionDao.remove(perm.getId());
+                permissionGraph.invalidatePermission(perm);
             }
         }
     }
@@ -72,6 +72,7 @@ import org.ovirt.engine.core.common.utils.customprop.VmPropertiesUtils;
 import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.WindowsJavaTimezoneMapping;
 import org.ovirt.engine.core.dal.dbbroker.DbConnectionUtil;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogWriter;
 import org.ovirt.engine.core.dal.dbbroker.generic.DBConfigUtils;
 import org.ovirt.engine.core.dal.job.ExecutionMessageDirector;
 import org.ovirt.engine.core.dal.utils.CacheManager;
@@ -160,6 +161,9 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
     @Inject
     private DBConfigUtils dbConfigUtils;
 
+    @Inject
+    private Instance<AuditLogWriter> auditLogWriter;
+
     private void initHandlers() {
         BaseConditionFieldAutoCompleter.tagsHandler = tagsDirector;
         serviceLoader.load(VmHandler.class);
@@ -185,6 +189,8 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
     @PreDestroy
     public void shutdown() {
         AcctUtils.reportReason(Acct.ReportReason.SHUTDOWN, "Shutting down engine");
+        // write the queued audit logs while the database is still reachable
+        auditLogWriter.get().shutdown();
     }
 
     private void checkDBConnectivity() {
@@ -258,6 +264,7 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
 
         serviceLoader.load(CpuFlagsManagerHandler.class);
         serviceLoader.load(AuditLogCleanupManager.class);
+        serviceLoader.load(AuditLogWriter.class);
         serviceLoader.load(ClusterUpgradeRunningCleanupManager.class);
 
         serviceLoader.load(TagsDirector.class);
@@ -90,7 +90,6 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
 import org.ovirt.engine.core.dal.job.ExecutionMessageDirector;
 import org.ovirt.engine.core.dao.BusinessEntitySnapshotDao;
 import org.ovirt.engine.core.dao.EntityDao;
-import org.ovirt.engine.core.dao.PermissionDao;
 import org.ovirt.engine.core.dao.StepDao;
 import org.ovirt.engine.core.utils.CorrelationIdTracker;
 import org.ovirt.engine.core.utils.ReflectionUtils;
@@ -157,7 +156,7 @@ public abstract class CommandBase<T extends ActionParametersBase>
     private BusinessEntitySnapshotDao businessEntitySnapshotDao;
 
     @Inject
-    private PermissionDao permissionDao;
+    private PermissionGraph permissionGraph;
 
     @Inject
     private StepDao stepDao;
@@ -525,6 +524,7 @@ public abstract class CommandBase<T extends ActionParametersBase>
             } catch (TransactionRolledbackLocalException e) {
                 log.info("endAction: Transaction was aborted in {}", this.getClass().getName());
             } finally {
+                permissionGraph.invalidateChangedBy(getActionType());
                 freeLockEndAction();
                 endStepsAndJobIfNeeded();
                 // NOTE: this update persists updates made during the endSuccessfully()/endWithFailure() execution.
@@ -926,7 +926,7 @@ public abstract class CommandBase<T extends ActionParametersBase>
             final Guid object,
             final VdcObjectType type) {
         // Grant if there is matching permission in the database:
-        final Guid permId = permissionDao.getEntityPermissions(userId, actionGroup, object, type);
+        final Guid permId = permissionGraph.getEntityPermissions(userId, actionGroup, object, type);
         if (permId != null) {
             if (log.isDebugEnabled()) {
                 log.debug("Found permission '{}' for user when running '{}', on '{}' with id '{}'",
@@ -1395,6 +1395,7 @@ public abstract class CommandBase<T extends ActionParametersBase>
             // Transaction was aborted - we must sure we compensation for all previous applicative stages of the command
             compensate();
         } finally {
+            permissionGraph.invalidateChangedBy(getActionType());
             try {
                 if (getCommandShouldBeLogged()) {
                     logCommand();
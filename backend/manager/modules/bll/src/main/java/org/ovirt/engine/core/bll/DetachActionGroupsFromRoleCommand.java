@@ -20,6 +20,8 @@ public class DetachActionGroupsFromRoleCommand<T extends ActionGroupsToRoleParam
     private RoleGroupMapDao roleGroupMapDao;
     @Inject
     private RoleDao roleDao;
+    @Inject
+    private PermissionGraph permissionGraph;
 
     public DetachActionGroupsFromRoleCommand(T parameters, CommandContext commandContext) {
         super(parameters, commandContext);
@@ -61,6 +63,7 @@ public class DetachActionGroupsFromRoleCommand<T extends ActionGroupsToRoleParam
             roleGroupMapDao.remove(group, getParameters().getRoleId());
             appendCustomCommaSeparatedValue("ActionGroup", group.toString());
         }
+        permissionGraph.invalidateRole(getParameters().getRoleId());
 
         // If the role didn't allow viewing children in the first place, removing action groups won't change that
         Role role = getRole();
@@ -24,6 +24,8 @@ public class DetachUserFromVmFromPoolCommand<T extends DetachUserFromVmFromPoolP
     @Inject
     private PermissionDao permissionDao;
     @Inject
+    private PermissionGraph permissionGraph;
+    @Inject
     private SnapshotDao snapshotDao;
     @Inject
     private VmDao vmDao;
@@ -47,6 +49,7 @@ public class DetachUserFromVmFromPoolCommand<T extends DetachUserFromVmFromPoolP
                         getAdUserId(), getParameters().getVmId());
         if (perm != null) {
             permissionDao.remove(perm.getId());
+            permissionGraph.invalidatePermission(perm);
             if (getParameters().getIsRestoreStateless()) {
                 VM vm = vmDao.get(getParameters().getVmId());
                 if (vm != null) {
@@ -188,6 +188,7 @@ public class MigrateMultipleVmsCommand<T extends MigrateMultipleVmsParameters> e
                 .hostWhiteList(getHostWhiteList())
                 .ignoreHardVmToVmAffinity(shouldIgnoreVmAffinity)
                 .delay(true)
+                .batch(true)
                 .correlationId(getCorrelationId())
                 .schedule(vms);
     }
@@ -40,6 +40,9 @@ public class MultiLevelAdministrationHandler {
     @Inject
     private PermissionDao permissionDao;
 
+    @Inject
+    private PermissionGraph permissionGraph;
+
     @Inject
     private RoleDao roleDao;
 
@@ -65,6 +68,7 @@ public class MultiLevelAdministrationHandler {
     public void addPermission(Permission... permissions) {
         for (Permission perms : permissions) {
             permissionDao.save(perms);
+            permissionGraph.invalidatePermission(perms);
         }
     }
 
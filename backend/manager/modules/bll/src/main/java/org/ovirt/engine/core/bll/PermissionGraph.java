@@ -0,0 +1,384 @@
+package org.ovirt.engine.core.bll;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.VdcObjectType;
+import org.ovirt.engine.core.common.action.ActionType;
+import org.ovirt.engine.core.common.businessentities.ActionGroup;
+import org.ovirt.engine.core.common.businessentities.Permission;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.ActionGroupDao;
+import org.ovirt.engine.core.dao.DbGroupDao;
+import org.ovirt.engine.core.dao.PermissionDao;
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionInvalidator;
+
+/**
+ * Answers the permission checks of {@link PermissionDao#getEntityPermissions} and
+ * {@link PermissionDao#getEntityPermissionsForUserAndGroups} from memory, with the same result as the database.
+ * <p>
+ * The graph holds the direct permissions of each ad element, the action groups of each role, the parents of each
+ * object, as returned by fn_get_entity_parents, and the existence of each group, all loaded on first use. The groups
+ * of each user are taken from its engine sessions. A permission on the system or on the object itself applies without
+ * looking the object up, and the parents of the object are only loaded when the user has a permission on an object of
+ * a type that may be a parent of it, e.g. a cluster for a VM.
+ * <p>
+ * The loaded data is invalidated when the engine changes it: permissions and roles by the commands changing them,
+ * the parents of objects and the permissions the database removes along with an object by the commands that move or
+ * remove objects, see {@link #invalidateChangedBy(ActionType)}, and the groups by the commands adding or removing
+ * them. It is also loaded again after <code>PermissionGraphMaxAgeInSeconds</code>, to pick up changes done directly in
+ * the database.
+ */
+@Singleton
+public class PermissionGraph {
+
+    /**
+     * The types whose only parent is the system, as in fn_get_entity_parents
+     */
+    private static final Set<VdcObjectType> SYSTEM_CHILD_TYPES = EnumSet.of(
+            VdcObjectType.System,
+            VdcObjectType.StoragePool,
+            VdcObjectType.User,
+            VdcObjectType.Role,
+            VdcObjectType.MacPool);
+
+    /**
+     * The types of the objects, other than the system, that may be parents of an object of each type, as in
+     * fn_get_entity_parents. Objects of types that aren't listed here or in {@link #SYSTEM_CHILD_TYPES} have no
+     * parents, not even themselves.
+     */
+    private static final Map<VdcObjectType, Set<VdcObjectType>> PARENT_TYPES = new EnumMap<>(VdcObjectType.class);
+
+    static {
+        PARENT_TYPES.put(VdcObjectType.VM, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Cluster));
+        PARENT_TYPES.put(VdcObjectType.VDS, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Cluster));
+        PARENT_TYPES.put(VdcObjectType.VmTemplate, EnumSet.of(VdcObjectType.StoragePool));
+        PARENT_TYPES.put(VdcObjectType.VmPool, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Cluster));
+        PARENT_TYPES.put(VdcObjectType.Cluster, EnumSet.of(VdcObjectType.StoragePool));
+        PARENT_TYPES.put(VdcObjectType.Storage, EnumSet.of(VdcObjectType.StoragePool));
+        PARENT_TYPES.put(VdcObjectType.Quota, EnumSet.of(VdcObjectType.StoragePool));
+        PARENT_TYPES.put(VdcObjectType.GlusterVolume, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Cluster));
+        PARENT_TYPES.put(VdcObjectType.Disk, EnumSet.of(VdcObjectType.StoragePool,
+                VdcObjectType.Storage,
+                VdcObjectType.VM,
+                VdcObjectType.Cluster));
+        PARENT_TYPES.put(VdcObjectType.Network, EnumSet.of(VdcObjectType.StoragePool));
+        PARENT_TYPES.put(VdcObjectType.VnicProfile, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Network));
+        PARENT_TYPES.put(VdcObjectType.DiskProfile, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Storage));
+        PARENT_TYPES.put(VdcObjectType.CpuProfile, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Cluster));
+        PARENT_TYPES.put(VdcObjectType.GlusterHook, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Cluster));
+        PARENT_TYPES.put(VdcObjectType.GlusterService, EnumSet.of(VdcObjectType.StoragePool, VdcObjectType.Cluster));
+    }
+
+    /**
+     * The actions that may change the parents of objects, or remove objects along with their permissions
+     */
+    private static final Set<ActionType> HIERARCHY_CHANGING_ACTIONS = EnumSet.of(
+            ActionType.ChangeVMCluster,
+            ActionType.ChangeVDSCluster,
+            ActionType.UpdateCluster,
+            ActionType.AttachStorageDomainToPool,
+            ActionType.DetachStorageDomainFromPool,
+            ActionType.RecoveryStoragePool,
+            ActionType.AttachDiskToVm,
+            ActionType.DetachDiskFromVm,
+            ActionType.MoveOrCopyDisk,
+            ActionType.MoveDisk,
+            ActionType.LiveMigrateDisk,
+            ActionType.RegisterDisk,
+            ActionType.ImportVm,
+            ActionType.ImportVmFromConfiguration,
+            ActionType.ImportVmTemplate,
+            ActionType.ImportVmTemplateFromConfiguration,
+            ActionType.RemoveVm,
+            ActionType.RemoveVmTemplate,
+            ActionType.RemoveVmPool,
+            ActionType.RemoveVds,
+            ActionType.RemoveCluster,
+            ActionType.RemoveStoragePool,
+            ActionType.RemoveStorageDomain,
+            ActionType.ForceRemoveStorageDomain,
+            ActionType.RemoveDisk,
+            ActionType.RemoveQuota,
+            ActionType.RemoveNetwork,
+            ActionType.RemoveVnicProfile,
+            ActionType.RemoveDiskProfile,
+            ActionType.RemoveCpuProfile,
+            ActionType.DeleteGlusterVolume,
+            ActionType.RemoveGlusterHook);
+
+    /**
+     * The actions that change which groups exist
+     */
+    private static final Set<ActionType> GROUP_CHANGING_ACTIONS = EnumSet.of(
+            ActionType.AddGroup,
+            ActionType.RemoveGroup);
+
+    @Inject
+    private PermissionDao permissionDao;
+
+    @Inject
+    private DbGroupDao dbGroupDao;
+
+    @Inject
+    private ActionGroupDao actionGroupDao;
+
+    @Inject
+    private TransactionCompletionInvalidator transactionCompletionInvalidator;
+
+    private final ConcurrentMap<Guid, Loaded<List<Permission>>> permissionsByAdElement = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Guid, Loaded<Set<ActionGroup>>> actionGroupsByRole = new ConcurrentHashMap<>();
+    /**
+     * The objects whose permissions apply to each object, by the id of the object, which is unique across types
+     */
+    private final ConcurrentMap<Guid, Loaded<Set<Guid>>> parentsByObject = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Guid, Loaded<Boolean>> existingGroups = new ConcurrentHashMap<>();
+    /**
+     * Bumped on every invalidation, so data loaded while an invalidation happened isn't kept
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ConcurrentMap<Long, Guid> engineSessionUsers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Guid, Map<Long, Collection<Guid>>> groupsByUserEngineSession =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Same as {@link PermissionDao#getEntityPermissions}, the groups of the user are the existing groups of its
+     * engine sessions
+     *
+     * @return the id of a permission of the ad element for the action group on the object or one of its parents,
+     *         or {@code null} if there is none
+     */
+    public Guid getEntityPermissions(Guid adElementId,
+            ActionGroup actionGroup,
+            Guid objectId,
+            VdcObjectType vdcObjectType) {
+        Set<Guid> adElementIds = new LinkedHashSet<>();
+        adElementIds.add(adElementId);
+        adElementIds.addAll(getEngineSessionsGroups(adElementId));
+        adElementIds.add(MultiLevelAdministrationHandler.EVERYONE_OBJECT_ID);
+        return getEntityPermissions(adElementIds, actionGroup, objectId, vdcObjectType);
+    }
+
+    /**
+     * Same as {@link PermissionDao#getEntityPermissionsForUserAndGroups}
+     */
+    public Guid getEntityPermissionsForUserAndGroups(Guid userId,
+            Collection<Guid> groupIds,
+            ActionGroup actionGroup,
+            Guid objectId,
+            VdcObjectType vdcObjectType,
+            boolean ignoreEveryone) {
+        Set<Guid> adElementIds = new LinkedHashSet<>();
+        adElementIds.add(userId);
+        adElementIds.addAll(groupIds);
+        if (!ignoreEveryone) {
+            adElementIds.add(MultiLevelAdministrationHandler.EVERYONE_OBJECT_ID);
+        }
+        return getEntityPermissions(adElementIds, actionGroup, objectId, vdcObjectType);
+    }
+
+    private Guid getEntityPermissions(Collection<Guid> adElementIds,
+            ActionGroup actionGroup,
+            Guid objectId,
+            VdcObjectType vdcObjectType) {
+        List<Permission> permissions = new ArrayList<>();
+        for (Guid adElementId : adElementIds) {
+            for (Permission permission : getPermissions(adElementId)) {
+                if (getActionGroups(permission.getRoleId()).contains(actionGroup)) {
+                    permissions.add(permission);
+                }
+            }
+        }
+        if (permissions.isEmpty()) {
+            return null;
+        }
+
+        for (Permission permission : permissions) {
+            if (MultiLevelAdministrationHandler.SYSTEM_OBJECT_ID.equals(permission.getObjectId())
+                    && (vdcObjectType == VdcObjectType.Bottom
+                    || SYSTEM_CHILD_TYPES.contains(vdcObjectType)
+                    || PARENT_TYPES.containsKey(vdcObjectType))) {
+                return permission.getId();
+            }
+        }
+
+        if (vdcObjectType == VdcObjectType.Bottom) {
+            // any permission applies to the bottom
+            return permissions.get(0).getId();
+        }
+
+        Set<VdcObjectType> parentTypes = PARENT_TYPES.get(vdcObjectType);
+        if (parentTypes == null && !SYSTEM_CHILD_TYPES.contains(vdcObjectType)) {
+            return null;
+        }
+        for (Permission permission : permissions) {
+            if (objectId.equals(permission.getObjectId())) {
+                return permission.getId();
+            }
+        }
+        if (parentTypes == null) {
+            return null;
+        }
+        Set<Guid> parents = null;
+        for (Permission permission : permissions) {
+            if (parentTypes.contains(permission.getObjectType())) {
+                if (parents == null) {
+                    parents = getParents(objectId, vdcObjectType);
+                }
+                if (parents.contains(permission.getObjectId())) {
+                    return permission.getId();
+                }
+            }
+        }
+        return null;
+    }
+
+    private Set<Guid> getParents(Guid objectId, VdcObjectType vdcObjectType) {
+        return getOrLoad(parentsByObject,
+                objectId,
+                id -> new HashSet<>(permissionDao.getEntityParents(id, vdcObjectType)));
+    }
+
+    private boolean isExistingGroup(Guid groupId) {
+        return getOrLoad(existingGroups, groupId, id -> dbGroupDao.get(id) != null);
+    }
+
+    private List<Permission> getPermissions(Guid adElementId) {
+        return getOrLoad(permissionsByAdElement, adElementId, permissionDao::getAllDirectPermissionsForAdElement);
+    }
+
+    private Set<ActionGroup> getActionGroups(Guid roleId) {
+        return getOrLoad(actionGroupsByRole, roleId, id -> {
+            Set<ActionGroup> actionGroups = EnumSet.noneOf(ActionGroup.class);
+            actionGroupDao.getAllForRole(id).stream().filter(Objects::nonNull).forEach(actionGroups::add);
+            return actionGroups;
+        });
+    }
+
+    private <K, V> V getOrLoad(ConcurrentMap<K, Loaded<V>> cache, K key, Function<K, V> loader) {
+        Loaded<V> loaded = cache.get(key);
+        long now = System.nanoTime();
+        if (loaded == null
+                || now - loaded.loadTime >= TimeUnit.SECONDS.toNanos(
+                        Config.<Integer> getValue(ConfigValues.PermissionGraphMaxAgeInSeconds))) {
+            long loadGeneration = generation.get();
+            loaded = new Loaded<>(loader.apply(key), now);
+            cache.put(key, loaded);
+            // the loaded value may miss a change that was done while loading it
+            if (loadGeneration != generation.get()) {
+                cache.remove(key, loaded);
+            }
+        }
+        return loaded.value;
+    }
+
+    private static class Loaded<V> {
+        private final V value;
+        private final long loadTime;
+
+        Loaded(V value, long loadTime) {
+            this.value = value;
+            this.loadTime = loadTime;
+        }
+    }
+
+    private Collection<Guid> getEngineSessionsGroups(Guid userId) {
+        Map<Long, Collection<Guid>> groupsByEngineSession = groupsByUserEngineSession.get(userId);
+        if (groupsByEngineSession == null) {
+            return Collections.emptySet();
+        }
+        Set<Guid> groupIds = new HashSet<>();
+        groupsByEngineSession.values().forEach(groupIds::addAll);
+        // the groups removed from the engine don't count, as in getUserAndGroupsById
+        groupIds.removeIf(groupId -> !isExistingGroup(groupId));
+        return groupIds;
+    }
+
+    /**
+     * Adds the groups of the user of a new engine session to the groups of the user
+     */
+    public void addEngineSession(long engineSessionSeqId, Guid userId, Collection<Guid> groupIds) {
+        engineSessionUsers.put(engineSessionSeqId, userId);
+        groupsByUserEngineSession.compute(userId, (id, groupsByEngineSession) -> {
+            Map<Long, Collection<Guid>> updated =
+                    groupsByEngineSession == null ? new HashMap<>() : new HashMap<>(groupsByEngineSession);
+            updated.put(engineSessionSeqId, new ArrayList<>(groupIds));
+            return updated;
+        });
+    }
+
+    public void removeEngineSession(long engineSessionSeqId) {
+        Guid userId = engineSessionUsers.remove(engineSessionSeqId);
+        if (userId != null) {
+            groupsByUserEngineSession.computeIfPresent(userId, (id, groupsByEngineSession) -> {
+                Map<Long, Collection<Guid>> updated = new HashMap<>(groupsByEngineSession);
+                updated.remove(engineSessionSeqId);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    /**
+     * Invalidates the permissions of the ad element of the given permission, to be called when it is added or
+     * removed. They are invalidated again when the current transaction completes, so a concurrent load can't keep
+     * the permissions as they were before the transaction was committed or rolled back.
+     */
+    public void invalidatePermission(Permission permission) {
+        invalidate(() -> permissionsByAdElement.remove(permission.getAdElementId()));
+    }
+
+    /**
+     * Invalidates the action groups of the role, to be called when they change
+     */
+    public void invalidateRole(Guid roleId) {
+        invalidate(() -> actionGroupsByRole.remove(roleId));
+    }
+
+    /**
+     * Invalidates what the given action may have changed in the database without the engine invalidating it
+     * explicitly: the parents of the objects it moved, and the permissions of the objects it removed, which the
+     * database removes along with them, or the groups it added or removed. To be called whenever an action is
+     * executed or ended.
+     */
+    public void invalidateChangedBy(ActionType actionType) {
+        if (HIERARCHY_CHANGING_ACTIONS.contains(actionType)) {
+            invalidate(() -> {
+                parentsByObject.clear();
+                permissionsByAdElement.clear();
+            });
+        }
+        if (GROUP_CHANGING_ACTIONS.contains(actionType)) {
+            invalidate(existingGroups::clear);
+        }
+    }
+
+    private void invalidate(Runnable invalidation) {
+        generation.incrementAndGet();
+        invalidation.run();
+        transactionCompletionInvalidator.invalidateOnCompletion(() -> {
+            generation.incrementAndGet();
+            invalidation.run();
+        });
+    }
+}
@@ -25,6 +25,8 @@ public class RemovePermissionCommand<T extends PermissionsOperationsParameters>
     @Inject
     private PermissionDao permissionDao;
     @Inject
+    private PermissionGraph permissionGraph;
+    @Inject
     private DbUserDao dbUserDao;
     @Inject
     private VmDao vmDao;
@@ -89,6 +91,7 @@ public class RemovePermissionCommand<T extends PermissionsOperationsParameters>
 
         vmStaticDao.incrementDbGeneration(perms.getObjectId());
         permissionDao.remove(perms.getId());
+        permissionGraph.invalidatePermission(perms);
         dbUserDao.updateLastAdminCheckStatus(userId);
         setSucceeded(true);
     }
@@ -15,6 +15,8 @@ public class RemoveRoleCommand<T extends RolesParameterBase> extends RolesComman
     private PermissionDao permissionDao;
     @Inject
     private RoleDao roleDao;
+    @Inject
+    private PermissionGraph permissionGraph;
 
     public RemoveRoleCommand(T parameters, CommandContext commandContext) {
         super(parameters, commandContext);
@@ -49,6 +51,7 @@ public class RemoveRoleCommand<T extends RolesParameterBase> extends RolesComman
     protected void executeCommand() {
         // cache role for logging
         roleDao.remove(getRole().getId());
+        permissionGraph.invalidateRole(getRole().getId());
         setSucceeded(true);
     }
 }
@@ -84,17 +84,21 @@ import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.dao.network.VnicProfileViewDao;
 import org.ovirt.engine.core.dao.provider.ProviderDao;
 import org.ovirt.engine.core.searchbackend.ISyntaxChecker;
+import org.ovirt.engine.core.searchbackend.SearchObjectAutoCompleter;
 import org.ovirt.engine.core.searchbackend.SearchObjects;
 import org.ovirt.engine.core.searchbackend.SyntaxCheckerFactory;
 import org.ovirt.engine.core.searchbackend.SyntaxContainer;
 import org.ovirt.engine.core.searchbackend.SyntaxError;
+import org.ovirt.engine.core.utils.SearchCursor;
 import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManager;
 
 public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<P> {
-    private static final Map<String, QueryData> queriesCache = new HashMap<>();
     public static final String LDAP = "LDAP";
 
+    @Inject
+    private SearchQueryCache queriesCache;
+
     @Inject
     private QuotaManager quotaManager;
 
@@ -521,11 +525,18 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 throw new RuntimeException(String.format("Illegal max count value for query : %s", getParameters().getMaxCount()));
             }
             String searchText = getParameters().getSearchPattern();
-            // do not cache expressions with '*' since it is translated to specific IDs that might be changed
-            useCache = useCache && !searchText.contains(ASTR);
+            String searchAfter = getParameters().getSearchAfter();
+            // do not cache expressions with '*' since it is translated to specific IDs that might be changed, nor
+            // pages after a keyset cursor, since each one of them is only used once
+            useCache = useCache && !searchText.contains(ASTR) && StringUtils.isEmpty(searchAfter);
             if (useCache) {
                 // first lets check the cache of queries.
-                searchKey = String.format("%1$s,%2$s,%3$s", searchText, getParameters().getMaxCount(), getParameters().getCaseSensitive());
+                searchKey = String.format("%1$s,%2$s,%3$s,%4$s,%5$s",
+                        searchText.trim(),
+                        getParameters().getMaxCount(),
+                        getParameters().getCaseSensitive(),
+                        getParameters().getSearchFrom(),
+                        searchAfter != null);
                 data = queriesCache.get(searchKey);
                 isExistsValue = data != null;
 
@@ -593,6 +604,10 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 searchObj.setMaxCount(Math.min(Integer.MAX_VALUE, getParameters().getMaxCount()));
                 // setting FromSearch value
                 searchObj.setSearchFrom(getParameters().getSearchFrom());
+                // paging with the keyset, if the caller walks the results with a cursor
+                if (searchAfter != null) {
+                    searchObj.setKeysetPaging(true);
+                }
                 if (searchObj.getError() != SyntaxError.NO_ERROR) {
                     int startPos = searchObj.getErrorStartPos();
                     int endPos = searchObj.getErrorEndPos();
@@ -609,7 +624,7 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                                     :
                                     searchObj.getError().toString();
                     getQueryReturnValue().setExceptionString(error);
-                    if (!queriesCache.containsKey(searchKey)) {
+                    if (!queriesCache.contains(searchKey)) {
                         // log error only once
                         log.info(
                                 "ResourceManager::searchBusinessObjects - erroneous search text - ''{}'' error - ''{}''",
@@ -617,17 +632,29 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                                 error);
                         // add search to the cache in order not process it again in case that
                         // this query is scheduled to be called repeatedly
-                        queriesCache.put(searchKey, null);
+                        queriesCache.putErroneous(searchKey);
                     }
                     return null;
                 }
                 if (!searchObj.getvalid()) {
-                    if (!queriesCache.containsKey(searchKey)) {
+                    if (!queriesCache.contains(searchKey)) {
                         log.warn("ResourceManager::searchBusinessObjects - Invalid search text - ''{}''", searchText);
-                        queriesCache.put(searchKey, null);
+                        queriesCache.putErroneous(searchKey);
                     }
                     return null;
                 }
+                // setting the keyset cursor, which has to point to a primary key of the searched entities
+                if (StringUtils.isNotEmpty(searchAfter)) {
+                    try {
+                        searchObj.setSearchAfter(SearchCursor.toSqlLiteral(searchAfter,
+                                SearchObjectAutoCompleter.isNumericPrimaryKey(searchObj.getSearchObjectStr())));
+                    } catch (IllegalArgumentException e) {
+                        log.info("ResourceManager::searchBusinessObjects - invalid search cursor - ''{}''",
+                                searchAfter);
+                        getQueryReturnValue().setExceptionString("Invalid search cursor");
+                        return null;
+                    }
+                }
                 // find if this is a trivial search expression (like 'Vms:' etc).
                 isSafe = SearchObjects.isSafeExpression(searchText);
                 // An expression is considered safe if matches a trivial search.
@@ -644,23 +671,23 @@ public class SearchQuery<P extends SearchParameters> extends QueriesCommandBase<
                 }
             }
         } catch (SearchEngineIllegalCharacterException e) {
-            if (!queriesCache.containsKey(searchKey)) {
+            if (!queriesCache.contains(searchKey)) {
                 log.error("Search expression can not end with ESCAPE character: {}",
                         getParameters().getSearchPattern());
-                queriesCache.put(searchKey, null);
+                queriesCache.putErroneous(searchKey);
             }
             data = null;
         } catch (SqlInjectionException e) {
-            if (!queriesCache.containsKey(searchKey)) {
+            if (!queriesCache.contains(searchKey)) {
                 log.error("Sql Injection in search: {}", getParameters().getSearchPattern());
-                queriesCache.put(searchKey, null);
+                queriesCache.putErroneous(searchKey);
             }
             data = null;
         } catch (RuntimeException ex) {
-            if (!queriesCache.containsKey(searchKey)) {
+            if (!queriesCache.contains(searchKey)) {
                 log.warn("Illegal search: {}: {}", getParameters().getSearchPattern(), ex.getMessage());
                 log.debug("Exception", ex);
-                queriesCache.put(searchKey, null);
+                queriesCache.putErroneous(searchKey);
             }
             throw ex;
         }
@@ -0,0 +1,191 @@
+package org.ovirt.engine.core.bll;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.aaa.QueryData;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the SQL generated for search expressions, so expressions that are searched repeatedly are parsed once.
+ *
+ * The cache holds up to SearchQueryCacheSize expressions. It is split into segments by the hash of the expression,
+ * each guarded by its own lock, so concurrent searches of different expressions rarely wait for each other. A full
+ * segment evicts its least recently used expression, so the eviction order is LRU within each segment.
+ * Expressions that failed to parse are kept as well, marked as erroneous, so the failure is logged once.
+ * The generated SQL depends on the configuration, so the cache is cleared when the configuration is reloaded.
+ */
+@Singleton
+public class SearchQueryCache implements StatisticsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchQueryCache.class);
+
+    private static final QueryData ERRONEOUS = new QueryData();
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_ENTRIES_PER_SEGMENT = 64;
+
+    private Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("SearchQuery", this);
+
+    public SearchQueryCache() {
+    }
+
+    SearchQueryCache(int maxSize) {
+        segments = createSegments(maxSize);
+    }
+
+    @PostConstruct
+    public void init() {
+        segments = createSegments(Config.<Integer> getValue(ConfigValues.SearchQueryCacheSize));
+        jmxRegistration.register();
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    private Segment[] createSegments(int maxSize) {
+        int count = Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_ENTRIES_PER_SEGMENT));
+        Segment[] result = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // Spread the remainder, so the capacities of the segments add up to the maximal size
+            result[i] = new Segment(maxSize / count + (i < maxSize % count ? 1 : 0));
+        }
+        return result;
+    }
+
+    private Segment segmentFor(String searchKey) {
+        int hash = searchKey.hashCode();
+        hash ^= hash >>> 16;
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    /**
+     * @return the cached query data of the search key, or {@code null} if the key is not cached or is erroneous
+     */
+    public QueryData get(String searchKey) {
+        QueryData data = segmentFor(searchKey).get(searchKey);
+        if (data == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return data == ERRONEOUS ? null : data;
+    }
+
+    public boolean contains(String searchKey) {
+        return segmentFor(searchKey).containsKey(searchKey);
+    }
+
+    public void put(String searchKey, QueryData data) {
+        segmentFor(searchKey).put(searchKey, data);
+    }
+
+    /**
+     * Marks the search key as erroneous, so its error is reported once
+     */
+    public void putErroneous(String searchKey) {
+        segmentFor(searchKey).put(searchKey, ERRONEOUS);
+    }
+
+    public void invalidate() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        log.debug("Search query cache was invalidated");
+    }
+
+    private long getHits() {
+        return hits.sum();
+    }
+
+    private long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        long hitCount = getHits();
+        long missCount = getMisses();
+        long total = hitCount + missCount;
+        return Arrays.asList(
+                "size: " + size(),
+                "hits: " + hitCount,
+                "misses: " + missCount,
+                "hit ratio: " + (total == 0 ? 0 : hitCount * 100 / total) + "%",
+                "evictions: " + evictions.sum());
+    }
+
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Least recently used part of the cache, guarded by its own lock
+     */
+    private class Segment {
+        private final Map<String, QueryData> entries;
+
+        Segment(final int maxSize) {
+            entries = new LinkedHashMap<String, QueryData>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, QueryData> eldest) {
+                    if (size() > maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized QueryData get(String searchKey) {
+            return entries.get(searchKey);
+        }
+
+        synchronized boolean containsKey(String searchKey) {
+            return entries.containsKey(searchKey);
+        }
+
+        synchronized void put(String searchKey, QueryData data) {
+            entries.put(searchKey, data);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -62,6 +62,8 @@ import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.errors.EngineMessage;
 import org.ovirt.engine.core.common.locks.LockingGroup;
 import org.ovirt.engine.core.common.osinfo.OsRepository;
+import org.ovirt.engine.core.common.qualifiers.ClusterNetworksUpdated;
+import org.ovirt.engine.core.common.qualifiers.ClusterUpdated;
 import org.ovirt.engine.core.common.qualifiers.MomPolicyUpdate;
 import org.ovirt.engine.core.common.utils.ClusterEmulatedMachines;
 import org.ovirt.engine.core.common.utils.CompatibilityVersionUtils;
@@ -94,6 +96,12 @@ public class UpdateClusterCommand<T extends ClusterOperationParameters> extends
     @MomPolicyUpdate
     private Event<Cluster> momPolicyUpdatedEvent;
     @Inject
+    @ClusterUpdated
+    private Event<Guid> clusterUpdatedEvent;
+    @Inject
+    @ClusterNetworksUpdated
+    private Event<Guid> clusterNetworksUpdatedEvent;
+    @Inject
     private MoveMacs moveMacs;
     @Inject
     private InitGlusterCommandHelper glusterCommandHelper;
@@ -355,6 +363,7 @@ public class UpdateClusterCommand<T extends ClusterOperationParameters> extends
             getCompensationContext().stateChanged();
             return null;
         });
+        clusterUpdatedEvent.fire(getCluster().getId());
 
         if (isAddedToStoragePool) {
             if (!addVdsSpmIdForAllHosts()) {
@@ -368,6 +377,7 @@ public class UpdateClusterCommand<T extends ClusterOperationParameters> extends
                 getCompensationContext().stateChanged();
                 return null;
             });
+            clusterNetworksUpdatedEvent.fire(getCluster().getId());
         }
 
         if (!updateVmsAndTemplates()) {
@@ -18,6 +18,7 @@ import org.ovirt.engine.core.aaa.AuthenticationProfileRepository;
 import org.ovirt.engine.core.aaa.CreateUserSessionsError;
 import org.ovirt.engine.core.bll.CommandBase;
 import org.ovirt.engine.core.bll.NonTransactiveCommandAttribute;
+import org.ovirt.engine.core.bll.PermissionGraph;
 import org.ovirt.engine.core.bll.context.CommandContext;
 import org.ovirt.engine.core.bll.utils.PermissionSubject;
 import org.ovirt.engine.core.common.AuditLogType;
@@ -29,7 +30,6 @@ import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.DbGroupDao;
 import org.ovirt.engine.core.dao.DbUserDao;
-import org.ovirt.engine.core.dao.PermissionDao;
 import org.ovirt.engine.core.dao.RoleDao;
 import org.ovirt.engine.core.utils.EngineLocalConfig;
 
@@ -42,7 +42,7 @@ public class CreateUserSessionCommand<T extends CreateUserSessionParameters> ext
     @Inject
     private SessionDataContainer sessionDataContainer;
     @Inject
-    private PermissionDao permissionDao;
+    private PermissionGraph permissionGraph;
     @Inject
     private DbUserDao dbUserDao;
     @Inject
@@ -127,8 +127,8 @@ public class CreateUserSessionCommand<T extends CreateUserSessionParameters> ext
             if (getParameters().isAdminRequired() && !isAdmin) {
                 setActionReturnValue(CreateUserSessionsError.USER_NOT_AUTHORIZED);
                 setSucceeded(false);
-            } else if (permissionDao.getEntityPermissionsForUserAndGroups(user.getId(),
-                    StringUtils.join(user.getGroupIds(), ","),
+            } else if (permissionGraph.getEntityPermissionsForUserAndGroups(user.getId(),
+                    user.getGroupIds(),
                     ActionGroup.LOGIN,
                     BOTTOM_OBJECT_ID,
                     VdcObjectType.Bottom,
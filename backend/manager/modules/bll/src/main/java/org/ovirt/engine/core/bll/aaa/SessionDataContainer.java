@@ -4,15 +4,14 @@ import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
@@ -28,6 +27,7 @@ import org.ovirt.engine.core.aaa.AcctUtils;
 import org.ovirt.engine.core.aaa.AuthenticationProfile;
 import org.ovirt.engine.core.aaa.AuthenticationProfileRepository;
 import org.ovirt.engine.core.aaa.SsoOAuthServiceUtils;
+import org.ovirt.engine.core.bll.PermissionGraph;
 import org.ovirt.engine.core.common.businessentities.EngineSession;
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.common.config.Config;
@@ -49,15 +49,36 @@ public class SessionDataContainer {
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
     private ManagedScheduledExecutorService scheduledExecutorService;
 
+    @Inject
+    private SessionDataContainerStatistics statistics;
+
+    @Inject
+    private PermissionGraph permissionGraph;
+
     private static class SessionInfo {
+        private final String sessionId;
         private ConcurrentMap<String, Object> contentOfSession = new ConcurrentHashMap<>();
 
+        private SessionInfo(String sessionId) {
+            this.sessionId = sessionId;
+        }
     }
 
     protected Logger log = LoggerFactory.getLogger(getClass());
 
+    private static final long CLEANUP_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
     private ConcurrentMap<String, SessionInfo> sessionInfoMap = new ConcurrentHashMap<>();
 
+    /*
+     * The indexes below are only updated while holding the entry of the session in sessionInfoMap, so they are
+     * consistent with the map
+     */
+    private ConcurrentMap<Long, String> sessionIdsBySeqId = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, Set<String>> sessionIdsBySsoAccessToken = new ConcurrentHashMap<>();
+
+    private SessionExpiryQueue expiryQueue = new SessionExpiryQueue(CLEANUP_INTERVAL);
+
     private static final String USER_PARAMETER_NAME = "user";
     private static final String SOURCE_IP = "source_ip";
     private static final String PROFILE_PARAMETER_NAME = "profile";
@@ -76,14 +97,23 @@ public class SessionDataContainer {
     private static final String OVIRT_APP_ADMIN_SCOPE = "ovirt-app-admin";
     private static final String OVIRT_APP_PORTAL_SCOPE = "ovirt-app-portal";
 
+    /**
+     * The parameters the expiry time of a session depends on
+     */
+    private static final Set<String> EXPIRY_PARAMETER_NAMES = new HashSet<>(Arrays.asList(
+            HARD_LIMIT_PARAMETER_NAME,
+            SOFT_LIMIT_PARAMETER_NAME,
+            SESSION_VALID_PARAMETER_NAME,
+            SSO_ACCESS_TOKEN_PARAMETER_NAME));
+
     @Inject
     private EngineSessionDao engineSessionDao;
 
     @PostConstruct
     private void init() {
         scheduledExecutorService.scheduleAtFixedRate(this::cleanExpiredUsersSessions,
-                1,
-                1, TimeUnit.MINUTES);
+                CLEANUP_INTERVAL,
+                CLEANUP_INTERVAL, TimeUnit.MILLISECONDS);
 
     }
 
@@ -124,7 +154,7 @@ public class SessionDataContainer {
     public final void setData(String sessionId, String key, Object value) {
         SessionInfo sessionInfo = getSessionInfo(sessionId);
         if (sessionInfo == null) {
-            sessionInfo = new SessionInfo();
+            sessionInfo = new SessionInfo(sessionId);
             sessionInfo.contentOfSession.put(ENGINE_SESSION_ID, sessionId);
             // Add default soft-limit interval for new sessions
             sessionInfo.contentOfSession.put(SOFT_LIMIT_INTERVAL_PARAMETER_NAME,
@@ -132,9 +162,38 @@ public class SessionDataContainer {
             SessionInfo oldSessionInfo = sessionInfoMap.putIfAbsent(sessionId, sessionInfo);
             if (oldSessionInfo != null) {
                 sessionInfo = oldSessionInfo;
+            } else {
+                statistics.recordSessionCreated();
+            }
+        }
+        if (SSO_ACCESS_TOKEN_PARAMETER_NAME.equals(key)) {
+            setIndexedSsoAccessToken(sessionId, (String) value);
+        } else {
+            sessionInfo.contentOfSession.put(key, value);
+        }
+        if (EXPIRY_PARAMETER_NAMES.contains(key)) {
+            scheduleExpiry(sessionInfo);
+        }
+    }
+
+    private void setIndexedSsoAccessToken(String sessionId, String ssoToken) {
+        sessionInfoMap.computeIfPresent(sessionId, (id, sessionInfo) -> {
+            String oldSsoToken = (String) sessionInfo.contentOfSession.put(SSO_ACCESS_TOKEN_PARAMETER_NAME, ssoToken);
+            if (!ssoToken.equals(oldSsoToken)) {
+                removeFromSsoAccessTokenIndex(id, oldSsoToken);
+                sessionIdsBySsoAccessToken.computeIfAbsent(ssoToken, token -> ConcurrentHashMap.newKeySet()).add(id);
             }
+            return sessionInfo;
+        });
+    }
+
+    private void removeFromSsoAccessTokenIndex(String sessionId, String ssoToken) {
+        if (ssoToken != null) {
+            sessionIdsBySsoAccessToken.computeIfPresent(ssoToken, (token, sessionIds) -> {
+                sessionIds.remove(sessionId);
+                return sessionIds.isEmpty() ? null : sessionIds;
+            });
         }
-        sessionInfo.contentOfSession.put(key, value);
     }
 
     private SessionInfo getSessionInfo(String sessionId) {
@@ -144,8 +203,17 @@ public class SessionDataContainer {
     private void persistEngineSession(String sessionId) {
         SessionInfo sessionInfo = getSessionInfo(sessionId);
         if (sessionInfo != null) {
-            sessionInfo.contentOfSession.put(ENGINE_SESSION_SEQ_ID,
-                    engineSessionDao.save(new EngineSession(getUser(sessionId, false), sessionId, getSourceIp(sessionId))));
+            DbUser user = getUser(sessionId, false);
+            long seqId = engineSessionDao.save(new EngineSession(user, sessionId, getSourceIp(sessionId)));
+            permissionGraph.addEngineSession(seqId, user.getId(), user.getGroupIds());
+            sessionInfoMap.computeIfPresent(sessionId, (id, info) -> {
+                Long oldSeqId = (Long) info.contentOfSession.put(ENGINE_SESSION_SEQ_ID, seqId);
+                if (oldSeqId != null) {
+                    sessionIdsBySeqId.remove(oldSeqId, id);
+                }
+                sessionIdsBySeqId.put(seqId, id);
+                return info;
+            });
             setSessionStartTime(sessionId);
         }
     }
@@ -158,44 +226,34 @@ public class SessionDataContainer {
     }
 
     public String getSessionIdBySeqId(long sessionSequenceId) {
-        String sessionId = null;
-        for (SessionInfo sessionInfo : sessionInfoMap.values()) {
-            if (Long.valueOf(sessionSequenceId).equals(sessionInfo.contentOfSession.get(ENGINE_SESSION_SEQ_ID))) {
-                sessionId = (String) sessionInfo.contentOfSession.get(ENGINE_SESSION_ID);
-                break;
-            }
-        }
-        return sessionId;
+        return sessionIdsBySeqId.get(sessionSequenceId);
     }
 
     public String getSessionIdBySsoAccessToken(String ssoToken) {
         String sessionId = null;
         if (StringUtils.isNotEmpty(ssoToken)) {
-            for (SessionInfo sessionInfo : sessionInfoMap.values()) {
-                if (ssoToken.equals(sessionInfo.contentOfSession.get(SSO_ACCESS_TOKEN_PARAMETER_NAME))) {
-                    sessionId = (String) sessionInfo.contentOfSession.get(ENGINE_SESSION_ID);
-                    break;
-                }
-            }
+            sessionId = getSessionIdsBySsoAccessToken(ssoToken).stream().findFirst().orElse(null);
         }
         return sessionId;
     }
 
+    private Set<String> getSessionIdsBySsoAccessToken(String ssoToken) {
+        Set<String> sessionIds = sessionIdsBySsoAccessToken.get(ssoToken);
+        return sessionIds == null ? Collections.emptySet() : new HashSet<>(sessionIds);
+    }
+
     public void cleanupEngineSessionsOnStartup() {
         engineSessionDao.removeAll();
     }
 
     public void cleanupEngineSessionsForSsoAccessToken(String ssoAccessToken) {
         if (StringUtils.isNotEmpty(ssoAccessToken)) {
-            Iterator<Entry<String, SessionInfo>> iter = sessionInfoMap.entrySet().iterator();
-            while (iter.hasNext()) {
-                Entry<String, SessionInfo> entry = iter.next();
-                ConcurrentMap<String, Object> sessionMap = entry.getValue().contentOfSession;
-                if (ssoAccessToken.equals(sessionMap.get(SSO_ACCESS_TOKEN_PARAMETER_NAME))) {
-                    removeSessionImpl(entry.getKey(),
+            for (String sessionId : getSessionIdsBySsoAccessToken(ssoAccessToken)) {
+                if (isSessionExists(sessionId)) {
+                    removeSessionImpl(sessionId,
                             Acct.ReportReason.PRINCIPAL_SESSION_EXPIRED,
                             "Session has expired for principal %1$s",
-                            getUserName(entry.getKey()));
+                            getUserName(sessionId));
                 }
             }
         }
@@ -227,39 +285,95 @@ public class SessionDataContainer {
     }
 
     public final void cleanExpiredUsersSessionsImpl() {
+        long start = System.nanoTime();
+        int expired = 0;
         Date now = new Date();
-        Iterator<Entry<String, SessionInfo>>  iter = sessionInfoMap.entrySet().iterator();
-        Set<String> tokens = sessionInfoMap.values().stream()
-                .map(sessionInfo -> (String) sessionInfo.contentOfSession.get(SSO_ACCESS_TOKEN_PARAMETER_NAME))
-                .collect(Collectors.toSet());
         // retrieve session statues from SSO
-        Map<String, Boolean> sessionStatuses = ssoSessionValidator.getSessionStatuses(tokens);
+        Map<String, Boolean> sessionStatuses =
+                ssoSessionValidator.getSessionStatuses(new HashSet<>(sessionIdsBySsoAccessToken.keySet()));
+
+        // sessions whose token is no longer valid in SSO are removed regardless of their limits
+        for (Map.Entry<String, Boolean> sessionStatus : sessionStatuses.entrySet()) {
+            if (!sessionStatus.getValue()) {
+                for (String sessionId : getSessionIdsBySsoAccessToken(sessionStatus.getKey())) {
+                    if (isSessionExists(sessionId) && removeExpiredSession(sessionId)) {
+                        expired++;
+                    }
+                }
+            }
+        }
 
-        while (iter.hasNext()) {
-            Entry<String, SessionInfo> entry = iter.next();
-            ConcurrentMap<String, Object> sessionMap = entry.getValue().contentOfSession;
-            Date hardLimit = (Date) sessionMap.get(HARD_LIMIT_PARAMETER_NAME);
-            Date softLimit = (Date) sessionMap.get(SOFT_LIMIT_PARAMETER_NAME);
+        // the rest of the sessions are only checked once their limits may have passed or they were invalidated
+        for (String sessionId : expiryQueue.pollExpired(now.getTime())) {
+            SessionInfo sessionInfo = getSessionInfo(sessionId);
+            if (sessionInfo == null) {
+                continue;
+            }
+            ConcurrentMap<String, Object> sessionMap = sessionInfo.contentOfSession;
             String token = (String) sessionMap.get(SSO_ACCESS_TOKEN_PARAMETER_NAME);
+            // sessions without a token are not cleaned, they are scheduled again once a token is set for them
+            if (StringUtils.isEmpty(token)) {
+                continue;
+            }
             // if the session was created after the tokens statuses were retrieved from the server, the token will not
             // have a session status in the sessionStatuses map. The session for the token will be checked and cleaned
             // in the next iteration.
             if (!sessionStatuses.containsKey(token)) {
+                expiryQueue.schedule(sessionId, now.getTime() + CLEANUP_INTERVAL);
                 continue;
             }
-            boolean sessionValid = StringUtils.isEmpty(token) ? false : sessionStatuses.get(token);
-            if (hardLimit != null && hardLimit.before(now) || softLimit != null && softLimit.before(now) ||
-                    !(boolean) sessionMap.get(SESSION_VALID_PARAMETER_NAME) ||
-                    !sessionValid) {
-                removeSessionImpl(entry.getKey(),
-                        Acct.ReportReason.PRINCIPAL_SESSION_EXPIRED,
-                        "Session has expired for principal %1$s",
-                        getUserName(entry.getKey()));
-                if (sessionValid) {
-                   SsoOAuthServiceUtils.revoke((String) sessionMap.get(SSO_ACCESS_TOKEN_PARAMETER_NAME), "");
-                }
+            if (!sessionStatuses.get(token)) {
+                continue;
+            }
+            if (getExpiryTime(sessionInfo) > now.getTime()) {
+                scheduleExpiry(sessionInfo);
+            } else if (removeExpiredSession(sessionId)) {
+                expired++;
+                SsoOAuthServiceUtils.revoke(token, "");
+            } else {
+                // the session is in use, it will be checked again in the next iteration
+                expiryQueue.schedule(sessionId, now.getTime() + CLEANUP_INTERVAL);
             }
         }
+        statistics.recordCleanup(expired, System.nanoTime() - start);
+    }
+
+    private boolean removeExpiredSession(String sessionId) {
+        return removeSessionImpl(sessionId,
+                Acct.ReportReason.PRINCIPAL_SESSION_EXPIRED,
+                "Session has expired for principal %1$s",
+                getUserName(sessionId));
+    }
+
+    /**
+     * @return the time the session expires at in milliseconds since the epoch, or {@link Long#MAX_VALUE} if the
+     * session has no limits
+     */
+    private long getExpiryTime(SessionInfo sessionInfo) {
+        ConcurrentMap<String, Object> sessionMap = sessionInfo.contentOfSession;
+        Boolean sessionValid = (Boolean) sessionMap.get(SESSION_VALID_PARAMETER_NAME);
+        if (sessionValid != null && !sessionValid) {
+            return 0;
+        }
+        long expiryTime = Long.MAX_VALUE;
+        Date hardLimit = (Date) sessionMap.get(HARD_LIMIT_PARAMETER_NAME);
+        if (hardLimit != null) {
+            expiryTime = hardLimit.getTime();
+        }
+        Date softLimit = (Date) sessionMap.get(SOFT_LIMIT_PARAMETER_NAME);
+        if (softLimit != null) {
+            expiryTime = Math.min(expiryTime, softLimit.getTime());
+        }
+        return expiryTime;
+    }
+
+    private void scheduleExpiry(SessionInfo sessionInfo) {
+        long expiryTime = getExpiryTime(sessionInfo);
+        if (expiryTime == Long.MAX_VALUE) {
+            expiryQueue.unschedule(sessionInfo.sessionId);
+        } else {
+            expiryQueue.schedule(sessionInfo.sessionId, expiryTime);
+        }
     }
 
     /**
@@ -419,6 +533,7 @@ public class SessionDataContainer {
         if (softLimitValue > 0) {
             sessionInfo.contentOfSession.put(SOFT_LIMIT_PARAMETER_NAME,
                     DateUtils.addMinutes(new Date(), softLimitValue));
+            scheduleExpiry(sessionInfo);
         }
     }
 
@@ -426,7 +541,10 @@ public class SessionDataContainer {
         return StringUtils.isEmpty(sessionId) ? false : sessionInfoMap.containsKey(sessionId);
     }
 
-    private void removeSessionImpl(String sessionId, int reason, String message, Object... msgArgs) {
+    /**
+     * @return {@code true} if the session was removed, {@code false} if it is in use
+     */
+    private boolean removeSessionImpl(String sessionId, int reason, String message, Object... msgArgs) {
 
         // Only remove session if there are no running commands for this session
         if (ssoSessionUtils.isSessionInUse(getEngineSessionSeqId(sessionId))) {
@@ -434,7 +552,7 @@ public class SessionDataContainer {
             log.info("Not removing session '{}', session has running commands{}",
                     sessionId,
                     dbUser == null ? "." : String.format(" for user '%s@%s'.", dbUser.getLoginName(), dbUser.getDomain()));
-            return;
+            return false;
         }
 
         /*
@@ -451,8 +569,29 @@ public class SessionDataContainer {
                 message,
                 msgArgs
                 );
-        engineSessionDao.remove(getEngineSessionSeqId(sessionId));
-        sessionInfoMap.remove(sessionId);
+        long seqId = getEngineSessionSeqId(sessionId);
+        engineSessionDao.remove(seqId);
+        permissionGraph.removeEngineSession(seqId);
+        removeSessionInfo(sessionId);
+        return true;
+    }
+
+    private void removeSessionInfo(String sessionId) {
+        AtomicBoolean removed = new AtomicBoolean();
+        sessionInfoMap.computeIfPresent(sessionId, (id, sessionInfo) -> {
+            Long seqId = (Long) sessionInfo.contentOfSession.get(ENGINE_SESSION_SEQ_ID);
+            if (seqId != null) {
+                sessionIdsBySeqId.remove(seqId, id);
+            }
+            removeFromSsoAccessTokenIndex(id,
+                    (String) sessionInfo.contentOfSession.get(SSO_ACCESS_TOKEN_PARAMETER_NAME));
+            removed.set(true);
+            return null;
+        });
+        if (removed.get()) {
+            expiryQueue.unschedule(sessionId);
+            statistics.recordSessionRemoved();
+        }
     }
 
     class SsoSessionValidator {
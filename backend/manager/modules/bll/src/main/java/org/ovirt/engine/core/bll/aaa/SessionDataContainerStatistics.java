@@ -0,0 +1,106 @@
+package org.ovirt.engine.core.bll.aaa;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+
+/**
+ * Counts the engine sessions kept by {@link SessionDataContainer}, and collects the duration of the cleanups of the
+ * expired sessions.
+ */
+@Singleton
+public class SessionDataContainerStatistics implements StatisticsMXBean {
+
+    private final AtomicLong sessions = new AtomicLong();
+    private final LongAdder createdSessions = new LongAdder();
+    private final LongAdder removedSessions = new LongAdder();
+    private final LongAdder expiredSessions = new LongAdder();
+    private final LongAdder cleanups = new LongAdder();
+    private final LongAdder cleanupsDuration = new LongAdder();
+    private final LongAccumulator maxCleanupDuration = new LongAccumulator(Math::max, 0);
+    private volatile long lastCleanupDuration;
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("SessionDataContainer", this);
+
+    @PostConstruct
+    public void registerInJMX() {
+        jmxRegistration.register();
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    public void recordSessionCreated() {
+        sessions.incrementAndGet();
+        createdSessions.increment();
+    }
+
+    public void recordSessionRemoved() {
+        sessions.decrementAndGet();
+        removedSessions.increment();
+    }
+
+    /**
+     * Records a cleanup of the expired sessions
+     * @param expired - number of sessions removed by the cleanup
+     * @param duration - the duration of the cleanup in nanoseconds
+     */
+    public void recordCleanup(int expired, long duration) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(duration);
+        expiredSessions.add(expired);
+        cleanups.increment();
+        cleanupsDuration.add(millis);
+        maxCleanupDuration.accumulate(millis);
+        lastCleanupDuration = millis;
+    }
+
+    private long getSessions() {
+        return sessions.get();
+    }
+
+    private long getExpiredSessions() {
+        return expiredSessions.sum();
+    }
+
+    private long getCleanups() {
+        return cleanups.sum();
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        long count = getCleanups();
+        return Arrays.asList(
+                "sessions: " + getSessions(),
+                "created sessions: " + createdSessions.sum(),
+                "removed sessions: " + removedSessions.sum(),
+                "expired sessions: " + getExpiredSessions(),
+                String.format("cleanups: %d, last: %d ms, average: %d ms, max: %d ms",
+                        count,
+                        lastCleanupDuration,
+                        count == 0 ? 0 : cleanupsDuration.sum() / count,
+                        maxCleanupDuration.get()));
+    }
+
+    @Override
+    public void reset() {
+        createdSessions.reset();
+        removedSessions.reset();
+        expiredSessions.reset();
+        cleanups.reset();
+        cleanupsDuration.reset();
+        maxCleanupDuration.reset();
+        lastCleanupDuration = 0;
+    }
+}
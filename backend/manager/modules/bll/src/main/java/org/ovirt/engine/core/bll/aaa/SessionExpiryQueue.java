@@ -0,0 +1,91 @@
+package org.ovirt.engine.core.bll.aaa;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the sessions of {@link SessionDataContainer} in buckets of the time they expire at, so the sessions that
+ * may have expired can be found without going over all the sessions. The buckets are as long as the interval
+ * between the cleanups of the expired sessions, so rescheduling a session that is refreshed many times within a
+ * bucket doesn't touch the buckets.
+ */
+class SessionExpiryQueue {
+
+    private final long bucketLength;
+    private final TreeMap<Long, Set<String>> buckets = new TreeMap<>();
+    private final Map<String, Long> sessionBuckets = new HashMap<>();
+    /**
+     * A copy of {@link #sessionBuckets} that can be read without locking the queue
+     */
+    private final ConcurrentMap<String, Long> scheduledBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param bucketLength - the length of each bucket in milliseconds
+     */
+    SessionExpiryQueue(long bucketLength) {
+        this.bucketLength = bucketLength;
+    }
+
+    /**
+     * Schedules the session to be returned by {@link #pollExpired(long)} once the given time passes, replacing any
+     * previous schedule of the session
+     * @param expiryTime - the time the session expires at, in milliseconds since the epoch
+     */
+    void schedule(String sessionId, long expiryTime) {
+        Long bucket = expiryTime / bucketLength;
+        if (bucket.equals(scheduledBuckets.get(sessionId))) {
+            return;
+        }
+        synchronized (this) {
+            removeFromBucket(sessionId, sessionBuckets.put(sessionId, bucket));
+            buckets.computeIfAbsent(bucket, b -> new HashSet<>()).add(sessionId);
+            scheduledBuckets.put(sessionId, bucket);
+        }
+    }
+
+    synchronized void unschedule(String sessionId) {
+        removeFromBucket(sessionId, sessionBuckets.remove(sessionId));
+        scheduledBuckets.remove(sessionId);
+    }
+
+    /**
+     * Removes from the queue the sessions scheduled to expire up to the end of the bucket of the given time. The
+     * returned sessions are no longer scheduled, the caller is expected to check them and schedule again the ones
+     * that didn't expire yet.
+     * @param now - the current time in milliseconds since the epoch
+     */
+    synchronized Set<String> pollExpired(long now) {
+        Set<String> expired = new HashSet<>();
+        long currentBucket = now / bucketLength;
+        while (!buckets.isEmpty() && buckets.firstKey() <= currentBucket) {
+            for (String sessionId : buckets.pollFirstEntry().getValue()) {
+                sessionBuckets.remove(sessionId);
+                scheduledBuckets.remove(sessionId);
+                expired.add(sessionId);
+            }
+        }
+        return expired;
+    }
+
+    synchronized int size() {
+        return sessionBuckets.size();
+    }
+
+    private void removeFromBucket(String sessionId, Long bucket) {
+        if (bucket == null) {
+            return;
+        }
+        Set<String> sessions = buckets.get(bucket);
+        if (sessions != null) {
+            sessions.remove(sessionId);
+            if (sessions.isEmpty()) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+}
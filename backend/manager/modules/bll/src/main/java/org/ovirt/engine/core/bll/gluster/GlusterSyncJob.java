@@ -5,11 +5,18 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -63,6 +70,7 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dao.gluster.GlusterDBUtils;
 import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,6 +84,9 @@ import org.slf4j.LoggerFactory;
 public class GlusterSyncJob extends GlusterJob {
     private static final Logger log = LoggerFactory.getLogger(GlusterSyncJob.class);
 
+    static final String LIGHTWEIGHT_SYNC = "lightweight";
+    static final String HEAVYWEIGHT_SYNC = "heavyweight";
+
     @Inject
     private AuditLogDirector auditLogDirector;
     @Inject
@@ -86,6 +97,15 @@ public class GlusterSyncJob extends GlusterJob {
     private AlertDirector alertDirector;
     @Inject
     private GlusterThinDeviceService thinDeviceService;
+    @Inject
+    private GlusterSyncStatistics syncStatistics;
+
+    /**
+     * The clusters whose lightweight and heavyweight refreshes are running, including refreshes the sync stopped
+     * waiting for, so a following sync doesn't refresh them again at the same time.
+     */
+    private final Set<Guid> lightWeightRefreshingClusters = ConcurrentHashMap.newKeySet();
+    private final Set<Guid> heavyWeightRefreshingClusters = ConcurrentHashMap.newKeySet();
 
     @Override
     public Collection<GlusterJobSchedulingDetails> getSchedulingDetails() {
@@ -111,19 +131,103 @@ public class GlusterSyncJob extends GlusterJob {
     @OnTimerMethodAnnotation("refreshLightWeightData")
     public void refreshLightWeightData() {
         log.debug("Refreshing Gluster Data [lightweight]");
-        List<Cluster> clusters = clusterDao.getAll();
+        refreshClusters(LIGHTWEIGHT_SYNC, lightWeightRefreshingClusters, cluster -> {
+            try {
+                refreshClusterData(cluster);
+            } catch (Exception e) {
+                log.error("Error while refreshing Gluster lightweight data of cluster '{}': {}",
+                        cluster.getName(),
+                        e.getMessage());
+                log.debug("Exception", e);
+            }
+        });
+    }
 
-        for (Cluster cluster : clusters) {
-            if (cluster.supportsGlusterService()) {
+    /**
+     * Refreshes the data of the clusters that support gluster service. Up to <code>GlusterSyncMaxConcurrency</code>
+     * clusters are refreshed concurrently, so a slow gluster command on one cluster doesn't delay the others. The sync
+     * waits up to <code>GlusterSyncClusterTimeoutInSeconds</code> for the refresh of each cluster. A refresh that takes
+     * longer isn't interrupted, as it holds the gluster lock of the cluster, and the following syncs skip the cluster
+     * until it completes.
+     */
+    private void refreshClusters(String sync, Set<Guid> refreshingClusters, Consumer<Cluster> clusterRefresh) {
+        int maxConcurrency = Math.max(1, Config.<Integer> getValue(ConfigValues.GlusterSyncMaxConcurrency));
+        long timeout =
+                TimeUnit.SECONDS.toNanos(Config.<Integer> getValue(ConfigValues.GlusterSyncClusterTimeoutInSeconds));
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<ClusterRefresh> refreshes = new ArrayList<>();
+        try {
+            for (Cluster cluster : clusterDao.getAll()) {
+                if (!cluster.supportsGlusterService()) {
+                    continue;
+                }
+                if (!refreshingClusters.add(cluster.getId())) {
+                    log.warn("The {} refresh of Gluster data of cluster '{}' by a previous sync is still running.",
+                            sync,
+                            cluster.getName());
+                    continue;
+                }
+                if (!permits.tryAcquire(timeout, TimeUnit.NANOSECONDS)) {
+                    refreshingClusters.remove(cluster.getId());
+                    log.warn("None of the {} refreshes of Gluster data completed in time, the rest of the clusters "
+                            + "will be refreshed by the next sync.", sync);
+                    break;
+                }
+                // the refresh logs its own errors, only its completion is waited for
+                CountDownLatch done = new CountDownLatch(1);
                 try {
-                    refreshClusterData(cluster);
-                } catch (Exception e) {
-                    log.error("Error while refreshing Gluster lightweight data of cluster '{}': {}",
-                            cluster.getName(),
-                            e.getMessage());
-                    log.debug("Exception", e);
+                    ThreadPoolUtil.execute(() -> {
+                        long start = System.nanoTime();
+                        try {
+                            clusterRefresh.accept(cluster);
+                        } finally {
+                            syncStatistics.recordSync(sync,
+                                    cluster.getId(),
+                                    cluster.getName(),
+                                    System.nanoTime() - start);
+                            refreshingClusters.remove(cluster.getId());
+                            permits.release();
+                            done.countDown();
+                        }
+                    });
+                    refreshes.add(new ClusterRefresh(cluster, done, System.nanoTime()));
+                } catch (RejectedExecutionException e) {
+                    refreshingClusters.remove(cluster.getId());
+                    permits.release();
+                    log.error("Failed to start the {} refresh of Gluster data of cluster '{}'", sync, cluster.getName());
                 }
             }
+            waitForRefreshes(sync, refreshes, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitForRefreshes(String sync, List<ClusterRefresh> refreshes, long timeout)
+            throws InterruptedException {
+        for (ClusterRefresh refresh : refreshes) {
+            Cluster cluster = refresh.cluster;
+            if (!refresh.done.await(Math.max(0, refresh.startTime + timeout - System.nanoTime()),
+                    TimeUnit.NANOSECONDS)) {
+                log.warn("The {} refresh of Gluster data of cluster '{}' didn't complete in {} seconds. "
+                        + "The cluster won't be refreshed until it completes.",
+                        sync,
+                        cluster.getName(),
+                        TimeUnit.NANOSECONDS.toSeconds(timeout));
+                syncStatistics.recordTimeout(sync, cluster.getId(), cluster.getName());
+            }
+        }
+    }
+
+    private static class ClusterRefresh {
+        private final Cluster cluster;
+        private final CountDownLatch done;
+        private final long startTime;
+
+        ClusterRefresh(Cluster cluster, CountDownLatch done, long startTime) {
+            this.cluster = cluster;
+            this.done = done;
+            this.startTime = startTime;
         }
     }
 
@@ -457,11 +561,17 @@ public class GlusterSyncJob extends GlusterJob {
                 return;
             }
 
+            // the volumes of the cluster in engine DB, loaded at once to compare the fetched volumes with
+            Map<Guid, GlusterVolumeEntity> existingVolumes = new LinkedHashMap<>();
+            for (GlusterVolumeEntity volume : volumeDao.getByClusterId(cluster.getId())) {
+                existingVolumes.put(volume.getId(), volume);
+            }
+
             // remove deleted volumes must happen before adding new ones,
             // to handle cases where user deleted a volume and created a
             // new one with same name in a very short time
-            removeDeletedVolumes(cluster.getId(), volumesMap);
-            updateExistingAndNewVolumes(cluster.getId(), volumesMap);
+            removeDeletedVolumes(cluster.getId(), existingVolumes, volumesMap);
+            updateExistingAndNewVolumes(cluster.getId(), existingVolumes, volumesMap);
         } finally {
             releaseLock(cluster.getId());
         }
@@ -496,9 +606,11 @@ public class GlusterSyncJob extends GlusterJob {
         return result.getSucceeded() ? (Map<Guid, GlusterVolumeEntity>) result.getReturnValue() : null;
     }
 
-    private void removeDeletedVolumes(Guid clusterId, Map<Guid, GlusterVolumeEntity> volumesMap) {
+    private void removeDeletedVolumes(Guid clusterId,
+            Map<Guid, GlusterVolumeEntity> existingVolumes,
+            Map<Guid, GlusterVolumeEntity> volumesMap) {
         List<Guid> idsToRemove = new ArrayList<>();
-        for (GlusterVolumeEntity volume : volumeDao.getByClusterId(clusterId)) {
+        for (GlusterVolumeEntity volume : existingVolumes.values()) {
             if (!volumesMap.containsKey(volume.getId())) {
                 idsToRemove.add(volume.getId());
                 log.debug("Volume '{}' has been removed directly using the gluster CLI. Removing it from engine as well.",
@@ -523,14 +635,16 @@ public class GlusterSyncJob extends GlusterJob {
         }
     }
 
-    private void updateExistingAndNewVolumes(Guid clusterId, Map<Guid, GlusterVolumeEntity> volumesMap) {
+    private void updateExistingAndNewVolumes(Guid clusterId,
+            Map<Guid, GlusterVolumeEntity> existingVolumes,
+            Map<Guid, GlusterVolumeEntity> volumesMap) {
         Cluster cluster = clusterDao.get(clusterId);
 
         for (Entry<Guid, GlusterVolumeEntity> entry : volumesMap.entrySet()) {
             GlusterVolumeEntity volume = entry.getValue();
             log.debug("Analyzing volume '{}'", volume.getName());
 
-            GlusterVolumeEntity existingVolume = volumeDao.getById(entry.getKey());
+            GlusterVolumeEntity existingVolume = existingVolumes.get(entry.getKey());
             if (existingVolume == null) {
                 try {
                     createVolume(volume);
@@ -685,8 +799,15 @@ public class GlusterSyncJob extends GlusterJob {
         }
     }
 
+    /**
+     * Compares the fetched bricks with the existing bricks of the volume, and saves the new bricks and the changes of
+     * the existing bricks in a batch per kind of change.
+     */
     @SuppressWarnings("serial")
     private void updateExistingAndNewBricks(GlusterVolumeEntity existingVolume, List<GlusterBrickEntity> fetchedBricks) {
+        List<GlusterBrickEntity> newBricks = new ArrayList<>();
+        List<GlusterBrickEntity> bricksWithChangedOrder = new ArrayList<>();
+        List<GlusterBrickEntity> bricksWithChangedNetwork = new ArrayList<>();
         for (final GlusterBrickEntity fetchedBrick : fetchedBricks) {
             GlusterBrickEntity existingBrick = GlusterCoreUtil.findBrick(existingVolume.getBricks(), fetchedBrick);
             if (existingBrick == null) {
@@ -697,13 +818,7 @@ public class GlusterSyncJob extends GlusterJob {
                             fetchedBrick.getQualifiedName(),
                             existingVolume.getName());
                     fetchedBrick.setStatus(existingVolume.isOnline() ? GlusterStatus.UP : GlusterStatus.DOWN);
-                    brickDao.save(fetchedBrick);
-                    logUtil.logAuditMessage(existingVolume.getClusterId(),
-                            existingVolume.getClusterName(),
-                            existingVolume,
-                            null,
-                            AuditLogType.GLUSTER_VOLUME_BRICK_ADDED_FROM_CLI,
-                            Collections.singletonMap(GlusterConstants.BRICK, fetchedBrick.getQualifiedName()));
+                    newBricks.add(fetchedBrick);
                 }
             } else {
                 // brick found. update it if required. Only property that could be different is the brick order
@@ -712,17 +827,39 @@ public class GlusterSyncJob extends GlusterJob {
                             existingBrick.getQualifiedName(),
                             existingBrick.getBrickOrder(),
                             fetchedBrick.getBrickOrder());
-                    brickDao.updateBrickOrder(existingBrick.getId(), fetchedBrick.getBrickOrder());
+                    existingBrick.setBrickOrder(fetchedBrick.getBrickOrder());
+                    bricksWithChangedOrder.add(existingBrick);
                 }
                 // update network id, if different
                 if (!Objects.equals(existingBrick.getNetworkId(), fetchedBrick.getNetworkId())) {
                     log.info("Network address for brick '{}' detected as  '{}'. Updating engine DB accordingly.",
                             existingBrick.getQualifiedName(),
                             fetchedBrick.getNetworkAddress());
-                    brickDao.updateBrickNetworkId(existingBrick.getId(), fetchedBrick.getNetworkId());
+                    existingBrick.setNetworkId(fetchedBrick.getNetworkId());
+                    bricksWithChangedNetwork.add(existingBrick);
                 }
             }
         }
+
+        if (!newBricks.isEmpty()) {
+            brickDao.saveAllInBatch(newBricks);
+            for (GlusterBrickEntity newBrick : newBricks) {
+                logUtil.logAuditMessage(existingVolume.getClusterId(),
+                        existingVolume.getClusterName(),
+                        existingVolume,
+                        null,
+                        AuditLogType.GLUSTER_VOLUME_BRICK_ADDED_FROM_CLI,
+                        Collections.singletonMap(GlusterConstants.BRICK, newBrick.getQualifiedName()));
+            }
+        }
+
+        if (!bricksWithChangedOrder.isEmpty()) {
+            brickDao.updateBrickOrders(bricksWithChangedOrder);
+        }
+
+        if (!bricksWithChangedNetwork.isEmpty()) {
+            brickDao.updateBrickNetworkIds(bricksWithChangedNetwork);
+        }
     }
 
     private void updateOptions(GlusterVolumeEntity existingVolume, GlusterVolumeEntity fetchedVolume) {
@@ -914,19 +1051,16 @@ public class GlusterSyncJob extends GlusterJob {
     @OnTimerMethodAnnotation("refreshHeavyWeightData")
     public void refreshHeavyWeightData() {
         log.debug("Refreshing Gluster Data [heavyweight]");
-
-        for (Cluster cluster : clusterDao.getAll()) {
-            if (cluster.supportsGlusterService()) {
-                try {
-                    refreshClusterHeavyWeightData(cluster);
-                } catch (Exception e) {
-                    log.error("Error while refreshing Gluster heavyweight data of cluster '{}': {}",
-                            cluster.getName(),
-                            e.getMessage());
-                    log.debug("Exception", e);
-                }
+        refreshClusters(HEAVYWEIGHT_SYNC, heavyWeightRefreshingClusters, cluster -> {
+            try {
+                refreshClusterHeavyWeightData(cluster);
+            } catch (Exception e) {
+                log.error("Error while refreshing Gluster heavyweight data of cluster '{}': {}",
+                        cluster.getName(),
+                        e.getMessage());
+                log.debug("Exception", e);
             }
-        }
+        });
     }
 
     private void refreshClusterHeavyWeightData(Cluster cluster) {
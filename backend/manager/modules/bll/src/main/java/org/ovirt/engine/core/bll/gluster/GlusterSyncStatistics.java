@@ -0,0 +1,119 @@
+package org.ovirt.engine.core.bll.gluster;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+
+/**
+ * Collects the duration of the syncs of the gluster data of each cluster, done by {@link GlusterSyncJob}, and the
+ * number of syncs that didn't complete in time.
+ */
+@Singleton
+public class GlusterSyncStatistics implements StatisticsMXBean {
+
+    private final Map<String, ClusterSyncStatistics> clustersStatistics = new ConcurrentHashMap<>();
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("Gluster", this);
+
+    @PostConstruct
+    public void registerInJMX() {
+        jmxRegistration.register();
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    /**
+     * Records a completed sync of the data of a cluster
+     * @param sync - the kind of the sync, e.g. lightweight
+     * @param duration - the duration of the sync in nanoseconds
+     */
+    public void recordSync(String sync, Guid clusterId, String clusterName, long duration) {
+        getStatistics(sync, clusterId, clusterName).recordSync(TimeUnit.NANOSECONDS.toMillis(duration));
+    }
+
+    /**
+     * Records a sync of the data of a cluster that didn't complete in time
+     * @param sync - the kind of the sync, e.g. lightweight
+     */
+    public void recordTimeout(String sync, Guid clusterId, String clusterName) {
+        getStatistics(sync, clusterId, clusterName).timeouts.increment();
+    }
+
+    private ClusterSyncStatistics getStatistics(String sync, Guid clusterId, String clusterName) {
+        return clustersStatistics.computeIfAbsent(sync + clusterId,
+                key -> new ClusterSyncStatistics(sync, clusterName));
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        return clustersStatistics.values()
+                .stream()
+                .map(ClusterSyncStatistics::toString)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void reset() {
+        clustersStatistics.clear();
+    }
+
+    static class ClusterSyncStatistics {
+
+        private final String sync;
+        private final String clusterName;
+        private final LongAdder syncs = new LongAdder();
+        private final LongAdder totalDuration = new LongAdder();
+        private final LongAccumulator maxDuration = new LongAccumulator(Math::max, 0);
+        private final LongAdder timeouts = new LongAdder();
+        private volatile long lastDuration;
+
+        ClusterSyncStatistics(String sync, String clusterName) {
+            this.sync = sync;
+            this.clusterName = clusterName;
+        }
+
+        private void recordSync(long duration) {
+            syncs.increment();
+            totalDuration.add(duration);
+            maxDuration.accumulate(duration);
+            lastDuration = duration;
+        }
+
+        private long getSyncs() {
+            return syncs.sum();
+        }
+
+        private long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        @Override
+        public String toString() {
+            long count = getSyncs();
+            return String.format("cluster '%s' %s sync: syncs %d, last %d ms, average %d ms, max %d ms, timeouts %d",
+                    clusterName,
+                    sync,
+                    count,
+                    lastDuration,
+                    count == 0 ? 0 : totalDuration.sum() / count,
+                    maxDuration.get(),
+                    getTimeouts());
+        }
+    }
+}
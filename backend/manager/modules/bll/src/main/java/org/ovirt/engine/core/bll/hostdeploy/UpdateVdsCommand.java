@@ -7,6 +7,7 @@ import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.apache.commons.lang.StringUtils;
@@ -36,6 +37,7 @@ import org.ovirt.engine.core.common.businessentities.VdsStatic;
 import org.ovirt.engine.core.common.businessentities.network.Network;
 import org.ovirt.engine.core.common.businessentities.pm.FenceAgent;
 import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.qualifiers.HostUpdated;
 import org.ovirt.engine.core.common.scheduling.AffinityGroup;
 import org.ovirt.engine.core.common.validation.group.PowerManagementCheck;
 import org.ovirt.engine.core.common.validation.group.UpdateEntity;
@@ -75,6 +77,10 @@ public class UpdateVdsCommand<T extends UpdateVdsActionParameters>  extends VdsC
     @Inject
     private AffinityValidator affinityValidator;
 
+    @Inject
+    @HostUpdated
+    private Event<Guid> hostUpdatedEvent;
+
     private VDS oldHost;
     private static final List<String> UPDATE_FIELDS_VDS_BROKER = Arrays.asList(
             "host_name",
@@ -175,6 +181,7 @@ public class UpdateVdsCommand<T extends UpdateVdsActionParameters>  extends VdsC
     protected void executeCommand() {
         getParameters().getVdsStaticData().setReinstallRequired(shouldVdsBeReinstalled());
         updateVdsData();
+        hostUpdatedEvent.fire(getVdsId());
         if (needToUpdateVdsBroker()) {
             initializeVds();
         }
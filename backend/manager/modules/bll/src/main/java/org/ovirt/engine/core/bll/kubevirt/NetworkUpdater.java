@@ -3,6 +3,7 @@ package org.ovirt.engine.core.bll.kubevirt;
 import java.util.List;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
@@ -15,6 +16,7 @@ import org.ovirt.engine.core.common.action.AttachNetworkToClusterParameter;
 import org.ovirt.engine.core.common.businessentities.StoragePool;
 import org.ovirt.engine.core.common.businessentities.network.Network;
 import org.ovirt.engine.core.common.businessentities.network.NetworkCluster;
+import org.ovirt.engine.core.common.qualifiers.ClusterNetworksUpdated;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.StoragePoolDao;
 import org.ovirt.engine.core.dao.network.NetworkClusterDao;
@@ -41,6 +43,10 @@ public class NetworkUpdater {
     @Inject
     private ManagementNetworkUtil managementNetworkUtil;
 
+    @Inject
+    @ClusterNetworksUpdated
+    private Event<Guid> clusterNetworksUpdatedEvent;
+
     public boolean addNetwork(V1NetworkAttachmentDefinition network, Guid clusterId) {
         String networkName = getNetworkName(network);
 
@@ -94,6 +100,7 @@ public class NetworkUpdater {
 
         boolean result = TransactionSupport.executeInNewTransaction(() -> {
             networkClusterDao.remove(clusterId, network.getId());
+            clusterNetworksUpdatedEvent.fire(clusterId);
 
             // Check the assignment of the network to other clusters: Remove the logical network if no other cluster uses it
             List<NetworkCluster> otherClusterNetworks = networkClusterDao.getAllForNetwork(network.getId());
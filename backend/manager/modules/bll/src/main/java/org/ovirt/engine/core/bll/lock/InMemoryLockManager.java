@@ -2,17 +2,20 @@ package org.ovirt.engine.core.bll.lock;
 
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -36,7 +39,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The following class an implementation of internal locking mechanism
+ * The following class an implementation of internal locking mechanism.
+ * Locks are kept per key and guarded by lock striping, so acquiring or releasing locks of unrelated entities does
+ * not serialize on a single lock, and a waiting thread is only woken up when the key it is blocked on is released.
  */
 @Startup
 @Singleton(name = "LockManager")
@@ -45,12 +50,19 @@ import org.slf4j.LoggerFactory;
 @Local(LockManager.class)
 public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBean {
 
+    /** Number of stripes, must be a power of two **/
+    private static final int STRIPES_COUNT = 64;
+
     /** A map which is contains all internal representation of locks **/
-    private final Map<String, InternalLockView> locks = new HashMap<>();
-    /** A lock which is used to synchronized acquireLock(), acquireLockWait() and releaseLock() operations **/
-    private final Lock globalLock = new ReentrantLock();
-    /** A condition which is used in order to notify for waiting threads that some lock was released**/
-    private final Condition releasedLock = globalLock.newCondition();
+    private final Map<String, InternalLockView> locks = new ConcurrentHashMap<>();
+    /** Waiters which failed to acquire a lock, kept per the key they are blocked on **/
+    private final Map<String, List<CountDownLatch>> waiters = new ConcurrentHashMap<>();
+    /**
+     * Locks which are used to synchronize acquireLock(), acquireLockWait() and releaseLock() operations, a key is
+     * guarded by the stripe its hash is mapped to. Stripes are always taken in ascending order to avoid deadlocks
+     **/
+    private final Lock[] stripes =
+            IntStream.range(0, STRIPES_COUNT).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
 
     private MBeanServer platformMBeanServer;
     private ObjectName objectName = null;
@@ -79,11 +91,12 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public LockingResult acquireLock(EngineLock lock) {
         log.debug("Before acquiring lock '{}'", lock);
-        globalLock.lock();
+        int[] lockStripes = stripesOf(lock);
+        lockStripes(lockStripes);
         try {
-            return acquireLockInternal(lock);
+            return acquireLockInternal(lock, null);
         } finally {
-            globalLock.unlock();
+            unlockStripes(lockStripes);
         }
     }
 
@@ -91,16 +104,27 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     public void acquireLockWait(EngineLock lock) {
         log.debug("Before acquiring and wait lock '{}'", lock);
         validateLockForAcquireAndWait(lock);
-        globalLock.lock();
+        int[] lockStripes = stripesOf(lock);
         try {
-            while (!acquireLockInternal(lock).isAcquired()) {
+            while (true) {
+                CountDownLatch released = new CountDownLatch(1);
+                lockStripes(lockStripes);
+                try {
+                    if (acquireLockInternal(lock, released).isAcquired()) {
+                        return;
+                    }
+                } finally {
+                    unlockStripes(lockStripes);
+                }
                 log.info("Failed to acquire lock and wait lock '{}'", lock);
-                releasedLock.await();
+                try {
+                    released.await();
+                } finally {
+                    unregisterWaiterIfWaiting(lock, lockStripes, released);
+                }
             }
         } catch (InterruptedException ignore) {
 
-        } finally {
-            globalLock.unlock();
         }
     }
 
@@ -111,25 +135,35 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         if (timeoutMillis <= 0) {
             throw new IllegalArgumentException("timeout must be positive");
         }
-        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int[] lockStripes = stripesOf(lock);
         LockingResult lockAcquired = LockingResult.fail();
-        globalLock.lock();
         try {
-            do {
-                lockAcquired = acquireLockInternal(lock);
-                if (!lockAcquired.isAcquired()) {
+            while (true) {
+                CountDownLatch released = new CountDownLatch(1);
+                lockStripes(lockStripes);
+                try {
+                    lockAcquired = acquireLockInternal(lock, released);
+                } finally {
+                    unlockStripes(lockStripes);
+                }
+                if (lockAcquired.isAcquired()) {
+                    break;
+                }
+                try {
+                    long timeoutNanos = deadline - System.nanoTime();
                     if (timeoutNanos <= 0L) {
                         log.info("Failed to acquire lock because timeout was reached. lock {}", lock);
                         break;
                     }
                     log.info("Failed to acquire lock, will try again until timeout. lock '{}'", lock);
-                    timeoutNanos = releasedLock.awaitNanos(timeoutNanos);
+                    released.await(timeoutNanos, TimeUnit.NANOSECONDS);
+                } finally {
+                    unregisterWaiterIfWaiting(lock, lockStripes, released);
                 }
-            } while (!lockAcquired.isAcquired());
+            }
         } catch (InterruptedException ignore) {
             log.info("Acquire lock operation was interrupted. lock '{}'", lock);
-        } finally {
-            globalLock.unlock();
         }
         return lockAcquired;
     }
@@ -144,7 +178,8 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public void releaseLock(EngineLock lock) {
         log.debug("Before releasing a lock '{}'", lock);
-        globalLock.lock();
+        int[] lockStripes = stripesOf(lock);
+        lockStripes(lockStripes);
         try {
             if (lock.getSharedLocks() != null) {
                 lock.getSharedLocks().entrySet().stream().forEach(entry ->
@@ -154,21 +189,22 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
                 lock.getExclusiveLocks().entrySet().stream().forEach(entry ->
                     releaseExclusiveLock(buildHashMapKey(entry)));
             }
-            releasedLock.signalAll();
         } finally {
-            globalLock.unlock();
+            unlockStripes(lockStripes);
         }
     }
 
     @Override
     public void clear() {
         log.warn("Cleaning all in memory locks");
-        globalLock.lock();
+        int[] allStripes = IntStream.range(0, STRIPES_COUNT).toArray();
+        lockStripes(allStripes);
         try {
             locks.clear();
-            releasedLock.signalAll();
+            waiters.values().forEach(keyWaiters -> keyWaiters.forEach(CountDownLatch::countDown));
+            waiters.clear();
         } finally {
-            globalLock.unlock();
+            unlockStripes(allStripes);
         }
     }
 
@@ -177,7 +213,8 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         log.warn("The following lock is going to be released via external call, lockId '{}', error message can be"
                 + " left for shared lock",
                 lockId);
-        globalLock.lock();
+        Lock stripe = stripeOf(lockId);
+        stripe.lock();
         try {
             InternalLockView lock = locks.get(lockId);
             if (lock == null) {
@@ -189,9 +226,8 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
             } else {
                 releaseSharedLock(lockId, null);
             }
-            releasedLock.signalAll();
         } finally {
-            globalLock.unlock();
+            stripe.unlock();
         }
         log.warn("Lock '{}' was released via external call", lockId);
         return true;
@@ -200,17 +236,86 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
     @Override
     public List<String> showAllLocks() {
         log.debug("All in memory locks will be shown");
-        globalLock.lock();
         try {
-            return locks.entrySet().stream().map(this::createLockDescription).collect(Collectors.toList());
+            return locks.keySet()
+                    .stream()
+                    .map(this::createLockDescription)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
         } finally {
-            globalLock.unlock();
             log.debug("All in memory locks were shown");
         }
     }
 
-    private String createLockDescription(Entry<String, InternalLockView> e) {
-        return "The object id is : " + e.getKey() + ' ' + e.getValue();
+    /**
+     * Returns the keys which currently have threads waiting for their release
+     */
+    Set<String> getWaitedKeys() {
+        return new HashSet<>(waiters.keySet());
+    }
+
+    private static int stripeIndex(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES_COUNT - 1);
+    }
+
+    private Lock stripeOf(String key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    /**
+     * Returns the distinct stripes guarding the keys of the given lock, sorted in ascending order
+     */
+    private int[] stripesOf(EngineLock lock) {
+        return keysOf(lock)
+                .mapToInt(InMemoryLockManager::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private Stream<String> keysOf(EngineLock lock) {
+        return Stream.of(lock.getSharedLocks(), lock.getExclusiveLocks())
+                .filter(Objects::nonNull)
+                .flatMap(map -> map.entrySet().stream())
+                .map(this::buildHashMapKey);
+    }
+
+    private void lockStripes(int[] lockStripes) {
+        for (int stripe : lockStripes) {
+            stripes[stripe].lock();
+        }
+    }
+
+    private void unlockStripes(int[] lockStripes) {
+        for (int i = lockStripes.length - 1; i >= 0; i--) {
+            stripes[lockStripes[i]].unlock();
+        }
+    }
+
+    /**
+     * Wakes up the threads waiting for the given key, should be called under the stripe of the key
+     */
+    private void signalReleased(String key) {
+        List<CountDownLatch> keyWaiters = waiters.remove(key);
+        if (keyWaiters != null) {
+            keyWaiters.forEach(CountDownLatch::countDown);
+        }
+    }
+
+    /**
+     * Describes the lock of the given key under its stripe, as the lock is modified by the threads holding the stripe.
+     * Returns null if the lock was released meanwhile
+     */
+    private String createLockDescription(String key) {
+        Lock stripe = stripeOf(key);
+        stripe.lock();
+        try {
+            InternalLockView lock = locks.get(key);
+            return lock == null ? null : "The object id is : " + key + ' ' + lock;
+        } finally {
+            stripe.unlock();
+        }
     }
 
     /**
@@ -224,14 +329,17 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
      * The following method contains a logic for acquiring a lock. It is comprised of two steps:
      * 1. Check if the lock can be acquired
      * 2. If the first step succeeds, acquire a lock
+     * When the lock can not be acquired and a waiter is given, it is registered on the key which is taken and
+     * is counted down once that key is released.
+     * Should be called while holding the stripes of all the keys of the lock.
      */
-    private LockingResult acquireLockInternal(EngineLock lock) {
-        var result = acquireLockInternalStep(lock, true);
+    private LockingResult acquireLockInternal(EngineLock lock, CountDownLatch waiter) {
+        var result = acquireLockInternalStep(lock, true, waiter);
         if (!result.isAcquired()) {
             return result;
         }
 
-        result = acquireLockInternalStep(lock, false);
+        result = acquireLockInternalStep(lock, false, waiter);
         if (!result.isAcquired()) {
             return result;
         }
@@ -240,7 +348,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         return LockingResult.success();
     }
 
-    private LockingResult acquireLockInternalStep(EngineLock lock, boolean checkOnly) {
+    private LockingResult acquireLockInternalStep(EngineLock lock, boolean checkOnly, CountDownLatch waiter) {
         if (lock.getSharedLocks() != null) {
             for (Entry<String, Pair<String, String>> entry : lock.getSharedLocks().entrySet()) {
                 LockingResult result =
@@ -249,6 +357,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
                     log.debug("Failed to acquire lock. Shared lock is taken for key '{}', value '{}'",
                             entry.getKey(),
                             entry.getValue().getFirst());
+                    registerWaiter(buildHashMapKey(entry), waiter);
                     return result;
                 }
             }
@@ -261,6 +370,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
                     log.debug("Failed to acquire lock. Exclusive lock is taken for key '{}', value '{}'",
                             entry.getKey(),
                             entry.getValue().getFirst());
+                    registerWaiter(buildHashMapKey(entry), waiter);
                     return result;
                 }
             }
@@ -268,6 +378,32 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         return LockingResult.success();
     }
 
+    private void registerWaiter(String key, CountDownLatch waiter) {
+        if (waiter != null) {
+            waiters.computeIfAbsent(key, k -> new ArrayList<>()).add(waiter);
+        }
+    }
+
+    /**
+     * Removes a waiter which stopped waiting before the key it is registered on was released, e.g. on timeout, so
+     * the waiters of a key which is held for long don't pile up
+     */
+    private void unregisterWaiterIfWaiting(EngineLock lock, int[] lockStripes, CountDownLatch waiter) {
+        if (waiter.getCount() == 0) {
+            // already removed by the release of the key
+            return;
+        }
+        lockStripes(lockStripes);
+        try {
+            keysOf(lock).forEach(key -> waiters.computeIfPresent(key, (k, keyWaiters) -> {
+                keyWaiters.remove(waiter);
+                return keyWaiters.isEmpty() ? null : keyWaiters;
+            }));
+        } finally {
+            unlockStripes(lockStripes);
+        }
+    }
+
     /**
      * The following method should insert an "shared" internal lock
      * @param message
@@ -307,6 +443,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
         InternalLockView lock = locks.get(key);
         if (lock != null && lock.getExclusive()) {
             locks.remove(key);
+            signalReleased(key);
             log.debug("The exclusive lock for key '{}' is released and lock is removed from map", key);
         } else if (lock == null) {
             log.warn("Trying to release exclusive lock which does not exist, lock key: '{}'", key);
@@ -323,6 +460,7 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
                 log.debug("The shared lock for key '{}' is released.", key);
                 if (lock.getCount() == 0) {
                     locks.remove(key);
+                    signalReleased(key);
                     log.debug("The shared lock for key '{}' is removed from map", key);
                 } else {
                     lock.removeMessage(message);
@@ -337,12 +475,20 @@ public class InMemoryLockManager implements LockManager, LockManagerMonitorMXBea
 
     @Override
     public LockInfo getLockInfo(String key) {
-        InternalLockView internalLockView = locks.get(key);
-        if (internalLockView == null) {
-            return null;
+        InternalLockView internalLockView;
+        Set<String> messages;
+        Lock stripe = stripeOf(key);
+        stripe.lock();
+        try {
+            internalLockView = locks.get(key);
+            if (internalLockView == null) {
+                return null;
+            }
+            messages = internalLockView.getMessages();
+        } finally {
+            stripe.unlock();
         }
 
-        Set<String> messages = internalLockView.getMessages();
         messages.remove(EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED.name());
         if (messages.isEmpty()) {
             // EngineMessage.ACTION_TYPE_FAILED_OBJECT_LOCKED should only be used for
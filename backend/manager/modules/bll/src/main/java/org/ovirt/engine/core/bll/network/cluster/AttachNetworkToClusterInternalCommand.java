@@ -3,6 +3,7 @@ package org.ovirt.engine.core.bll.network.cluster;
 import java.util.Collections;
 import java.util.List;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.bll.InternalCommandAttribute;
@@ -16,6 +17,7 @@ import org.ovirt.engine.core.common.businessentities.network.Network;
 import org.ovirt.engine.core.common.businessentities.network.NetworkCluster;
 import org.ovirt.engine.core.common.businessentities.network.NetworkStatus;
 import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.qualifiers.ClusterNetworksUpdated;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dao.ClusterDao;
@@ -51,6 +53,9 @@ public class AttachNetworkToClusterInternalCommand<T extends AttachNetworkToClus
     private VmDao vmDao;
     @Inject
     private ClusterDao clusterDao;
+    @Inject
+    @ClusterNetworksUpdated
+    private Event<Guid> clusterNetworksUpdatedEvent;
 
     public AttachNetworkToClusterInternalCommand(T parameters, CommandContext cmdContext) {
         super(parameters, cmdContext);
@@ -64,6 +69,7 @@ public class AttachNetworkToClusterInternalCommand<T extends AttachNetworkToClus
     protected void executeCommand() {
 
         attachNetwork(getClusterId(), getNetworkCluster(), getNetwork());
+        clusterNetworksUpdatedEvent.fire(getClusterId());
 
         setSucceeded(true);
     }
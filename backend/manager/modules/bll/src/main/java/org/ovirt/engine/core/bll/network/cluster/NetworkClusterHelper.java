@@ -5,6 +5,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
@@ -12,6 +13,7 @@ import org.ovirt.engine.core.common.businessentities.network.Network;
 import org.ovirt.engine.core.common.businessentities.network.NetworkCluster;
 import org.ovirt.engine.core.common.businessentities.network.NetworkClusterId;
 import org.ovirt.engine.core.common.businessentities.network.NetworkStatus;
+import org.ovirt.engine.core.common.qualifiers.ClusterNetworksUpdated;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsStaticDao;
@@ -28,18 +30,21 @@ public class NetworkClusterHelper {
     private final VdsStaticDao vdsStaticDao;
     private final VdsDynamicDao vdsDynamicDao;
     private final ManagementNetworkUtil managementNetworkUtil;
+    private final Event<Guid> clusterNetworksUpdatedEvent;
 
     @Inject
     public NetworkClusterHelper(NetworkClusterDao networkClusterDao,
             NetworkAttachmentDao networkAttachmentDao,
             VdsStaticDao vdsStaticDao,
             VdsDynamicDao vdsDynamicDao,
-            ManagementNetworkUtil managementNetworkUtil) {
+            ManagementNetworkUtil managementNetworkUtil,
+            @ClusterNetworksUpdated Event<Guid> clusterNetworksUpdatedEvent) {
         this.networkClusterDao = Objects.requireNonNull(networkClusterDao);
         this.networkAttachmentDao = Objects.requireNonNull(networkAttachmentDao);
         this.vdsStaticDao = Objects.requireNonNull(vdsStaticDao);
         this.vdsDynamicDao = Objects.requireNonNull(vdsDynamicDao);
         this.managementNetworkUtil = Objects.requireNonNull(managementNetworkUtil);
+        this.clusterNetworksUpdatedEvent = Objects.requireNonNull(clusterNetworksUpdatedEvent);
     }
 
     private NetworkCluster getManagementNetworkCluster(NetworkCluster networkCluster) {
@@ -74,6 +79,7 @@ public class NetworkClusterHelper {
         if (updateManagementNetwork) {
             networkClusterDao.update(managementNetworkCluster);
         }
+        clusterNetworksUpdatedEvent.fire(networkCluster.getClusterId());
     }
 
     /**
@@ -118,6 +124,7 @@ public class NetworkClusterHelper {
         if (networkCluster.getStatus() != newStatus) {
             networkCluster.setStatus(newStatus);
             networkClusterDao.updateStatus(networkCluster);
+            clusterNetworksUpdatedEvent.fire(networkCluster.getClusterId());
         }
     }
 
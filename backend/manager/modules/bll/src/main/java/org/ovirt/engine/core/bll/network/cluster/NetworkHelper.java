@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -32,6 +33,7 @@ import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface
 import org.ovirt.engine.core.common.businessentities.network.VnicProfile;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.qualifiers.HostNicsUpdated;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
 import org.ovirt.engine.core.dao.network.NetworkDao;
@@ -70,6 +72,10 @@ public class NetworkHelper {
     @Inject
     private MultiLevelAdministrationHandler multiLevelAdministrationHandler;
 
+    @Inject
+    @HostNicsUpdated
+    private Event<Guid> hostNicsUpdatedEvent;
+
     /**
      * Grants permissions on the network entity to the given user
      *
@@ -190,6 +196,7 @@ public class NetworkHelper {
             interfacesToUpdate.add(iface);
         });
         interfaceDao.massUpdateInterfacesForVds(interfacesToUpdate);
+        interfacesToUpdate.stream().map(VdsNetworkInterface::getVdsId).distinct().forEach(hostNicsUpdatedEvent::fire);
     }
 
     public ActionReturnValue attachNetworkToClusters(Guid networkId, Collection<Guid> clusterIds) {
@@ -2,6 +2,7 @@ package org.ovirt.engine.core.bll.network.cluster;
 
 import java.util.List;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.ovirt.engine.core.bll.ValidateSupportsTransaction;
@@ -14,6 +15,7 @@ import org.ovirt.engine.core.common.action.NetworkClusterParameters;
 import org.ovirt.engine.core.common.businessentities.network.Network;
 import org.ovirt.engine.core.common.businessentities.network.NetworkCluster;
 import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.qualifiers.ClusterNetworksUpdated;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dao.ClusterDao;
@@ -49,6 +51,9 @@ public class UpdateNetworkOnClusterCommand<T extends NetworkClusterParameters> e
     private ClusterDao clusterDao;
     @Inject
     private GlusterBrickDao glusterBrickDao;
+    @Inject
+    @ClusterNetworksUpdated
+    private Event<Guid> clusterNetworksUpdatedEvent;
 
     private NetworkCluster oldNetworkCluster;
 
@@ -117,6 +122,7 @@ public class UpdateNetworkOnClusterCommand<T extends NetworkClusterParameters> e
         }
 
         networkClusterHelper.setStatus(getClusterId(), getPersistedNetwork());
+        clusterNetworksUpdatedEvent.fire(getClusterId());
         setSucceeded(true);
     }
 
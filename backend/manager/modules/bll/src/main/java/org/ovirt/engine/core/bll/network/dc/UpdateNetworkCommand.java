@@ -16,6 +16,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import javax.enterprise.event.Event;
 import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.Typed;
 import javax.inject.Inject;
@@ -53,6 +54,7 @@ import org.ovirt.engine.core.common.businessentities.network.VmNic;
 import org.ovirt.engine.core.common.errors.EngineError;
 import org.ovirt.engine.core.common.errors.EngineException;
 import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.qualifiers.ClusterNetworksUpdated;
 import org.ovirt.engine.core.common.utils.NetworkCommonUtils;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.common.validation.group.UpdateEntity;
@@ -94,6 +96,9 @@ public class UpdateNetworkCommand<T extends AddNetworkStoragePoolParameters> ext
     private Instance<ConcurrentChildCommandsExecutionCallback> callbackProvider;
     @Inject
     private AuditLogDirector auditLogDirector;
+    @Inject
+    @ClusterNetworksUpdated
+    private Event<Guid> clusterNetworksUpdatedEvent;
 
     private Network oldNetwork;
 
@@ -109,6 +114,7 @@ public class UpdateNetworkCommand<T extends AddNetworkStoragePoolParameters> ext
 
             for (NetworkCluster clusterAttachment : networkClusterDao.getAllForNetwork(getNetwork().getId())) {
                 networkClusterHelper.setStatus(clusterAttachment.getClusterId(), getNetwork());
+                clusterNetworksUpdatedEvent.fire(clusterAttachment.getClusterId());
             }
 
             if (networkChangedToNonVmNetwork()) {
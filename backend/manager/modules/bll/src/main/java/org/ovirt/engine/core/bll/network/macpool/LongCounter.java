@@ -0,0 +1,152 @@
+package org.ovirt.engine.core.bll.network.macpool;
+
+import java.util.Arrays;
+
+/**
+ * Associative array counting occurrences of primitive long values, like {@link ObjectCounter} without boxing
+ * the values. The values are kept in an open addressing hash table with linear probing.
+ */
+class LongCounter {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean allowDuplicate;
+
+    private long[] keys;
+    /**
+     * number of occurrences of the key in the same slot, 0 for an empty slot.
+     */
+    private int[] counts;
+    private int mask;
+    private int size;
+
+    LongCounter(boolean allowDuplicate) {
+        this.allowDuplicate = allowDuplicate;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * add value if possible, incrementing number of its occurrences.
+     * @param key value to add.
+     * @return true if value was added  && count incremented.
+     */
+    public boolean increase(long key) {
+        return increase(key, allowDuplicate);
+    }
+
+    public boolean increase(long key, boolean allowDuplicate) {
+        int slot = find(key);
+        if (counts[slot] == 0) {
+            keys[slot] = key;
+            counts[slot] = 1;
+            size++;
+            if (size * 2 > keys.length) {
+                allocate(keys.length * 2);
+            }
+            return true;
+        } else if (allowDuplicate) {
+            counts[slot]++;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * decrements number of its occurrences, removing value if count reaches zero.
+     *
+     * @param key value to remove.
+     */
+    public void decrease(long key) {
+        int slot = find(key);
+        if (counts[slot] == 0) {
+            return;
+        }
+
+        counts[slot]--;
+        if (counts[slot] == 0) {
+            remove(slot);
+        }
+    }
+
+    /**
+     * @param key value to look for
+     * @return true if there's at least one occurrence of given value.
+     */
+    public boolean contains(long key) {
+        return counts[find(key)] != 0;
+    }
+
+    /**
+     * @param key value to look for
+     * @return number of occurrences of given value, 0 when value was not added.
+     */
+    public int count(long key) {
+        return counts[find(key)];
+    }
+
+    public boolean containsDuplicates() {
+        return Arrays.stream(counts).anyMatch(count -> count > 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * @return slot of the key, or the empty slot where it would be added
+     */
+    private int find(long key) {
+        int slot = index(key);
+        while (counts[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empties the slot, moving back the keys that were probed past it so they remain reachable.
+     */
+    private void remove(int slot) {
+        int gap = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            if (counts[current] == 0) {
+                break;
+            }
+            int ideal = index(keys[current]);
+            if (((current - ideal) & mask) >= ((current - gap) & mask)) {
+                keys[gap] = keys[current];
+                counts[gap] = counts[current];
+                gap = current;
+            }
+        }
+        counts[gap] = 0;
+        size--;
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+
+        keys = new long[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+
+        if (oldKeys != null) {
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] != 0) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package org.ovirt.engine.core.bll.network.macpool;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 
 import org.apache.commons.lang.Validate;
@@ -16,8 +19,13 @@ import org.ovirt.engine.core.di.Injector;
 
 class MacsStorage {
     private final boolean allowDuplicates;
-    private List<Range> ranges = new LinkedList<>();
-    private ObjectCounter<Long> customMacs;
+    private List<Range> ranges = new ArrayList<>();
+    /**
+     * ranges by their first MAC, to find the range including a MAC without going through all of them.
+     */
+    private NavigableMap<Long, Range> rangesByFirstMac = new TreeMap<>();
+    private boolean overlappingRanges = false;
+    private LongCounter customMacs;
     private int startIndexForEmptyRangeSearch = 0;
     private Predicate<String> skipAllocationPredicate;
 
@@ -27,7 +35,7 @@ class MacsStorage {
 
     MacsStorage(boolean allowDuplicates, Predicate<String> skipAllocationPredicate) {
         this.allowDuplicates = allowDuplicates;
-        customMacs = new ObjectCounter<>(this.allowDuplicates);
+        customMacs = new LongCounter(this.allowDuplicates);
         this.skipAllocationPredicate = skipAllocationPredicate;
     }
 
@@ -36,6 +44,9 @@ class MacsStorage {
     }
 
     Range addRange(Range range) {
+        overlappingRanges = overlappingRanges
+                || overlaps(range)
+                || rangesByFirstMac.putIfAbsent(range.getFirstMac(), range) != null;
         ranges.add(range);
         return range;
     }
@@ -80,7 +91,7 @@ class MacsStorage {
             throw new EngineException(EngineError.MAC_POOL_NO_MACS_LEFT);
         }
 
-        final List<Long> result = new LinkedList<>();
+        final List<Long> result = new ArrayList<>(numberOfMacs);
         int remainingMacs = allocateAvailableMacs(result, numberOfMacs, this.skipAllocationPredicate);
         if (remainingMacs > 0) {
             auditAllocatingMacsInUse(remainingMacs);
@@ -154,6 +165,12 @@ class MacsStorage {
     }
 
     private Range findIncludingRange(long mac) {
+        if (!overlappingRanges) {
+            Map.Entry<Long, Range> candidate = rangesByFirstMac.floorEntry(mac);
+            return candidate != null && candidate.getValue().contains(mac) ? candidate.getValue() : null;
+        }
+
+        // the first added range including the mac wins
         for (Range range : ranges) {
             if (range.contains(mac)) {
                 return range;
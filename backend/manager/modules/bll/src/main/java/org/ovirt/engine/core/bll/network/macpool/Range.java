@@ -35,6 +35,10 @@ class Range {
         this.usedMacs = new BitSet(numberOfMacsInRange);
     }
 
+    public long getFirstMac() {
+        return range.getMinimumLong();
+    }
+
     public boolean contains(long mac) {
         return range.containsLong(mac);
     }
@@ -0,0 +1,63 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.comparators.VmsCpuPinningPolicyComparator;
+
+/**
+ * Plans the placement of the VM groups of a batch. The hosts are filtered for every group against the current
+ * capacity once, before any group of the batch is placed. Placing the other groups of the batch only consumes
+ * resources, so the result narrows down the hosts every group has to be checked against when it is placed.
+ * <p>
+ * The groups are ordered so the groups which fit on the fewest hosts are placed first, before the other groups
+ * consume the capacity of those hosts. Groups with the same number of hosts are ordered from the largest memory
+ * footprint down. The CPU pinning policy still takes precedence, as when the groups are not batched.
+ * <p>
+ * Groups without any suitable host keep all the hosts, so their placement reports the reasons and can still delay
+ * the scheduling.
+ */
+public class BatchPlacementPlanner {
+
+    private final Map<List<VM>, List<VDS>> candidateHosts = new IdentityHashMap<>();
+    private final List<List<VM>> orderedGroups;
+
+    /**
+     * @param hostsFilter - returns the hosts the group can run on, without side effects
+     */
+    public BatchPlacementPlanner(List<List<VM>> vmGroups,
+            List<VDS> hosts,
+            BiFunction<List<VDS>, List<VM>, List<VDS>> hostsFilter) {
+        for (List<VM> vmGroup : vmGroups) {
+            List<VDS> groupHosts = hostsFilter.apply(hosts, vmGroup);
+            candidateHosts.put(vmGroup, groupHosts.isEmpty() ? hosts : groupHosts);
+        }
+
+        orderedGroups = new ArrayList<>(vmGroups);
+        orderedGroups.sort(Comparator.comparing((List<VM> group) -> group.get(0),
+                        new VmsCpuPinningPolicyComparator().reversed())
+                .thenComparingInt(group -> candidateHosts.get(group).size())
+                .thenComparing(Comparator.comparingLong(
+                        (List<VM> group) -> group.stream().mapToLong(VM::getMemSizeMb).sum()).reversed()));
+    }
+
+    /**
+     * @return the groups in the order they should be placed
+     */
+    public List<List<VM>> getOrderedGroups() {
+        return orderedGroups;
+    }
+
+    /**
+     * @return the hosts the group should be placed on
+     */
+    public List<VDS> getCandidateHosts(List<VM> vmGroup) {
+        return candidateHosts.get(vmGroup);
+    }
+}
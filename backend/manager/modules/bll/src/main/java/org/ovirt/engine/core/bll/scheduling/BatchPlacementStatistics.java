@@ -0,0 +1,66 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+
+/**
+ * Collects the number of VMs placed by batched scheduling calls and the time it took, so the placement
+ * throughput can be followed.
+ */
+public class BatchPlacementStatistics implements StatisticsMXBean {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requestedVms = new LongAdder();
+    private final LongAdder placedVms = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("SchedulingManager", this);
+
+    public void registerInJMX() {
+        jmxRegistration.register();
+    }
+
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    /**
+     * Records a single batch
+     * @param requested - number of VMs in the batch
+     * @param placed - number of VMs a host was found for
+     * @param nanos - time the placement of the batch took
+     */
+    public void record(int requested, int placed, long nanos) {
+        batches.increment();
+        requestedVms.add(requested);
+        placedVms.add(placed);
+        totalNanos.add(nanos);
+    }
+
+    static double placementsPerSecond(long placed, long nanos) {
+        return nanos == 0 ? 0 : placed * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        return Arrays.asList(
+                "batches: " + batches.sum(),
+                "requested VMs: " + requestedVms.sum(),
+                "placed VMs: " + placedVms.sum(),
+                "total time: " + TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()) + " ms",
+                String.format("placements per second: %.1f", placementsPerSecond(placedVms.sum(), totalNanos.sum())));
+    }
+
+    @Override
+    public void reset() {
+        batches.reset();
+        requestedVms.reset();
+        placedVms.reset();
+        totalNanos.reset();
+    }
+}
@@ -0,0 +1,331 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.ovirt.engine.core.bll.scheduling.pending.PendingCpuCores;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingHugePages;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingNumaMemory;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingOvercommitMemory;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.common.businessentities.HugePage;
+import org.ovirt.engine.core.common.businessentities.NumaNodeStatistics;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.utils.HugePageUtils;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsDao;
+import org.ovirt.engine.core.dao.VdsNumaNodeDao;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory, versioned snapshot of the capacity of the hosts of each cluster, used by the scheduler
+ * instead of loading the hosts, their NUMA nodes and their pending resources for every scheduling run.
+ * <p>
+ * The hosts of a cluster are loaded from the database on first use, afterwards the snapshot is kept up to
+ * date incrementally:
+ * <ul>
+ * <li>the host and its NUMA statistics are replaced after every statistics refresh of the host
+ * monitoring,</li>
+ * <li>the pending values of a host are recomputed only when the version of the host in the
+ * {@link PendingResourceManager} changes,</li>
+ * <li>the set of hosts is taken from the in-memory status of the host managers, a host which was not seen
+ * before is loaded on its own.</li>
+ * </ul>
+ * The whole cluster is reloaded once its snapshot is older than {@link ConfigValues#SchedulerHostsSnapshotMaxAge},
+ * which bounds the staleness of the data not reported by the monitoring. Setting it to 0 disables the snapshot.
+ * The hosts of a cluster are also reloaded when the cluster is updated, and a host when it is updated.
+ * <p>
+ * The snapshot entries are never handed out, callers get copies they are free to modify.
+ */
+public class HostCapacitySnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(HostCapacitySnapshot.class);
+
+    private final ResourceManager resourceManager;
+    private final PendingResourceManager pendingResourceManager;
+    private final VdsDao vdsDao;
+    private final VdsNumaNodeDao vdsNumaNodeDao;
+
+    private final Map<Guid, ClusterHosts> clusters = new ConcurrentHashMap<>();
+    private final Map<Guid, HostPending> pendingByHost = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public HostCapacitySnapshot(ResourceManager resourceManager,
+            PendingResourceManager pendingResourceManager,
+            VdsDao vdsDao,
+            VdsNumaNodeDao vdsNumaNodeDao) {
+        this.resourceManager = resourceManager;
+        this.pendingResourceManager = pendingResourceManager;
+        this.vdsDao = vdsDao;
+        this.vdsNumaNodeDao = vdsNumaNodeDao;
+    }
+
+    /**
+     * Return copies of all the Up hosts of the cluster, with their NUMA nodes and with the pending resources
+     * already applied, sorted by host id.
+     */
+    public List<VDS> getHosts(Guid clusterId) {
+        long maxAge = TimeUnit.SECONDS.toMillis(Config.<Integer> getValue(ConfigValues.SchedulerHostsSnapshotMaxAge));
+        if (maxAge <= 0) {
+            return loadCluster(clusterId).hosts.values().stream().map(this::copyHost).collect(Collectors.toList());
+        }
+
+        ClusterHosts snapshot = clusters.compute(clusterId,
+                (id, current) -> current == null || current.isOlderThan(maxAge) ? loadCluster(id) : current);
+
+        List<VDS> hosts = new ArrayList<>();
+        for (Guid hostId : getUpHosts(clusterId)) {
+            VDS host = snapshot.hosts.get(hostId);
+            if (host == null) {
+                host = loadHost(hostId);
+                if (host == null) {
+                    continue;
+                }
+                snapshot.put(host, version.incrementAndGet());
+            }
+            hosts.add(copyHost(host));
+        }
+        return hosts;
+    }
+
+    /**
+     * Replace the host in the snapshot by the state reported by the host monitoring. The NUMA topology is
+     * kept, only the NUMA statistics are taken from the reported host.
+     */
+    public void updateHost(VDS vds) {
+        ClusterHosts snapshot = clusters.get(vds.getClusterId());
+        if (snapshot == null) {
+            return;
+        }
+
+        if (vds.getStatus() != VDSStatus.Up) {
+            snapshot.remove(vds.getId(), version.incrementAndGet());
+            pendingByHost.remove(vds.getId());
+            return;
+        }
+
+        VDS current = snapshot.hosts.get(vds.getId());
+        if (current == null) {
+            // Will be loaded together with its NUMA topology when the host is scheduled on
+            return;
+        }
+
+        VDS host = vds.clone();
+        host.setNumaNodeList(copyNumaNodes(current.getNumaNodeList(), vds.getNumaNodeList()));
+        snapshot.put(host, version.incrementAndGet());
+    }
+
+    /**
+     * Drop the hosts of the cluster, so they are reloaded with the updated cluster data on the next scheduling
+     */
+    public void invalidateCluster(Guid clusterId) {
+        clusters.remove(clusterId);
+    }
+
+    /**
+     * Drop the host, so it is reloaded with its updated static data when it is scheduled on
+     */
+    public void invalidateHost(Guid hostId) {
+        clusters.values().forEach(snapshot -> snapshot.remove(hostId, version.incrementAndGet()));
+    }
+
+    /**
+     * @return version of the last change of the cluster snapshot, 0 if the cluster is not loaded
+     */
+    public long getVersion(Guid clusterId) {
+        ClusterHosts snapshot = clusters.get(clusterId);
+        return snapshot == null ? 0 : snapshot.version;
+    }
+
+    /**
+     * Set the pending CPU and memory of the hosts to the current values from the pending resource manager.
+     * The values are recomputed only for hosts whose pending resources changed since the last call.
+     */
+    public void refreshPendingValues(List<VDS> hosts) {
+        for (VDS host : hosts) {
+            HostPending pending = getPending(host.getId());
+            host.setPendingVcpusCount(pending.vcpus);
+            host.setPendingVmemSize(pending.vmem);
+        }
+    }
+
+    private HostPending getPending(Guid hostId) {
+        long hostVersion = pendingResourceManager.getHostVersion(hostId);
+        HostPending pending = pendingByHost.get(hostId);
+        if (pending != null && pending.version == hostVersion) {
+            return pending;
+        }
+
+        pending = new HostPending(hostVersion,
+                PendingCpuCores.collectForHost(pendingResourceManager, hostId),
+                PendingOvercommitMemory.collectForHost(pendingResourceManager, hostId)
+                        + HugePageUtils.totalHugePageMemMb(
+                                PendingHugePages.collectForHost(pendingResourceManager, hostId)),
+                PendingNumaMemory.collectForHost(pendingResourceManager, hostId));
+        pendingByHost.put(hostId, pending);
+        return pending;
+    }
+
+    private Set<Guid> getUpHosts(Guid clusterId) {
+        Set<Guid> hostIds = new TreeSet<>();
+        for (VdsManager vdsManager : resourceManager.getVdsManagers()) {
+            if (vdsManager.getStatus() == VDSStatus.Up && clusterId.equals(vdsManager.getClusterId())) {
+                hostIds.add(vdsManager.getVdsId());
+            }
+        }
+        return hostIds;
+    }
+
+    private ClusterHosts loadCluster(Guid clusterId) {
+        log.debug("Loading hosts of cluster '{}' for scheduling", clusterId);
+        ClusterHosts snapshot = new ClusterHosts(version.incrementAndGet());
+        for (VDS host : vdsDao.getAllForClusterWithStatus(clusterId, VDSStatus.Up)) {
+            host.setNumaNodeList(vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(host.getId()));
+            snapshot.hosts.put(host.getId(), host);
+        }
+        return snapshot;
+    }
+
+    private VDS loadHost(Guid hostId) {
+        VDS host = vdsDao.get(hostId);
+        if (host != null) {
+            host.setNumaNodeList(vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(hostId));
+        }
+        return host;
+    }
+
+    private VDS copyHost(VDS host) {
+        VDS copy = host.clone();
+        HostPending pending = getPending(host.getId());
+        copy.setPendingVcpusCount(pending.vcpus);
+        copy.setPendingVmemSize(pending.vmem);
+
+        // Subtracting pending memory, so the scheduling units don't have to consider it
+        List<VdsNumaNode> numaNodes = copyNumaNodes(host.getNumaNodeList(), host.getNumaNodeList());
+        for (VdsNumaNode node : numaNodes) {
+            NumaNodeMemoryConsumption consumption = pending.numaMemory.get(node.getIndex());
+            NumaNodeStatistics statistics = node.getNumaNodeStatistics();
+            if (consumption == null || statistics == null) {
+                continue;
+            }
+
+            statistics.setMemFree(statistics.getMemFree() - consumption.getMemoryMB());
+            for (HugePage hugePage : statistics.getHugePages()) {
+                hugePage.setFree(hugePage.getFree() - consumption.getHugePages().getOrDefault(hugePage.getSizeKB(), 0));
+            }
+        }
+        copy.setNumaNodeList(numaNodes);
+        return copy;
+    }
+
+    /**
+     * Deep copy the NUMA nodes, taking the statistics of each node from the node with the same index
+     * in the statistics source.
+     */
+    private static List<VdsNumaNode> copyNumaNodes(List<VdsNumaNode> nodes, List<VdsNumaNode> statisticsSource) {
+        if (nodes == null) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, NumaNodeStatistics> statistics = new HashMap<>();
+        if (statisticsSource != null) {
+            for (VdsNumaNode node : statisticsSource) {
+                if (node.getNumaNodeStatistics() != null) {
+                    statistics.put(node.getIndex(), node.getNumaNodeStatistics());
+                }
+            }
+        }
+
+        List<VdsNumaNode> copies = new ArrayList<>(nodes.size());
+        for (VdsNumaNode node : nodes) {
+            VdsNumaNode copy = new VdsNumaNode();
+            copy.setId(node.getId());
+            copy.setIndex(node.getIndex());
+            copy.setCpuIds(new ArrayList<>(node.getCpuIds()));
+            copy.setMemTotal(node.getMemTotal());
+            copy.setNumaNodeDistances(new HashMap<>(node.getNumaNodeDistances()));
+            copy.setNumaNodeStatistics(copyStatistics(statistics.getOrDefault(node.getIndex(),
+                    node.getNumaNodeStatistics())));
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static NumaNodeStatistics copyStatistics(NumaNodeStatistics statistics) {
+        if (statistics == null) {
+            return null;
+        }
+
+        NumaNodeStatistics copy = new NumaNodeStatistics();
+        copy.setMemFree(statistics.getMemFree());
+        copy.setMemUsagePercent(statistics.getMemUsagePercent());
+        copy.setCpuSys(statistics.getCpuSys());
+        copy.setCpuUser(statistics.getCpuUser());
+        copy.setCpuIdle(statistics.getCpuIdle());
+        copy.setCpuUsagePercent(statistics.getCpuUsagePercent());
+        List<HugePage> hugePages = new ArrayList<>();
+        if (statistics.getHugePages() != null) {
+            for (HugePage hugePage : statistics.getHugePages()) {
+                hugePages.add(new HugePage(hugePage.getSizeKB(), hugePage.getFree(), hugePage.getTotal()));
+            }
+        }
+        copy.setHugePages(hugePages);
+        return copy;
+    }
+
+    private static class ClusterHosts {
+        private final long loadTime = System.currentTimeMillis();
+        private final Map<Guid, VDS> hosts = new ConcurrentSkipListMap<>();
+        private volatile long version;
+
+        private ClusterHosts(long version) {
+            this.version = version;
+        }
+
+        private boolean isOlderThan(long maxAge) {
+            return System.currentTimeMillis() - loadTime > maxAge;
+        }
+
+        private void put(VDS host, long newVersion) {
+            hosts.put(host.getId(), host);
+            version = newVersion;
+        }
+
+        private void remove(Guid hostId, long newVersion) {
+            if (hosts.remove(hostId) != null) {
+                version = newVersion;
+            }
+        }
+    }
+
+    private static class HostPending {
+        private final long version;
+        private final int vcpus;
+        private final int vmem;
+        private final Map<Integer, NumaNodeMemoryConsumption> numaMemory;
+
+        private HostPending(long version, int vcpus, int vmem, Map<Integer, NumaNodeMemoryConsumption> numaMemory) {
+            this.version = version;
+            this.vcpus = vcpus;
+            this.vmem = vmem;
+            this.numaMemory = Collections.unmodifiableMap(numaMemory);
+        }
+    }
+}
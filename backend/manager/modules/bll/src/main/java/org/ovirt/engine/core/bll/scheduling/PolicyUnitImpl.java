@@ -115,6 +115,15 @@ public abstract class PolicyUnitImpl {
         return pendingResourceManager;
     }
 
+    /**
+     * Host independent filters can be evaluated on disjoint parts of the host list concurrently.
+     * External policy units are never considered host independent.
+     */
+    public boolean isHostIndependent() {
+        SchedulingUnit unit = getClass().getAnnotation(SchedulingUnit.class);
+        return unit != null && unit.hostIndependent();
+    }
+
     // The following methods are only used when instantiating an internal policy unit
 
     protected String getName() {
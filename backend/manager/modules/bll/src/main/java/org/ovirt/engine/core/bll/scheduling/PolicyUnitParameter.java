@@ -58,7 +58,12 @@ public enum PolicyUnitParameter {
     /**
      * The maximum allowed swap usage in percents of the physical memory
      */
-    MAX_ALLOWED_SWAP_USAGE("MaximumAllowedSwapUsage", "^1?[0-9]?[0-9]$");
+    MAX_ALLOWED_SWAP_USAGE("MaximumAllowedSwapUsage", "^1?[0-9]?[0-9]$"),
+
+    /**
+     * Evaluate host independent filters and the weight functions concurrently
+     */
+    PARALLEL_EVALUATION("ParallelEvaluation", "^(true|false)$");
 
     final String dbName;
     final String regex;
@@ -0,0 +1,110 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+
+/**
+ * Collects the time spent in the filters and weight functions of the policy units, so the expensive
+ * units can be found.
+ */
+public class PolicyUnitTimings implements StatisticsMXBean {
+
+    public enum Phase {
+        FILTER("filter"),
+        WEIGHT("weight");
+
+        private final String phaseName;
+
+        Phase(String phaseName) {
+            this.phaseName = phaseName;
+        }
+    }
+
+    private final Map<Phase, Map<Guid, UnitTiming>> timings = new EnumMap<>(Phase.class);
+
+    public PolicyUnitTimings() {
+        Arrays.stream(Phase.values()).forEach(phase -> timings.put(phase, new ConcurrentHashMap<>()));
+    }
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("SchedulingManager", this);
+
+    public void registerInJMX() {
+        jmxRegistration.register();
+    }
+
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    /**
+     * Records a single evaluation of the policy unit
+     * @param unit - the evaluated policy unit
+     * @param phase - filter or weight
+     * @param nanos - time the evaluation took
+     */
+    public void record(PolicyUnitImpl unit, Phase phase, long nanos) {
+        Map<Guid, UnitTiming> phaseTimings = timings.get(phase);
+        UnitTiming timing = phaseTimings.get(unit.getPolicyUnit().getId());
+        if (timing == null) {
+            timing = phaseTimings.computeIfAbsent(unit.getPolicyUnit().getId(),
+                    id -> new UnitTiming(unit.getPolicyUnit().getName()));
+        }
+        timing.add(nanos);
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        return Arrays.stream(Phase.values())
+                .flatMap(phase -> timings.get(phase)
+                        .values()
+                        .stream()
+                        .sorted(Comparator.comparing(timing -> timing.unitName))
+                        .map(timing -> phase.phaseName + ' ' + timing.unitName + ": " + timing))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void reset() {
+        timings.values().forEach(Map::clear);
+    }
+
+    private static class UnitTiming {
+        private final String unitName;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        UnitTiming(String unitName) {
+            this.unitName = unitName;
+        }
+
+        public void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        @Override
+        public String toString() {
+            long calls = count.sum();
+            long total = totalNanos.sum();
+            return String.format("calls %d, total %d ms, average %d us, max %d us",
+                    calls,
+                    TimeUnit.NANOSECONDS.toMillis(total),
+                    calls == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(total / calls),
+                    TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+        }
+    }
+}
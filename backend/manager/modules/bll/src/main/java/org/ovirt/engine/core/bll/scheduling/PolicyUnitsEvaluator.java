@@ -0,0 +1,145 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitTimings.Phase;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the internal filters and weight functions of the policy units and records the time spent in each of them.
+ * For cluster policies that opted in for parallel evaluation, host independent filters are run on disjoint chunks of
+ * the host list and the weight functions are run concurrently, in a bounded pool of named threads. The results are
+ * merged in the order of the hosts and of the policy, so they are the same as the results of a sequential run.
+ */
+public class PolicyUnitsEvaluator {
+
+    private static final Logger log = LoggerFactory.getLogger(PolicyUnitsEvaluator.class);
+
+    private static final int MIN_HOSTS_PER_CHUNK = 8;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ForkJoinPool pool;
+    private final PolicyUnitTimings timings;
+
+    public PolicyUnitsEvaluator(int parallelism, PolicyUnitTimings timings) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), PolicyUnitsWorkerThread::new, null, false);
+        this.timings = timings;
+    }
+
+    public List<VDS> filter(PolicyUnitImpl filterPolicyUnit,
+            List<VDS> hostList,
+            List<VM> vmGroup,
+            SchedulingContext context,
+            PerHostMessages messages) {
+        long start = System.nanoTime();
+        try {
+            if (context.isParallelEvaluation() && filterPolicyUnit.isHostIndependent()) {
+                return filterInParallel(filterPolicyUnit, hostList, vmGroup, context, messages);
+            }
+            return filterPolicyUnit.filter(context, hostList, vmGroup, messages);
+        } finally {
+            timings.record(filterPolicyUnit, Phase.FILTER, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Scores the hosts by each of the given functions
+     * @return the scores of each function, in the order of the functions
+     */
+    public List<List<Pair<Guid, Integer>>> score(List<Pair<PolicyUnitImpl, Integer>> functions,
+            List<VDS> hostList,
+            List<VM> vmGroup,
+            SchedulingContext context) {
+        if (context.isParallelEvaluation() && functions.size() > 1) {
+            // Every function scores all the hosts on its own
+            return functions.stream()
+                    .map(pair -> pool.submit(
+                            () -> score(pair.getFirst(), new ArrayList<>(hostList), vmGroup, context)))
+                    .collect(Collectors.toList())
+                    .stream()
+                    .map(ForkJoinTask::join)
+                    .collect(Collectors.toList());
+        }
+        return functions.stream()
+                .map(pair -> score(pair.getFirst(), hostList, vmGroup, context))
+                .collect(Collectors.toList());
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Policy units evaluation did not finish in {} seconds, interrupting it",
+                        SHUTDOWN_TIMEOUT_SECONDS);
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Pair<Guid, Integer>> score(PolicyUnitImpl function,
+            List<VDS> hostList,
+            List<VM> vmGroup,
+            SchedulingContext context) {
+        long start = System.nanoTime();
+        try {
+            return function.score(context, hostList, vmGroup);
+        } finally {
+            timings.record(function, Phase.WEIGHT, System.nanoTime() - start);
+        }
+    }
+
+    private List<VDS> filterInParallel(PolicyUnitImpl filterPolicyUnit,
+            List<VDS> hostList,
+            List<VM> vmGroup,
+            SchedulingContext context,
+            PerHostMessages messages) {
+        int chunkSize = Math.max(MIN_HOSTS_PER_CHUNK,
+                (hostList.size() + pool.getParallelism() - 1) / pool.getParallelism());
+        if (hostList.size() <= chunkSize) {
+            return filterPolicyUnit.filter(context, hostList, vmGroup, messages);
+        }
+
+        List<PerHostMessages> chunkMessages = new ArrayList<>();
+        List<ForkJoinTask<List<VDS>>> tasks = new ArrayList<>();
+        for (int from = 0; from < hostList.size(); from += chunkSize) {
+            List<VDS> chunk = new ArrayList<>(hostList.subList(from, Math.min(from + chunkSize, hostList.size())));
+            PerHostMessages chunkMessage = new PerHostMessages();
+            chunkMessages.add(chunkMessage);
+            tasks.add(pool.submit(() -> filterPolicyUnit.filter(context, chunk, vmGroup, chunkMessage)));
+        }
+
+        List<VDS> result = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            result.addAll(tasks.get(i).join());
+            chunkMessages.get(i).getMessages().forEach(messages::addMessages);
+        }
+        return result;
+    }
+
+    /**
+     * Worker thread named after the pool. As it is created by the scheduling thread, it inherits its context class
+     * loader, unlike the threads of the default factory.
+     */
+    private static class PolicyUnitsWorkerThread extends ForkJoinWorkerThread {
+
+        PolicyUnitsWorkerThread(ForkJoinPool pool) {
+            super(pool);
+            setName("scheduler-policy-units-" + getPoolIndex());
+        }
+    }
+}
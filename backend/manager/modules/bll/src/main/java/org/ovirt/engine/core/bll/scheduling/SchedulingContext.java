@@ -18,6 +18,10 @@ public class SchedulingContext {
     private final boolean ignoreHardVmToVmAffinity;
     private final boolean doNotGroupVms;
     private boolean shouldWeighClusterHosts;
+    /**
+     * This field is set, if the cluster policy opted in for concurrent evaluation of the policy units.
+     */
+    private boolean parallelEvaluation;
 
     /**
      * This field is set, if it is possible to delay the scheduling.
@@ -87,6 +91,14 @@ public class SchedulingContext {
         this.shouldWeighClusterHosts = shouldWeighClusterHosts;
     }
 
+    public boolean isParallelEvaluation() {
+        return parallelEvaluation;
+    }
+
+    public void setParallelEvaluation(boolean parallelEvaluation) {
+        this.parallelEvaluation = parallelEvaluation;
+    }
+
     public boolean isCanDelay() {
         return canDelay;
     }
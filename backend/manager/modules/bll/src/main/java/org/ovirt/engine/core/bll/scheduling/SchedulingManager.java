@@ -22,7 +22,9 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -61,7 +63,6 @@ import org.ovirt.engine.core.common.businessentities.HugePage;
 import org.ovirt.engine.core.common.businessentities.NumaNodeStatistics;
 import org.ovirt.engine.core.common.businessentities.NumaTuneMode;
 import org.ovirt.engine.core.common.businessentities.VDS;
-import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VdsCpuUnit;
 import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
@@ -71,6 +72,8 @@ import org.ovirt.engine.core.common.businessentities.comparators.VmsCpuPinningPo
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.errors.EngineMessage;
+import org.ovirt.engine.core.common.qualifiers.ClusterUpdated;
+import org.ovirt.engine.core.common.qualifiers.HostUpdated;
 import org.ovirt.engine.core.common.scheduling.AffinityGroup;
 import org.ovirt.engine.core.common.scheduling.ClusterPolicy;
 import org.ovirt.engine.core.common.scheduling.OptimizationType;
@@ -152,6 +155,8 @@ public class SchedulingManager implements BackendService {
 
     private PendingResourceManager pendingResourceManager;
 
+    private HostCapacitySnapshot hostCapacitySnapshot;
+
     /**
      * [policy id, policy] map
      */
@@ -173,6 +178,12 @@ public class SchedulingManager implements BackendService {
 
     private final int vcpuLoadPerCore = Config.<Integer>getValue(ConfigValues.VcpuConsumptionPercentage);
 
+    private final PolicyUnitTimings policyUnitTimings = new PolicyUnitTimings();
+
+    private final BatchPlacementStatistics batchPlacementStatistics = new BatchPlacementStatistics();
+
+    private PolicyUnitsEvaluator policyUnitsEvaluator;
+
     private PendingResourceManager getPendingResourceManager() {
         return pendingResourceManager;
     }
@@ -188,6 +199,7 @@ public class SchedulingManager implements BackendService {
     public void init() {
         log.info("Initializing Scheduling manager");
         initializePendingResourceManager();
+        initializePolicyUnitsPool();
         loadPolicyUnits();
         loadClusterPolicies();
         loadExternalScheduler();
@@ -196,8 +208,31 @@ public class SchedulingManager implements BackendService {
         log.info("Initialized Scheduling manager");
     }
 
+    @PreDestroy
+    public void shutdown() {
+        policyUnitsEvaluator.shutdown();
+        policyUnitTimings.unregisterFromJMX();
+        batchPlacementStatistics.unregisterFromJMX();
+    }
+
     private void initializePendingResourceManager() {
         pendingResourceManager = new PendingResourceManager(resourceManager);
+        hostCapacitySnapshot = new HostCapacitySnapshot(resourceManager, pendingResourceManager, vdsDao, vdsNumaNodeDao);
+    }
+
+    private void initializePolicyUnitsPool() {
+        policyUnitsEvaluator = new PolicyUnitsEvaluator(Config.<Integer>getValue(ConfigValues.SchedulerParallelism),
+                policyUnitTimings);
+        policyUnitTimings.registerInJMX();
+        batchPlacementStatistics.registerInJMX();
+    }
+
+    public PolicyUnitTimings getPolicyUnitTimings() {
+        return policyUnitTimings;
+    }
+
+    public BatchPlacementStatistics getBatchPlacementStatistics() {
+        return batchPlacementStatistics;
     }
 
     private void loadExternalScheduler() {
@@ -362,6 +397,7 @@ public class SchedulingManager implements BackendService {
             boolean ignoreHardVmToVmAffinity,
             boolean doNotGroupVms,
             boolean stateless,
+            boolean batch,
             List<String> messages,
             boolean delayWhenNeeded,
             String correlationId) {
@@ -370,9 +406,10 @@ public class SchedulingManager implements BackendService {
             log.debug("Scheduling started, correlation Id: {}", correlationId);
             checkAllowOverbooking(cluster);
             lockCluster(cluster.getId());
+            long start = System.nanoTime();
             List<VDS> hosts = fetchHosts(cluster.getId(), hostBlackList, hostWhiteList);
             vms.forEach(vmHandler::updateVmStatistics);
-            fetchNumaNodes(vms, hosts);
+            fetchNumaNodes(vms);
             ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
             SchedulingContext context = new SchedulingContext(cluster,
                     createClusterPolicyParameters(cluster),
@@ -382,11 +419,25 @@ public class SchedulingManager implements BackendService {
             splitFilters(policy.getFilters(), policy.getFilterPositionMap(), context);
             splitFunctions(policy.getFunctions(), context);
             context.setShouldWeighClusterHosts(shouldWeighClusterHosts(cluster));
+            context.setParallelEvaluation(isParallelEvaluation(policy, context));
+
+            List<List<VM>> vmGroups = groupVms(vms, context);
+            BatchPlacementPlanner planner = null;
+            if (batch && vmGroups.size() > 1) {
+                planner = planBatchPlacement(vmGroups, hosts, context);
+                vmGroups = planner.getOrderedGroups();
+            }
+            BatchPlacementPlanner batchPlanner = planner;
 
             Function<List<VM>, Optional<Guid>> findBestHost = group -> {
                 context.getMessages().clear();
                 refreshCachedPendingValues(hosts);
-                return selectHost(policy, hosts, group, destHostIdList, context, correlationId);
+                return selectHost(policy,
+                        batchPlanner != null ? batchPlanner.getCandidateHosts(group) : hosts,
+                        group,
+                        destHostIdList,
+                        context,
+                        correlationId);
             };
 
             Map<Guid, VDS> hostsMap = hosts.stream().collect(Collectors.toMap(VDS::getId, h -> h));
@@ -394,7 +445,7 @@ public class SchedulingManager implements BackendService {
             Set<Guid> hostsToNotifyPending = new HashSet<>();
             List<Runnable> vfsUpdates = new ArrayList<>();
             Map<Guid, Guid> vmToHostAssignment = new HashMap<>();
-            for (List<VM> vmGroup : groupVms(vms, context)) {
+            for (List<VM> vmGroup : vmGroups) {
                 Optional<Guid> bestHost = findBestHost.apply(vmGroup);
                 // The delay is executed only once
                 if (delayWhenNeeded && context.isShouldDelay()) {
@@ -449,6 +500,16 @@ public class SchedulingManager implements BackendService {
             hostsToNotifyPending.forEach(hostId -> getPendingResourceManager().notifyHostManagers(hostId));
             vfsUpdates.forEach(Runnable::run);
             messages.addAll(context.getMessages());
+            if (batch) {
+                long duration = System.nanoTime() - start;
+                batchPlacementStatistics.record(vms.size(), vmToHostAssignment.size(), duration);
+                log.debug("Placed {} of {} VMs in {} ms ({} placements per second), correlation Id: {}",
+                        vmToHostAssignment.size(),
+                        vms.size(),
+                        TimeUnit.NANOSECONDS.toMillis(duration),
+                        Math.round(BatchPlacementStatistics.placementsPerSecond(vmToHostAssignment.size(), duration)),
+                        correlationId);
+            }
             return vmToHostAssignment;
         } catch (InterruptedException e) {
             log.error("scheduling interrupted, correlation Id: {}: {}", correlationId, e.getMessage());
@@ -461,6 +522,35 @@ public class SchedulingManager implements BackendService {
         }
     }
 
+    /**
+     * Plans the placement of the groups of a batch. The suitable hosts of the groups are found by the internal
+     * filters only, without logging or reporting the filtered hosts. All the filters, including the external ones,
+     * run once more when each group is placed, and only then the reasons are reported.
+     */
+    private BatchPlacementPlanner planBatchPlacement(List<List<VM>> vmGroups,
+            List<VDS> hosts,
+            SchedulingContext context) {
+        boolean shouldDelay = context.isShouldDelay();
+        refreshCachedPendingValues(hosts);
+        BatchPlacementPlanner planner = new BatchPlacementPlanner(vmGroups,
+                hosts,
+                (hostList, vmGroup) -> findSuitableHosts(hostList, vmGroup, context));
+        context.getMessages().clear();
+        context.setShouldDelay(shouldDelay);
+        return planner;
+    }
+
+    private List<VDS> findSuitableHosts(List<VDS> hostList, List<VM> vmGroup, SchedulingContext context) {
+        PerHostMessages messages = new PerHostMessages();
+        for (PolicyUnitImpl filterPolicyUnit : context.getInternalFilters()) {
+            if (hostList.isEmpty()) {
+                break;
+            }
+            hostList = policyUnitsEvaluator.filter(filterPolicyUnit, hostList, vmGroup, context, messages);
+        }
+        return hostList;
+    }
+
     private void updateDedicatedNumaMemoryConsumption(VM vm, VDS host, String numaPinningString,
             Map<Guid, Map<Integer, NumaNodeMemoryConsumption>> numaConsumptionPerVm) {
         if (vm.getCpuPinningPolicy().isExclusive()) {
@@ -507,24 +597,20 @@ public class SchedulingManager implements BackendService {
     }
 
     private List<VDS> fetchHosts(Guid clusterId, List<Guid> blackList, List<Guid> whiteList) {
-        List<VDS> vdsList = vdsDao.getAllForClusterWithStatus(clusterId, VDSStatus.Up);
+        List<VDS> vdsList = hostCapacitySnapshot.getHosts(clusterId);
         vdsList = removeBlacklistedHosts(vdsList, blackList);
         return keepOnlyWhitelistedHosts(vdsList, whiteList);
     }
 
-    private void fetchNumaNodes(List<VM> vms, List<VDS> hosts) {
+    /**
+     * The NUMA nodes of the hosts are provided by the host capacity snapshot, with the pending memory
+     * already subtracted.
+     */
+    private void fetchNumaNodes(List<VM> vms) {
         // TODO - fetch numa nodes for all VMs in 1 DB call
         for (VM vm : vms) {
             vm.setvNumaNodeList(vmNumaNodeDao.getAllVmNumaNodeByVmId(vm.getId()));
         }
-
-        for (VDS host : hosts) {
-            host.setNumaNodeList(vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(host.getId()));
-
-            // Subtracting pending memory, so the scheduling units don't have to consider it
-            Map<Integer, NumaNodeMemoryConsumption> pendingNumaMemory = PendingNumaMemory.collectForHost(pendingResourceManager, host.getId());
-            updateHostNumaNodes(host, pendingNumaMemory);
-        }
     }
 
     private void updateHostNumaNodes(VDS host, Map<Integer, NumaNodeMemoryConsumption> numaConsumption) {
@@ -685,17 +771,7 @@ public class SchedulingManager implements BackendService {
      * @param vdsList - list of candidate hosts
      */
     private void refreshCachedPendingValues(List<VDS> vdsList) {
-        for (VDS vds: vdsList) {
-            int pendingMemory = PendingOvercommitMemory.collectForHost(getPendingResourceManager(), vds.getId());
-            int pendingCpuCount = PendingCpuCores.collectForHost(getPendingResourceManager(), vds.getId());
-
-            int pendingHugePageMemMb = HugePageUtils.totalHugePageMemMb(PendingHugePages.collectForHost(
-                    getPendingResourceManager(),
-                    vds.getId()));
-
-            vds.setPendingVcpusCount(pendingCpuCount);
-            vds.setPendingVmemSize(pendingMemory + pendingHugePageMemMb);
-        }
+        hostCapacitySnapshot.refreshPendingValues(vdsList);
     }
 
     private List<List<VM>> groupVms(List<VM> vms, SchedulingContext context) {
@@ -873,13 +949,14 @@ public class SchedulingManager implements BackendService {
         }
         refreshCachedPendingValues(hosts);
         vms.forEach(vmHandler::updateVmStatistics);
-        fetchNumaNodes(vms, hosts);
+        fetchNumaNodes(vms);
         ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
         SchedulingContext context = new SchedulingContext(cluster,
                 createClusterPolicyParameters(cluster),
                 ignoreHardVmToVmAffinity,
                 doNotGroupVms);
         splitFilters(policy.getFilters(), policy.getFilterPositionMap(), context);
+        context.setParallelEvaluation(isParallelEvaluation(policy, context));
 
         for (List<VM> vmGroup : groupVms(vms, context)) {
             List<VDS> filteredHosts = runFilters(hosts,
@@ -894,6 +971,19 @@ public class SchedulingManager implements BackendService {
         return res;
     }
 
+    /**
+     * Parallel evaluation is enabled by the ParallelEvaluation property of the cluster,
+     * or by the one of the cluster policy if the cluster does not override it.
+     */
+    private boolean isParallelEvaluation(ClusterPolicy policy, SchedulingContext context) {
+        String parameterName = PolicyUnitParameter.PARALLEL_EVALUATION.getDbName();
+        String value = context.getPolicyParameters().get(parameterName);
+        if (value == null && policy.getParameterMap() != null) {
+            value = policy.getParameterMap().get(parameterName);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
     private Map<String, String> createClusterPolicyParameters(Cluster cluster) {
         Map<String, String> parameters = new HashMap<>();
         if (cluster.getClusterPolicyProperties() != null) {
@@ -1014,7 +1104,7 @@ public class SchedulingManager implements BackendService {
                 break;
             }
             List<VDS> currentHostList = new ArrayList<>(hostList);
-            hostList = filterPolicyUnit.filter(context, hostList, vmGroup, result.getDetails());
+            hostList = policyUnitsEvaluator.filter(filterPolicyUnit, hostList, vmGroup, context, result.getDetails());
             logFilterActions(currentHostList,
                     toIdSet(hostList),
                     EngineMessage.VAR__FILTERTYPE__INTERNAL,
@@ -1104,10 +1194,13 @@ public class SchedulingManager implements BackendService {
             List<VM> vmGroup,
             SchedulingContext context) {
 
-        for (Pair<PolicyUnitImpl, Integer> pair : context.getInternalScoreFunctions()) {
-            List<Pair<Guid, Integer>> scoreResult = pair.getFirst().score(context, hostList, vmGroup);
-            for (Pair<Guid, Integer> result : scoreResult) {
-                selector.record(pair.getFirst().getGuid(), result.getFirst(), result.getSecond());
+        List<Pair<PolicyUnitImpl, Integer>> functions = context.getInternalScoreFunctions();
+        List<List<Pair<Guid, Integer>>> scoreResults =
+                policyUnitsEvaluator.score(functions, hostList, vmGroup, context);
+
+        for (int i = 0; i < functions.size(); i++) {
+            for (Pair<Guid, Integer> result : scoreResults.get(i)) {
+                selector.record(functions.get(i).getFirst().getGuid(), result.getFirst(), result.getSecond());
             }
         }
     }
@@ -1217,6 +1310,7 @@ public class SchedulingManager implements BackendService {
         if (clusterPolicy.getBalance() != null) {
             usedPolicyUnits.add(clusterPolicy.getBalance());
         }
+        usedPolicyUnits.add(Optional.ofNullable(clusterPolicy.getSelector()).orElse(defaultSelectorGuid));
         Map<String, String> map = new LinkedHashMap<>();
         for (Guid policyUnitId : usedPolicyUnits) {
             map.putAll(policyUnits.get(policyUnitId).getPolicyUnit().getParameterRegExMap());
@@ -1443,6 +1537,14 @@ public class SchedulingManager implements BackendService {
         policyUnits.remove(policyUnitId);
     }
 
+    private void onClusterUpdated(@Observes @ClusterUpdated Guid clusterId) {
+        hostCapacitySnapshot.invalidateCluster(clusterId);
+    }
+
+    private void onHostUpdated(@Observes @HostUpdated Guid hostId) {
+        hostCapacitySnapshot.invalidateHost(hostId);
+    }
+
     /**
      * update host scheduling statistics:
      * * CPU load duration interval over/under policy threshold
@@ -1468,6 +1570,7 @@ public class SchedulingManager implements BackendService {
                 vds.setCpuOverCommitTimestamp(null);
             }
         }
+        hostCapacitySnapshot.updateHost(vds);
     }
 
     /**
@@ -1492,6 +1595,7 @@ public class SchedulingManager implements BackendService {
         private boolean doNotGroupVms = false;
         private List<String> outMessages = new ArrayList<>();
         private boolean delay = false;
+        private boolean batch = false;
         private String correlationId;
 
         private CallBuilder(Cluster cluster) {
@@ -1507,6 +1611,7 @@ public class SchedulingManager implements BackendService {
                     ignoreHardVmToVmAffinity,
                     doNotGroupVms,
                     stateless,
+                    batch,
                     outMessages,
                     delay,
                     correlationId);
@@ -1548,6 +1653,15 @@ public class SchedulingManager implements BackendService {
             return this;
         }
 
+        /**
+         * Place all the VMs of the call as one batch: the filters are evaluated for all the VM groups up front
+         * and the most constrained groups are placed first, instead of placing the groups in the given order.
+         */
+        public CallBuilder batch(boolean value) {
+            batch = value;
+            return this;
+        }
+
         public CallBuilder correlationId(String id) {
             correlationId = id;
             return this;
@@ -15,4 +15,9 @@ public @interface SchedulingUnit {
     PolicyUnitType type() default PolicyUnitType.FILTER;
     String description() default "";
     PolicyUnitParameter[] parameters() default {};
+    /**
+     * Set for filters that decide about each host on its own, without looking at the other
+     * candidate hosts or changing the scheduling context
+     */
+    boolean hostIndependent() default false;
 }
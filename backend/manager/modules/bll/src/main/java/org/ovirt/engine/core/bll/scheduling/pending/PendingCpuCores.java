@@ -65,23 +65,16 @@ public class PendingCpuCores extends PendingResource {
         return VmSpecificPendingResourceEqualizer.calcHashCode(this);
     }
 
-    public static int collectForHost(PendingResourceManager manager, Guid host) {
-        int sum = 0;
-        for (PendingCpuCores resource: manager.pendingHostResources(host, PendingCpuCores.class)) {
-            sum += resource.getCpuCount();
-        }
+    @Override
+    void updateCounters(PendingHostCounters counters, int sign) {
+        counters.addCpus(sign * cpuCount, cpuPinningPolicy == null || !cpuPinningPolicy.isExclusive());
+    }
 
-        return sum;
+    public static int collectForHost(PendingResourceManager manager, Guid host) {
+        return (int) manager.getHostCounters(host).getCpuCount();
     }
 
     public static int collectSharedForHost(PendingResourceManager manager, Guid host) {
-        int sum = 0;
-        for (PendingCpuCores resource: manager.pendingHostResources(host, PendingCpuCores.class)) {
-            if (!resource.getCpuPinningPolicy().isExclusive()) {
-                sum += resource.getCpuCount();
-            }
-        }
-
-        return sum;
+        return (int) manager.getHostCounters(host).getSharedCpuCount();
     }
 }
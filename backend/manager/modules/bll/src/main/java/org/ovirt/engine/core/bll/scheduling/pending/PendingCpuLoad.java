@@ -40,23 +40,16 @@ public class PendingCpuLoad extends PendingResource {
         return VmSpecificPendingResourceEqualizer.calcHashCode(this);
     }
 
-    public static int collectForHost(PendingResourceManager manager, Guid host) {
-        int sum = 0;
-        for (PendingCpuLoad resource: manager.pendingHostResources(host, PendingCpuLoad.class)) {
-            sum += resource.getCpuLoad();
-        }
+    @Override
+    void updateCounters(PendingHostCounters counters, int sign) {
+        counters.addCpuLoad(sign * cpuLoad, cpuPinningPolicy == null || !cpuPinningPolicy.isExclusive());
+    }
 
-        return sum;
+    public static int collectForHost(PendingResourceManager manager, Guid host) {
+        return (int) manager.getHostCounters(host).getCpuLoad();
     }
 
     public static int collectSharedForHost(PendingResourceManager manager, Guid host) {
-        int sum = 0;
-        for (PendingCpuLoad resource : manager.pendingHostResources(host, PendingCpuLoad.class)) {
-            if (!resource.getCpuPinningPolicy().isExclusive()) {
-                sum += resource.getCpuLoad();
-            }
-        }
-
-        return sum;
+        return (int) manager.getHostCounters(host).getSharedCpuLoad();
     }
 }
@@ -0,0 +1,87 @@
+package org.ovirt.engine.core.bll.scheduling.pending;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Summary of the countable pending resources of one host. The counters are maintained by the
+ * {@link PendingResourceManager} when resources are added and removed, so the pending amounts
+ * can be read in constant time without walking the pending resources of the host.
+ *
+ * Only the manager modifies the counters and it does so while holding its lock. Reads are best effort,
+ * the same as the reads of the pending resources themselves.
+ */
+public class PendingHostCounters {
+
+    static final PendingHostCounters EMPTY = new PendingHostCounters();
+
+    private volatile long memoryMb;
+    private volatile long overcommitMemoryMb;
+    private volatile long cpuCount;
+    private volatile long sharedCpuCount;
+    private volatile long cpuLoad;
+    private volatile long sharedCpuLoad;
+    private volatile Map<Integer, Integer> hugePages = Collections.emptyMap();
+
+    public long getMemoryMb() {
+        return memoryMb;
+    }
+
+    public long getOvercommitMemoryMb() {
+        return overcommitMemoryMb;
+    }
+
+    public long getCpuCount() {
+        return cpuCount;
+    }
+
+    public long getSharedCpuCount() {
+        return sharedCpuCount;
+    }
+
+    public long getCpuLoad() {
+        return cpuLoad;
+    }
+
+    public long getSharedCpuLoad() {
+        return sharedCpuLoad;
+    }
+
+    /**
+     * @return unmodifiable map of hugepage size -> count
+     */
+    public Map<Integer, Integer> getHugePages() {
+        return hugePages;
+    }
+
+    void addMemory(long sizeInMb) {
+        memoryMb += sizeInMb;
+    }
+
+    void addOvercommitMemory(long sizeInMb) {
+        overcommitMemoryMb += sizeInMb;
+    }
+
+    void addCpus(long count, boolean shared) {
+        cpuCount += count;
+        if (shared) {
+            sharedCpuCount += count;
+        }
+    }
+
+    void addCpuLoad(long load, boolean shared) {
+        cpuLoad += load;
+        if (shared) {
+            sharedCpuLoad += load;
+        }
+    }
+
+    void addHugePages(int pageSize, int count) {
+        Map<Integer, Integer> updated = new HashMap<>(hugePages);
+        if (updated.merge(pageSize, count, Integer::sum) == 0) {
+            updated.remove(pageSize);
+        }
+        hugePages = Collections.unmodifiableMap(updated);
+    }
+}
@@ -41,12 +41,12 @@ public class PendingMemory extends PendingResource {
         return VmSpecificPendingResourceEqualizer.calcHashCode(this);
     }
 
-    public static int collectForHost(PendingResourceManager manager, Guid host) {
-        int sumMb = 0;
-        for (PendingMemory resource: manager.pendingHostResources(host, PendingMemory.class)) {
-            sumMb += resource.getSizeInMb();
-        }
+    @Override
+    void updateCounters(PendingHostCounters counters, int sign) {
+        counters.addMemory(sign * sizeInMb);
+    }
 
-        return sumMb;
+    public static int collectForHost(PendingResourceManager manager, Guid host) {
+        return (int) manager.getHostCounters(host).getMemoryMb();
     }
 }
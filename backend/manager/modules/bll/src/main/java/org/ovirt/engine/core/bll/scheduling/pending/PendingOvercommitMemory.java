@@ -21,12 +21,12 @@ public class PendingOvercommitMemory extends PendingMemory {
         super(host, vm, sizeInMb);
     }
 
-    public static int collectForHost(PendingResourceManager manager, Guid host) {
-        int sumMb = 0;
-        for (PendingOvercommitMemory resource: manager.pendingHostResources(host, PendingOvercommitMemory.class)) {
-            sumMb += resource.getSizeInMb();
-        }
+    @Override
+    void updateCounters(PendingHostCounters counters, int sign) {
+        counters.addOvercommitMemory(sign * getSizeInMb());
+    }
 
-        return sumMb;
+    public static int collectForHost(PendingResourceManager manager, Guid host) {
+        return (int) manager.getHostCounters(host).getOvercommitMemoryMb();
     }
 }
@@ -64,4 +64,15 @@ public abstract class PendingResource {
      */
     public abstract boolean equals(Object other);
     public abstract int hashCode();
+
+    /**
+     * Add the amount of this resource to the pending counters of its host,
+     * or subtract it when sign is -1.
+     *
+     * Countable resources that are read on every scheduling run should
+     * override this and provide a collectForHost method that reads the
+     * counters instead of walking all the pending resources of the host.
+     */
+    void updateCounters(PendingHostCounters counters, int sign) {
+    }
 }
@@ -32,6 +32,9 @@ public class PendingResourceManager {
     private final Map<Guid, Set<PendingResource>> resourcesByHost = new ConcurrentHashMap<>();
     private final Map<Guid, Set<PendingResource>> resourcesByVm = new ConcurrentHashMap<>();
     private final Map<PendingResource, PendingResource> pendingResources = new ConcurrentHashMap<>();
+    private final Map<Guid, PendingHostCounters> countersByHost = new ConcurrentHashMap<>();
+    private final Map<Guid, Long> hostVersions = new ConcurrentHashMap<>();
+    private long version;
 
     private final ResourceManager resourceManager;
 
@@ -65,12 +68,14 @@ public class PendingResourceManager {
                 resources.stream()
                         .peek(pendingResources::remove)
                         .filter(r -> removeFromSetMap(resourcesByHost, r.getHost(), r))
+                        .peek(r -> r.updateCounters(getOrCreateHostCounters(r.getHost()), -1))
                         .map(PendingResource::getHost)
                         .forEach(modifiedHosts::add);
 
                 resources.clear();
                 return resources;
             });
+            modifiedHosts.forEach(this::hostModified);
         }
 
         for (Guid hostId: modifiedHosts) {
@@ -108,6 +113,8 @@ public class PendingResourceManager {
                 resources.clear();
                 return resources;
             });
+            countersByHost.remove(host.getId());
+            hostModified(host.getId());
         }
 
         notifyHostManagers(host.getId());
@@ -133,7 +140,10 @@ public class PendingResourceManager {
                         old, old.getHost(), old.getVm());
 
                 removeFromSetMap(resourcesByVm, old.getVm(), old);
-                removeFromSetMap(resourcesByHost, old.getHost(), old);
+                if (removeFromSetMap(resourcesByHost, old.getHost(), old)) {
+                    old.updateCounters(getOrCreateHostCounters(old.getHost()), -1);
+                }
+                hostModified(old.getHost());
             }
 
             log.debug("Adding pending resource {} (host: {}, vm: {})",
@@ -142,10 +152,45 @@ public class PendingResourceManager {
             /* Update indexes */
             addToSetMap(resourcesByVm, resource.getVm(), resource);
             addToSetMap(resourcesByHost, resource.getHost(), resource);
+            resource.updateCounters(getOrCreateHostCounters(resource.getHost()), 1);
             pendingResources.put(resource, resource);
+            hostModified(resource.getHost());
         }
     }
 
+    /**
+     * Return the summary of the countable pending resources associated with the host.
+     * The counters are maintained on every change, so this neither walks the resources
+     * nor allocates.
+     * @param hostId ID of a host
+     * @return Live counters of the host, never null
+     */
+    public PendingHostCounters getHostCounters(Guid hostId) {
+        return countersByHost.getOrDefault(hostId, PendingHostCounters.EMPTY);
+    }
+
+    private PendingHostCounters getOrCreateHostCounters(Guid hostId) {
+        return countersByHost.computeIfAbsent(hostId, k -> new PendingHostCounters());
+    }
+
+    /**
+     * Return the version of the pending resources associated with the host. The version changes
+     * every time a pending resource is added to or removed from the host, so it can be used to
+     * invalidate values computed from the pending resources of the host.
+     * @param hostId ID of a host
+     * @return Current version, 0 if no pending resource was ever associated with the host
+     */
+    public long getHostVersion(Guid hostId) {
+        return hostVersions.getOrDefault(hostId, 0L);
+    }
+
+    /**
+     * Must be called while holding the lock on this object.
+     */
+    private void hostModified(Guid hostId) {
+        hostVersions.put(hostId, ++version);
+    }
+
     /**
      * Return all currently pending resources of type "type" associated with host "vds".
      * @param host ID of a host
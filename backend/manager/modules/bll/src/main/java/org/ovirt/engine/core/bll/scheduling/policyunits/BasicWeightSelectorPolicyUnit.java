@@ -8,6 +8,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitParameter;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.bll.scheduling.selector.SelectorInstance;
@@ -20,7 +21,8 @@ import org.ovirt.engine.core.compat.Guid;
         guid = "0c89f215-9c4f-4bbb-8419-31a2d43ae7ea",
         name = "BasicWeighting",
         type = PolicyUnitType.SELECTOR,
-        description = "The host with lowest accumulated weight wins. No ranking or scaling is performed."
+        description = "The host with lowest accumulated weight wins. No ranking or scaling is performed.",
+        parameters = PolicyUnitParameter.PARALLEL_EVALUATION
 )
 public class BasicWeightSelectorPolicyUnit extends PolicyUnitImpl {
     public BasicWeightSelectorPolicyUnit(PolicyUnit policyUnit, PendingResourceManager pendingResourceManager) {
@@ -31,7 +31,8 @@ import org.slf4j.LoggerFactory;
         guid = "438b052c-90ab-40e8-9be0-a22560202ea6",
         name = "CPU-Level",
         type = PolicyUnitType.FILTER,
-        description = "Runs VMs only on hosts with a proper CPU level"
+        description = "Runs VMs only on hosts with a proper CPU level",
+        hostIndependent = true
 )
 public class CpuLevelFilterPolicyUnit extends PolicyUnitImpl {
     private static final Logger log = LoggerFactory.getLogger(CpuLevelFilterPolicyUnit.class);
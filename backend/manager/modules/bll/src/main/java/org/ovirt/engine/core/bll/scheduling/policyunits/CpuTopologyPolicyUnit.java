@@ -21,7 +21,8 @@ import org.slf4j.LoggerFactory;
         guid = "35c2f1a5-8928-48e9-81ac-4c49eb49d60e",
         name = "CPUTopology",
         type = PolicyUnitType.FILTER,
-        description = "Runs VMs only on hosts with a proper CPU topology")
+        description = "Runs VMs only on hosts with a proper CPU topology",
+        hostIndependent = true)
 public class CpuTopologyPolicyUnit extends PolicyUnitImpl {
 
     private static final Logger log = LoggerFactory.getLogger(CpuTopologyPolicyUnit.class);
@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitParameter;
 import org.ovirt.engine.core.bll.scheduling.SchedulingUnit;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.bll.scheduling.selector.SelectorInstance;
@@ -27,7 +28,8 @@ import org.slf4j.LoggerFactory;
         guid = "b280e7de-5df8-401e-b004-a1414d79a687",
         name = "RankSelector",
         type = PolicyUnitType.SELECTOR,
-        description = "The host with lowest accumulated rank wins."
+        description = "The host with lowest accumulated rank wins.",
+        parameters = PolicyUnitParameter.PARALLEL_EVALUATION
 )
 public class RankSelectorPolicyUnit extends PolicyUnitImpl {
     public static final Logger log = LoggerFactory.getLogger(RankSelectorPolicyUnit.class);
@@ -17,6 +17,7 @@ import javax.inject.Singleton;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
+import org.ovirt.engine.core.bll.PermissionGraph;
 import org.ovirt.engine.core.bll.exportimport.vnics.MapVnicsContext;
 import org.ovirt.engine.core.bll.exportimport.vnics.MapVnicsFlow;
 import org.ovirt.engine.core.common.VdcObjectType;
@@ -59,6 +60,8 @@ public class DrMappingHelper {
     @Inject
     private PermissionDao permissionDao;
     @Inject
+    private PermissionGraph permissionGraph;
+    @Inject
     private MapVnicsFlow mapVnicsFlow;
 
     protected static final Logger log = LoggerFactory.getLogger(DrMappingHelper.class);
@@ -306,6 +309,7 @@ public class DrMappingHelper {
                         dbUserDao.getByUsernameAndDomain(dbUser.getLoginName(), dbUser.getDomain());
                 Permission p = new Permission(dbUserFromDB.getId(), role.getId(), objectId, objectType);
                 permissionDao.save(p);
+                permissionGraph.invalidatePermission(p);
             } else {
                 log.warn("Role {} was not found", roleName);
             }
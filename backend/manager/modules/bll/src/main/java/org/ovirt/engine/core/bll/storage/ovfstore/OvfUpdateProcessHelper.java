@@ -77,11 +77,20 @@ public class OvfUpdateProcessHelper {
             Map<Guid, KeyValuePairCompat<String, List<Guid>>> metaDictionary,
             FullEntityOvfData fullEntityOvfData) {
         String vmMeta = generateVmMetadata(vm, fullEntityOvfData);
+        addVmMetadataToDictionary(vm, vmMeta, metaDictionary);
+        return vmMeta;
+    }
+
+    /**
+     * Adds the given, already generated, vm metadata to the given map
+     */
+    public void addVmMetadataToDictionary(VM vm,
+            String vmMeta,
+            Map<Guid, KeyValuePairCompat<String, List<Guid>>> metaDictionary) {
         metaDictionary.put(
                 vm.getId(),
                 new KeyValuePairCompat<>
                         (vmMeta, vm.getDiskMap().values().stream().map(BaseDisk::getId).collect(Collectors.toList())));
-        return vmMeta;
     }
 
     protected String generateVmTemplateMetadata(FullEntityOvfData fullEntityOvfData) {
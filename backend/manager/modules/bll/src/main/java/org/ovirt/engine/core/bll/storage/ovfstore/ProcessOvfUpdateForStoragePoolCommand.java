@@ -9,6 +9,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -24,12 +28,14 @@ import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.action.LockProperties;
 import org.ovirt.engine.core.common.action.ProcessOvfUpdateParameters;
 import org.ovirt.engine.core.common.businessentities.Label;
+import org.ovirt.engine.core.common.businessentities.Permission;
 import org.ovirt.engine.core.common.businessentities.Snapshot;
 import org.ovirt.engine.core.common.businessentities.StorageDomain;
 import org.ovirt.engine.core.common.businessentities.StorageDomainOvfInfo;
 import org.ovirt.engine.core.common.businessentities.StorageDomainOvfInfoStatus;
 import org.ovirt.engine.core.common.businessentities.StorageDomainStatus;
 import org.ovirt.engine.core.common.businessentities.StoragePool;
+import org.ovirt.engine.core.common.businessentities.StorageServerConnections;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
 import org.ovirt.engine.core.common.businessentities.VmTemplate;
@@ -38,6 +44,7 @@ import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
 import org.ovirt.engine.core.common.businessentities.storage.FullEntityOvfData;
 import org.ovirt.engine.core.common.businessentities.storage.ImageStatus;
+import org.ovirt.engine.core.common.businessentities.storage.LUNStorageServerConnectionMap;
 import org.ovirt.engine.core.common.businessentities.storage.LunDisk;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
@@ -50,15 +57,18 @@ import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.KeyValuePairCompat;
 import org.ovirt.engine.core.dao.DbUserDao;
 import org.ovirt.engine.core.dao.LabelDao;
+import org.ovirt.engine.core.dao.PermissionDao;
 import org.ovirt.engine.core.dao.SnapshotDao;
 import org.ovirt.engine.core.dao.StorageDomainDao;
 import org.ovirt.engine.core.dao.StorageDomainOvfInfoDao;
 import org.ovirt.engine.core.dao.StorageServerConnectionDao;
+import org.ovirt.engine.core.dao.StorageServerConnectionLunMapDao;
 import org.ovirt.engine.core.dao.VmAndTemplatesGenerationsDao;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
 import org.ovirt.engine.core.dao.VmTemplateDao;
 import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 
 @NonTransactiveCommandAttribute
 @InternalCommandAttribute
@@ -93,7 +103,9 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
     @Inject
     private DbUserDao dbUserDao;
     @Inject
-    private OvfHelper ovfHelper;
+    private PermissionDao permissionDao;
+    @Inject
+    private StorageServerConnectionLunMapDao storageServerConnectionLunMapDao;
 
     private int itemsCountPerUpdate;
     private List<Guid> proccessedIdsInfo;
@@ -177,6 +189,8 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
     protected void updateOvfForVmsOfStoragePool(StoragePool pool) {
         Guid poolId = pool.getId();
         List<Guid> vmsIdsForUpdate = vmAndTemplatesGenerationsDao.getVmsIdsForOvfUpdate(poolId);
+        long startTime = System.nanoTime();
+        int updatedVms = 0;
         int i = 0;
         while (i < vmsIdsForUpdate.size()) {
             int size = Math.min(itemsCountPerUpdate, vmsIdsForUpdate.size() - i);
@@ -186,9 +200,19 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
             Map<Guid, KeyValuePairCompat<String, List<Guid>>> vmsAndTemplateMetadata =
                     populateVmsMetadataForOvfUpdate(idsToProcess);
             if (!vmsAndTemplateMetadata.isEmpty()) {
+                updatedVms += vmsAndTemplateMetadata.size();
                 performOvfUpdate(vmsAndTemplateMetadata);
             }
         }
+
+        if (updatedVms > 0) {
+            long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), 1);
+            log.info("Updated the OVFs of {} VMs in Data Center '{}' in {} ms ({} VMs per second)",
+                    updatedVms,
+                    pool.getName(),
+                    elapsedMillis,
+                    updatedVms * 1000L / elapsedMillis);
+        }
     }
 
     /**
@@ -235,26 +259,36 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
      */
     protected Map<Guid, KeyValuePairCompat<String, List<Guid>>> populateTemplatesMetadataForOvfUpdate(List<Guid> idsToProcess) {
         Map<Guid, KeyValuePairCompat<String, List<Guid>>> vmsAndTemplateMetadata = new HashMap<>();
-        List<VmTemplate> templates = vmTemplateDao.getVmTemplatesByIds(idsToProcess);
+        List<VmTemplate> templates = new ArrayList<>();
 
-        for (VmTemplate template : templates) {
+        for (VmTemplate template : vmTemplateDao.getVmTemplatesByIds(idsToProcess)) {
             if (VmTemplateStatus.Locked != template.getStatus()) {
                 updateTemplateDisksFromDb(template);
                 boolean verifyDisksNotLocked = verifyImagesStatus(template.getDiskList());
                 if (verifyDisksNotLocked) {
                     ovfUpdateProcessHelper.loadTemplateData(template);
-                    Long currentDbGeneration = vmStaticDao.getDbGeneration(template.getId());
-                    // currentDbGeneration can be null in case that the template was deleted during the run of OvfDataUpdater.
-                    if (currentDbGeneration != null && template.getDbGeneration() == currentDbGeneration) {
-                        proccessedOvfConfigurationsInfo.add(ovfUpdateProcessHelper.buildMetadataDictionaryForTemplate(template, vmsAndTemplateMetadata));
-                        proccessedIdsInfo.add(template.getId());
-                        proccessedOvfGenerationsInfo.add(template.getDbGeneration());
-                        proccessDisksDomains(template.getDiskList());
-                    }
+                    templates.add(template);
                 }
             }
         }
 
+        if (templates.isEmpty()) {
+            return vmsAndTemplateMetadata;
+        }
+
+        Map<Guid, Long> currentDbGenerations =
+                vmStaticDao.getDbGenerations(templates.stream().map(VmTemplate::getId).collect(Collectors.toList()));
+        for (VmTemplate template : templates) {
+            Long currentDbGeneration = currentDbGenerations.get(template.getId());
+            // currentDbGeneration can be null in case that the template was deleted during the run of OvfDataUpdater.
+            if (currentDbGeneration != null && template.getDbGeneration() == currentDbGeneration) {
+                proccessedOvfConfigurationsInfo.add(ovfUpdateProcessHelper.buildMetadataDictionaryForTemplate(template, vmsAndTemplateMetadata));
+                proccessedIdsInfo.add(template.getId());
+                proccessedOvfGenerationsInfo.add(template.getDbGeneration());
+                proccessDisksDomains(template.getDiskList());
+            }
+        }
+
         return vmsAndTemplateMetadata;
     }
 
@@ -321,8 +355,9 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
      */
     protected Map<Guid, KeyValuePairCompat<String, List<Guid>>> populateVmsMetadataForOvfUpdate(List<Guid> idsToProcess) {
         Map<Guid, KeyValuePairCompat<String, List<Guid>>> vmsAndTemplateMetadata = new HashMap<>();
-        List<VM> vms = vmDao.getVmsByIds(idsToProcess);
-        for (VM vm : vms) {
+        Map<Guid, ArrayList<DiskImage>> vmsImages = new HashMap<>();
+        List<VM> vms = new ArrayList<>();
+        for (VM vm : vmDao.getVmsByIds(idsToProcess)) {
             if (VMStatus.ImageLocked != vm.getStatus()) {
                 updateVmDisksFromDb(vm);
                 if (!verifyImagesStatus(vm.getDiskList())) {
@@ -332,45 +367,198 @@ public class ProcessOvfUpdateForStoragePoolCommand <T extends ProcessOvfUpdatePa
                 if (!verifyImagesStatus(vmImages)) {
                     continue;
                 }
-                vm.setSnapshots(snapshotDao.getAllWithConfiguration(vm.getId()));
-                if (!verifySnapshotsStatus(vm.getSnapshots())) {
-                    continue;
-                }
+                vmsImages.put(vm.getId(), vmImages);
+                vms.add(vm);
+            }
+        }
 
-                ovfUpdateProcessHelper.loadVmData(vm);
-                Long currentDbGeneration = vmStaticDao.getDbGeneration(vm.getId());
-                if (currentDbGeneration == null) {
-                    log.warn("currentDbGeneration of VM (name: '{}', id: '{}') is null, probably because the VM was deleted during the run of OvfDataUpdater.",
-                            vm.getName(),
-                            vm.getId());
-                    continue;
-                }
-                if (vm.getStaticData().getDbGeneration() == currentDbGeneration) {
-                    List<LunDisk> lunDisks = DisksFilter.filterLunDisks(vm.getDiskMap().values());
-                    for (LunDisk lun : lunDisks) {
-                        lun.getLun().setLunConnections(storageServerConnectionDao.getAllForLun(lun.getLun().getId()));
-                    }
-
-                    List<AffinityGroup> affinityGroups = affinityGroupDao.getAllAffinityGroupsByVmId(vm.getId());
-                    List<Label> affinityLabels = labelDao.getAllByEntityIds(Collections.singletonList(vm.getId()));
-                    Set<DbUser> dbUsers = new HashSet<>(dbUserDao.getAllForVm(vm.getId()));
-                    FullEntityOvfData fullEntityOvfData = new FullEntityOvfData(vm);
-                    fullEntityOvfData.setDiskImages(vmImages);
-                    fullEntityOvfData.setLunDisks(lunDisks);
-                    fullEntityOvfData.setAffinityGroups(affinityGroups);
-                    fullEntityOvfData.setAffinityLabels(affinityLabels);
-                    fullEntityOvfData.setDbUsers(dbUsers);
-                    ovfHelper.populateUserToRoles(fullEntityOvfData, vm.getId());
-                    proccessedOvfConfigurationsInfo.add(ovfUpdateProcessHelper.buildMetadataDictionaryForVm(vm,
-                            vmsAndTemplateMetadata,
-                            fullEntityOvfData));
-                    proccessedIdsInfo.add(vm.getId());
-                    proccessedOvfGenerationsInfo.add(vm.getStaticData().getDbGeneration());
-                    proccessDisksDomains(vm.getDiskList());
+        vms = filterVmsWithValidSnapshots(vms);
+        if (vms.isEmpty()) {
+            return vmsAndTemplateMetadata;
+        }
+
+        vms.forEach(ovfUpdateProcessHelper::loadVmData);
+        vms = filterVmsWithCurrentDbGeneration(vms);
+        if (vms.isEmpty()) {
+            return vmsAndTemplateMetadata;
+        }
+
+        List<FullEntityOvfData> fullEntitiesOvfData = buildFullEntitiesOvfData(vms, vmsImages);
+        List<String> vmsMetadata = generateVmsMetadata(vms, fullEntitiesOvfData);
+        for (int i = 0; i < vms.size(); i++) {
+            VM vm = vms.get(i);
+            String vmMetadata = vmsMetadata.get(i);
+            ovfUpdateProcessHelper.addVmMetadataToDictionary(vm, vmMetadata, vmsAndTemplateMetadata);
+            proccessedOvfConfigurationsInfo.add(vmMetadata);
+            proccessedIdsInfo.add(vm.getId());
+            proccessedOvfGenerationsInfo.add(vm.getStaticData().getDbGeneration());
+            proccessDisksDomains(vm.getDiskList());
+        }
+        return vmsAndTemplateMetadata;
+    }
+
+    /**
+     * Loads the snapshots of the given vms with a single query and returns the vms whose snapshots are valid
+     */
+    private List<VM> filterVmsWithValidSnapshots(List<VM> vms) {
+        if (vms.isEmpty()) {
+            return vms;
+        }
+
+        Map<Guid, List<Snapshot>> snapshotsByVm = snapshotDao.getAllWithConfiguration(getIds(vms)).stream()
+                .collect(Collectors.groupingBy(Snapshot::getVmId));
+        List<VM> validVms = new ArrayList<>();
+        for (VM vm : vms) {
+            vm.setSnapshots(snapshotsByVm.getOrDefault(vm.getId(), new ArrayList<>()));
+            if (verifySnapshotsStatus(vm.getSnapshots())) {
+                validVms.add(vm);
+            }
+        }
+        return validVms;
+    }
+
+    /**
+     * Returns the vms that weren't changed since they were loaded, according to their db generation
+     */
+    private List<VM> filterVmsWithCurrentDbGeneration(List<VM> vms) {
+        Map<Guid, Long> currentDbGenerations = vmStaticDao.getDbGenerations(getIds(vms));
+        List<VM> vmsToUpdate = new ArrayList<>();
+        for (VM vm : vms) {
+            Long currentDbGeneration = currentDbGenerations.get(vm.getId());
+            if (currentDbGeneration == null) {
+                log.warn("currentDbGeneration of VM (name: '{}', id: '{}') is null, probably because the VM was deleted during the run of OvfDataUpdater.",
+                        vm.getName(),
+                        vm.getId());
+                continue;
+            }
+            if (vm.getStaticData().getDbGeneration() == currentDbGeneration) {
+                vmsToUpdate.add(vm);
+            }
+        }
+        return vmsToUpdate;
+    }
+
+    /**
+     * Builds the data of the ovfs of the given vms, loading the affinity groups, the labels, the users and the LUN
+     * connections of all the vms at once instead of querying them for each vm
+     */
+    private List<FullEntityOvfData> buildFullEntitiesOvfData(List<VM> vms, Map<Guid, ArrayList<DiskImage>> vmsImages) {
+        List<Guid> vmIds = getIds(vms);
+        Map<Guid, List<AffinityGroup>> affinityGroupsByVm = new HashMap<>();
+        for (AffinityGroup affinityGroup : affinityGroupDao.getAllAffinityGroupsByVmIds(vmIds)) {
+            affinityGroup.getVmIds().forEach(vmId -> affinityGroupsByVm.computeIfAbsent(vmId, k -> new ArrayList<>())
+                    .add(affinityGroup));
+        }
+        Map<Guid, List<Label>> labelsByVm = new HashMap<>();
+        for (Label label : labelDao.getAllByEntityIds(vmIds)) {
+            label.getVms().forEach(vmId -> labelsByVm.computeIfAbsent(vmId, k -> new ArrayList<>()).add(label));
+        }
+        Map<Guid, List<Permission>> permissionsByVm = permissionDao.getAllForEntities(vmIds).stream()
+                .collect(Collectors.groupingBy(Permission::getObjectId));
+        Map<Guid, DbUser> users = dbUserDao.getAllForVms(vmIds).stream()
+                .collect(Collectors.toMap(DbUser::getId, Function.identity(), (user1, user2) -> user1));
+        Map<String, List<StorageServerConnections>> lunsConnections = getLunsConnections(vms);
+
+        List<FullEntityOvfData> fullEntitiesOvfData = new ArrayList<>(vms.size());
+        for (VM vm : vms) {
+            List<LunDisk> lunDisks = DisksFilter.filterLunDisks(vm.getDiskMap().values());
+            for (LunDisk lun : lunDisks) {
+                lun.getLun().setLunConnections(
+                        new ArrayList<>(lunsConnections.getOrDefault(lun.getLun().getId(), Collections.emptyList())));
+            }
+
+            Set<DbUser> dbUsers = new HashSet<>();
+            Map<String, Set<String>> userToRoles = new HashMap<>();
+            for (Permission permission : permissionsByVm.getOrDefault(vm.getId(), Collections.emptyList())) {
+                DbUser dbUser = users.get(permission.getAdElementId());
+                if (dbUser != null) {
+                    dbUsers.add(dbUser);
+                    userToRoles.computeIfAbsent(dbUser.getLoginName(), k -> new HashSet<>()).add(permission.getRoleName());
                 }
             }
+
+            FullEntityOvfData fullEntityOvfData = new FullEntityOvfData(vm);
+            fullEntityOvfData.setDiskImages(vmsImages.get(vm.getId()));
+            fullEntityOvfData.setLunDisks(lunDisks);
+            fullEntityOvfData.setAffinityGroups(affinityGroupsByVm.getOrDefault(vm.getId(), new ArrayList<>()));
+            fullEntityOvfData.setAffinityLabels(labelsByVm.getOrDefault(vm.getId(), new ArrayList<>()));
+            fullEntityOvfData.setDbUsers(dbUsers);
+            fullEntityOvfData.setUserToRoles(userToRoles);
+            fullEntitiesOvfData.add(fullEntityOvfData);
         }
-        return vmsAndTemplateMetadata;
+        return fullEntitiesOvfData;
+    }
+
+    /**
+     * Returns the connections of the LUNs of the given vms, by LUN id
+     */
+    private Map<String, List<StorageServerConnections>> getLunsConnections(List<VM> vms) {
+        Set<String> lunIds = vms.stream()
+                .flatMap(vm -> DisksFilter.filterLunDisks(vm.getDiskMap().values()).stream())
+                .map(lunDisk -> lunDisk.getLun().getId())
+                .collect(Collectors.toSet());
+        if (lunIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<LUNStorageServerConnectionMap> lunsConnectionsMaps = storageServerConnectionLunMapDao.getAllByLunIds(lunIds);
+        if (lunsConnectionsMaps.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, StorageServerConnections> connections = storageServerConnectionDao.getByIds(
+                lunsConnectionsMaps.stream()
+                        .map(LUNStorageServerConnectionMap::getStorageServerConnection)
+                        .distinct()
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(StorageServerConnections::getId, Function.identity()));
+        Map<String, List<StorageServerConnections>> lunsConnections = new HashMap<>();
+        for (LUNStorageServerConnectionMap lunConnectionMap : lunsConnectionsMaps) {
+            StorageServerConnections connection = connections.get(lunConnectionMap.getStorageServerConnection());
+            if (connection != null) {
+                lunsConnections.computeIfAbsent(lunConnectionMap.getLunId(), k -> new ArrayList<>()).add(connection);
+            }
+        }
+        return lunsConnections;
+    }
+
+    /**
+     * Generates the ovfs of the given vms, splitting the vms between up to OvfUpdateParallelism threads. The ovfs are
+     * returned in the order of the vms.
+     */
+    private List<String> generateVmsMetadata(List<VM> vms, List<FullEntityOvfData> fullEntitiesOvfData) {
+        int parallelism = Math.min(Config.<Integer> getValue(ConfigValues.OvfUpdateParallelism), vms.size());
+        if (parallelism <= 1) {
+            return generateVmsMetadata(vms, fullEntitiesOvfData, 0, vms.size());
+        }
+
+        int partitionSize = (vms.size() + parallelism - 1) / parallelism;
+        List<Callable<List<String>>> tasks = new ArrayList<>(parallelism);
+        for (int from = 0; from < vms.size(); from += partitionSize) {
+            int partitionFrom = from;
+            int partitionTo = Math.min(from + partitionSize, vms.size());
+            tasks.add(() -> generateVmsMetadata(vms, fullEntitiesOvfData, partitionFrom, partitionTo));
+        }
+
+        List<String> vmsMetadata = new ArrayList<>(vms.size());
+        ThreadPoolUtil.invokeAll(tasks).forEach(vmsMetadata::addAll);
+        return vmsMetadata;
+    }
+
+    private List<String> generateVmsMetadata(List<VM> vms,
+            List<FullEntityOvfData> fullEntitiesOvfData,
+            int from,
+            int to) {
+        List<String> vmsMetadata = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            vmsMetadata.add(ovfUpdateProcessHelper.generateVmMetadata(vms.get(i), fullEntitiesOvfData.get(i)));
+        }
+        return vmsMetadata;
+    }
+
+    private static List<Guid> getIds(List<VM> vms) {
+        return vms.stream().map(VM::getId).collect(Collectors.toList());
     }
 
     protected void proccessDisksDomains(List<DiskImage> disks) {
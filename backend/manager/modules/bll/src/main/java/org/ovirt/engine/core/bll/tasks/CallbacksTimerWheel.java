@@ -0,0 +1,106 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * A hashed timer wheel of the commands whose callbacks should be invoked. The time advances in ticks of the callbacks
+ * polling loop, and every command is kept in the slot of the tick it is due at, so on each tick only the commands of
+ * one slot are visited instead of all the commands that have callbacks.
+ *
+ * A command has at most one schedule: scheduling it again replaces the previous schedule, whose entry is left in its
+ * slot and ignored when that slot is reached.
+ */
+class CallbacksTimerWheel {
+
+    private static final int DEFAULT_SIZE = 64;
+
+    private static class Entry {
+        private final Guid cmdId;
+        private final long dueTick;
+
+        private Entry(Guid cmdId, long dueTick) {
+            this.cmdId = cmdId;
+            this.dueTick = dueTick;
+        }
+    }
+
+    private final Deque<Entry>[] slots;
+
+    /**
+     * The tick each scheduled command is due at.
+     */
+    private final Map<Guid, Long> dueTicks = new HashMap<>();
+
+    private long tick;
+
+    CallbacksTimerWheel() {
+        this(DEFAULT_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    CallbacksTimerWheel(int size) {
+        slots = new Deque[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Schedules the command to be due after the given number of ticks, at least one, replacing its previous schedule.
+     */
+    synchronized void schedule(Guid cmdId, long delayTicks) {
+        long dueTick = tick + Math.max(1, delayTicks);
+        dueTicks.put(cmdId, dueTick);
+        slots[slotOf(dueTick)].add(new Entry(cmdId, dueTick));
+    }
+
+    synchronized void cancel(Guid cmdId) {
+        dueTicks.remove(cmdId);
+    }
+
+    synchronized boolean isScheduled(Guid cmdId) {
+        return dueTicks.containsKey(cmdId);
+    }
+
+    /**
+     * Advances the wheel by one tick.
+     *
+     * @return the commands that are due, in the order they were scheduled; they aren't scheduled anymore
+     */
+    synchronized List<Guid> advance() {
+        tick++;
+        List<Guid> due = new ArrayList<>();
+        Iterator<Entry> iterator = slots[slotOf(tick)].iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            // Entries due in a later round of the wheel stay in the slot
+            if (entry.dueTick > tick) {
+                continue;
+            }
+            iterator.remove();
+            if (dueTicks.remove(entry.cmdId, entry.dueTick)) {
+                due.add(entry.cmdId);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * @return the number of scheduled commands
+     */
+    synchronized int size() {
+        return dueTicks.size();
+    }
+
+    private int slotOf(long dueTick) {
+        return (int) (dueTick % slots.length);
+    }
+}
@@ -1,15 +1,24 @@
 package org.ovirt.engine.core.bll.tasks;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.inject.Inject;
 
@@ -23,11 +32,38 @@ import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.CommandStatus;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.CorrelationIdTracker;
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.threadpool.ThreadPools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class CommandCallbacksPoller implements BackendService {
+/**
+ * Invokes the callbacks of the commands when they are due. The commands are kept in a timer wheel that advances every
+ * polling loop, and the due callbacks are invoked by up to {@code AsyncCommandCallbacksMaxConcurrency} workers of the
+ * engine thread pool, one at a time for the commands of the same root command.
+ */
+public class CommandCallbacksPoller implements BackendService, StatisticsMXBean {
+
+    /**
+     * The callback of a command that is due and waits for a worker to invoke it.
+     */
+    private static class DueCallback {
+        private final Guid cmdId;
+        private final Guid rootCmdId;
+
+        /**
+         * The time the callback became due, used to measure how late it is invoked.
+         */
+        private final long dueTime;
+
+        private DueCallback(Guid cmdId, Guid rootCmdId, long dueTime) {
+            this.cmdId = cmdId;
+            this.rootCmdId = rootCmdId;
+            this.dueTime = dueTime;
+        }
+    }
 
     @Inject
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
@@ -43,11 +79,42 @@ public class CommandCallbacksPoller implements BackendService {
 
     private int repeatEndMethodsOnFailMaxRetries;
 
+    private int maxConcurrentCallbacks;
+
+    private final CallbacksTimerWheel timerWheel = new CallbacksTimerWheel();
+
+    /**
+     * Guards the queued callbacks and the number of running workers.
+     */
+    private final Object dispatchLock = new Object();
+
+    /**
+     * The due callbacks that weren't invoked yet, indexed by the id of their root command.
+     */
+    private final Map<Guid, Deque<DueCallback>> queuedCallbacks = new HashMap<>();
+
+    /**
+     * The root commands that have queued callbacks and none of their callbacks is being invoked.
+     */
+    private final Deque<Guid> readyRootCommands = new ArrayDeque<>();
+
+    private int runningWorkers;
+    private int queueDepth;
+    private int maxQueueDepth;
+
+    private final LongAdder invokedCallbacks = new LongAdder();
+    private final LongAdder totalLag = new LongAdder();
+    private final AtomicLong maxLag = new AtomicLong();
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("CommandCallbacksPoller", this);
+
     @PostConstruct
-    private void init() {
+    void init() {
         log.info("Start initializing {}", getClass().getSimpleName());
         pollingRate = Config.<Long>getValue(ConfigValues.AsyncCommandPollingLoopInSeconds);
         repeatEndMethodsOnFailMaxRetries = Config.<Integer>getValue(ConfigValues.RepeatEndMethodsOnFailMaxRetries);
+        maxConcurrentCallbacks = Math.max(1, Config.<Integer>getValue(ConfigValues.AsyncCommandCallbacksMaxConcurrency));
+        jmxRegistration.register();
         initCommandExecutor();
         executor.scheduleWithFixedDelay(this::invokeCallbackMethods,
                 pollingRate,
@@ -56,6 +123,42 @@ public class CommandCallbacksPoller implements BackendService {
         log.info("Finished initializing {}", getClass().getSimpleName());
     }
 
+    @PreDestroy
+    private void unregisterFromJmx() {
+        jmxRegistration.unregister();
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        long invoked = invokedCallbacks.sum();
+        int running;
+        int queued;
+        int maxQueued;
+        synchronized (dispatchLock) {
+            running = runningWorkers;
+            queued = queueDepth;
+            maxQueued = maxQueueDepth;
+        }
+        return Arrays.asList(
+                "scheduled: " + timerWheel.size(),
+                "queued: " + queued,
+                "max queued: " + maxQueued,
+                "running workers: " + running,
+                "invoked: " + invoked,
+                "average lag ms: " + (invoked == 0 ? 0 : totalLag.sum() / invoked),
+                "max lag ms: " + maxLag.get());
+    }
+
+    @Override
+    public void reset() {
+        synchronized (dispatchLock) {
+            maxQueueDepth = queueDepth;
+        }
+        invokedCallbacks.reset();
+        totalLag.reset();
+        maxLag.set(0);
+    }
+
     private boolean endCallback(Guid cmdId, CommandCallback callback, CommandStatus status) {
         try {
             boolean shouldRepeatEndMethodsOnFail = callback.shouldRepeatEndMethodsOnFail(cmdId);
@@ -130,105 +233,208 @@ public class CommandCallbacksPoller implements BackendService {
     }
 
     private void invokeCallbackMethodsImpl() {
-        Iterator<Entry<Guid, CallbackTiming>> iterator = commandsRepository.getCallbacksTiming().entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<Guid, CallbackTiming> entry = iterator.next();
+        for (Guid cmdId : commandsRepository.pollAddedCallbacks()) {
+            CallbackTiming callbackTiming = commandsRepository.getCallbackTiming(cmdId);
+            if (callbackTiming != null) {
+                timerWheel.schedule(cmdId, toTicks(callbackTiming.getInitialDelay()));
+            }
+        }
 
-            Guid cmdId = entry.getKey();
-            CallbackTiming callbackTiming = entry.getValue();
+        long dueTime = System.currentTimeMillis();
+        for (Guid cmdId : timerWheel.advance()) {
+            CallbackTiming callbackTiming = commandsRepository.getCallbackTiming(cmdId);
+            if (callbackTiming == null) {
+                continue;
+            }
             CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
-            CorrelationIdTracker.setCorrelationId(commandEntity != null
-                    ? commandEntity.getCommandParameters().getCorrelationId() : null);
             if (commandEntity != null && updateCommandWaitingForEvent(commandEntity, callbackTiming)) {
+                timerWheel.schedule(cmdId, 1);
                 continue;
             }
+            dispatch(cmdId, getRootCommandId(cmdId, commandEntity), dueTime);
+        }
+        commandsRepository.markExpiredCommandsAsFailure();
+    }
 
-            // Decrement counter; execute if it reaches 0
-            callbackTiming.setRemainingDelay(callbackTiming.getRemainingDelay() - pollingRate);
-            ActionType cmdActionType = commandEntity == null ? ActionType.Unknown : commandEntity.getCommandType();
-            if (callbackTiming.getRemainingDelay() > 0) {
-                log.debug("The command {} ({}) has remaining delay {}, polling will be skipped.",
-                        cmdActionType,
-                        cmdId,
-                        callbackTiming.getRemainingDelay());
-                continue;
+    /**
+     * The root command id of a command entity is the id of its parent command, so the parents are followed up to the
+     * command that has no parent, or whose parent isn't in the repository anymore.
+     */
+    private Guid getRootCommandId(Guid cmdId, CommandEntity commandEntity) {
+        Guid rootCmdId = cmdId;
+        Set<Guid> visited = new HashSet<>();
+        CommandEntity entity = commandEntity;
+        while (entity != null && !Guid.isNullOrEmpty(entity.getRootCommandId()) && visited.add(rootCmdId)) {
+            rootCmdId = entity.getRootCommandId();
+            entity = commandsRepository.getCommandEntity(rootCmdId);
+        }
+        return rootCmdId;
+    }
+
+    /**
+     * Queues the callback of a due command to be invoked by a worker, after the callbacks of the same root command
+     * that are already queued, and starts a worker if less than the max number of them are running.
+     */
+    private void dispatch(Guid cmdId, Guid rootCmdId, long dueTime) {
+        synchronized (dispatchLock) {
+            Deque<DueCallback> rootCallbacks = queuedCallbacks.get(rootCmdId);
+            if (rootCallbacks == null) {
+                rootCallbacks = new ArrayDeque<>();
+                queuedCallbacks.put(rootCmdId, rootCallbacks);
+                readyRootCommands.add(rootCmdId);
+            } else if (rootCallbacks.stream().anyMatch(callback -> callback.cmdId.equals(cmdId))) {
+                return;
             }
+            rootCallbacks.add(new DueCallback(cmdId, rootCmdId, dueTime));
+            queueDepth++;
+            maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+            if (runningWorkers < maxConcurrentCallbacks) {
+                runningWorkers++;
+                try {
+                    ThreadPoolUtil.execute(this::invokeQueuedCallbacks);
+                } catch (RejectedExecutionException e) {
+                    runningWorkers--;
+                }
+            }
+        }
+    }
 
-            CommandCallback callback = callbackTiming.getCallback();
-            CommandStatus status = commandsRepository.getCommandStatus(cmdId);
-            log.debug("Command {} ({}) in status {}", cmdActionType, cmdId, status);
-            boolean runCallbackAgain = false;
-            boolean errorInCallback = false;
-            try {
-                switch (status) {
-                    case FAILED:
-                    case SUCCEEDED:
-                        runCallbackAgain = endCallback(cmdId, callback, status);
-                        break;
-                    case ACTIVE:
-                        if (commandEntity == null) {
-                            log.info("Not invoking command's {} doPolling method command entity is null, callback is {}.",
-                                    cmdId,
-                                    callbackTiming.getCallback() == null ? "NULL" : callbackTiming.getCallback().getClass().getCanonicalName());
-                        } else if (commandEntity.isExecuted()) {
-                            log.debug("Invoking command's {} ({}) doPolling method.", cmdActionType, cmdId);
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        }
-                        break;
-                    case EXECUTION_FAILED:
-                        if (callback.pollOnExecutionFailed()) {
-                            log.debug("Invoking command's {} ({}) doPolling method.", cmdActionType, cmdId);
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        } else {
-                            log.info("Not invoking command's {} ({}) doPolling method callback's pollOnExecutionFailed is false.",
-                                    cmdActionType, cmdId);
-                        }
-                        break;
-                    default:
-                        break;
+    /**
+     * Invokes queued callbacks until there are no more that can be invoked. The callbacks of commands with the same
+     * root command are invoked one at a time, in the order they became due, so a worker takes the next callback of a
+     * root command only if no other worker is invoking one of its callbacks.
+     */
+    private void invokeQueuedCallbacks() {
+        while (true) {
+            DueCallback callback;
+            synchronized (dispatchLock) {
+                Guid rootCmdId = readyRootCommands.poll();
+                if (rootCmdId == null) {
+                    runningWorkers--;
+                    return;
                 }
-            } catch (Throwable ex) {
-                errorInCallback = true;
-                log.info("Exception in invoking callback of command {} ({}): {}",
-                        cmdActionType,
-                        cmdId,
-                        ExceptionUtils.getRootCauseMessage(ex));
-                log.debug("Exception", ex);
-                handleError(ex, status, cmdId);
+                callback = queuedCallbacks.get(rootCmdId).poll();
+                queueDepth--;
+            }
+            try {
+                invokeCallback(callback);
+            } catch (Throwable t) {
+                logInvocationCallbackError(t);
             } finally {
-                if ((CommandStatus.FAILED == status || CommandStatus.SUCCEEDED == status && !errorInCallback)
-                        && !runCallbackAgain) {
-                    log.debug("Callback of command {} ({}) has been notified, removing command from command repository.",
-                            cmdActionType, cmdId);
-                    commandsRepository.updateCallbackNotified(cmdId);
-                    iterator.remove();
-                    CommandEntity cmdEntity = commandsRepository.getCommandEntity(entry.getKey());
-                    if (cmdEntity != null) {
-                        // When a child finishes, its parent's callback should execute shortly thereafter
-                        CallbackTiming rootCmdContainer =
-                                commandsRepository.getCallbackTiming(cmdEntity.getRootCommandId());
-                        if (rootCmdContainer != null) {
-                            rootCmdContainer.setInitialDelay(pollingRate);
-                            rootCmdContainer.setRemainingDelay(pollingRate);
-                        }
+                synchronized (dispatchLock) {
+                    if (queuedCallbacks.get(callback.rootCmdId).isEmpty()) {
+                        queuedCallbacks.remove(callback.rootCmdId);
+                    } else {
+                        readyRootCommands.add(callback.rootCmdId);
                     }
-                } else if (status != commandsRepository.getCommandStatus(cmdId)) {
-                    log.debug("Command {} ({}) status {} has been updated to {}, command will be polled again.",
-                            cmdActionType, cmdId,
-                            commandsRepository.getCommandStatus(cmdId),
-                            status);
-                    callbackTiming.setInitialDelay(pollingRate);
-                    callbackTiming.setRemainingDelay(pollingRate);
-                } else {
-                    log.debug("Command {} ({}) will be polled again, updating initial and remaining delay.", cmdActionType, cmdId);
-                    long maxDelay = Config.<Long>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
-                    callbackTiming.setInitialDelay(Math.min(maxDelay, callbackTiming.getInitialDelay() * 2));
-                    callbackTiming.setRemainingDelay(callbackTiming.getInitialDelay());
                 }
             }
         }
-        CorrelationIdTracker.setCorrelationId(null);
-        commandsRepository.markExpiredCommandsAsFailure();
+    }
+
+    private void invokeCallback(DueCallback dueCallback) {
+        long lag = System.currentTimeMillis() - dueCallback.dueTime;
+        totalLag.add(lag);
+        maxLag.accumulateAndGet(lag, Math::max);
+        invokedCallbacks.increment();
+
+        Guid cmdId = dueCallback.cmdId;
+        CallbackTiming callbackTiming = commandsRepository.getCallbackTiming(cmdId);
+        if (callbackTiming == null) {
+            return;
+        }
+        CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
+        CorrelationIdTracker.setCorrelationId(commandEntity != null
+                ? commandEntity.getCommandParameters().getCorrelationId() : null);
+        try {
+            invokeCallback(cmdId, callbackTiming, commandEntity);
+        } finally {
+            CorrelationIdTracker.setCorrelationId(null);
+        }
+    }
+
+    private void invokeCallback(Guid cmdId, CallbackTiming callbackTiming, CommandEntity commandEntity) {
+        ActionType cmdActionType = commandEntity == null ? ActionType.Unknown : commandEntity.getCommandType();
+        CommandCallback callback = callbackTiming.getCallback();
+        CommandStatus status = commandsRepository.getCommandStatus(cmdId);
+        log.debug("Command {} ({}) in status {}", cmdActionType, cmdId, status);
+        boolean runCallbackAgain = false;
+        boolean errorInCallback = false;
+        try {
+            switch (status) {
+                case FAILED:
+                case SUCCEEDED:
+                    runCallbackAgain = endCallback(cmdId, callback, status);
+                    break;
+                case ACTIVE:
+                    if (commandEntity == null) {
+                        log.info("Not invoking command's {} doPolling method command entity is null, callback is {}.",
+                                cmdId,
+                                callbackTiming.getCallback() == null ? "NULL" : callbackTiming.getCallback().getClass().getCanonicalName());
+                    } else if (commandEntity.isExecuted()) {
+                        log.debug("Invoking command's {} ({}) doPolling method.", cmdActionType, cmdId);
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
+                    }
+                    break;
+                case EXECUTION_FAILED:
+                    if (callback.pollOnExecutionFailed()) {
+                        log.debug("Invoking command's {} ({}) doPolling method.", cmdActionType, cmdId);
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
+                    } else {
+                        log.info("Not invoking command's {} ({}) doPolling method callback's pollOnExecutionFailed is false.",
+                                cmdActionType, cmdId);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (Throwable ex) {
+            errorInCallback = true;
+            log.info("Exception in invoking callback of command {} ({}): {}",
+                    cmdActionType,
+                    cmdId,
+                    ExceptionUtils.getRootCauseMessage(ex));
+            log.debug("Exception", ex);
+            handleError(ex, status, cmdId);
+        } finally {
+            if ((CommandStatus.FAILED == status || CommandStatus.SUCCEEDED == status && !errorInCallback)
+                    && !runCallbackAgain) {
+                log.debug("Callback of command {} ({}) has been notified, removing command from command repository.",
+                        cmdActionType, cmdId);
+                commandsRepository.updateCallbackNotified(cmdId);
+                commandsRepository.getCallbacksTiming().remove(cmdId);
+                timerWheel.cancel(cmdId);
+                CommandEntity cmdEntity = commandsRepository.getCommandEntity(cmdId);
+                if (cmdEntity != null) {
+                    // When a child finishes, its parent's callback should execute shortly thereafter
+                    CallbackTiming rootCmdContainer =
+                            commandsRepository.getCallbackTiming(cmdEntity.getRootCommandId());
+                    if (rootCmdContainer != null) {
+                        rootCmdContainer.setInitialDelay(pollingRate);
+                        timerWheel.schedule(cmdEntity.getRootCommandId(), 1);
+                    }
+                }
+            } else if (status != commandsRepository.getCommandStatus(cmdId)) {
+                log.debug("Command {} ({}) status {} has been updated to {}, command will be polled again.",
+                        cmdActionType, cmdId,
+                        commandsRepository.getCommandStatus(cmdId),
+                        status);
+                callbackTiming.setInitialDelay(pollingRate);
+                timerWheel.schedule(cmdId, 1);
+            } else {
+                log.debug("Command {} ({}) will be polled again, updating initial and remaining delay.", cmdActionType, cmdId);
+                long maxDelay = Config.<Long>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
+                callbackTiming.setInitialDelay(Math.min(maxDelay, callbackTiming.getInitialDelay() * 2));
+                timerWheel.schedule(cmdId, toTicks(callbackTiming.getInitialDelay()));
+            }
+        }
+    }
+
+    /**
+     * Converts a delay in seconds to the number of ticks of the polling loop after which it is over.
+     */
+    private long toTicks(long delay) {
+        return Math.max(1, (delay + pollingRate - 1) / pollingRate);
     }
 
     private void handleError(Throwable ex, CommandStatus status, Guid cmdId) {
@@ -8,8 +8,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -41,6 +43,7 @@ public class CommandsRepository {
 
     private static final Logger log = LoggerFactory.getLogger(CommandsRepository.class);
     private final ConcurrentMap<Guid, CallbackTiming> callbacksTiming;
+    private final Queue<Guid> addedCallbacks;
     private final CommandsCache commandsCache;
     private final CommandContextsCache contextsCache;
     private final ConcurrentHashMap<Guid, List<Guid>> childHierarchy;
@@ -56,6 +59,7 @@ public class CommandsRepository {
         this.contextsCache = contextsCache;
 
         callbacksTiming = new ConcurrentHashMap<>();
+        addedCallbacks = new ConcurrentLinkedQueue<>();
         childHierarchy = new ConcurrentHashMap<>();
         subscriptions = new ConcurrentHashMap<>();
         LOCK = new Object();
@@ -110,6 +114,20 @@ public class CommandsRepository {
 
     public void addToCallbackMap(Guid commandId, CallbackTiming callbackTiming) {
         callbacksTiming.put(commandId, callbackTiming);
+        addedCallbacks.add(commandId);
+    }
+
+    /**
+     * Returns the ids of the commands added to the callback map since the last call, so that the poller can schedule
+     * their callbacks.
+     */
+    public List<Guid> pollAddedCallbacks() {
+        List<Guid> commandIds = new ArrayList<>();
+        Guid commandId;
+        while ((commandId = addedCallbacks.poll()) != null) {
+            commandIds.add(commandId);
+        }
+        return commandIds;
     }
 
     public void persistCommand(CommandEntity cmdEntity, CommandContext cmdContext) {
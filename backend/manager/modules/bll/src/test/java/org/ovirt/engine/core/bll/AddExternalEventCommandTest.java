@@ -0,0 +1,124 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.ovirt.engine.core.common.AuditLogSeverity;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.common.action.AddExternalEventParameters;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogWriter;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.dao.StorageDomainDynamicDao;
+import org.ovirt.engine.core.dao.VdsDynamicDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith(MockConfigExtension.class)
+public class AddExternalEventCommandTest extends BaseCommandTest {
+
+    private static final String ORIGIN = "plugin";
+    private static final int CUSTOM_EVENT_ID = 42;
+    private static final long AUDIT_LOG_ID = 7;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.MaxAuditLogMessageLength, 10000),
+                MockConfigDescriptor.of(ConfigValues.AuditLogWriteQueueSize, 10),
+                MockConfigDescriptor.of(ConfigValues.AuditLogWriteBatchSize, 10),
+                MockConfigDescriptor.of(ConfigValues.AuditLogWriteCoalesceInterval, 30));
+    }
+
+    @Mock
+    private AuditLogDao auditLogDao;
+
+    @Mock
+    private VdsDynamicDao vdsDynamicDao;
+
+    @Mock
+    private StorageDomainDynamicDao storageDomainDynamicDao;
+
+    /**
+     * Never runs the background writes, so only the audit logs written by the logging thread reach the database
+     */
+    @Mock
+    private ManagedScheduledExecutorService executor;
+
+    @Spy
+    @InjectMocks
+    private AuditLogDirector auditLogDirector;
+
+    @InjectMocks
+    private AuditLogWriter auditLogWriter;
+
+    @InjectMocks
+    private AddExternalEventCommand<AddExternalEventParameters> command =
+            new AddExternalEventCommand<>(new AddExternalEventParameters(createEvent()), null);
+
+    private AuditLog savedEvent;
+
+    @BeforeEach
+    public void setUp() {
+        auditLogWriter.init();
+        doAnswer(invocation -> {
+            savedEvent = invocation.getArgument(0);
+            savedEvent.setAuditLogId(AUDIT_LOG_ID);
+            return null;
+        }).when(auditLogDao).save(any());
+        when(auditLogDao.getByOriginAndCustomEventId(anyString(), anyInt())).thenAnswer(invocation -> savedEvent);
+    }
+
+    @Test
+    public void testEventIsReadBackWhenWrittenInBackground() {
+        command.executeCommand();
+
+        assertTrue(command.getReturnValue().getSucceeded());
+        assertEquals(AUDIT_LOG_ID, command.getReturnValue().<Long> getActionReturnValue().longValue());
+        assertEquals(CUSTOM_EVENT_ID, savedEvent.getCustomEventId());
+    }
+
+    @Test
+    public void testEventIsWrittenAfterQueuedAuditLogs() {
+        AuditLog queued = new AuditLog(AuditLogType.USER_RUN_VM, AuditLogSeverity.NORMAL);
+        assertTrue(auditLogWriter.offer(queued));
+
+        command.executeCommand();
+
+        InOrder inOrder = inOrder(auditLogDao);
+        inOrder.verify(auditLogDao).saveAll(anyCollection());
+        inOrder.verify(auditLogDao).save(savedEvent);
+        assertEquals(0, auditLogWriter.getPendingCount());
+        assertTrue(command.getReturnValue().getSucceeded());
+    }
+
+    private static AuditLog createEvent() {
+        AuditLog event = new AuditLog();
+        event.setOrigin(ORIGIN);
+        event.setCustomEventId(CUSTOM_EVENT_ID);
+        event.setSeverity(AuditLogSeverity.NORMAL);
+        event.setMessage("external event");
+        // not flood regulated, which would need the timeout cache of the engine
+        event.setEventFloodInSec(1);
+        return event;
+    }
+}
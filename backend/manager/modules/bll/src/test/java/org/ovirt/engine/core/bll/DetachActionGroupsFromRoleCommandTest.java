@@ -94,6 +94,7 @@ public class DetachActionGroupsFromRoleCommandTest extends AbstractRolesCommandT
             verify(getRoleDaoMock()).update(getRole());
         }
 
+        verify(getPermissionGraphMock()).invalidateRole(getParams().getRoleId());
         verifyNoMoreInteractions(getRoleGroupMapDaoMock());
     }
 }
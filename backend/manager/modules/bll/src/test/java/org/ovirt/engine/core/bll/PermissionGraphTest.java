@@ -0,0 +1,347 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.VdcObjectType;
+import org.ovirt.engine.core.common.action.ActionType;
+import org.ovirt.engine.core.common.businessentities.ActionGroup;
+import org.ovirt.engine.core.common.businessentities.Permission;
+import org.ovirt.engine.core.common.businessentities.aaa.DbGroup;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.ActionGroupDao;
+import org.ovirt.engine.core.dao.DbGroupDao;
+import org.ovirt.engine.core.dao.PermissionDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.MockedConfig;
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionInvalidator;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class PermissionGraphTest {
+
+    private static final Guid USER_ID = Guid.newGuid();
+    private static final Guid GROUP_ID = Guid.newGuid();
+    private static final Guid ROLE_ID = Guid.newGuid();
+    private static final Guid VM_ID = Guid.newGuid();
+    private static final Guid CLUSTER_ID = Guid.newGuid();
+    private static final Guid DATA_CENTER_ID = Guid.newGuid();
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.PermissionGraphMaxAgeInSeconds, 60));
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockExpiredConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.PermissionGraphMaxAgeInSeconds, 0));
+    }
+
+    @Mock
+    private PermissionDao permissionDao;
+
+    @Mock
+    private ActionGroupDao actionGroupDao;
+
+    @Mock
+    private DbGroupDao dbGroupDao;
+
+    @Mock
+    private TransactionCompletionInvalidator transactionCompletionInvalidator;
+
+    @InjectMocks
+    private PermissionGraph permissionGraph;
+
+    private List<Permission> userPermissions = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        when(actionGroupDao.getAllForRole(ROLE_ID)).thenReturn(Arrays.asList(ActionGroup.RUN_VM, ActionGroup.LOGIN));
+        when(permissionDao.getAllDirectPermissionsForAdElement(any())).thenReturn(Collections.emptyList());
+        when(permissionDao.getAllDirectPermissionsForAdElement(USER_ID)).thenReturn(userPermissions);
+        when(permissionDao.getEntityParents(VM_ID, VdcObjectType.VM)).thenReturn(Arrays.asList(
+                MultiLevelAdministrationHandler.SYSTEM_OBJECT_ID,
+                DATA_CENTER_ID,
+                CLUSTER_ID,
+                VM_ID));
+        when(dbGroupDao.get(GROUP_ID)).thenReturn(new DbGroup());
+    }
+
+    private Permission addPermission(Guid adElementId, Guid objectId, VdcObjectType objectType) {
+        Permission permission = new Permission(adElementId, ROLE_ID, objectId, objectType);
+        if (USER_ID.equals(adElementId)) {
+            userPermissions.add(permission);
+        } else {
+            when(permissionDao.getAllDirectPermissionsForAdElement(adElementId))
+                    .thenReturn(Collections.singletonList(permission));
+        }
+        return permission;
+    }
+
+    @Test
+    public void testNoPermissionForActionGroup() {
+        addPermission(USER_ID, VM_ID, VdcObjectType.VM);
+
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.DELETE_VM, VM_ID, VdcObjectType.VM));
+        verifyNoParentsLoaded();
+    }
+
+    @Test
+    public void testPermissionOnObject() {
+        Permission permission = addPermission(USER_ID, VM_ID, VdcObjectType.VM);
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verifyNoParentsLoaded();
+    }
+
+    @Test
+    public void testPermissionOnRemovedObject() {
+        addPermission(USER_ID, VM_ID, VdcObjectType.VM);
+        permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM);
+
+        // the database removed the permission along with the VM, and a VM with the same id was imported again
+        userPermissions.clear();
+        permissionGraph.invalidateChangedBy(ActionType.RemoveVm);
+
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verify(transactionCompletionInvalidator).invalidateOnCompletion(any());
+    }
+
+    @Test
+    public void testPermissionOnSystem() {
+        Permission permission =
+                addPermission(USER_ID, MultiLevelAdministrationHandler.SYSTEM_OBJECT_ID, VdcObjectType.System);
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verifyNoParentsLoaded();
+    }
+
+    @Test
+    public void testPermissionOfEveryone() {
+        Permission permission = addPermission(MultiLevelAdministrationHandler.EVERYONE_OBJECT_ID,
+                VM_ID,
+                VdcObjectType.VM);
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+    }
+
+    @Test
+    public void testPermissionOfEngineSessionGroup() {
+        Permission permission = addPermission(GROUP_ID, VM_ID, VdcObjectType.VM);
+        permissionGraph.addEngineSession(1L, USER_ID, Collections.singletonList(GROUP_ID));
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+
+        permissionGraph.removeEngineSession(1L);
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+    }
+
+    @Test
+    public void testPermissionOfRemovedGroup() {
+        addPermission(GROUP_ID, VM_ID, VdcObjectType.VM);
+        permissionGraph.addEngineSession(1L, USER_ID, Collections.singletonList(GROUP_ID));
+        permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM);
+
+        when(dbGroupDao.get(GROUP_ID)).thenReturn(null);
+        permissionGraph.invalidateChangedBy(ActionType.RemoveGroup);
+
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+    }
+
+    @Test
+    public void testPermissionOnOtherObjectThatCantBeParent() {
+        addPermission(USER_ID, Guid.newGuid(), VdcObjectType.VM);
+
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verifyNoParentsLoaded();
+    }
+
+    @Test
+    public void testPermissionOnParent() {
+        Permission permission = addPermission(USER_ID, CLUSTER_ID, VdcObjectType.Cluster);
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verifyNoDatabaseCheck();
+    }
+
+    @Test
+    public void testPermissionOnObjectOfParentTypeThatIsntParent() {
+        addPermission(USER_ID, Guid.newGuid(), VdcObjectType.Cluster);
+
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verifyNoDatabaseCheck();
+    }
+
+    @Test
+    public void testParentsAreLoadedOnce() {
+        addPermission(USER_ID, DATA_CENTER_ID, VdcObjectType.StoragePool);
+
+        permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM);
+        permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM);
+
+        verify(permissionDao).getEntityParents(VM_ID, VdcObjectType.VM);
+    }
+
+    @Test
+    public void testParentsAreInvalidatedByHierarchyChange() {
+        Guid otherClusterId = Guid.newGuid();
+        Permission permission = addPermission(USER_ID, otherClusterId, VdcObjectType.Cluster);
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+
+        // the VM moved to the other cluster
+        when(permissionDao.getEntityParents(VM_ID, VdcObjectType.VM)).thenReturn(Arrays.asList(
+                MultiLevelAdministrationHandler.SYSTEM_OBJECT_ID,
+                DATA_CENTER_ID,
+                otherClusterId,
+                VM_ID));
+        permissionGraph.invalidateChangedBy(ActionType.RunVm);
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+
+        permissionGraph.invalidateChangedBy(ActionType.ChangeVMCluster);
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verify(permissionDao, times(2)).getEntityParents(VM_ID, VdcObjectType.VM);
+    }
+
+    @Test
+    public void testObjectTypeWithoutParents() {
+        Guid tagId = Guid.newGuid();
+        addPermission(USER_ID, tagId, VdcObjectType.Tags);
+
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, tagId, VdcObjectType.Tags));
+        verifyNoParentsLoaded();
+    }
+
+    @Test
+    public void testBottomWithPermissionOnSystem() {
+        Permission permission =
+                addPermission(USER_ID, MultiLevelAdministrationHandler.SYSTEM_OBJECT_ID, VdcObjectType.System);
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissionsForUserAndGroups(USER_ID,
+                        Collections.emptyList(),
+                        ActionGroup.LOGIN,
+                        MultiLevelAdministrationHandler.BOTTOM_OBJECT_ID,
+                        VdcObjectType.Bottom,
+                        true));
+        verifyNoParentsLoaded();
+    }
+
+    @Test
+    public void testBottomWithPermissionOnObject() {
+        Permission permission = addPermission(GROUP_ID, VM_ID, VdcObjectType.VM);
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissionsForUserAndGroups(USER_ID,
+                        Collections.singletonList(GROUP_ID),
+                        ActionGroup.LOGIN,
+                        MultiLevelAdministrationHandler.BOTTOM_OBJECT_ID,
+                        VdcObjectType.Bottom,
+                        true));
+        verifyNoParentsLoaded();
+    }
+
+    @Test
+    public void testIgnoreEveryone() {
+        addPermission(MultiLevelAdministrationHandler.EVERYONE_OBJECT_ID,
+                MultiLevelAdministrationHandler.SYSTEM_OBJECT_ID,
+                VdcObjectType.System);
+
+        assertNull(permissionGraph.getEntityPermissionsForUserAndGroups(USER_ID,
+                Collections.emptyList(),
+                ActionGroup.LOGIN,
+                MultiLevelAdministrationHandler.BOTTOM_OBJECT_ID,
+                VdcObjectType.Bottom,
+                true));
+    }
+
+    @Test
+    public void testPermissionsAreLoadedOnce() {
+        addPermission(USER_ID, VM_ID, VdcObjectType.VM);
+
+        permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM);
+        permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM);
+
+        verify(permissionDao).getAllDirectPermissionsForAdElement(USER_ID);
+        verify(actionGroupDao).getAllForRole(ROLE_ID);
+    }
+
+    @Test
+    @MockedConfig("mockExpiredConfiguration")
+    public void testPermissionsAddedByDatabaseAreLoadedWhenExpired() {
+        Permission permission = new Permission(USER_ID,
+                ROLE_ID,
+                MultiLevelAdministrationHandler.SYSTEM_OBJECT_ID,
+                VdcObjectType.System);
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+
+        // added without the engine invalidating the permissions of the user
+        userPermissions.add(permission);
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verify(permissionDao, times(2)).getAllDirectPermissionsForAdElement(USER_ID);
+    }
+
+    @Test
+    public void testInvalidatePermission() {
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+
+        Permission permission = addPermission(USER_ID, VM_ID, VdcObjectType.VM);
+        permissionGraph.invalidatePermission(permission);
+
+        assertEquals(permission.getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.RUN_VM, VM_ID, VdcObjectType.VM));
+        verify(permissionDao, times(2)).getAllDirectPermissionsForAdElement(USER_ID);
+        verify(transactionCompletionInvalidator).invalidateOnCompletion(any());
+    }
+
+    @Test
+    public void testInvalidateRole() {
+        addPermission(USER_ID, VM_ID, VdcObjectType.VM);
+        assertNull(permissionGraph.getEntityPermissions(USER_ID, ActionGroup.DELETE_VM, VM_ID, VdcObjectType.VM));
+
+        when(actionGroupDao.getAllForRole(ROLE_ID)).thenReturn(Collections.singletonList(ActionGroup.DELETE_VM));
+        permissionGraph.invalidateRole(ROLE_ID);
+
+        assertEquals(userPermissions.get(0).getId(),
+                permissionGraph.getEntityPermissions(USER_ID, ActionGroup.DELETE_VM, VM_ID, VdcObjectType.VM));
+    }
+
+    private void verifyNoParentsLoaded() {
+        verify(permissionDao, never()).getEntityParents(any(), any());
+        verifyNoDatabaseCheck();
+    }
+
+    private void verifyNoDatabaseCheck() {
+        verify(permissionDao, never()).getEntityPermissions(any(), any(), any(), any());
+        verify(permissionDao, never())
+                .getEntityPermissionsForUserAndGroups(any(), anyString(), any(), any(), any(), anyBoolean());
+    }
+}
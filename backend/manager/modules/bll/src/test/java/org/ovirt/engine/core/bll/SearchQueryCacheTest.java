@@ -0,0 +1,119 @@
+package org.ovirt.engine.core.bll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.aaa.QueryData;
+
+public class SearchQueryCacheTest {
+
+    private static final String VMS_KEY = "Vms: status = Up,100,false,0";
+    private static final String HOSTS_KEY = "Hosts: status = Up,100,false,0";
+    private static final String DISKS_KEY = "Disks:,100,false,0";
+
+    private final SearchQueryCache cache = new SearchQueryCache(2);
+
+    @Test
+    public void testHitsAndMisses() {
+        QueryData data = createQueryData("select * from vms");
+        assertNull(cache.get(VMS_KEY));
+        cache.put(VMS_KEY, data);
+
+        assertSame(data, cache.get(VMS_KEY));
+        assertSame(data, cache.get(VMS_KEY));
+        assertEquals(Arrays.asList("size: 1", "hits: 2", "misses: 1", "hit ratio: 66%", "evictions: 0"),
+                cache.showStatistics());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        cache.put(VMS_KEY, createQueryData("select * from vms"));
+        cache.put(HOSTS_KEY, createQueryData("select * from vds"));
+        cache.get(VMS_KEY);
+        cache.put(DISKS_KEY, createQueryData("select * from disks"));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains(VMS_KEY));
+        assertFalse(cache.contains(HOSTS_KEY));
+        assertTrue(cache.contains(DISKS_KEY));
+    }
+
+    @Test
+    public void testEvictionsAreCountedAndReset() {
+        cache.put(VMS_KEY, createQueryData("select * from vms"));
+        cache.put(HOSTS_KEY, createQueryData("select * from vds"));
+        cache.put(DISKS_KEY, createQueryData("select * from disks"));
+        cache.get(VMS_KEY);
+
+        assertEquals(Arrays.asList("size: 2", "hits: 0", "misses: 1", "hit ratio: 0%", "evictions: 1"),
+                cache.showStatistics());
+
+        cache.reset();
+
+        assertEquals(Arrays.asList("size: 2", "hits: 0", "misses: 0", "hit ratio: 0%", "evictions: 0"),
+                cache.showStatistics());
+    }
+
+    @Test
+    public void testErroneousKeyIsCachedWithoutData() {
+        cache.putErroneous(VMS_KEY);
+
+        assertTrue(cache.contains(VMS_KEY));
+        assertNull(cache.get(VMS_KEY));
+    }
+
+    @Test
+    public void testInvalidate() {
+        cache.put(VMS_KEY, createQueryData("select * from vms"));
+        cache.invalidate();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get(VMS_KEY));
+    }
+
+    @Test
+    public void testSegmentedCacheIsBounded() throws Exception {
+        SearchQueryCache largeCache = new SearchQueryCache(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int offset = thread * 1000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        String key = "Vms: name = vm" + (offset + i);
+                        largeCache.put(key, createQueryData("select * from vms"));
+                        largeCache.get(key);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1000, largeCache.size());
+        List<String> statistics = largeCache.showStatistics();
+        long hits = Long.parseLong(statistics.get(1).substring("hits: ".length()));
+        long misses = Long.parseLong(statistics.get(2).substring("misses: ".length()));
+        assertEquals(4000, hits + misses);
+        assertEquals("evictions: 3000", statistics.get(4));
+    }
+
+    private static QueryData createQueryData(String query) {
+        return new QueryData(query, System.currentTimeMillis(), null, null);
+    }
+}
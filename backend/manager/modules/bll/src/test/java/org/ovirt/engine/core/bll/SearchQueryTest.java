@@ -1,6 +1,7 @@
 package org.ovirt.engine.core.bll;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.when;
@@ -15,6 +16,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.ovirt.engine.core.bll.quota.QuotaManager;
@@ -48,6 +50,7 @@ import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.searchbackend.SearchObjectAutoCompleter;
 import org.ovirt.engine.core.searchbackend.SearchObjects;
 import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.SearchCursor;
 import org.ovirt.engine.core.utils.lock.LockManager;
 
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -96,6 +99,8 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
     private VmHandler vmHandler;
     @Mock
     private VmNetworkInterfaceDao vmNetworkInterfaceDao;
+    @Spy
+    private SearchQueryCache queriesCache = new SearchQueryCache(100);
 
     List<Disk> diskImageResultList = new ArrayList<>();
     List<Quota> quotaResultList = new ArrayList<>();
@@ -450,6 +455,36 @@ public class SearchQueryTest extends AbstractQueryTest<SearchParameters, SearchQ
         assertEquals(true, vdsResultList.get(0).isNetworkOperationInProgress());
     }
 
+    @Test
+    public void testGetVdsSearchWithInvalidCursor() {
+        when(getQueryParameters().getSearchPattern()).thenReturn("Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VDS);
+        when(getQueryParameters().getSearchAfter()).thenReturn("invalid");
+        getQuery().executeQueryCommand();
+        assertEquals(Collections.emptyList(), getQuery().getQueryReturnValue().getReturnValue());
+        assertEquals("Invalid search cursor", getQuery().getQueryReturnValue().getExceptionString());
+    }
+
+    @Test
+    public void testGetVdsSearchWithNumericCursor() {
+        when(getQueryParameters().getSearchPattern()).thenReturn("Hosts" + CommonConstants.QUERY_RETURN_TYPE_SEPARATOR);
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VDS);
+        when(getQueryParameters().getSearchAfter()).thenReturn(SearchCursor.encode(1234567L));
+        getQuery().executeQueryCommand();
+        assertEquals(Collections.emptyList(), getQuery().getQueryReturnValue().getReturnValue());
+        assertEquals("Invalid search cursor", getQuery().getQueryReturnValue().getExceptionString());
+    }
+
+    @Test
+    public void testGetVdsSearchWithSortbyAndCursor() {
+        when(getQueryParameters().getSearchPattern()).thenReturn("Hosts: sortby name");
+        when(getQueryParameters().getSearchTypeValue()).thenReturn(SearchType.VDS);
+        when(getQueryParameters().getSearchAfter()).thenReturn(SearchCursor.encode(Guid.newGuid()));
+        getQuery().executeQueryCommand();
+        assertEquals(Collections.emptyList(), getQuery().getQueryReturnValue().getReturnValue());
+        assertNotNull(getQuery().getQueryReturnValue().getExceptionString());
+    }
+
     @Test
     public void testGetAllClusterSearch() {
         // The original query should be : SELECT * FROM (SELECT *, ROW_NUMBER() OVER( ORDER BY name ASC ) as RowNum FROM
@@ -1,15 +1,20 @@
 package org.ovirt.engine.core.bll.aaa;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang.time.DateUtils;
@@ -18,9 +23,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.bll.PermissionGraph;
+import org.ovirt.engine.core.common.businessentities.EngineSession;
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.dao.EngineSessionDao;
@@ -38,6 +46,8 @@ public class SessionDataContainerTest {
     private static final String TEST_VALUE = "someValue";
     private static final String TEST_SESSION_ID = "someSession";
     private static final String TEST_SSO_TOKEN = "someToken";
+    private static final String OTHER_SESSION_ID = "otherSession";
+    private static final String OTHER_SSO_TOKEN = "otherToken";
     private static final String USER = "user";
     private static final String SOFT_LIMIT = "soft_limit";
 
@@ -57,11 +67,18 @@ public class SessionDataContainerTest {
     @Mock
     private SsoSessionUtils ssoSessionUtils;
 
+    @Spy
+    private SessionDataContainerStatistics statistics;
+
+    @Mock
+    private PermissionGraph permissionGraph;
+
     @BeforeEach
     public void setUpContainer() {
         when(engineSessionDao.remove(anyLong())).thenReturn(1);
         when(ssoSessionValidator.getSessionStatuses(any())).thenReturn(Collections.singletonMap(TEST_SSO_TOKEN, true));
         when(ssoSessionUtils.isSessionInUse(anyLong())).thenReturn(false);
+        when(engineSessionDao.save(any(EngineSession.class))).thenReturn(1L);
 
         DbUser user = mock(DbUser.class);
         container.setUser(TEST_SESSION_ID, user);
@@ -133,6 +150,103 @@ public class SessionDataContainerTest {
         container.setData(TEST_SESSION_ID, SOFT_LIMIT, DateUtils.addMinutes(new Date(), -1));
     }
 
+    @Test
+    public void testCleanInvalidatedSession() {
+        container.getData(TEST_SESSION_ID, USER, true);
+        container.setSessionValid(TEST_SESSION_ID, false);
+
+        container.cleanExpiredUsersSessions();
+
+        assertFalse(container.isSessionExists(TEST_SESSION_ID), "The invalidated session should be removed");
+    }
+
+    @Test
+    public void testCleanSessionsWithInvalidSsoToken() {
+        createOtherSession(2L);
+        when(ssoSessionValidator.getSessionStatuses(any()))
+                .thenReturn(Collections.singletonMap(OTHER_SSO_TOKEN, false));
+
+        container.cleanExpiredUsersSessions();
+
+        assertTrue(container.isSessionExists(TEST_SESSION_ID), "The session without limits should be kept");
+        assertFalse(container.isSessionExists(OTHER_SESSION_ID), "The session of the invalid token should be removed");
+        assertNull(container.getSessionIdBySsoAccessToken(OTHER_SSO_TOKEN));
+        assertNull(container.getSessionIdBySeqId(2L));
+        clearSession();
+    }
+
+    @Test
+    public void testCleanExpiredSessionsStatistics() {
+        initDataForClearTest(TEST_KEY);
+
+        container.cleanExpiredUsersSessions();
+
+        List<String> shown = statistics.showStatistics();
+        assertEquals("sessions: 0", shown.get(0));
+        assertEquals("expired sessions: 1", shown.get(3));
+        assertTrue(shown.get(4).startsWith("cleanups: 1, "));
+    }
+
+    @Test
+    public void testCleanExpiredSessionsKeepsOnlyUnexpiredSessions() {
+        createOtherSession(2L);
+        container.getData(OTHER_SESSION_ID, USER, true);
+        initDataForClearTest(TEST_KEY);
+
+        container.cleanExpiredUsersSessions();
+
+        assertFalse(container.isSessionExists(TEST_SESSION_ID), "The expired session should be removed");
+        assertTrue(container.isSessionExists(OTHER_SESSION_ID), "The refreshed session should be kept");
+        assertEquals("sessions: 1", statistics.showStatistics().get(0));
+        container.removeSessionOnLogout(OTHER_SESSION_ID);
+        assertEquals("sessions: 0", statistics.showStatistics().get(0));
+    }
+
+    /* Tests for the lookups of sessions */
+
+    @Test
+    public void testGetSessionIdBySeqId() {
+        createOtherSession(2L);
+
+        assertEquals(OTHER_SESSION_ID, container.getSessionIdBySeqId(2L));
+        container.removeSessionOnLogout(OTHER_SESSION_ID);
+        assertNull(container.getSessionIdBySeqId(2L), "The removed session should not be found");
+        clearSession();
+    }
+
+    @Test
+    public void testGetSessionIdBySsoAccessToken() {
+        createOtherSession(2L);
+
+        assertEquals(TEST_SESSION_ID, container.getSessionIdBySsoAccessToken(TEST_SSO_TOKEN));
+        assertEquals(OTHER_SESSION_ID, container.getSessionIdBySsoAccessToken(OTHER_SSO_TOKEN));
+
+        container.setSsoAccessToken(OTHER_SESSION_ID, TEST_SSO_TOKEN);
+        assertNull(container.getSessionIdBySsoAccessToken(OTHER_SSO_TOKEN), "The replaced token should not be found");
+        clearSession();
+        assertEquals(OTHER_SESSION_ID, container.getSessionIdBySsoAccessToken(TEST_SSO_TOKEN));
+        container.removeSessionOnLogout(OTHER_SESSION_ID);
+    }
+
+    @Test
+    public void testCleanupEngineSessionsForSsoAccessToken() {
+        createOtherSession(2L);
+
+        container.cleanupEngineSessionsForSsoAccessToken(OTHER_SSO_TOKEN);
+
+        assertTrue(container.isSessionExists(TEST_SESSION_ID), "The session of another token should be kept");
+        assertFalse(container.isSessionExists(OTHER_SESSION_ID), "The session of the token should be removed");
+        verify(engineSessionDao, never()).remove(1L);
+        verify(engineSessionDao).remove(2L);
+        clearSession();
+    }
+
+    private void createOtherSession(long seqId) {
+        when(engineSessionDao.save(any(EngineSession.class))).thenReturn(seqId);
+        container.setUser(OTHER_SESSION_ID, mock(DbUser.class));
+        container.setSsoAccessToken(OTHER_SESSION_ID, OTHER_SSO_TOKEN);
+    }
+
     @Test
     public void testRefreshUserSession() {
         // refresh the old session (refresh = true)
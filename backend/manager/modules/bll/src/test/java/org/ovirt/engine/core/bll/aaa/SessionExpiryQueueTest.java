@@ -0,0 +1,58 @@
+package org.ovirt.engine.core.bll.aaa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+public class SessionExpiryQueueTest {
+
+    private static final long BUCKET_LENGTH = 1000;
+
+    private SessionExpiryQueue queue = new SessionExpiryQueue(BUCKET_LENGTH);
+
+    @Test
+    public void testPollExpiredReturnsSessionsUpToCurrentBucket() {
+        queue.schedule("a", 500);
+        queue.schedule("b", 1500);
+        queue.schedule("c", 2500);
+
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), queue.pollExpired(1000));
+        assertEquals(1, queue.size());
+        assertEquals(Collections.singleton("c"), queue.pollExpired(3000));
+        assertTrue(queue.pollExpired(10000).isEmpty());
+    }
+
+    @Test
+    public void testScheduleReplacesPreviousSchedule() {
+        queue.schedule("a", 500);
+        queue.schedule("a", 5500);
+
+        assertTrue(queue.pollExpired(1000).isEmpty());
+        assertEquals(1, queue.size());
+        assertEquals(Collections.singleton("a"), queue.pollExpired(6000));
+    }
+
+    @Test
+    public void testUnschedule() {
+        queue.schedule("a", 500);
+        queue.schedule("b", 500);
+        queue.unschedule("a");
+
+        assertEquals(Collections.singleton("b"), queue.pollExpired(1000));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testPolledSessionCanBeScheduledAgain() {
+        queue.schedule("a", 500);
+        queue.pollExpired(1000);
+        queue.schedule("a", 700);
+
+        assertEquals(Collections.singleton("a"), queue.pollExpired(1000));
+    }
+}
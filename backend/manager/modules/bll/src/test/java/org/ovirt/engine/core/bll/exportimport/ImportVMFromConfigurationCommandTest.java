@@ -75,10 +75,7 @@ import org.ovirt.engine.core.utils.MockConfigExtension;
 import org.ovirt.engine.core.utils.ovf.OvfManager;
 import org.ovirt.engine.core.utils.ovf.OvfProperties;
 import org.ovirt.engine.core.utils.ovf.OvfVmIconDefaultsProvider;
-import org.ovirt.engine.core.utils.ovf.xml.XmlDocument;
-import org.ovirt.engine.core.utils.ovf.xml.XmlNode;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.CloudInitHandler;
-import org.w3c.dom.Element;
 
 @ExtendWith(MockConfigExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -96,7 +93,6 @@ public class ImportVMFromConfigurationCommandTest extends BaseCommandTest implem
     private final Guid clusterId = Guid.newGuid();
     private static final String VM_OVF_XML_DATA = "src/test/resources/vmOvfData.xml";
     private static final String VM_OVF_XML_DATA2 = "src/test/resources/vmOvfData2.xml";
-    private static final String OVF_URI = "http://schemas.dmtf.org/ovf/envelope/1/";
     private String xmlOvfData;
     private String xmlOvfData2;
     private Cluster cluster;
@@ -219,22 +215,16 @@ public class ImportVMFromConfigurationCommandTest extends BaseCommandTest implem
         xmlOvfData2 = new String(Files.readAllBytes(Paths.get(VM_OVF_XML_DATA2)), StandardCharsets.UTF_8);
     }
 
-    private void appendBiosTypeTag(XmlDocument document, int biosTypeId, Boolean custom) {
-        XmlNode content = document.selectSingleNode("//*/Content");
-        Element element = document.createElement(BIOS_TYPE);
-        if (custom != null) {
-            element.setAttributeNS(OVF_URI, "ovf:custom", custom.toString());
-        }
-        element.setTextContent(String.valueOf(biosTypeId));
-        content.appendChild(element);
+    private String appendBiosTypeTag(String ovfData, int biosTypeId, Boolean custom) {
+        String element = "<" + BIOS_TYPE + (custom != null ? " ovf:custom=\"" + custom + "\"" : "") + ">"
+                + biosTypeId + "</" + BIOS_TYPE + ">";
+        return ovfData.replace("</Content>", element + "</Content>");
     }
 
-    private void setXmlOvfData(BiosType biosType, Boolean custom) throws Exception {
-        XmlDocument document = new XmlDocument(xmlOvfData);
+    private void setXmlOvfData(BiosType biosType, Boolean custom) {
         if (biosType != null) {
-            appendBiosTypeTag(document, biosType.getValue() - 1, custom);
+            xmlOvfData = appendBiosTypeTag(xmlOvfData, biosType.getValue() - 1, custom);
         }
-        xmlOvfData = document.convertToString();
     }
 
     @Test
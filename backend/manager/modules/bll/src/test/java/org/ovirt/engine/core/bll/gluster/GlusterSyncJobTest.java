@@ -1,12 +1,16 @@
 package org.ovirt.engine.core.bll.gluster;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -14,10 +18,16 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import javax.transaction.TransactionManager;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
@@ -69,6 +79,8 @@ import org.ovirt.engine.core.utils.InjectedMock;
 import org.ovirt.engine.core.utils.InjectorExtension;
 import org.ovirt.engine.core.utils.MockConfigDescriptor;
 import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.MockedConfig;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 
 @ExtendWith({MockitoExtension.class, MockConfigExtension.class, InjectorExtension.class})
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -82,7 +94,15 @@ public class GlusterSyncJobTest {
     private GlusterUtil glusterUtil;
 
     public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
-        return Stream.of(MockConfigDescriptor.of(ConfigValues.GlusterMetaVolumeName, "gluster_shared_storage"));
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.GlusterMetaVolumeName, "gluster_shared_storage"),
+                MockConfigDescriptor.of(ConfigValues.GlusterSyncMaxConcurrency, 2),
+                MockConfigDescriptor.of(ConfigValues.GlusterSyncClusterTimeoutInSeconds, 60));
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockShortTimeoutConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.GlusterMetaVolumeName, "gluster_shared_storage"),
+                MockConfigDescriptor.of(ConfigValues.GlusterSyncMaxConcurrency, 2),
+                MockConfigDescriptor.of(ConfigValues.GlusterSyncClusterTimeoutInSeconds, 1));
     }
 
     @Spy
@@ -92,6 +112,12 @@ public class GlusterSyncJobTest {
     @Mock
     private GlusterAuditLogUtil logUtil;
 
+    @Spy
+    private GlusterSyncStatistics syncStatistics = new GlusterSyncStatistics();
+
+    private ExecutorService origExecutorService;
+    private ExecutorService executorService;
+
     private static final String OPTION_AUTH_ALLOW = "auth.allow";
     private static final String OPTION_AUTH_REJECT = "auth.reject";
     private static final String OPTION_NFS_DISABLE = "nfs.disable";
@@ -164,6 +190,8 @@ public class GlusterSyncJobTest {
 
         existingDistVol = createDistVol(DIST_VOL_NAME, EXISTING_VOL_DIST_ID);
         existingReplVol = createReplVol();
+        existingVolumes.add(existingDistVol);
+        existingVolumes.add(existingReplVol);
     }
 
     private void createCluster() {
@@ -189,7 +217,6 @@ public class GlusterSyncJobTest {
         vol.getAdvancedDetails().setCapacityInfo(getCapacityInfo(volId));
         vol.addBrick(createBrick(volId, existingServer1, DIST_BRICK_D1));
         vol.addBrick(createBrick(volId, existingServer1, DIST_BRICK_D2));
-        existingVolumes.add(vol);
         return vol;
     }
 
@@ -210,7 +237,6 @@ public class GlusterSyncJobTest {
         vol.addBrick(createBrick(EXISTING_VOL_REPL_ID, existingServer2, REPL_BRICK_R2D2));
         vol.setOption(OPTION_AUTH_ALLOW, "*");
         vol.setOption(OPTION_NFS_DISABLE, OPTION_VALUE_OFF);
-        existingVolumes.add(vol);
         return vol;
     }
 
@@ -318,7 +344,7 @@ public class GlusterSyncJobTest {
         // remove detached bricks
         inOrder.verify(brickDao, times(1)).removeAll(argThat(containsRemovedBricks()));
         // add new bricks
-        inOrder.verify(brickDao, times(2)).save(argThat(isAddedBrick()));
+        inOrder.verify(brickDao, times(1)).saveAllInBatch(argThat(areAddedBricks()));
 
         // add new options
         inOrder.verify(optionDao, times(1)).saveAll(argThat(areAddedOptions()));
@@ -342,7 +368,6 @@ public class GlusterSyncJobTest {
         doReturn(Collections.singletonList(existingCluster)).when(clusterDao).getAll();
         doReturn(existingCluster).when(clusterDao).get(any());
         doReturn(existingServers).when(vdsDao).getAllForCluster(CLUSTER_ID);
-        doReturn(existingReplVol).when(volumeDao).getById(EXISTING_VOL_REPL_ID);
         doReturn(existingVolumes).when(volumeDao).getByClusterId(CLUSTER_ID);
     }
 
@@ -368,8 +393,9 @@ public class GlusterSyncJobTest {
         return ids -> ids.size() == removedBrickIds.size() && removedBrickIds.containsAll(ids);
     }
 
-    private ArgumentMatcher<GlusterBrickEntity> isAddedBrick() {
-        return argument -> addedBrickIds.contains(argument.getId());
+    private ArgumentMatcher<Collection<GlusterBrickEntity>> areAddedBricks() {
+        return bricks -> bricks.size() == addedBrickIds.size()
+                && bricks.stream().allMatch(brick -> addedBrickIds.contains(brick.getId()));
     }
 
     private GlusterVolumeAdvancedDetails getVolumeAdvancedDetails(GlusterVolumeEntity volume) {
@@ -458,6 +484,19 @@ public class GlusterSyncJobTest {
         return servers;
     }
 
+    @BeforeEach
+    public void setUpExecutor() {
+        origExecutorService = ThreadPoolUtil.getExecutorService();
+        executorService = Executors.newFixedThreadPool(2);
+        ThreadPoolUtil.setExecutorService(executorService);
+    }
+
+    @AfterEach
+    public void tearDownExecutor() {
+        ThreadPoolUtil.setExecutorService(origExecutorService);
+        executorService.shutdownNow();
+    }
+
     @Test
     public void testRefreshLightWeight() {
         createCluster();
@@ -466,6 +505,7 @@ public class GlusterSyncJobTest {
 
         glusterManager.refreshLightWeightData();
         verifyMocksForLightWeight();
+        assertSyncStatistics("lightweight", 1, 0);
     }
 
     @Test
@@ -474,6 +514,46 @@ public class GlusterSyncJobTest {
         setupMocks();
         glusterManager.refreshHeavyWeightData();
         verifyMocksForHeavyWeight();
+        assertSyncStatistics("heavyweight", 1, 0);
+    }
+
+    @Test
+    @MockedConfig("mockShortTimeoutConfiguration")
+    public void testSkipClusterWithRunningRefresh() throws Exception {
+        createCluster();
+        setupMocks();
+        CountDownLatch refreshBlocked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            refreshBlocked.await();
+            return null;
+        }).when(glusterUtil).getRandomUpServer(CLUSTER_ID);
+
+        // the refresh doesn't complete in time
+        glusterManager.refreshHeavyWeightData();
+        assertSyncStatistics("heavyweight", 0, 1);
+
+        // the cluster is skipped while its refresh is running
+        glusterManager.refreshHeavyWeightData();
+        verify(glusterUtil, times(1)).getRandomUpServer(CLUSTER_ID);
+
+        refreshBlocked.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        assertSyncStatistics("heavyweight", 1, 1);
+
+        // the cluster is refreshed again once its refresh completed
+        executorService = Executors.newFixedThreadPool(2);
+        ThreadPoolUtil.setExecutorService(executorService);
+        glusterManager.refreshHeavyWeightData();
+        verify(glusterUtil, times(2)).getRandomUpServer(CLUSTER_ID);
+        assertSyncStatistics("heavyweight", 2, 1);
+    }
+
+    private void assertSyncStatistics(String sync, int syncs, int timeouts) {
+        List<String> shown = syncStatistics.showStatistics();
+        assertEquals(1, shown.size());
+        assertTrue(shown.get(0).startsWith("cluster 'cluster' " + sync + " sync: syncs " + syncs + ", "), shown.get(0));
+        assertTrue(shown.get(0).endsWith(", timeouts " + timeouts), shown.get(0));
     }
 
     private void verifyMocksForHeavyWeight() {
@@ -490,16 +570,12 @@ public class GlusterSyncJobTest {
         // get volumes of the cluster
         inOrder.verify(volumeDao, mode).getByClusterId(CLUSTER_ID);
 
-        // acquire lock on the cluster
-        inOrder.verify(glusterManager, mode).acquireLock(CLUSTER_ID);
-
-        // acquire lock on the cluster for repl volume
+        // acquire and release lock on the cluster for dist volume
         inOrder.verify(glusterManager, mode).acquireLock(CLUSTER_ID);
-
-        // release lock on the cluster
         inOrder.verify(glusterManager, mode).releaseLock(CLUSTER_ID);
 
-        // release lock on the cluster
+        // acquire and release lock on the cluster for repl volume
+        inOrder.verify(glusterManager, mode).acquireLock(CLUSTER_ID);
         inOrder.verify(glusterManager, mode).releaseLock(CLUSTER_ID);
     }
 
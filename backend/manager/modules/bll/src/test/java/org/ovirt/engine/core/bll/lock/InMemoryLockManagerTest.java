@@ -141,6 +141,15 @@ public class InMemoryLockManagerTest {
         assertEquals(0, lockManager.showAllLocks().size());
     }
 
+    @Test
+    public void testAcquireLockWaitTimeoutRemovesWaiter() {
+        assertTrue(lockManager.acquireLock(lockLock1).isAcquired());
+        assertFalse(lockManager.acquireLockWait(failLockLock, 100L).isAcquired());
+        assertTrue(lockManager.getWaitedKeys().isEmpty());
+        lockManager.releaseLock(lockLock1);
+        assertEquals(0, lockManager.showAllLocks().size());
+    }
+
     @Test
     public void testAcquireLockWaitTimeoutAfterForever() {
         lockManager.acquireLockWait(lockLock1);
@@ -175,6 +184,24 @@ public class InMemoryLockManagerTest {
         assertEquals(0, lockManager.showAllLocks().size());
     }
 
+    @Test
+    public void testAcquireLockWaitNotAffectedByOtherKeys() throws InterruptedException {
+        assertTrue(lockManager.acquireLock(lockLock1).isAcquired());
+        assertTrue(lockManager.acquireLock(lockLock2).isAcquired());
+        Thread waiter = new Thread(() -> lockManager.acquireLockWait(failLockLock));
+        waiter.start();
+        lockManager.releaseLock(lockLock2);
+        waiter.join(200L);
+        assertTrue(waiter.isAlive());
+        assertEquals(1, lockManager.showAllLocks().size());
+        lockManager.releaseLock(lockLock1);
+        waiter.join(1000L);
+        assertFalse(waiter.isAlive());
+        assertEquals(1, lockManager.showAllLocks().size());
+        lockManager.releaseLock(failLockLock);
+        assertEquals(0, lockManager.showAllLocks().size());
+    }
+
     @Test
     public void testAcquireLockNegativeTimeout() {
         assertThrows(IllegalArgumentException.class, () -> lockManager.acquireLockWait(lockLock1, -1000L));
@@ -14,6 +14,8 @@ import static org.mockito.Mockito.when;
 import java.util.Arrays;
 import java.util.List;
 
+import javax.enterprise.event.Event;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -55,6 +57,8 @@ public class NetworkClusterHelperTest {
     private VdsDynamicDao vdsDynamicDao;
     @Mock
     private ManagementNetworkUtil managementNetworkUtil;
+    @Mock
+    private Event<Guid> clusterNetworksUpdatedEvent;
 
     @InjectMocks
     private NetworkClusterHelper underTest;
@@ -111,6 +115,7 @@ public class NetworkClusterHelperTest {
         underTest.setStatus(CLUSTER_ID, singletonList(createNetwork(NETWORK_ID1, NETWORK_NAME1)));
 
         verify(networkClusterDao).updateStatus(same(networkCluster));
+        verify(clusterNetworksUpdatedEvent).fire(CLUSTER_ID);
         assertThat(networkCluster.getStatus(), is(NetworkStatus.NON_OPERATIONAL));
     }
 
@@ -167,6 +172,7 @@ public class NetworkClusterHelperTest {
 
         verify(networkClusterDao).remove(CLUSTER_ID, NETWORK_ID1);
         verify(networkAttachmentDao).removeByNetworkId(NETWORK_ID1);
+        verify(clusterNetworksUpdatedEvent).fire(CLUSTER_ID);
     }
 
     private NetworkCluster createNetworkCluster(Guid clusterId, Guid networkId) {
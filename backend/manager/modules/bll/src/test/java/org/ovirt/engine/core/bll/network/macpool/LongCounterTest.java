@@ -0,0 +1,94 @@
+package org.ovirt.engine.core.bll.network.macpool;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LongCounterTest {
+
+    @Test
+    public void testIncreaseNoDuplicates() {
+        final LongCounter longCounter = new LongCounter(false);
+
+        assertThat(longCounter.increase(1), is(true));
+        assertThat(longCounter.containsDuplicates(), is(false));
+        assertThat(longCounter.increase(1), is(false));
+        assertThat(longCounter.containsDuplicates(), is(false));
+        assertThat(longCounter.increase(2), is(true));
+        assertThat(longCounter.increase(-3), is(true));
+
+        assertThat(longCounter.contains(0), is(false));
+        assertThat(longCounter.contains(1), is(true));
+        assertThat(longCounter.contains(2), is(true));
+        assertThat(longCounter.contains(-3), is(true));
+        assertThat(longCounter.count(1), is(1));
+        assertThat(longCounter.size(), is(3));
+    }
+
+    @Test
+    public void testIncreaseWithDuplicates() {
+        final LongCounter longCounter = new LongCounter(true);
+
+        assertThat(longCounter.increase(1), is(true));
+        assertThat(longCounter.containsDuplicates(), is(false));
+        assertThat(longCounter.increase(1), is(true));
+        assertThat(longCounter.containsDuplicates(), is(true));
+        assertThat(longCounter.increase(1, false), is(false));
+
+        assertThat(longCounter.count(1), is(2));
+        assertThat(longCounter.size(), is(1));
+    }
+
+    @Test
+    public void testDecreaseWithDuplicates() {
+        final LongCounter longCounter = new LongCounter(true);
+
+        longCounter.increase(1);
+        longCounter.increase(1);
+        longCounter.increase(2);
+
+        longCounter.decrease(0);
+        assertThat(longCounter.contains(0), is(false));
+        assertThat(longCounter.containsDuplicates(), is(true));
+
+        longCounter.decrease(1);
+        assertThat(longCounter.contains(1), is(true));
+        assertThat(longCounter.containsDuplicates(), is(false));
+
+        longCounter.decrease(1);
+        assertThat(longCounter.contains(1), is(false));
+        assertThat(longCounter.contains(2), is(true));
+
+        longCounter.decrease(2);
+        assertThat(longCounter.contains(2), is(false));
+        assertThat(longCounter.size(), is(0));
+    }
+
+    @Test
+    public void testManyValuesMatchHashMap() {
+        final LongCounter longCounter = new LongCounter(true);
+        final Map<Long, Integer> expected = new HashMap<>();
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 100000; i++) {
+            long mac = 0x001A4A000000L + random.nextInt(5000);
+            if (random.nextBoolean()) {
+                longCounter.increase(mac);
+                expected.merge(mac, 1, Integer::sum);
+            } else {
+                longCounter.decrease(mac);
+                expected.computeIfPresent(mac, (key, count) -> count == 1 ? null : count - 1);
+            }
+        }
+
+        assertThat(longCounter.size(), is(expected.size()));
+        for (long mac = 0x001A4A000000L; mac < 0x001A4A000000L + 5000; mac++) {
+            assertThat(longCounter.count(mac), is(expected.getOrDefault(mac, 0)));
+        }
+    }
+}
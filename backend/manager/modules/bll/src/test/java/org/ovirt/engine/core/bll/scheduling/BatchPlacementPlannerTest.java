@@ -0,0 +1,93 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.businessentities.CpuPinningPolicy;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.compat.Guid;
+
+public class BatchPlacementPlannerTest {
+
+    private final VDS smallHost = createHost(4096);
+    private final VDS mediumHost = createHost(8192);
+    private final VDS largeHost = createHost(16384);
+    private final List<VDS> hosts = Arrays.asList(smallHost, mediumHost, largeHost);
+
+    private final List<List<VM>> filteredGroups = new ArrayList<>();
+
+    @Test
+    public void testMostConstrainedGroupsArePlacedFirst() {
+        List<VM> small = createGroup(1024);
+        List<VM> large = createGroup(10000);
+        List<VM> medium = createGroup(6000);
+        List<VM> smallerMedium = createGroup(5000);
+        List<VM> notFitting = createGroup(20000);
+        List<VM> pinned = createGroup(512);
+        pinned.get(0).setCpuPinningPolicy(CpuPinningPolicy.DEDICATED);
+
+        BatchPlacementPlanner planner = new BatchPlacementPlanner(
+                Arrays.asList(small, large, medium, smallerMedium, notFitting, pinned),
+                hosts,
+                this::filterByMemory);
+
+        assertEquals(Arrays.asList(pinned, large, medium, smallerMedium, notFitting, small),
+                planner.getOrderedGroups());
+    }
+
+    @Test
+    public void testCandidateHosts() {
+        List<VM> small = createGroup(1024);
+        List<VM> medium = createGroup(6000);
+        List<VM> notFitting = createGroup(20000);
+
+        BatchPlacementPlanner planner = new BatchPlacementPlanner(Arrays.asList(small, medium, notFitting),
+                hosts,
+                this::filterByMemory);
+
+        assertEquals(hosts, planner.getCandidateHosts(small));
+        assertEquals(Arrays.asList(mediumHost, largeHost), planner.getCandidateHosts(medium));
+        // Keeps all the hosts, so the placement reports why none of them fits
+        assertEquals(hosts, planner.getCandidateHosts(notFitting));
+    }
+
+    @Test
+    public void testHostsAreFilteredOncePerGroup() {
+        List<VM> first = createGroup(1024);
+        List<VM> second = createGroup(1024);
+
+        new BatchPlacementPlanner(Arrays.asList(first, second), hosts, this::filterByMemory);
+
+        assertEquals(2, filteredGroups.size());
+        assertEquals(1, filteredGroups.stream().filter(group -> group == first).count());
+        assertEquals(1, filteredGroups.stream().filter(group -> group == second).count());
+    }
+
+    private List<VDS> filterByMemory(List<VDS> hostList, List<VM> vmGroup) {
+        filteredGroups.add(vmGroup);
+        int groupMemory = vmGroup.stream().mapToInt(VM::getMemSizeMb).sum();
+        return hostList.stream().filter(host -> host.getPhysicalMemMb() >= groupMemory).collect(Collectors.toList());
+    }
+
+    private static List<VM> createGroup(int memSizeMb) {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setVmMemSizeMb(memSizeMb);
+        vm.setCpuPinningPolicy(CpuPinningPolicy.NONE);
+        return new ArrayList<>(Collections.singletonList(vm));
+    }
+
+    private static VDS createHost(int physicalMemMb) {
+        VDS host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setPhysicalMemMb(physicalMemMb);
+        return host;
+    }
+}
@@ -0,0 +1,41 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class BatchPlacementStatisticsTest {
+
+    private final BatchPlacementStatistics statistics = new BatchPlacementStatistics();
+
+    @Test
+    public void testRecord() {
+        statistics.record(10, 8, TimeUnit.MILLISECONDS.toNanos(100));
+        statistics.record(5, 2, TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(Arrays.asList(
+                "batches: 2",
+                "requested VMs: 15",
+                "placed VMs: 10",
+                "total time: 200 ms",
+                String.format("placements per second: %.1f", 50.0)),
+                statistics.showStatistics());
+    }
+
+    @Test
+    public void testReset() {
+        statistics.record(1, 1, 1);
+        statistics.reset();
+
+        assertEquals(Arrays.asList(
+                "batches: 0",
+                "requested VMs: 0",
+                "placed VMs: 0",
+                "total time: 0 ms",
+                String.format("placements per second: %.1f", 0.0)),
+                statistics.showStatistics());
+    }
+}
@@ -0,0 +1,242 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingCpuCores;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingNumaMemory;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.common.businessentities.NumaNodeStatistics;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VdsDao;
+import org.ovirt.engine.core.dao.VdsNumaNodeDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.VdsManager;
+
+@ExtendWith({MockitoExtension.class, MockConfigExtension.class})
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class HostCapacitySnapshotTest {
+
+    private static final Guid CLUSTER_ID = Guid.newGuid();
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.SchedulerHostsSnapshotMaxAge, 60)
+        );
+    }
+
+    @Mock
+    private ResourceManager resourceManager;
+    @Mock
+    private VdsDao vdsDao;
+    @Mock
+    private VdsNumaNodeDao vdsNumaNodeDao;
+
+    private PendingResourceManager pendingResourceManager;
+    private HostCapacitySnapshot snapshot;
+    private VDS host1;
+    private VDS host2;
+    private List<VdsManager> vdsManagers;
+
+    @BeforeEach
+    public void setUp() {
+        host1 = createHost();
+        host2 = createHost();
+        vdsManagers = new ArrayList<>(Arrays.asList(mockVdsManager(host1), mockVdsManager(host2)));
+        when(resourceManager.getVdsManagers()).thenReturn(vdsManagers);
+        when(vdsDao.getAllForClusterWithStatus(CLUSTER_ID, VDSStatus.Up)).thenReturn(Arrays.asList(host1, host2));
+        when(vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(any())).thenAnswer(invocation -> createNumaNodes());
+
+        pendingResourceManager = new PendingResourceManager();
+        snapshot = new HostCapacitySnapshot(resourceManager, pendingResourceManager, vdsDao, vdsNumaNodeDao);
+    }
+
+    @Test
+    public void testClusterLoadedOnce() {
+        assertThat(snapshot.getHosts(CLUSTER_ID)).extracting(VDS::getId)
+                .containsExactlyInAnyOrder(host1.getId(), host2.getId());
+        assertThat(snapshot.getHosts(CLUSTER_ID)).hasSize(2);
+
+        verify(vdsDao, times(1)).getAllForClusterWithStatus(CLUSTER_ID, VDSStatus.Up);
+        verify(vdsNumaNodeDao, times(2)).getAllVdsNumaNodeByVdsId(any());
+    }
+
+    @Test
+    public void testHostsAreCopies() {
+        VDS copy = snapshot.getHosts(CLUSTER_ID).get(0);
+        copy.setPendingVmemSize(1000);
+        copy.getNumaNodeList().get(0).getNumaNodeStatistics().setMemFree(0);
+
+        VDS otherCopy = snapshot.getHosts(CLUSTER_ID).get(0);
+        assertThat(otherCopy.getPendingVmemSize()).isEqualTo(0);
+        assertThat(otherCopy.getNumaNodeList().get(0).getNumaNodeStatistics().getMemFree()).isEqualTo(1024);
+    }
+
+    @Test
+    public void testHostNotUpIsSkipped() {
+        snapshot.getHosts(CLUSTER_ID);
+        when(vdsManagers.get(1).getStatus()).thenReturn(VDSStatus.PreparingForMaintenance);
+
+        assertThat(snapshot.getHosts(CLUSTER_ID)).extracting(VDS::getId).containsExactly(host1.getId());
+    }
+
+    @Test
+    public void testNewHostIsLoaded() {
+        snapshot.getHosts(CLUSTER_ID);
+        VDS host3 = createHost();
+        vdsManagers.add(mockVdsManager(host3));
+        when(vdsDao.get(host3.getId())).thenReturn(host3);
+        long version = snapshot.getVersion(CLUSTER_ID);
+
+        assertThat(snapshot.getHosts(CLUSTER_ID)).extracting(VDS::getId)
+                .containsExactlyInAnyOrder(host1.getId(), host2.getId(), host3.getId());
+        assertThat(snapshot.getVersion(CLUSTER_ID)).isGreaterThan(version);
+        verify(vdsDao, times(1)).getAllForClusterWithStatus(CLUSTER_ID, VDSStatus.Up);
+    }
+
+    @Test
+    public void testUpdateHostFromMonitoring() {
+        snapshot.getHosts(CLUSTER_ID);
+        long version = snapshot.getVersion(CLUSTER_ID);
+
+        VDS refreshed = host1.clone();
+        refreshed.setUsageCpuPercent(42);
+        VdsNumaNode statistics = new VdsNumaNode();
+        statistics.setIndex(0);
+        statistics.setNumaNodeStatistics(createStatistics(512));
+        refreshed.setNumaNodeList(Collections.singletonList(statistics));
+        snapshot.updateHost(refreshed);
+
+        VDS host = findHost(snapshot.getHosts(CLUSTER_ID), host1.getId());
+        assertThat(snapshot.getVersion(CLUSTER_ID)).isGreaterThan(version);
+        assertThat(host.getUsageCpuPercent()).isEqualTo(42);
+        assertThat(host.getNumaNodeList()).hasSize(2);
+        assertThat(host.getNumaNodeList().get(0).getCpuIds()).containsExactly(0);
+        assertThat(host.getNumaNodeList().get(0).getNumaNodeStatistics().getMemFree()).isEqualTo(512);
+        assertThat(host.getNumaNodeList().get(1).getNumaNodeStatistics().getMemFree()).isEqualTo(1024);
+    }
+
+    @Test
+    public void testUpdateHostNotUp() {
+        snapshot.getHosts(CLUSTER_ID);
+        VDS refreshed = host2.clone();
+        refreshed.setStatus(VDSStatus.NonResponsive);
+        snapshot.updateHost(refreshed);
+
+        when(vdsDao.get(host2.getId())).thenReturn(host2);
+        snapshot.getHosts(CLUSTER_ID);
+        verify(vdsDao).get(host2.getId());
+    }
+
+    @Test
+    public void testClusterReloadedAfterUpdate() {
+        snapshot.getHosts(CLUSTER_ID);
+        VDS updated = host1.clone();
+        updated.setMaxVdsMemoryOverCommit(200);
+        when(vdsDao.getAllForClusterWithStatus(CLUSTER_ID, VDSStatus.Up)).thenReturn(Arrays.asList(updated, host2));
+
+        snapshot.invalidateCluster(CLUSTER_ID);
+
+        assertThat(findHost(snapshot.getHosts(CLUSTER_ID), host1.getId()).getMaxVdsMemoryOverCommit())
+                .isEqualTo(200);
+        verify(vdsDao, times(2)).getAllForClusterWithStatus(CLUSTER_ID, VDSStatus.Up);
+    }
+
+    @Test
+    public void testHostReloadedAfterUpdate() {
+        snapshot.getHosts(CLUSTER_ID);
+        long version = snapshot.getVersion(CLUSTER_ID);
+        VDS updated = host2.clone();
+        updated.setCpuThreads(64);
+        when(vdsDao.get(host2.getId())).thenReturn(updated);
+
+        snapshot.invalidateHost(host2.getId());
+
+        assertThat(findHost(snapshot.getHosts(CLUSTER_ID), host2.getId()).getCpuThreads()).isEqualTo(64);
+        assertThat(snapshot.getVersion(CLUSTER_ID)).isGreaterThan(version);
+        verify(vdsDao, times(1)).getAllForClusterWithStatus(CLUSTER_ID, VDSStatus.Up);
+    }
+
+    @Test
+    public void testPendingResourcesApplied() {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        pendingResourceManager.addPending(new PendingCpuCores(host1.getId(), vm, 4, 4));
+        pendingResourceManager.addPending(new PendingNumaMemory(host1.getId(), vm, 1,
+                new NumaNodeMemoryConsumption(256, Optional.empty())));
+
+        VDS host = findHost(snapshot.getHosts(CLUSTER_ID), host1.getId());
+        assertThat(host.getPendingVcpusCount()).isEqualTo(4);
+        assertThat(host.getNumaNodeList().get(0).getNumaNodeStatistics().getMemFree()).isEqualTo(1024);
+        assertThat(host.getNumaNodeList().get(1).getNumaNodeStatistics().getMemFree()).isEqualTo(768);
+
+        pendingResourceManager.clearVm(vm.getStaticData());
+        snapshot.refreshPendingValues(Collections.singletonList(host));
+        assertThat(host.getPendingVcpusCount()).isEqualTo(0);
+    }
+
+    private VDS createHost() {
+        VDS host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setClusterId(CLUSTER_ID);
+        host.setStatus(VDSStatus.Up);
+        return host;
+    }
+
+    private VdsManager mockVdsManager(VDS host) {
+        VdsManager vdsManager = mock(VdsManager.class);
+        when(vdsManager.getVdsId()).thenReturn(host.getId());
+        when(vdsManager.getClusterId()).thenReturn(host.getClusterId());
+        when(vdsManager.getStatus()).thenReturn(VDSStatus.Up);
+        return vdsManager;
+    }
+
+    private static List<VdsNumaNode> createNumaNodes() {
+        List<VdsNumaNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            VdsNumaNode node = new VdsNumaNode();
+            node.setId(Guid.newGuid());
+            node.setIndex(i);
+            node.setCpuIds(new ArrayList<>(Collections.singletonList(i)));
+            node.setMemTotal(2048);
+            node.setNumaNodeStatistics(createStatistics(1024));
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private static NumaNodeStatistics createStatistics(long memFree) {
+        NumaNodeStatistics statistics = new NumaNodeStatistics();
+        statistics.setMemFree(memFree);
+        return statistics;
+    }
+
+    private static VDS findHost(List<VDS> hosts, Guid hostId) {
+        return hosts.stream().filter(h -> h.getId().equals(hostId)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,51 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.bll.scheduling.PolicyUnitTimings.Phase;
+import org.ovirt.engine.core.bll.scheduling.policyunits.MemoryPolicyUnit;
+import org.ovirt.engine.core.bll.scheduling.policyunits.SwapFilterPolicyUnit;
+
+public class PolicyUnitTimingsTest {
+
+    private final PolicyUnitTimings timings = new PolicyUnitTimings();
+    private final PolicyUnitImpl swapFilter = new SwapFilterPolicyUnit(null, null);
+    private final PolicyUnitImpl memoryFilter = new MemoryPolicyUnit(null, null);
+
+    @Test
+    public void testRecord() {
+        timings.record(swapFilter, Phase.FILTER, TimeUnit.MILLISECONDS.toNanos(2));
+        timings.record(swapFilter, Phase.FILTER, TimeUnit.MILLISECONDS.toNanos(4));
+        timings.record(memoryFilter, Phase.FILTER, TimeUnit.MILLISECONDS.toNanos(1));
+
+        List<String> lines = timings.showStatistics();
+        assertEquals(2, lines.size());
+        assertEquals("filter " + memoryFilter.getPolicyUnit().getName()
+                + ": calls 1, total 1 ms, average 1000 us, max 1000 us", lines.get(0));
+        assertEquals("filter Swap: calls 2, total 6 ms, average 3000 us, max 4000 us", lines.get(1));
+    }
+
+    @Test
+    public void testReset() {
+        timings.record(swapFilter, Phase.FILTER, 1);
+        timings.reset();
+        assertTrue(timings.showStatistics().isEmpty());
+
+        timings.record(swapFilter, Phase.WEIGHT, TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(Collections.singletonList("weight Swap: calls 1, total 1 ms, average 1000 us, max 1000 us"),
+                timings.showStatistics());
+    }
+
+    @Test
+    public void testHostIndependent() {
+        assertTrue(swapFilter.isHostIndependent());
+        assertFalse(memoryFilter.isHostIndependent());
+    }
+}
@@ -0,0 +1,176 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.scheduling.PerHostMessages;
+import org.ovirt.engine.core.common.scheduling.PolicyUnitType;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+
+public class PolicyUnitsEvaluatorTest {
+
+    private static final int HOSTS_COUNT = 100;
+
+    private final PolicyUnitTimings timings = new PolicyUnitTimings();
+    private final PolicyUnitsEvaluator evaluator = new PolicyUnitsEvaluator(4, timings);
+    private final List<VDS> hosts = createHosts();
+    private final List<VM> vmGroup = Collections.singletonList(new VM());
+
+    private final VmCountFilterPolicyUnit filter = new VmCountFilterPolicyUnit();
+    private final List<Pair<PolicyUnitImpl, Integer>> functions = Arrays.asList(
+            new Pair<>(new VmCountWeightPolicyUnit(), 1),
+            new Pair<>(new FreeSlotsWeightPolicyUnit(), 2));
+
+    @AfterEach
+    public void tearDown() {
+        evaluator.shutdown();
+    }
+
+    @Test
+    public void testParallelFilterResultIsSameAsSequential() {
+        PerHostMessages sequentialMessages = new PerHostMessages();
+        List<VDS> sequential = evaluator.filter(filter, hosts, vmGroup, createContext(false), sequentialMessages);
+        PerHostMessages parallelMessages = new PerHostMessages();
+        List<VDS> parallel = evaluator.filter(filter, hosts, vmGroup, createContext(true), parallelMessages);
+
+        assertEquals(HOSTS_COUNT - HOSTS_COUNT / 3 - 1, sequential.size());
+        assertEquals(sequential, parallel);
+        assertEquals(sequentialMessages.getMessages(), parallelMessages.getMessages());
+        assertTrue(filter.threadNames.stream().anyMatch(name -> name.startsWith("scheduler-policy-units-")));
+        assertTrue(timings.showStatistics()
+                .stream()
+                .anyMatch(line -> line.startsWith("filter VmCountFilter: calls 2,")));
+    }
+
+    @Test
+    public void testParallelScoresAreSameAsSequential() {
+        List<List<Pair<Guid, Integer>>> sequential =
+                evaluator.score(functions, hosts, vmGroup, createContext(false));
+        List<List<Pair<Guid, Integer>>> parallel =
+                evaluator.score(functions, hosts, vmGroup, createContext(true));
+
+        assertEquals(functions.size(), parallel.size());
+        for (int i = 0; i < functions.size(); i++) {
+            assertEquals(toSet(sequential.get(i)), toSet(parallel.get(i)));
+        }
+        List<String> timingLines = timings.showStatistics();
+        assertTrue(timingLines.stream().anyMatch(line -> line.startsWith("weight VmCountWeight: calls 2,")));
+        assertTrue(timingLines.stream().anyMatch(line -> line.startsWith("weight FreeSlotsWeight: calls 2,")));
+        assertEquals(HOSTS_COUNT, sequential.get(0).size());
+    }
+
+    @Test
+    public void testHostDependentFilterIsNotSplit() {
+        VmCountWeightPolicyUnit hostDependent = new VmCountWeightPolicyUnit();
+
+        evaluator.filter(hostDependent, hosts, vmGroup, createContext(true), new PerHostMessages());
+
+        assertEquals(Collections.singletonList(HOSTS_COUNT), hostDependent.filteredListSizes);
+    }
+
+    private static Set<Pair<Guid, Integer>> toSet(List<Pair<Guid, Integer>> scores) {
+        return scores.stream().collect(Collectors.toSet());
+    }
+
+    private static SchedulingContext createContext(boolean parallel) {
+        SchedulingContext context = new SchedulingContext(new Cluster(), Collections.emptyMap());
+        context.setParallelEvaluation(parallel);
+        return context;
+    }
+
+    private static List<VDS> createHosts() {
+        List<VDS> hosts = new ArrayList<>();
+        for (int i = 0; i < HOSTS_COUNT; i++) {
+            VDS host = new VDS();
+            host.setId(Guid.newGuid());
+            host.setVdsName("host" + i);
+            host.setVmCount(i);
+            hosts.add(host);
+        }
+        return hosts;
+    }
+
+    @SchedulingUnit(
+            guid = "0d1b7b8e-2a13-4a11-9c3b-7b2d5e2f0001",
+            name = "VmCountFilter",
+            hostIndependent = true
+    )
+    private static class VmCountFilterPolicyUnit extends PolicyUnitImpl {
+        private final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+        VmCountFilterPolicyUnit() {
+            super(null, null);
+        }
+
+        @Override
+        public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
+            threadNames.add(Thread.currentThread().getName());
+            List<VDS> result = new ArrayList<>();
+            for (VDS host : hosts) {
+                if (host.getVmCount() % 3 == 0) {
+                    messages.addMessage(host.getId(), "vm count " + host.getVmCount());
+                } else {
+                    result.add(host);
+                }
+            }
+            return result;
+        }
+    }
+
+    @SchedulingUnit(
+            guid = "0d1b7b8e-2a13-4a11-9c3b-7b2d5e2f0002",
+            name = "VmCountWeight",
+            type = PolicyUnitType.WEIGHT
+    )
+    private static class VmCountWeightPolicyUnit extends PolicyUnitImpl {
+        private final List<Integer> filteredListSizes = Collections.synchronizedList(new ArrayList<>());
+
+        VmCountWeightPolicyUnit() {
+            super(null, null);
+        }
+
+        @Override
+        public List<VDS> filter(SchedulingContext context, List<VDS> hosts, VM vm, PerHostMessages messages) {
+            filteredListSizes.add(hosts.size());
+            return hosts;
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
+            return hosts.stream().map(host -> new Pair<>(host.getId(), host.getVmCount())).collect(Collectors.toList());
+        }
+    }
+
+    @SchedulingUnit(
+            guid = "0d1b7b8e-2a13-4a11-9c3b-7b2d5e2f0003",
+            name = "FreeSlotsWeight",
+            type = PolicyUnitType.WEIGHT
+    )
+    private static class FreeSlotsWeightPolicyUnit extends PolicyUnitImpl {
+
+        FreeSlotsWeightPolicyUnit() {
+            super(null, null);
+        }
+
+        @Override
+        public List<Pair<Guid, Integer>> score(SchedulingContext context, List<VDS> hosts, VM vm) {
+            return hosts.stream()
+                    .map(host -> new Pair<>(host.getId(), HOSTS_COUNT - host.getVmCount()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
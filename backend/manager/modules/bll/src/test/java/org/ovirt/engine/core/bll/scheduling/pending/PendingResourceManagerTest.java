@@ -1,12 +1,14 @@
 package org.ovirt.engine.core.bll.scheduling.pending;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.businessentities.CpuPinningPolicy;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.compat.Guid;
@@ -98,6 +100,64 @@ public class PendingResourceManagerTest {
         assertEquals(host.getId(), PendingVM.getScheduledHost(manager, vm2));
     }
 
+    @Test
+    public void testHostCounters() {
+        PendingResourceManager manager = new PendingResourceManager();
+
+        VDS host = new VDS();
+        host.setId(Guid.newGuid());
+
+        VM vm1 = new VM();
+        vm1.setId(Guid.newGuid());
+
+        VM vm2 = new VM();
+        vm2.setId(Guid.newGuid());
+        vm2.setCpuPinningPolicy(CpuPinningPolicy.DEDICATED);
+
+        manager.addPending(new PendingMemory(host, vm1, 768));
+        manager.addPending(new PendingOvercommitMemory(host, vm1, 512));
+        manager.addPending(new PendingCpuCores(host, vm1, 2, 1));
+        manager.addPending(new PendingCpuLoad(host.getId(), vm1, 30));
+        manager.addPending(new PendingHugePages(host.getId(), vm1, 2048, 10));
+
+        manager.addPending(new PendingMemory(host, vm2, 1024));
+        manager.addPending(new PendingCpuCores(host, vm2, 4, 2));
+        manager.addPending(new PendingCpuLoad(host.getId(), vm2, 50));
+        manager.addPending(new PendingHugePages(host.getId(), vm2, 2048, 5));
+
+        PendingHostCounters counters = manager.getHostCounters(host.getId());
+        assertEquals(1024 + 768, counters.getMemoryMb());
+        assertEquals(512, counters.getOvercommitMemoryMb());
+        assertEquals(6, counters.getCpuCount());
+        assertEquals(2, counters.getSharedCpuCount());
+        assertEquals(80, counters.getCpuLoad());
+        assertEquals(30, counters.getSharedCpuLoad());
+        assertThat(counters.getHugePages()).containsOnly(entry(2048, 15));
+
+        // Replacing a resource must not count it twice
+        manager.addPending(new PendingMemory(host, vm2, 2048));
+        assertEquals(2048 + 768, PendingMemory.collectForHost(manager, host.getId()));
+
+        manager.clearVm(vm2);
+        assertEquals(768, counters.getMemoryMb());
+        assertEquals(2, counters.getCpuCount());
+        assertEquals(2, counters.getSharedCpuCount());
+        assertEquals(30, counters.getCpuLoad());
+        assertThat(counters.getHugePages()).containsOnly(entry(2048, 10));
+
+        manager.clearVm(vm1);
+        assertEquals(0, counters.getMemoryMb());
+        assertEquals(0, counters.getOvercommitMemoryMb());
+        assertEquals(0, counters.getCpuCount());
+        assertEquals(0, counters.getCpuLoad());
+        assertThat(counters.getHugePages()).isEmpty();
+
+        manager.addPending(new PendingMemory(host, vm1, 768));
+        manager.clearHost(host);
+        assertEquals(0, PendingMemory.collectForHost(manager, host.getId()));
+        assertEquals(0, manager.getHostCounters(host.getId()).getMemoryMb());
+    }
+
     @Test
     public void testGetScheduledHost() {
         PendingResourceManager manager = new PendingResourceManager();
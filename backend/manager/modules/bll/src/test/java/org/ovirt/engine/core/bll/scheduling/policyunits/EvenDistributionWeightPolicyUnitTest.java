@@ -22,6 +22,7 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingHostCounters;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.bll.scheduling.utils.VdsCpuUnitPinningHelper;
 import org.ovirt.engine.core.common.businessentities.BusinessEntity;
@@ -77,6 +78,7 @@ public class EvenDistributionWeightPolicyUnitTest extends AbstractPolicyUnitTest
         when(vmOverheadCalculator.getTotalRequiredMemMb(any(VM.class))).thenAnswer(invocation -> invocation.<VM>getArgument(0).getMemSizeMb());
         when(resourceManager.getVdsManager(any())).thenReturn(vdsManager);
         when(vdsManager.getCpuTopology()).thenReturn(Collections.emptyList());
+        when(pendingResourceManager.getHostCounters(any())).thenReturn(new PendingHostCounters());
     }
 
     @Test
@@ -23,6 +23,7 @@ import org.mockito.quality.Strictness;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitImpl;
 import org.ovirt.engine.core.bll.scheduling.PolicyUnitParameter;
 import org.ovirt.engine.core.bll.scheduling.SchedulingContext;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingHostCounters;
 import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
 import org.ovirt.engine.core.bll.scheduling.utils.VdsCpuUnitPinningHelper;
 import org.ovirt.engine.core.common.businessentities.BusinessEntity;
@@ -86,6 +87,7 @@ public class PowerSavingWeightPolicyUnitTest extends AbstractPolicyUnitTest {
         when(vmOverheadCalculator.getTotalRequiredMemMb(any(VM.class))).thenAnswer(invocation -> invocation.<VM>getArgument(0).getMemSizeMb());
         when(resourceManager.getVdsManager(any())).thenReturn(vdsManager);
         when(vdsManager.getCpuTopology()).thenReturn(Collections.emptyList());
+        when(pendingResourceManager.getHostCounters(any())).thenReturn(new PendingHostCounters());
 
         parameters.put(PolicyUnitParameter.HIGH_UTILIZATION.getDbName(), "80");
         parameters.put(PolicyUnitParameter.LOW_MEMORY_LIMIT_FOR_OVER_UTILIZED.getDbName(), "600");
@@ -19,6 +19,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -57,10 +60,12 @@ import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.KeyValuePairCompat;
 import org.ovirt.engine.core.dao.DbUserDao;
 import org.ovirt.engine.core.dao.LabelDao;
+import org.ovirt.engine.core.dao.PermissionDao;
 import org.ovirt.engine.core.dao.SnapshotDao;
 import org.ovirt.engine.core.dao.StorageDomainDao;
 import org.ovirt.engine.core.dao.StorageDomainOvfInfoDao;
 import org.ovirt.engine.core.dao.StoragePoolDao;
+import org.ovirt.engine.core.dao.StorageServerConnectionLunMapDao;
 import org.ovirt.engine.core.dao.VmAndTemplatesGenerationsDao;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
@@ -68,6 +73,8 @@ import org.ovirt.engine.core.dao.VmTemplateDao;
 import org.ovirt.engine.core.dao.scheduling.AffinityGroupDao;
 import org.ovirt.engine.core.utils.MockConfigDescriptor;
 import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.MockedConfig;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 
 @ExtendWith(MockConfigExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -112,6 +119,12 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
     @Mock
     private DbUserDao dbUserDao;
 
+    @Mock
+    private PermissionDao permissionDao;
+
+    @Mock
+    private StorageServerConnectionLunMapDao storageServerConnectionLunMapDao;
+
     @Mock
     private OvfHelper ovfHelper;
 
@@ -125,11 +138,21 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
     private Map<Guid, Long> executedUpdatedOvfGenerationIdsInDb;
     private Set<Guid> executedOvfUpdatedDomains;
     private Map<Guid, Pair<List<StorageDomainOvfInfo>, StorageDomain>> poolDomainsOvfInfo;
+    private long currentDbGeneration;
 
     public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
         return Stream.of(
             MockConfigDescriptor.of(ConfigValues.StorageDomainOvfStoreCount, 1),
-            MockConfigDescriptor.of(ConfigValues.OvfItemsCountPerUpdate, ITEMS_COUNT_PER_UPDATE)
+            MockConfigDescriptor.of(ConfigValues.OvfItemsCountPerUpdate, ITEMS_COUNT_PER_UPDATE),
+            MockConfigDescriptor.of(ConfigValues.OvfUpdateParallelism, 1)
+        );
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockParallelConfiguration() {
+        return Stream.of(
+            MockConfigDescriptor.of(ConfigValues.StorageDomainOvfStoreCount, 1),
+            MockConfigDescriptor.of(ConfigValues.OvfItemsCountPerUpdate, ITEMS_COUNT_PER_UPDATE),
+            MockConfigDescriptor.of(ConfigValues.OvfUpdateParallelism, 4)
         );
     }
 
@@ -145,7 +168,7 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         doNothing().when(command).updateTemplateDisksFromDb(any());
 
         // dao related mocks.
-        doReturn(1L).when(vmStaticDao).getDbGeneration(any());
+        currentDbGeneration = 1L;
         doReturn(pool1).when(command).getStoragePool();
 
         mockAnswers();
@@ -197,6 +220,11 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
             return neededIds.stream().map(id -> templates.get(id)).collect(Collectors.toList());
         }).when(vmTemplateDao).getVmTemplatesByIds(any());
 
+        doAnswer(invocation -> {
+            Collection<Guid> ids = (Collection<Guid>) invocation.getArguments()[0];
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> currentDbGeneration));
+        }).when(vmStaticDao).getDbGenerations(any());
+
         doAnswer(invocation -> {
             Map<Guid, KeyValuePairCompat<String, List<Guid>>> updateMap =
                     (Map<Guid, KeyValuePairCompat<String, List<Guid>>>) invocation.getArguments()[1];
@@ -209,6 +237,7 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         doAnswer(invocation -> {
             List<Guid> ids = (List<Guid>) invocation.getArguments()[0];
             List<Long> values = (List<Long>) invocation.getArguments()[1];
+            List<String> ovfs = (List<String>) invocation.getArguments()[2];
             assertFalse(values.isEmpty(), "update of ovf version in db shouldn't be called with an empty value list");
             assertTrue(values.size() <= StorageConstants.OVF_MAX_ITEMS_PER_SQL_STATEMENT,
                     "update of ovf version in db shouldn't be called with more items then MAX_ITEMS_PER_SQL_STATEMENT");
@@ -220,6 +249,7 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
             for (int i = 0; i < ids_array.length; i++) {
                 executedUpdatedOvfGenerationIdsInDb.put(ids_array[i],
                         values_array[i]);
+                assertEquals(ids_array[i].toString(), ovfs.get(i), "the ovf doesn't belong to the updated vm/template");
             }
             return null;
         }).when(vmAndTemplatesGenerationsDao).updateOvfGenerations(any(), any(), any());
@@ -402,6 +432,31 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
         executedOvfUpdatedDomains = command.getReturnValue().getActionReturnValue();
     }
 
+    @Test
+    @MockedConfig("mockParallelConfiguration")
+    public void testOvfDataUpdaterGeneratesVmsOvfsInParallel() {
+        int size = 3 * ITEMS_COUNT_PER_UPDATE + 10;
+
+        List<Guid> vmGuids = generateGuidList(size);
+        addVms(vmGuids, 2, VMStatus.Down, ImageStatus.OK);
+
+        initTestForPool(pool1, vmGuids, Collections.emptyList(), Collections.emptyList());
+
+        ExecutorService origExecutorService = ThreadPoolUtil.getExecutorService();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        ThreadPoolUtil.setExecutorService(executorService);
+        try {
+            executeCommand();
+        } finally {
+            ThreadPoolUtil.setExecutorService(origExecutorService);
+            executorService.shutdownNow();
+        }
+
+        verify(command, times(numberOfTimesToBeCalled(size, false))).performOvfUpdate(any());
+        verify(ovfUpdateProcessHelper, times(size)).generateVmMetadata(any(), any());
+        verifyCorrectOvfDataUpdaterRun(vmGuids);
+    }
+
     @Test
     public void testOvfDataUpdaterRunWithUpdateAndRemoveLowerThanCount() {
         int size = ITEMS_COUNT_PER_UPDATE - 1;
@@ -539,7 +594,7 @@ public class ProcessOvfUpdateForStoragePoolCommandTest extends BaseCommandTest {
 
         initTestForPool(pool1, vmGuids, templatesGuids, removedGuids);
 
-        doReturn(2L).when(vmStaticDao).getDbGeneration(any());
+        currentDbGeneration = 2L;
 
         executeCommand();
 
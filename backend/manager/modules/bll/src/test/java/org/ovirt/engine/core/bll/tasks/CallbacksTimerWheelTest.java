@@ -0,0 +1,81 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.compat.Guid;
+
+public class CallbacksTimerWheelTest {
+
+    private CallbacksTimerWheel wheel;
+
+    @BeforeEach
+    public void setUp() {
+        wheel = new CallbacksTimerWheel(4);
+    }
+
+    @Test
+    public void testDueAfterDelay() {
+        Guid cmdId = Guid.newGuid();
+        wheel.schedule(cmdId, 2);
+
+        assertEquals(Collections.emptyList(), wheel.advance());
+        assertEquals(Collections.singletonList(cmdId), wheel.advance());
+        assertFalse(wheel.isScheduled(cmdId));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testDelayLongerThanWheel() {
+        Guid cmdId = Guid.newGuid();
+        wheel.schedule(cmdId, 6);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Collections.emptyList(), wheel.advance());
+        }
+        assertEquals(Collections.singletonList(cmdId), wheel.advance());
+    }
+
+    @Test
+    public void testScheduleAgainReplacesSchedule() {
+        Guid cmdId = Guid.newGuid();
+        wheel.schedule(cmdId, 1);
+        wheel.schedule(cmdId, 3);
+
+        assertEquals(Collections.emptyList(), wheel.advance());
+        assertEquals(Collections.emptyList(), wheel.advance());
+        assertEquals(Collections.singletonList(cmdId), wheel.advance());
+        assertEquals(Collections.emptyList(), wheel.advance());
+    }
+
+    @Test
+    public void testCancel() {
+        Guid cmdId = Guid.newGuid();
+        wheel.schedule(cmdId, 1);
+        assertTrue(wheel.isScheduled(cmdId));
+
+        wheel.cancel(cmdId);
+
+        assertEquals(Collections.emptyList(), wheel.advance());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testDueInScheduleOrder() {
+        Guid first = Guid.newGuid();
+        Guid second = Guid.newGuid();
+        wheel.schedule(first, 0);
+        wheel.schedule(second, 1);
+
+        List<Guid> due = wheel.advance();
+
+        assertEquals(Arrays.asList(first, second), due);
+    }
+}
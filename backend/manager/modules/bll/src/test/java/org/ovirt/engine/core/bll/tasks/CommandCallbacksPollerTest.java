@@ -0,0 +1,186 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.bll.tasks.interfaces.CommandCallback;
+import org.ovirt.engine.core.common.action.ActionParametersBase;
+import org.ovirt.engine.core.common.businessentities.CommandEntity;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.CommandStatus;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CommandCallbacksPollerTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.AsyncCommandPollingLoopInSeconds, 1L),
+                MockConfigDescriptor.of(ConfigValues.AsyncCommandPollingRateInSeconds, 10L),
+                MockConfigDescriptor.of(ConfigValues.RepeatEndMethodsOnFailMaxRetries, 5),
+                MockConfigDescriptor.of(ConfigValues.AsyncCommandCallbacksMaxConcurrency, 4));
+    }
+
+    @Mock
+    private ManagedScheduledExecutorService executor;
+
+    @Mock
+    private CommandsRepository commandsRepository;
+
+    @InjectMocks
+    private CommandCallbacksPoller poller;
+
+    private ExecutorService origExecutorService;
+    private ExecutorService executorService;
+
+    private Runnable pollingLoop;
+
+    @BeforeEach
+    public void setUp() {
+        origExecutorService = ThreadPoolUtil.getExecutorService();
+        executorService = Executors.newFixedThreadPool(4);
+        ThreadPoolUtil.setExecutorService(executorService);
+
+        when(commandsRepository.getCommands(true)).thenReturn(Collections.emptyList());
+        when(commandsRepository.getChildCommandIds(any())).thenReturn(Collections.emptyList());
+        poller.init();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleWithFixedDelay(captor.capture(), anyLong(), anyLong(), any());
+        pollingLoop = captor.getValue();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ThreadPoolUtil.setExecutorService(origExecutorService);
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testCallbacksOfSameRootAreInvokedOneAtATime() throws Exception {
+        Guid root = Guid.newGuid();
+        Guid child = Guid.newGuid();
+        Guid firstGrandchild = Guid.newGuid();
+        Guid secondGrandchild = Guid.newGuid();
+        mockCommand(root, null);
+        mockCommand(child, root);
+        mockCommand(firstGrandchild, child);
+        mockCommand(secondGrandchild, child);
+
+        List<Guid> invoked = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(3);
+        CommandCallback callback = new CommandCallback() {
+            @Override
+            public void doPolling(Guid cmdId, List<Guid> childCmdIds) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                invoked.add(cmdId);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            }
+        };
+
+        poll(callback, firstGrandchild, child, secondGrandchild);
+
+        assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        assertEquals(Arrays.asList(firstGrandchild, child, secondGrandchild), invoked);
+    }
+
+    @Test
+    public void testCallbacksOfDifferentRootsAreInvokedConcurrently() throws Exception {
+        Guid firstRoot = Guid.newGuid();
+        Guid firstChild = Guid.newGuid();
+        Guid secondRoot = Guid.newGuid();
+        Guid secondChild = Guid.newGuid();
+        mockCommand(firstRoot, null);
+        mockCommand(firstChild, firstRoot);
+        mockCommand(secondRoot, null);
+        mockCommand(secondChild, secondRoot);
+
+        // Every callback waits for the other one, so both are invoked only if they run at the same time
+        CountDownLatch started = new CountDownLatch(2);
+        Map<Guid, Boolean> concurrent = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(2);
+        CommandCallback callback = new CommandCallback() {
+            @Override
+            public void doPolling(Guid cmdId, List<Guid> childCmdIds) {
+                started.countDown();
+                try {
+                    concurrent.put(cmdId, started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            }
+        };
+
+        poll(callback, firstChild, secondChild);
+
+        assertTrue(done.await(2 * TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(Boolean.TRUE, concurrent.get(firstChild));
+        assertEquals(Boolean.TRUE, concurrent.get(secondChild));
+    }
+
+    /**
+     * Makes the callbacks of the given commands due and runs the polling loop once, which dispatches them in the
+     * given order.
+     */
+    private void poll(CommandCallback callback, Guid... cmdIds) {
+        for (Guid cmdId : cmdIds) {
+            when(commandsRepository.getCallbackTiming(cmdId)).thenReturn(new CallbackTiming(callback, 1));
+            when(commandsRepository.getCommandStatus(cmdId)).thenReturn(CommandStatus.ACTIVE);
+        }
+        when(commandsRepository.pollAddedCallbacks()).thenReturn(Arrays.asList(cmdIds), Collections.emptyList());
+        pollingLoop.run();
+    }
+
+    private void mockCommand(Guid cmdId, Guid parentCmdId) {
+        CommandEntity entity = new CommandEntity();
+        entity.setId(cmdId);
+        entity.setRootCommandId(parentCmdId);
+        entity.setExecuted(true);
+        entity.setCommandParameters(new ActionParametersBase());
+        when(commandsRepository.getCommandEntity(cmdId)).thenReturn(entity);
+    }
+}
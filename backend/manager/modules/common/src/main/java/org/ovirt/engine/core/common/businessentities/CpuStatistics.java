@@ -21,6 +21,17 @@ public class CpuStatistics implements Serializable {
 
     private int cpuUsagePercent;
 
+    public CpuStatistics() {
+    }
+
+    public CpuStatistics(CpuStatistics statistics) {
+        cpuId = statistics.cpuId;
+        cpuSys = statistics.cpuSys;
+        cpuUser = statistics.cpuUser;
+        cpuIdle = statistics.cpuIdle;
+        cpuUsagePercent = statistics.cpuUsagePercent;
+    }
+
     public int getCpuId() {
         return cpuId;
     }
@@ -64,6 +64,47 @@ public class VdsStatistics implements BusinessEntity<Guid> {
         hugePages = new ArrayList<>();
     }
 
+    public VdsStatistics(VdsStatistics statistics) {
+        id = statistics.id;
+        cpuIdle = statistics.cpuIdle;
+        cpuLoad = statistics.cpuLoad;
+        cpuSys = statistics.cpuSys;
+        cpuUser = statistics.cpuUser;
+        usageMemPercent = statistics.usageMemPercent;
+        usageCpuPercent = statistics.usageCpuPercent;
+        usageNetworkPercent = statistics.usageNetworkPercent;
+        memFree = statistics.memFree;
+        memShared = statistics.memShared;
+        swapFree = statistics.swapFree;
+        swapTotal = statistics.swapTotal;
+        ksmCpuPercent = statistics.ksmCpuPercent;
+        ksmPages = statistics.ksmPages;
+        ksmState = statistics.ksmState;
+        anonymousHugePages = statistics.anonymousHugePages;
+        bootTime = statistics.bootTime;
+        highlyAvailableScore = statistics.highlyAvailableScore;
+        highlyAvailableIsConfigured = statistics.highlyAvailableIsConfigured;
+        highlyAvailableIsActive = statistics.highlyAvailableIsActive;
+        highlyAvailableGlobalMaintenance = statistics.highlyAvailableGlobalMaintenance;
+        highlyAvailableLocalMaintenance = statistics.highlyAvailableLocalMaintenance;
+        cpuOverCommitTimeStamp = statistics.cpuOverCommitTimeStamp == null
+                ? null
+                : new Date(statistics.cpuOverCommitTimeStamp.getTime());
+        hugePages = new ArrayList<>();
+        if (statistics.hugePages != null) {
+            for (HugePage hugePage : statistics.hugePages) {
+                hugePages.add(new HugePage(hugePage.getSizeKB(), hugePage.getFree(), hugePage.getTotal()));
+            }
+        }
+        cpuCoreStatistics = new ArrayList<>();
+        if (statistics.cpuCoreStatistics != null) {
+            for (CpuStatistics cpuStatistics : statistics.cpuCoreStatistics) {
+                cpuCoreStatistics.add(new CpuStatistics(cpuStatistics));
+            }
+        }
+        v2vJobs = statistics.v2vJobs == null ? null : new ArrayList<>(statistics.v2vJobs);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(
@@ -44,6 +44,29 @@ public class VmStatistics implements BusinessEntity<Guid>, Comparable<VmStatisti
         this.vmId = vmId;
     }
 
+    public VmStatistics(VmStatistics statistics) {
+        memoryUsageHistory = copyHistory(statistics.memoryUsageHistory);
+        cpuUsageHistory = copyHistory(statistics.cpuUsageHistory);
+        networkUsageHistory = copyHistory(statistics.networkUsageHistory);
+        cpuSys = statistics.cpuSys;
+        cpuUser = statistics.cpuUser;
+        elapsedTime = statistics.elapsedTime;
+        usageMemPercent = statistics.usageMemPercent;
+        migrationProgressPercent = statistics.migrationProgressPercent;
+        disksUsage = statistics.disksUsage;
+        usageNetworkPercent = statistics.usageNetworkPercent;
+        vmId = statistics.vmId;
+        usageCpuPercent = statistics.usageCpuPercent;
+        guestMemoryCached = statistics.guestMemoryCached;
+        guestMemoryBuffered = statistics.guestMemoryBuffered;
+        guestMemoryFree = statistics.guestMemoryFree;
+        guestMemoryUnused = statistics.guestMemoryUnused;
+    }
+
+    private static List<Integer> copyHistory(List<Integer> history) {
+        return history == null ? null : new ArrayList<>(history);
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(
@@ -66,6 +66,12 @@ public enum ConfigValues {
     @TypeConverterAttribute(Long.class)
     AsyncCommandPollingRateInSeconds,
 
+    /**
+     * The max number of command callbacks that are invoked at the same time.
+     */
+    @TypeConverterAttribute(Integer.class)
+    AsyncCommandCallbacksMaxConcurrency,
+
     /**
      * The rate (in seconds) to refresh the cache that holds the asynchronous tasks' statuses.
      */
@@ -85,6 +91,12 @@ public enum ConfigValues {
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     AuditLogAgingThreshold,
+    @TypeConverterAttribute(Integer.class)
+    AuditLogWriteQueueSize,
+    @TypeConverterAttribute(Integer.class)
+    AuditLogWriteBatchSize,
+    @TypeConverterAttribute(Integer.class)
+    AuditLogWriteCoalesceInterval,
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     CoCoLifeInMinutes,
@@ -140,6 +152,8 @@ public enum ConfigValues {
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     SearchResultsLimit(ClientAccessLevel.User),
+    @TypeConverterAttribute(Integer.class)
+    SearchQueryCacheSize,
     @Reloadable
     @TypeConverterAttribute(Integer.class)
     VDSAttemptsToResetCount,
@@ -212,6 +226,26 @@ public enum ConfigValues {
     @TypeConverterAttribute(Integer.class)
     NumberVmRefreshesBeforeSave,
     @TypeConverterAttribute(Integer.class)
+    VmMonitoringUnchangedRowsWriteInterval,
+    /**
+     * The max number of VMs of a host whose devices are checked in one monitoring cycle.
+     */
+    @TypeConverterAttribute(Integer.class)
+    VmDevicesRefreshMaxVmsPerHost,
+    /**
+     * Interval in seconds in which the monitored statistics are written to the database in the background, 0 (the
+     * default) writes them as they are reported. Scheduling, UI, REST API and DWH read the statistics from the
+     * database, so when set they may see statistics up to this interval old.
+     */
+    @TypeConverterAttribute(Integer.class)
+    StatisticsWriteBehindInterval,
+    /**
+     * Number of entities with statistics pending to be written in the background that triggers writing them before
+     * the StatisticsWriteBehindInterval elapses.
+     */
+    @TypeConverterAttribute(Integer.class)
+    StatisticsWriteBehindMaxPending,
+    @TypeConverterAttribute(Integer.class)
     NumberVdsRefreshesBeforeTryToStartUnknownVms,
     @TypeConverterAttribute(Integer.class)
     NumberVdsRefreshesBeforeRetryToStartUnknownVms,
@@ -485,6 +519,10 @@ public enum ConfigValues {
     @TypeConverterAttribute(Integer.class)
     OvfItemsCountPerUpdate,
 
+    @Reloadable
+    @TypeConverterAttribute(Integer.class)
+    OvfUpdateParallelism,
+
     @TypeConverterAttribute(String.class)
     DefaultWindowsTimeZone(ClientAccessLevel.User),
 
@@ -501,6 +539,13 @@ public enum ConfigValues {
     @TypeConverterAttribute(Integer.class)
     UserSessionTimeOutInterval(ClientAccessLevel.User),
 
+    /**
+     * Time (in seconds) the permissions, roles, object parents and groups loaded for the permission checks are used
+     * before they are loaded again, so changes done directly in the database are picked up.
+     */
+    @TypeConverterAttribute(Integer.class)
+    PermissionGraphMaxAgeInSeconds,
+
     @TypeConverterAttribute(String.class)
     UserDefinedVMProperties(ClientAccessLevel.User),
 
@@ -889,6 +934,18 @@ public enum ConfigValues {
     @TypeConverterAttribute(Integer.class)
     GlusterRefreshRateHealInfo,
 
+    /**
+     * Max number of clusters whose gluster data is refreshed concurrently.
+     */
+    @TypeConverterAttribute(Integer.class)
+    GlusterSyncMaxConcurrency,
+
+    /**
+     * Time (in seconds) the gluster sync jobs wait for the refresh of the data of a cluster to complete.
+     */
+    @TypeConverterAttribute(Integer.class)
+    GlusterSyncClusterTimeoutInSeconds,
+
     /**
      * Defines the number of history values storable by the engine for unsynced entries in gluster brick
      */
@@ -1136,6 +1193,12 @@ public enum ConfigValues {
     @TypeConverterAttribute(Integer.class)
     SchedulerOverBookingThreshold(ClientAccessLevel.Admin),
 
+    @TypeConverterAttribute(Integer.class)
+    SchedulerParallelism,
+
+    @TypeConverterAttribute(Integer.class)
+    SchedulerHostsSnapshotMaxAge,
+
     @TypeConverterAttribute(Boolean.class)
     IgnoreVmToVmAffinityForHostMaintenance,
 
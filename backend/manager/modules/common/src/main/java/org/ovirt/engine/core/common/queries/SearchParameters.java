@@ -12,6 +12,7 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
     private SearchType _searchType;
     private int _maxCount;
     private long searchFrom;
+    private String searchAfter;
     private boolean caseSensitive;
 
     public SearchParameters() {
@@ -53,6 +54,19 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
         return searchFrom;
     }
 
+    /**
+     * Sets the cursor of keyset pagination: the results are sorted by primary key and only those after the cursor
+     * are returned, so that walking through all the pages costs the same for every page. An empty cursor requests
+     * the first page, and {@code null}, the default, disables keyset pagination.
+     */
+    public void setSearchAfter(String value) {
+        searchAfter = value;
+    }
+
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
     public boolean getCaseSensitive() {
         return caseSensitive;
     }
@@ -68,6 +82,7 @@ public class SearchParameters extends QueryParametersBase implements Serializabl
                 .append("searchPattern", getSearchPattern())
                 .append("caseSensitive", getCaseSensitive())
                 .append("from", getSearchFrom())
+                .append("after", getSearchAfter())
                 .append("max", getMaxCount());
     }
 }
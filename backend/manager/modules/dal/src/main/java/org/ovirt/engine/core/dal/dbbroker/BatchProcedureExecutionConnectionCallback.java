@@ -79,12 +79,16 @@ public final class BatchProcedureExecutionConnectionCallback implements Connecti
     private StoredProcedureMetaData getStoredProcedureMetaData(
             String procName, Connection con) throws SQLException {
 
-        if (!storedProceduresMap.containsKey(procName)) {
-            StoredProcedureMetaData procMetaData = new StoredProcedureMetaData();
+        StoredProcedureMetaData procMetaData = storedProceduresMap.get(procName);
+        if (procMetaData == null) {
+            procMetaData = new StoredProcedureMetaData();
             fillProcMetaData(procName, con, procMetaData);
-            storedProceduresMap.putIfAbsent(procName, procMetaData);
+            StoredProcedureMetaData existing = storedProceduresMap.putIfAbsent(procName, procMetaData);
+            if (existing != null) {
+                procMetaData = existing;
+            }
         }
-        return storedProceduresMap.get(procName);
+        return procMetaData;
     }
 
     private void fillProcMetaData(String procName, Connection con,
@@ -8,6 +8,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -27,6 +29,7 @@ public class SimpleJdbcCallsHandler {
 
     private final ConcurrentMap<String, SimpleJdbcCall> callsMap = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, Pair<String, Integer>> outParamsMap = new ConcurrentHashMap<>();
+    private final StoredProcedureStatistics statistics = new StoredProcedureStatistics();
 
     private final DbEngineDialect dialect;
     private final JdbcTemplate jdbcTemplate;
@@ -42,6 +45,16 @@ public class SimpleJdbcCallsHandler {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    @PostConstruct
+    public void registerStatisticsInJMX() {
+        statistics.registerInJMX();
+    }
+
+    @PreDestroy
+    public void unregisterStatisticsFromJMX() {
+        statistics.unregisterFromJMX();
+    }
+
     private interface CallCreator {
         SimpleJdbcCall createCall();
     }
@@ -58,7 +71,14 @@ public class SimpleJdbcCallsHandler {
             final List<MapSqlParameterSource> executions)
             throws DataAccessException {
 
-        jdbcTemplate.execute(new BatchProcedureExecutionConnectionCallback(this, procName, executions));
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.execute(new BatchProcedureExecutionConnectionCallback(this, procName, executions));
+        } catch (RuntimeException e) {
+            statistics.recordFailure(procName, executions.size(), System.nanoTime() - start);
+            throw e;
+        }
+        statistics.record(procName, executions.size(), 0, System.nanoTime() - start);
     }
 
     /**
@@ -154,7 +174,20 @@ public class SimpleJdbcCallsHandler {
     private <T> Map<String, Object> executeImpl(String procedureName,
             MapSqlParameterSource paramsSource, CallCreator callCreator, RowMapper<T> mapper) {
         SimpleJdbcCall call = getCall(procedureName, callCreator, mapper);
-        return call.execute(paramsSource);
+        long start = System.nanoTime();
+        Map<String, Object> result;
+        try {
+            result = call.execute(paramsSource);
+        } catch (RuntimeException e) {
+            statistics.recordFailure(procedureName, 1, System.nanoTime() - start);
+            throw e;
+        }
+        Object returnValue = result.get(RETURN_VALUE_PARAMETER);
+        statistics.record(procedureName,
+                1,
+                returnValue instanceof List ? ((List<?>) returnValue).size() : 0,
+                System.nanoTime() - start);
+        return result;
     }
 
     /**
@@ -191,4 +224,8 @@ public class SimpleJdbcCallsHandler {
     public DbEngineDialect getDialect() {
         return dialect;
     }
+
+    public StoredProcedureStatistics getStatistics() {
+        return statistics;
+    }
 }
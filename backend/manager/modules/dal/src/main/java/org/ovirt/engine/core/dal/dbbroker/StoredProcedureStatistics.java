@@ -0,0 +1,109 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+
+/**
+ * Collects the number of calls, the time spent and the rows processed by each stored procedure, so the
+ * procedures the engine spends most of its database time in can be found. Failed calls are counted on their own,
+ * and the time spent in them is included in the total time of the procedure.
+ */
+public class StoredProcedureStatistics implements StatisticsMXBean {
+
+    private final Map<String, ProcedureStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("DbFacade", this);
+
+    public void registerInJMX() {
+        jmxRegistration.register();
+    }
+
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    /**
+     * Records a single call to the database
+     * @param procedureName - the called stored procedure
+     * @param executions - number of times the procedure was executed by the call, more than one for batches
+     * @param rows - number of rows the call returned
+     * @param nanos - time the call took
+     */
+    public void record(String procedureName, int executions, int rows, long nanos) {
+        statistics.computeIfAbsent(procedureName, k -> new ProcedureStatistics()).add(executions, rows, nanos);
+    }
+
+    /**
+     * Records a single call to the database that failed
+     * @param procedureName - the called stored procedure
+     * @param executions - number of times the procedure was to be executed by the call, more than one for batches
+     * @param nanos - time the call took until it failed
+     */
+    public void recordFailure(String procedureName, int executions, long nanos) {
+        statistics.computeIfAbsent(procedureName, k -> new ProcedureStatistics()).addFailure(executions, nanos);
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        return statistics.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, ProcedureStatistics> e) -> e.getValue().totalNanos.sum()).reversed())
+                .map(e -> e.getKey() + ": " + e.getValue())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void reset() {
+        statistics.clear();
+    }
+
+    private static class ProcedureStatistics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        public void add(int executions, int rows, long nanos) {
+            calls.increment();
+            this.executions.add(executions);
+            this.rows.add(rows);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public void addFailure(int executions, long nanos) {
+            failures.increment();
+            this.executions.add(executions);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        @Override
+        public String toString() {
+            long succeeded = calls.sum();
+            long failed = failures.sum();
+            long count = succeeded + failed;
+            long total = totalNanos.sum();
+            return String.format(
+                    "calls %d, failures %d, executions %d, rows %d, total %d ms, average %d us, max %d us",
+                    succeeded,
+                    failed,
+                    executions.sum(),
+                    rows.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(total),
+                    count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(total / count),
+                    TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+        }
+    }
+}
@@ -21,6 +21,11 @@ public class AuditLogDirector {
     @Inject
     private AuditLogDao auditLogDao;
 
+    /**
+     * Writes the audit logs in the background, set by the writer when it is enabled
+     */
+    private volatile AuditLogWriter auditLogWriter;
+
     public void log(AuditLogable auditLogable, AuditLogType logType) {
         log(auditLogable, logType, "", false);
     }
@@ -32,6 +37,10 @@ public class AuditLogDirector {
     private AuditLogDirector() {
     }
 
+    void setAuditLogWriter(AuditLogWriter auditLogWriter) {
+        this.auditLogWriter = auditLogWriter;
+    }
+
     /**
      * Log an event with the given message
      *
@@ -51,7 +60,7 @@ public class AuditLogDirector {
 
         EventFloodRegulator eventFloodRegulator = new EventFloodRegulator(auditLogable, logType);
         if (eventFloodRegulator.isLegal(ignoreTimeout)) {
-            AuditLog savedAuditLog = saveToDb(auditLogable, logType, message);
+            AuditLog savedAuditLog = saveToDb(auditLogable, logType, message, eventFloodRegulator, ignoreTimeout);
             if (savedAuditLog == null) {
                 log.warn("Unable to create AuditLog");
             } else {
@@ -60,7 +69,11 @@ public class AuditLogDirector {
         }
     }
 
-    private AuditLog saveToDb(AuditLogable auditLogable, AuditLogType logType, String loggerString) {
+    private AuditLog saveToDb(AuditLogable auditLogable,
+            AuditLogType logType,
+            String loggerString,
+            EventFloodRegulator eventFloodRegulator,
+            boolean ignoreTimeout) {
         AuditLog auditLog = create(auditLogable, logType, loggerString);
 
         if (auditLog == null) {
@@ -71,11 +84,28 @@ public class AuditLogDirector {
         // truncate user name
         auditLog.setUserName(StringUtils.abbreviate(auditLog.getUserName(), USERNAME_LENGTH));
 
+        AuditLogWriter writer = auditLogWriter;
+        if (writer == null) {
+            save(auditLog);
+        } else if (auditLogable.isExternal()) {
+            // the caller reads the external event back by its custom id once it is logged
+            writer.writeAfterQueued(auditLog);
+        } else if (!writer.offer(auditLog)) {
+            // the writer falls behind, log repeated events once and help writing the rest on this thread
+            if (!ignoreTimeout && !eventFloodRegulator.isLegalWithin(writer.getCoalesceIntervalInMillis())) {
+                writer.onCoalesced();
+            } else {
+                writer.offerOrWrite(auditLog);
+            }
+        }
+        return auditLog;
+    }
+
+    private void save(AuditLog auditLog) {
         TransactionSupport.executeInNewTransaction(() -> {
             auditLogDao.save(auditLog);
             return null;
         });
-        return auditLog;
     }
 
     private void logMessage(AuditLog auditLog) {
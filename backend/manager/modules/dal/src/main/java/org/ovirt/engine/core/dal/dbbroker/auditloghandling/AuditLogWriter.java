@@ -0,0 +1,297 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.ovirt.engine.core.common.BackendService;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPools;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the audit logs to the database in the background, so the threads logging events, like the monitoring,
+ * don't wait for them to be inserted. Enabled by setting AuditLogWriteQueueSize, otherwise the audit logs are written
+ * by the threads logging them.
+ *
+ * The audit logs are queued up to the configured size and written in batches by a single writer at a time. When the
+ * queue is full, {@link AuditLogDirector} coalesces repeated events and hands the rest to
+ * {@link #offerOrWrite(AuditLog)}, which waits briefly for the background writer to make room, and otherwise writes
+ * the oldest queued batch on the logging thread and queues the audit log after it. So a logging thread writes at most
+ * a batch, and its own audit log only if the queue filled up again meanwhile, and the logging threads are slowed down
+ * to the pace of the database while the writer falls behind. The batches written by the logging threads may be
+ * inserted out of order with the ones written in the background. The queued audit logs are written when the engine
+ * shuts down.
+ */
+@Singleton
+public class AuditLogWriter implements BackendService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    /**
+     * How long a logging thread waits for room in the full queue before writing a batch itself
+     */
+    private static final long FULL_QUEUE_WAIT_IN_MILLIS = 100;
+
+    @Inject
+    private AuditLogDao auditLogDao;
+
+    @Inject
+    private AuditLogDirector auditLogDirector;
+
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
+    private ManagedScheduledExecutorService executor;
+
+    private BlockingQueue<AuditLog> queue;
+    private int batchSize;
+    private long coalesceIntervalInMillis;
+
+    private final Object writeLock = new Object();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private volatile boolean stopped;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder writtenByCaller = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        init(Config.<Integer> getValue(ConfigValues.AuditLogWriteQueueSize),
+                Config.<Integer> getValue(ConfigValues.AuditLogWriteBatchSize),
+                Config.<Integer> getValue(ConfigValues.AuditLogWriteCoalesceInterval));
+    }
+
+    void init(int queueSize, int batchSize, int coalesceIntervalInSeconds) {
+        if (queueSize <= 0) {
+            return;
+        }
+
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = Math.max(batchSize, 1);
+        this.coalesceIntervalInMillis = TimeUnit.SECONDS.toMillis(coalesceIntervalInSeconds);
+        auditLogDirector.setAuditLogWriter(this);
+        log.info("Writing audit logs in the background, up to {} pending audit logs in batches of {}",
+                queueSize,
+                this.batchSize);
+    }
+
+    /**
+     * Stop accepting audit logs and write the queued ones
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (queue == null || stopped) {
+            return;
+        }
+
+        auditLogDirector.setAuditLogWriter(null);
+        stopped = true;
+        write();
+        log.info("Stopped writing audit logs in the background, wrote {} audit logs in {} batches, {} were written "
+                + "by the logging threads and {} were coalesced",
+                written.sum(),
+                batches.sum(),
+                writtenByCaller.sum(),
+                coalesced.sum());
+    }
+
+    /**
+     * Queue the audit log to be written in the background
+     *
+     * @return true if the audit log was queued, false if the queue is full or the writer was stopped and the caller
+     *         should handle the audit log
+     */
+    public boolean offer(AuditLog auditLog) {
+        if (stopped || !queue.offer(auditLog)) {
+            return false;
+        }
+
+        onQueued();
+        return true;
+    }
+
+    /**
+     * Queue an audit log which didn't fit in the full queue, waiting briefly for the background writer to make room.
+     * If there is still no room, write the oldest queued batch on the calling thread and queue the audit log after it,
+     * or write the audit log itself if the queue filled up again meanwhile. Failures to write the audit log itself are
+     * thrown to the caller.
+     */
+    public void offerOrWrite(AuditLog auditLog) {
+        if (offer(auditLog, FULL_QUEUE_WAIT_IN_MILLIS)) {
+            return;
+        }
+
+        writeOldestBatch();
+        if (!offer(auditLog)) {
+            TransactionSupport.executeInNewTransaction(() -> {
+                auditLogDao.save(auditLog);
+                return null;
+            });
+            writtenByCaller.increment();
+        }
+    }
+
+    private boolean offer(AuditLog auditLog, long timeoutInMillis) {
+        try {
+            if (stopped || !queue.offer(auditLog, timeoutInMillis, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        onQueued();
+        return true;
+    }
+
+    private void onQueued() {
+        if (stopped) {
+            // queued while stopping, make sure it isn't left behind
+            write();
+        } else {
+            scheduleWrite();
+        }
+    }
+
+    public long getCoalesceIntervalInMillis() {
+        return coalesceIntervalInMillis;
+    }
+
+    public void onCoalesced() {
+        coalesced.increment();
+    }
+
+    public int getPendingCount() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getWrittenByCallerCount() {
+        return writtenByCaller.sum();
+    }
+
+    private void scheduleWrite() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::writeScheduled);
+            } catch (RejectedExecutionException e) {
+                writeScheduled.set(false);
+                write();
+            }
+        }
+    }
+
+    private void writeScheduled() {
+        try {
+            write();
+        } finally {
+            writeScheduled.set(false);
+            // audit logs queued after the queue was drained and before the flag was cleared
+            if (!queue.isEmpty()) {
+                scheduleWrite();
+            }
+        }
+    }
+
+    /**
+     * Write the audit log on the calling thread, after the audit logs queued so far. Used for audit logs that must be
+     * in the database when the caller continues. Failures are thrown to the caller.
+     */
+    public void writeAfterQueued(AuditLog auditLog) {
+        synchronized (writeLock) {
+            writeQueued();
+            TransactionSupport.executeInNewTransaction(() -> {
+                auditLogDao.save(auditLog);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Write the queued audit logs in batches until the queue is empty
+     */
+    void write() {
+        synchronized (writeLock) {
+            writeQueued();
+        }
+    }
+
+    /**
+     * Write a single batch of the oldest queued audit logs on the calling thread, without waiting for the background
+     * writer
+     */
+    private void writeOldestBatch() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        if (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            writtenByCaller.add(batch.size());
+        }
+    }
+
+    private void writeQueued() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        try {
+            TransactionSupport.executeInNewTransaction(() -> {
+                auditLogDao.saveAll(batch);
+                return null;
+            });
+            written.add(batch.size());
+            batches.increment();
+        } catch (RuntimeException e) {
+            log.error("Failed to write a batch of {} audit logs, writing them one by one: {}",
+                    batch.size(),
+                    ExceptionUtils.getRootCauseMessage(e));
+            log.debug("Exception", e);
+            batch.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(AuditLog auditLog) {
+        try {
+            TransactionSupport.executeInNewTransaction(() -> {
+                auditLogDao.save(auditLog);
+                return null;
+            });
+            written.increment();
+        } catch (RuntimeException e) {
+            log.error("Failed to write audit log '{}': {}",
+                    auditLog.getMessage(),
+                    ExceptionUtils.getRootCauseMessage(e));
+            log.debug("Exception", e);
+        }
+    }
+}
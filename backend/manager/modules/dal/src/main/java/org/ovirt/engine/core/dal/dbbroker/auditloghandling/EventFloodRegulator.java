@@ -7,6 +7,8 @@ import org.ovirt.engine.core.dal.utils.CacheManager;
 
 public class EventFloodRegulator {
 
+    private static final String COALESCE_KEY_PREFIX = "coalesce:";
+
     private final AuditLogable event;
     private final AuditLogType logType;
     private boolean useTimeout;
@@ -38,6 +40,25 @@ public class EventFloodRegulator {
         return true;
     }
 
+    /**
+     * Checks if an event of the same type and objects was already logged within the given interval, regardless of
+     * the timeout of the log type. Used to coalesce repeated events while they can't be written as fast as they are
+     * logged.
+     *
+     * @param intervalInMillis
+     *            the interval in which repeated events are logged once
+     * @return should the action be logged
+     */
+    public boolean isLegalWithin(long intervalInMillis) {
+        String key = COALESCE_KEY_PREFIX + composeObjectId();
+        String oldValue = CacheManager.getTimeoutBaseCache().putIfAbsent(
+                key,
+                key,
+                intervalInMillis,
+                TimeUnit.MILLISECONDS);
+        return oldValue == null;
+    }
+
     /**
      * Update the logged object timeout attribute by log type definition
      */
@@ -1,13 +1,9 @@
 package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import org.ovirt.engine.core.compat.backendcompat.TypeCompat;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The class is responsible to resolve a message which might contain variables into a clear text, where the variables
@@ -16,16 +12,19 @@ import org.ovirt.engine.core.compat.backendcompat.TypeCompat;
  */
 public class MessageResolver {
 
-    /**
-     * A pattern to match for variables within message, i.e. ${<alphanumeric/>...}
-     */
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\$\\{\\w*\\}");
     static final String UNKNOWN_VARIABLE_VALUE = "<UNKNOWN>";
     private static final String UNKNOWN_REASON_VALUE =
             " No reason was returned for this operation failure. See logs for further details.";
     private static final String REASON_TOKEN = "reason";
     private static final String OPTIONAL_REASON_TOKEN = "optionalreason";
 
+    /**
+     * Upper bound of the cached templates, messages are expected to come from the bundles but nothing prevents
+     * callers from resolving dynamically built messages
+     */
+    static final int MAX_CACHED_TEMPLATES = 10000;
+    private static final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+
     /**
      * Resolves a message which contains place holders by replacing them with the value from the map.
      *
@@ -36,69 +35,47 @@ public class MessageResolver {
      * @return a resolved message
      */
     public static String resolveMessage(String message, Map<String, String> values) {
-        Matcher matcher = VARIABLE_PATTERN.matcher(message);
-
-        StringBuffer buffer = new StringBuffer();
-        String value;
-        String token;
-        while (matcher.find()) {
-            token = matcher.group();
-
-            // remove leading ${ and trailing }
-            token = token.substring(2, token.length() - 1).toLowerCase();
-
-            // get value from value map
-            value = values.get(token);
-            if (value == null || value.isEmpty()) {
-                // replace value with UNKNOWN_VARIABLE_VALUE if value not defined
-                switch (token) {
-                case REASON_TOKEN:
-                    value = UNKNOWN_REASON_VALUE;
-                    break;
-                case OPTIONAL_REASON_TOKEN:
-                    value = "";
-                    break;
-                default:
-                    value = UNKNOWN_VARIABLE_VALUE;
-                }
-            }
-            matcher.appendReplacement(buffer, Matcher.quoteReplacement(value)); // put the value into message
-        }
-
-        // append the rest of the message
-        matcher.appendTail(buffer);
-        return buffer.toString();
+        return getTemplate(message).resolve(values, MessageResolver::getDefaultValue);
     }
 
-    static String resolveMessage(String message, AuditLogable logable) {
+    public static String resolveMessage(String message, AuditLogable logable) {
         String returnValue = message;
         if (logable != null) {
-            Map<String, String> map = getAvailableValues(message, logable);
-            returnValue = resolveMessage(message, map);
+            MessageTemplate template = getTemplate(message);
+            Map<String, String> map = getAvailableValues(template, logable);
+            returnValue = template.resolve(map, MessageResolver::getDefaultValue);
         }
         return returnValue;
     }
 
-    private static Set<String> resolvePlaceHolders(String message) {
-        Set<String> result = new HashSet<>();
-        Matcher matcher = VARIABLE_PATTERN.matcher(message);
-
-        String token;
-        while (matcher.find()) {
-            token = matcher.group();
+    private static String getDefaultValue(String token) {
+        // replace value with UNKNOWN_VARIABLE_VALUE if value not defined
+        switch (token) {
+        case REASON_TOKEN:
+            return UNKNOWN_REASON_VALUE;
+        case OPTIONAL_REASON_TOKEN:
+            return "";
+        default:
+            return UNKNOWN_VARIABLE_VALUE;
+        }
+    }
 
-            // remove leading ${ and trailing }
-            token = token.substring(2, token.length() - 1);
-            result.add(token.toLowerCase());
+    static MessageTemplate getTemplate(String message) {
+        MessageTemplate template = templates.get(message);
+        if (template == null) {
+            template = MessageTemplate.compile(message);
+            if (templates.size() < MAX_CACHED_TEMPLATES) {
+                templates.putIfAbsent(message, template);
+            }
         }
-        return result;
+        return template;
     }
 
-    private static Map<String, String> getAvailableValues(String message, AuditLogable logable) {
+    private static Map<String, String> getAvailableValues(MessageTemplate template, AuditLogable logable) {
         Map<String, String> returnValue = new HashMap<>(logable.getCustomValues());
-        Set<String> attributes = resolvePlaceHolders(message);
-        if (attributes != null && attributes.size() > 0) {
-            TypeCompat.getPropertyValues(logable, attributes, returnValue);
+        Set<String> attributes = template.getPlaceHolders();
+        if (!attributes.isEmpty()) {
+            PropertyAccessors.getPropertyValues(logable, attributes, returnValue);
         }
         return returnValue;
     }
@@ -0,0 +1,88 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message parsed once into its text and place holders, so it can be resolved repeatedly without matching
+ * the place holders again.
+ */
+class MessageTemplate {
+
+    /**
+     * A pattern to match for variables within message, i.e. ${<alphanumeric/>...}
+     */
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\$\\{\\w*\\}");
+
+    /**
+     * the text before each place holder, followed by the text after the last one
+     */
+    private final String[] texts;
+    /**
+     * the place holders, lower cased
+     */
+    private final String[] tokens;
+    private final Set<String> placeHolders;
+    private final int length;
+
+    private MessageTemplate(List<String> texts, List<String> tokens, int length) {
+        this.texts = texts.toArray(new String[0]);
+        this.tokens = tokens.toArray(new String[0]);
+        this.placeHolders = Collections.unmodifiableSet(new LinkedHashSet<>(tokens));
+        this.length = length;
+    }
+
+    static MessageTemplate compile(String message) {
+        List<String> texts = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = VARIABLE_PATTERN.matcher(message);
+        int textStart = 0;
+        while (matcher.find()) {
+            texts.add(message.substring(textStart, matcher.start()));
+            // remove leading ${ and trailing }
+            tokens.add(message.substring(matcher.start() + 2, matcher.end() - 1).toLowerCase());
+            textStart = matcher.end();
+        }
+        texts.add(message.substring(textStart));
+        return new MessageTemplate(texts, tokens, message.length());
+    }
+
+    /**
+     * @return the place holders of the message, lower cased
+     */
+    Set<String> getPlaceHolders() {
+        return placeHolders;
+    }
+
+    /**
+     * @param values
+     *            a map of the place holder to its values
+     * @param defaultValueResolver
+     *            provides the value of a place holder that has no value in the map
+     * @return the message, with the place holders replaced by their values
+     */
+    String resolve(Map<String, String> values, DefaultValueResolver defaultValueResolver) {
+        StringBuilder builder = new StringBuilder(length + 16 * tokens.length);
+        for (int i = 0; i < tokens.length; i++) {
+            builder.append(texts[i]);
+            String value = values.get(tokens[i]);
+            if (value == null || value.isEmpty()) {
+                value = defaultValueResolver.getDefaultValue(tokens[i]);
+            }
+            builder.append(value);
+        }
+        builder.append(texts[tokens.length]);
+        return builder.toString();
+    }
+
+    @FunctionalInterface
+    interface DefaultValueResolver {
+        String getDefaultValue(String token);
+    }
+}
@@ -0,0 +1,106 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the properties of the loggables through accessors that are looked up once per class, instead of
+ * introspecting the class on every message.
+ */
+class PropertyAccessors {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyAccessors.class);
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Map<String, PropertyAccessor>> accessorsByClass =
+            new ClassValue<Map<String, PropertyAccessor>>() {
+                @Override
+                protected Map<String, PropertyAccessor> computeValue(Class<?> type) {
+                    return createAccessors(type);
+                }
+            };
+
+    /**
+     * The following method will get values for properties of provided object and will keep them in map, unless
+     * the map already has a value for them
+     * @param obj - this is an object which values will be taken
+     * @param properties - a set of lower cased properties names
+     * @param values - a map which will contains all values of properties
+     */
+    static void getPropertyValues(Object obj, Iterable<String> properties, Map<String, String> values) {
+        Map<String, PropertyAccessor> accessors = accessorsByClass.get(obj.getClass());
+        for (String property : properties) {
+            PropertyAccessor accessor = accessors.get(property);
+            if (accessor != null && !values.containsKey(property)) {
+                try {
+                    Object value = accessor.get(obj);
+                    values.put(property, value != null ? value.toString() : null);
+                } catch (Throwable e) {
+                    log.warn("Unable to get value of property: '{}' for class {}: {}",
+                            accessor.getName(), obj.getClass().getName(), e.getMessage());
+                    log.debug("Exception", e);
+                }
+            }
+        }
+    }
+
+    private static Map<String, PropertyAccessor> createAccessors(Class<?> type) {
+        PropertyDescriptor[] pds;
+        try {
+            pds = Introspector.getBeanInfo(type).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new RuntimeException(e);
+        }
+
+        Map<String, PropertyAccessor> accessors = new HashMap<>();
+        for (PropertyDescriptor pd : pds) {
+            Method readMethod = pd.getReadMethod();
+            if (readMethod != null) {
+                accessors.putIfAbsent(pd.getName().toLowerCase(), createAccessor(pd.getDisplayName(), readMethod));
+            }
+        }
+        return Collections.unmodifiableMap(accessors);
+    }
+
+    private static PropertyAccessor createAccessor(String name, Method readMethod) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(readMethod).asType(ACCESSOR_TYPE);
+            return new PropertyAccessor(name, handle, null);
+        } catch (IllegalAccessException e) {
+            // not reachable through a public lookup, e.g. declared by a non public class, fall back to reflection
+            return new PropertyAccessor(name, null, readMethod);
+        }
+    }
+
+    private static class PropertyAccessor {
+        private final String name;
+        private final MethodHandle handle;
+        private final Method method;
+
+        PropertyAccessor(String name, MethodHandle handle, Method method) {
+            this.name = name;
+            this.handle = handle;
+            this.method = method;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Object get(Object obj) throws Throwable {
+            return handle != null ? (Object) handle.invokeExact(obj) : method.invoke(obj);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
@@ -67,6 +68,15 @@ public interface DbUserDao extends Dao, SearchDao<DbUser> {
      */
     List<DbUser> getAllForVm(Guid id);
 
+    /**
+     * Retrieves all users associated with the specified virtual machines.
+     *
+     * @param ids
+     *            the VM ids
+     * @return the list of users, each user is returned once
+     */
+    List<DbUser> getAllForVms(Collection<Guid> ids);
+
     /**
      * Retrieves all users associated with the specified template.
      *
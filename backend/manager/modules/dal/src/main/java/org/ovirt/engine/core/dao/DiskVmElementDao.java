@@ -62,6 +62,20 @@ public interface DiskVmElementDao extends GenericDao<DiskVmElement, VmDeviceId>
      */
     List<DiskVmElement> getAllForVm(Guid vmId, Guid userID, boolean isFiltered);
 
+    /**
+     * Retrieves all disk VM elements for the specified virtual machines, with optional filtering
+     *
+     * @param vmIds
+     *            the VM ids
+     * @param userID
+     *            the ID of the user requesting the information
+     * @param isFiltered
+     *            Whether the results should be filtered according to the user's permissions
+     *
+     * @return the list of disk VM elements
+     */
+    List<DiskVmElement> getAllForVms(Collection<Guid> vmIds, Guid userID, boolean isFiltered);
+
     /**
      * Retrieves all disk VM elements for plugged disk attached to the specified virtual machine id.
      *
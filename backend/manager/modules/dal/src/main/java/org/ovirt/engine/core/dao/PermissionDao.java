@@ -146,6 +146,15 @@ public interface PermissionDao extends GenericDao<Permission, Guid> {
      */
     List<Permission> getAllForEntity(Guid id);
 
+    /**
+     * Retrieves the permissions given directly on the specified entities.
+     *
+     * @param ids
+     *            the entities
+     * @return the list of permissions
+     */
+    List<Permission> getAllForEntities(Collection<Guid> ids);
+
     /**
      * Retrieves all permissions for the specified entity,
      * with optional filtering according to the permissions of the issuing user.
@@ -173,6 +182,18 @@ public interface PermissionDao extends GenericDao<Permission, Guid> {
 
     Guid getEntityPermissions(Guid adElementId, ActionGroup actionGroup, Guid objectId, VdcObjectType vdcObjectType);
 
+    /**
+     * Retrieves the objects whose permissions apply to the specified object: the object itself, its parents and the
+     * system. Not supported for {@link VdcObjectType#Bottom}.
+     *
+     * @param objectId
+     *            the object
+     * @param vdcObjectType
+     *            the type of the object
+     * @return the ids of the object, its parents and the system, or an empty list if objects of the type have none
+     */
+    List<Guid> getEntityParents(Guid objectId, VdcObjectType vdcObjectType);
+
     Guid getEntityPermissionsForUserAndGroups(Guid userId,
                                               String groupIds,
                                               ActionGroup actionGroup,
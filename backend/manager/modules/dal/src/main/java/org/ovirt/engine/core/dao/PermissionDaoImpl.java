@@ -159,6 +159,13 @@ public class PermissionDaoImpl extends BaseDao implements PermissionDao {
         return getAllForEntity(id, -1, false);
     }
 
+    @Override
+    public List<Permission> getAllForEntities(Collection<Guid> ids) {
+        return getCallsHandler().executeReadList("GetPermissionsByObjectIds",
+                permissionRowMapper,
+                getCustomMapSqlParameterSource().addValue("object_ids", createArrayOfUUIDs(ids)));
+    }
+
     @Override
     public List<Permission> getAllForEntity(Guid id, long engineSessionId, boolean isFiltered) {
         return getAllForEntity(id, engineSessionId, isFiltered, false);
@@ -223,6 +230,17 @@ public class PermissionDaoImpl extends BaseDao implements PermissionDao {
                 parameterSource);
     }
 
+    @Override
+    public List<Guid> getEntityParents(Guid objectId, VdcObjectType vdcObjectType) {
+        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                .addValue("object_id", objectId)
+                .addValue("object_type_id", vdcObjectType.getValue());
+
+        return getCallsHandler().executeReadList("GetEntityParents",
+                createGuidMapper(),
+                parameterSource);
+    }
+
     @Override
     public Guid getEntityPermissionsForUserAndGroups(Guid userId,
                                                      String groupIds,
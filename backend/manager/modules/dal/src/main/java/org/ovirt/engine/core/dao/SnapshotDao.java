@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.ovirt.engine.core.common.businessentities.Snapshot;
@@ -131,6 +132,17 @@ public interface SnapshotDao extends GenericDao<Snapshot, Guid>, StatusAwareDao<
      */
     List<Snapshot> getAllWithConfiguration(Guid vmId);
 
+    /**
+     * Get all the snapshots of the given VMs. The {@link Snapshot#getVmConfiguration()} field will contain the
+     * configuration (if it is available).
+     *
+     * @param vmIds
+     *            The VM ids.
+     * @return A list of snapshots that exist for the VMs, ordered by creation date (earliest to latest), or empty list
+     *         if no snapshots exist.
+     */
+    List<Snapshot> getAllWithConfiguration(Collection<Guid> vmIds);
+
     /**
      * Get all the snapshots of the given VM. The {@link Snapshot#getVmConfiguration()} field will always be null, and
      * instead the {@link Snapshot#isVmConfigurationAvailable()} field will specify if configuration is available or
@@ -3,6 +3,7 @@ package org.ovirt.engine.core.dao;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -114,6 +115,15 @@ public class SnapshotDaoImpl extends DefaultGenericDao<Snapshot, Guid> implement
         return getAll(vmId, null, false, true);
     }
 
+    @Override
+    public List<Snapshot> getAllWithConfiguration(Collection<Guid> vmIds) {
+        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                .addValue("vm_ids", createArrayOfUUIDs(vmIds))
+                .addValue("fill_configuration", true);
+
+        return getCallsHandler().executeReadList("GetAllFromSnapshotsByVmIds", NO_CONFIG_ROW_MAPPER, parameterSource);
+    }
+
     @Override
     public List<Snapshot> getAll(Guid vmId) {
         return getAll(vmId, null, false);
@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.ovirt.engine.core.common.businessentities.storage.LUNStorageServerConnectionMap;
@@ -18,6 +19,14 @@ public interface StorageServerConnectionLunMapDao extends GenericDao<LUNStorageS
      */
     List<LUNStorageServerConnectionMap> getAll(final String lunId);
 
+    /**
+     * get all maps for the given LUN ids.
+     *
+     * @param lunIds
+     *            LUN ids.
+     */
+    List<LUNStorageServerConnectionMap> getAllByLunIds(Collection<String> lunIds);
+
     /**
      * Removes the server storage connection by storage server connection and LUN ids.
      *
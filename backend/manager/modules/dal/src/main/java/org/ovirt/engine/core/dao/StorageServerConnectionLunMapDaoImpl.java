@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import javax.inject.Named;
@@ -52,6 +53,16 @@ public class StorageServerConnectionLunMapDaoImpl extends BaseDao implements
                 parameterSource);
     }
 
+    @Override
+    public List<LUNStorageServerConnectionMap> getAllByLunIds(Collection<String> lunIds) {
+        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                .addValue("LUN_ids", createArrayOf("varchar", lunIds.toArray()));
+
+        return getCallsHandler().executeReadList("GetLUN_storage_server_connection_mapByLUNs",
+                storageServerConnectionLunMapRowMapper,
+                parameterSource);
+    }
+
     @Override
     public List<LUNStorageServerConnectionMap> getAll() {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource();
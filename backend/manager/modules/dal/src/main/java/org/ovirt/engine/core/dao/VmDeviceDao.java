@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.ovirt.engine.core.common.businessentities.VmDevice;
@@ -22,6 +23,15 @@ public interface VmDeviceDao extends GenericDao<VmDevice, VmDeviceId>, MassOpera
 
     List<VmDevice> getVmDeviceByVmId(Guid vmId, Guid userID, boolean isFiltered);
 
+    /**
+     * Retrieves the devices of all the given VMs in one query.
+     *
+     * @param vmIds
+     *            the ids of the VMs
+     * @return the devices of the VMs, ordered by VM
+     */
+    List<VmDevice> getVmDevicesByVmIds(Collection<Guid> vmIds);
+
     List<VmDevice> getVmDevicesByDeviceId(Guid deviceId, Guid vmId);
 
     List<VmDevice> getVmDeviceByVmIdAndType(Guid vmId, VmDeviceGeneralType type);
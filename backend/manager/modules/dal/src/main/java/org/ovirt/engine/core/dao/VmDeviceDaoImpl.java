@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -82,6 +83,15 @@ public class VmDeviceDaoImpl extends
                 createEntityRowMapper(), parameterSource);
     }
 
+    @Override
+    public List<VmDevice> getVmDevicesByVmIds(Collection<Guid> vmIds) {
+        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                .addValue("vm_ids", createArrayOfUUIDs(vmIds));
+
+        return getCallsHandler().executeReadList("GetVmDevicesByVmIds",
+                createEntityRowMapper(), parameterSource);
+    }
+
     @Override
     public List<VmDevice> getVmDevicesByDeviceId(Guid deviceId, Guid vmId) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
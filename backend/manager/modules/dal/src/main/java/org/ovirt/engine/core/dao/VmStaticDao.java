@@ -1,6 +1,8 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.ovirt.engine.core.common.businessentities.VmStatic;
 import org.ovirt.engine.core.compat.Guid;
@@ -51,6 +53,14 @@ public interface VmStaticDao extends GenericDao<VmStatic, Guid> {
      */
     public Long getDbGeneration(Guid id);
 
+    /**
+     * get the db generations of the vms/templates with the given guids
+     *
+     * @param ids - vm/template ids
+     * @return a map of the vm/template id to its db generation, vms/templates that don't exist are not included
+     */
+    public Map<Guid, Long> getDbGenerations(Collection<Guid> ids);
+
     /**
      * Increment the db version for all vms/templates in a specific storage pool.
      */
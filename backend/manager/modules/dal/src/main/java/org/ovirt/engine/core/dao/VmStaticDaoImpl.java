@@ -2,13 +2,16 @@ package org.ovirt.engine.core.dao;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.ovirt.engine.core.common.businessentities.VmStatic;
+import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
@@ -134,6 +137,14 @@ public class VmStaticDaoImpl extends VmBaseDao<VmStatic> implements VmStaticDao
                 getCustomMapSqlParameterSource().addValue("vm_guid", id));
     }
 
+    @Override
+    public Map<Guid, Long> getDbGenerations(Collection<Guid> ids) {
+        List<Pair<Guid, Long>> generations = getCallsHandler().executeReadList("GetDbGenerationsByIds",
+                (rs, rowNum) -> new Pair<>(getGuidDefaultEmpty(rs, "vm_guid"), rs.getLong("db_generation")),
+                getCustomMapSqlParameterSource().addValue("vm_guids", createArrayOfUUIDs(ids)));
+        return generations.stream().collect(Collectors.toMap(Pair::getFirst, Pair::getSecond));
+    }
+
     public List<Guid> getOrderedVmGuidsForRunMultipleActions(List<Guid> guids) {
         return getCallsHandler().executeReadList("GetOrderedVmGuidsForRunMultipleActions", createGuidMapper()
                 , getCustomMapSqlParameterSource().addValue("vm_guids",
@@ -30,6 +30,11 @@ public interface GlusterBrickDao extends Dao, MassOperationsDao<GlusterBrickEnti
 
     public void updateBrickOrder(Guid brickId, int brickOrder);
 
+    /**
+     * Updates the brick order of the given bricks in a batch.
+     */
+    public void updateBrickOrders(List<GlusterBrickEntity> bricks);
+
     public List<GlusterBrickEntity> getGlusterVolumeBricksByServerId(Guid serverId);
 
     public GlusterBrickEntity getBrickByServerIdAndDirectory(Guid serverId, String brickDirectory);
@@ -61,6 +66,11 @@ public interface GlusterBrickDao extends Dao, MassOperationsDao<GlusterBrickEnti
 
     public void updateBrickNetworkId(Guid brickId, Guid networkId);
 
+    /**
+     * Updates the network id of the given bricks in a batch.
+     */
+    public void updateBrickNetworkIds(List<GlusterBrickEntity> bricks);
+
     public List<GlusterBrickEntity> getAllByClusterAndNetworkId(Guid clusterId, Guid networkId);
 
     public void updateUnSyncedEntries(List<GlusterBrickEntity> bricks);
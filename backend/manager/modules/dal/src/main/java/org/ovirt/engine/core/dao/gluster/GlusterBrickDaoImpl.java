@@ -73,6 +73,14 @@ public class GlusterBrickDaoImpl extends MassOperationsGenericDao<GlusterBrickEn
         getCallsHandler().executeModification("InsertGlusterVolumeBrick", createBrickParams(brick));
     }
 
+    @Override
+    public void saveAllInBatch(Collection<GlusterBrickEntity> bricks) {
+        if (bricks.isEmpty()) {
+            return;
+        }
+        getCallsHandler().executeStoredProcAsBatch("InsertGlusterVolumeBrick", bricks, this::createBrickParams);
+    }
+
     @Override
     public void removeBrick(Guid brickId) {
         getCallsHandler().executeModification("DeleteGlusterVolumeBrick",
@@ -124,6 +132,11 @@ public class GlusterBrickDaoImpl extends MassOperationsGenericDao<GlusterBrickEn
                         .addValue("brick_order", brickOrder));
     }
 
+    @Override
+    public void updateBrickOrders(List<GlusterBrickEntity> bricks) {
+        updateAllInBatch("UpdateGlusterVolumeBrickOrder", bricks, getBatchMapper());
+    }
+
     @Override
     public GlusterBrickEntity getById(Guid id) {
         GlusterBrickEntity brick = getCallsHandler().executeRead(
@@ -297,6 +310,11 @@ public class GlusterBrickDaoImpl extends MassOperationsGenericDao<GlusterBrickEn
                         addValue("network_id", networkId));
     }
 
+    @Override
+    public void updateBrickNetworkIds(List<GlusterBrickEntity> bricks) {
+        updateAllInBatch("UpdateGlusterVolumeBrickNetworkId", bricks, getBatchMapper());
+    }
+
     @Override
     public void updateAllBrickTasksByHostIdBrickDirInBatch(Collection<GlusterBrickEntity> bricks) {
         getCallsHandler().executeStoredProcAsBatch("UpdateGlusterBrickTaskByServerIdBrickDir",
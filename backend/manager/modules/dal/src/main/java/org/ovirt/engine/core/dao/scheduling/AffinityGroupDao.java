@@ -1,5 +1,6 @@
 package org.ovirt.engine.core.dao.scheduling;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.ovirt.engine.core.common.scheduling.AffinityGroup;
@@ -24,6 +25,11 @@ public interface AffinityGroupDao extends GenericDao<AffinityGroup, Guid> {
      */
     List<AffinityGroup> getAllAffinityGroupsByVmId(Guid vmId);
 
+    /**
+     * get all Affinity Groups by vm ids
+     */
+    List<AffinityGroup> getAllAffinityGroupsByVmIds(Collection<Guid> vmIds);
+
     /**
      * Get all Affinity groups by VM id.
      *
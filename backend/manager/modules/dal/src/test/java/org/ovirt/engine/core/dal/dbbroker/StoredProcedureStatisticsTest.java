@@ -0,0 +1,62 @@
+package org.ovirt.engine.core.dal.dbbroker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class StoredProcedureStatisticsTest {
+
+    private final StoredProcedureStatistics statistics = new StoredProcedureStatistics();
+
+    @Test
+    public void testRecord() {
+        statistics.record("GetVdsByVdsId", 1, 1, 1000);
+        statistics.record("GetVdsByVdsId", 1, 0, 2000);
+        statistics.record("UpdateVmStatistics", 10, 0, 5000);
+
+        assertEquals(Arrays.asList(
+                "UpdateVmStatistics: calls 1, failures 0, executions 10, rows 0, total 0 ms, average 5 us, max 5 us",
+                "GetVdsByVdsId: calls 2, failures 0, executions 2, rows 1, total 0 ms, average 1 us, max 2 us"),
+                statistics.showStatistics());
+    }
+
+    @Test
+    public void testFailuresAreCountedOnTheirOwn() {
+        statistics.record("InsertAuditLog", 1, 0, 1000);
+        statistics.recordFailure("InsertAuditLog", 1, 3000);
+        statistics.recordFailure("UpdateVmStatistics", 10, 5000);
+
+        List<String> shown = statistics.showStatistics();
+        assertEquals(Arrays.asList(
+                "UpdateVmStatistics: calls 0, failures 1, executions 10, rows 0, total 0 ms, average 5 us, max 5 us",
+                "InsertAuditLog: calls 1, failures 1, executions 2, rows 0, total 0 ms, average 2 us, max 3 us"),
+                shown);
+    }
+
+    @Test
+    public void testShowSortsByTotalTime() {
+        statistics.record("GetVdsByVdsId", 1, 1, 1000);
+        statistics.record("UpdateVmStatistics", 10, 0, 5000);
+
+        List<String> shown = statistics.showStatistics();
+        assertEquals(2, shown.size());
+        assertTrue(shown.get(0).startsWith("UpdateVmStatistics: calls 1, failures 0, executions 10, rows 0"));
+        assertTrue(shown.get(1).startsWith("GetVdsByVdsId: calls 1, failures 0, executions 1, rows 1"));
+    }
+
+    @Test
+    public void testReset() {
+        statistics.record("GetVdsByVdsId", 1, 1, 1000);
+        statistics.reset();
+
+        assertTrue(statistics.showStatistics().isEmpty());
+
+        statistics.record("GetVdsByVdsId", 1, 0, 1000);
+
+        assertTrue(statistics.showStatistics().get(0).startsWith("GetVdsByVdsId: calls 1, failures 0, executions 1"));
+    }
+}
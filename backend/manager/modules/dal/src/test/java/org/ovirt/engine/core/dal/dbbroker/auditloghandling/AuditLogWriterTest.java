@@ -0,0 +1,211 @@
+package org.ovirt.engine.core.dal.dbbroker.auditloghandling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.transaction.TransactionManager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.AuditLogSeverity;
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.common.businessentities.AuditLog;
+import org.ovirt.engine.core.dao.AuditLogDao;
+import org.ovirt.engine.core.utils.InjectedMock;
+import org.ovirt.engine.core.utils.InjectorExtension;
+
+@ExtendWith({ MockitoExtension.class, InjectorExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AuditLogWriterTest {
+
+    @InjectedMock
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    public TransactionManager transactionManager;
+
+    @Mock
+    private AuditLogDao auditLogDao;
+
+    @Mock
+    private AuditLogDirector auditLogDirector;
+
+    @Mock
+    private ManagedScheduledExecutorService executor;
+
+    @InjectMocks
+    private AuditLogWriter auditLogWriter;
+
+    private final List<Runnable> scheduledWrites = new ArrayList<>();
+    private final List<List<AuditLog>> writtenBatches = new ArrayList<>();
+
+    private void init(int queueSize, int batchSize) {
+        doAnswer(invocation -> scheduledWrites.add(invocation.getArgument(0))).when(executor).execute(any());
+        doAnswer(invocation -> writtenBatches.add(new ArrayList<>(invocation.<Collection<AuditLog>> getArgument(0))))
+                .when(auditLogDao).saveAll(anyCollection());
+        auditLogWriter.init(queueSize, batchSize, 30);
+    }
+
+    private void runScheduledWrites() {
+        while (!scheduledWrites.isEmpty()) {
+            scheduledWrites.remove(0).run();
+        }
+    }
+
+    private static AuditLog auditLog() {
+        return new AuditLog(AuditLogType.USER_RUN_VM, AuditLogSeverity.NORMAL);
+    }
+
+    @Test
+    public void testDisabled() {
+        init(0, 10);
+
+        verify(auditLogDirector, never()).setAuditLogWriter(any());
+    }
+
+    @Test
+    public void testWritesInBatches() {
+        init(10, 2);
+        verify(auditLogDirector).setAuditLogWriter(auditLogWriter);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(auditLogWriter.offer(auditLog()));
+        }
+        assertEquals(1, scheduledWrites.size());
+        assertEquals(5, auditLogWriter.getPendingCount());
+
+        runScheduledWrites();
+
+        assertEquals(Arrays.asList(2, 2, 1), writtenBatches.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(0, auditLogWriter.getPendingCount());
+        assertEquals(5, auditLogWriter.getWrittenCount());
+    }
+
+    @Test
+    public void testRejectsWhenFull() {
+        init(2, 10);
+
+        assertTrue(auditLogWriter.offer(auditLog()));
+        assertTrue(auditLogWriter.offer(auditLog()));
+        assertFalse(auditLogWriter.offer(auditLog()));
+
+        runScheduledWrites();
+        assertTrue(auditLogWriter.offer(auditLog()));
+    }
+
+    @Test
+    public void testWritesOneByOneWhenBatchFails() {
+        init(10, 10);
+        doThrow(new RuntimeException("batch failed")).when(auditLogDao).saveAll(anyCollection());
+        AuditLog failing = auditLog();
+        failing.setMessage("failing");
+        doThrow(new RuntimeException("failed")).when(auditLogDao).save(failing);
+
+        auditLogWriter.offer(auditLog());
+        auditLogWriter.offer(failing);
+        auditLogWriter.offer(auditLog());
+        runScheduledWrites();
+
+        verify(auditLogDao, times(3)).save(any());
+        assertEquals(2, auditLogWriter.getWrittenCount());
+        assertEquals(0, auditLogWriter.getPendingCount());
+    }
+
+    @Test
+    public void testWriteAfterQueuedKeepsOrder() {
+        init(10, 10);
+        AuditLog queued = auditLog();
+        auditLogWriter.offer(queued);
+        AuditLog direct = auditLog();
+
+        auditLogWriter.writeAfterQueued(direct);
+
+        InOrder inOrder = inOrder(auditLogDao);
+        inOrder.verify(auditLogDao).saveAll(anyCollection());
+        inOrder.verify(auditLogDao).save(direct);
+        assertEquals(Collections.singletonList(Collections.singletonList(queued)), writtenBatches);
+        assertEquals(0, auditLogWriter.getPendingCount());
+    }
+
+    @Test
+    public void testOfferOrWriteWritesOneBatchAndQueues() {
+        init(4, 2);
+        List<AuditLog> queued = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            queued.add(auditLog());
+            assertTrue(auditLogWriter.offer(queued.get(i)));
+        }
+        AuditLog overflow = auditLog();
+
+        auditLogWriter.offerOrWrite(overflow);
+
+        // only the oldest batch is written by the caller, its audit log is queued after the rest
+        assertEquals(Collections.singletonList(queued.subList(0, 2)), writtenBatches);
+        verify(auditLogDao, never()).save(any());
+        assertEquals(3, auditLogWriter.getPendingCount());
+        assertEquals(2, auditLogWriter.getWrittenByCallerCount());
+
+        runScheduledWrites();
+
+        assertEquals(Arrays.asList(queued.subList(0, 2), queued.subList(2, 4), Collections.singletonList(overflow)),
+                writtenBatches);
+        assertEquals(0, auditLogWriter.getPendingCount());
+    }
+
+    @Test
+    public void testOfferOrWriteWritesItsOwnWhenFilledAgain() {
+        init(2, 2);
+        assertTrue(auditLogWriter.offer(auditLog()));
+        assertTrue(auditLogWriter.offer(auditLog()));
+        // another logging thread fills the queue up again while the batch is written
+        doAnswer(invocation -> {
+            auditLogWriter.offer(auditLog());
+            auditLogWriter.offer(auditLog());
+            return null;
+        }).when(auditLogDao).saveAll(anyCollection());
+        AuditLog overflow = auditLog();
+
+        auditLogWriter.offerOrWrite(overflow);
+
+        verify(auditLogDao).saveAll(anyCollection());
+        verify(auditLogDao).save(overflow);
+        assertEquals(2, auditLogWriter.getPendingCount());
+        assertEquals(3, auditLogWriter.getWrittenByCallerCount());
+    }
+
+    @Test
+    public void testShutdownWritesQueued() {
+        init(10, 10);
+        auditLogWriter.offer(auditLog());
+        auditLogWriter.offer(auditLog());
+
+        auditLogWriter.shutdown();
+
+        verify(auditLogDirector).setAuditLogWriter(null);
+        assertEquals(1, writtenBatches.size());
+        assertEquals(2, writtenBatches.get(0).size());
+        assertFalse(auditLogWriter.offer(auditLog()));
+    }
+}
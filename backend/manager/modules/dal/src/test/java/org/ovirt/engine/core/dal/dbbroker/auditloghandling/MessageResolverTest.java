@@ -65,4 +65,34 @@ public class MessageResolverTest {
         String resolvedMessage = MessageResolver.resolveMessage(message, logable);
         assertEquals(expectedResolved, resolvedMessage);
     }
+
+    @Test
+    public void testResolveReasons() {
+        final String message = "Failed.${reason}${optionalReason}";
+        String resolvedMessage = MessageResolver.resolveMessage(message, Collections.emptyMap());
+        assertEquals("Failed. No reason was returned for this operation failure. See logs for further details.",
+                resolvedMessage);
+    }
+
+    @Test
+    public void testResolveValueWithReplacementCharacters() {
+        final String message = "${first}${first} and ${second}";
+        Map<String, String> values = new HashMap<>();
+        values.put("first", "$1");
+        values.put("second", "\\${second}");
+        String resolvedMessage = MessageResolver.resolveMessage(message, values);
+        assertEquals("$1$1 and \\${second}", resolvedMessage);
+    }
+
+    @Test
+    public void testResolveCustomValueOverridesProperty() {
+        final String message = "The VM name is ${vmName}";
+
+        AuditLogableBase logable = mock(AuditLogableBase.class, RETURNS_DEFAULTS);
+        when(logable.getVmName()).thenReturn("TestVM");
+        when(logable.getCustomValues()).thenReturn(Collections.singletonMap("vmname", "CustomVM"));
+
+        assertEquals("The VM name is CustomVM", MessageResolver.resolveMessage(message, logable));
+        assertEquals("The VM name is CustomVM", MessageResolver.resolveMessage(message, logable));
+    }
 }
@@ -7,7 +7,9 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -147,6 +149,16 @@ public class DbUserDaoTest extends BaseDaoTestCase<DbUserDao> {
         assertFalse(result.isEmpty());
     }
 
+    /**
+     * Ensures that retrieving all users for several VMs returns the users of each of them.
+     */
+    @Test
+    public void testGetAllForVms() {
+        List<DbUser> result = dao.getAllForVms(Arrays.asList(vm, Guid.newGuid()));
+
+        assertTrue(new HashSet<>(result).containsAll(dao.getAllForVm(vm)));
+    }
+
     @Test
     public void testGetAll() {
         List<DbUser> result = dao.getAll();
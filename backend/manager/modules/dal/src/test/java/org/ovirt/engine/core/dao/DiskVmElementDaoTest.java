@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -62,6 +63,20 @@ public class DiskVmElementDaoTest extends BaseReadDaoTestCase<VmDeviceId, DiskVm
         assertThat(dves.size(), is(0));
     }
 
+    @Test
+    public void testGetAllForVms() {
+        List<DiskVmElement> dves = dao.getAllForVms(Arrays.asList(FixturesTool.VM_RHEL5_POOL_57, Guid.newGuid()),
+                PRIVILEGED_USER_ID, true);
+        assertThat(new HashSet<>(dves), is(new HashSet<>(dao.getAllForVm(FixturesTool.VM_RHEL5_POOL_57))));
+    }
+
+    @Test
+    public void testGetAllForVmsWithoutPermissions() {
+        List<DiskVmElement> dves = dao.getAllForVms(Arrays.asList(FixturesTool.VM_RHEL5_POOL_57),
+                UNPRIVILEGED_USER_ID, true);
+        assertThat(dves.size(), is(0));
+    }
+
     @Test
     public void testGetAllPluggedToVm() {
         List<DiskVmElement> dves = dao.getAllPluggedToVm(FixturesTool.VM_RHEL5_POOL_57);
@@ -228,6 +228,16 @@ public class PermissionDaoTest extends BaseDaoTestCase<PermissionDao> {
         List<Permission> result = dao.getAllForEntity(VM_ENTITY_ID);
         assertGetAllForEntityResult(result);
     }
+
+    /**
+     * Ensures that the right permissions are returned for the specified ids.
+     */
+    @Test
+    public void testGetAllForEntities() {
+        List<Permission> result = dao.getAllForEntities(Arrays.asList(VM_ENTITY_ID, Guid.newGuid()));
+        assertGetAllForEntityResult(result);
+    }
+
     /**
      * Ensures that the right permissions are returned for the specified id., for a user with permissions.
      */
@@ -567,6 +577,20 @@ public class PermissionDaoTest extends BaseDaoTestCase<PermissionDao> {
                 VdcObjectType.VM));
     }
 
+    @Test
+    public void testGetEntityParents() {
+        assertEquals(new HashSet<>(Arrays.asList(VM_ENTITY_ID,
+                FixturesTool.CLUSTER_RHEL6_ISCSI,
+                FixturesTool.STORAGE_POOL_RHEL6_ISCSI_OTHER,
+                new Guid("aaa00000-0000-0000-0000-123456789aaa"))),
+                new HashSet<>(dao.getEntityParents(VM_ENTITY_ID, VdcObjectType.VM)));
+    }
+
+    @Test
+    public void testGetEntityParentsOfTypeWithoutParents() {
+        assertTrue(dao.getEntityParents(Guid.newGuid(), VdcObjectType.Tags).isEmpty());
+    }
+
     @Test
     public void testGetEntityPermissionsByUserAndGroups() {
         // Should not return null since the user has the relevant permission
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -203,6 +204,22 @@ public class SnapshotDaoTest extends BaseGenericDaoTestCase<Guid, Snapshot, Snap
         }
     }
 
+    @Test
+    public void getAllByVmsWithConfiguration() {
+        List<Snapshot> snapshots = dao.getAllWithConfiguration(
+                Arrays.asList(FixturesTool.VM_RHEL5_POOL_50, FixturesTool.VM_RHEL5_POOL_57));
+        assertEquals(dao.getAll(FixturesTool.VM_RHEL5_POOL_50).size() + dao.getAll(FixturesTool.VM_RHEL5_POOL_57).size(),
+                snapshots.size(),
+                "The snapshots of both VMs should be returned");
+        for (Snapshot snapshot : snapshots) {
+            if (FixturesTool.VM_RHEL5_POOL_50.equals(snapshot.getVmId())) {
+                assertEquals("test!", snapshot.getVmConfiguration(), "Snapshot should have configuration");
+            } else {
+                assertEquals(FixturesTool.VM_RHEL5_POOL_57, snapshot.getVmId());
+            }
+        }
+    }
+
     @Test
     public void getAllByVm() {
         List<Snapshot> snapshots = dao.getAll(FixturesTool.VM_RHEL5_POOL_57);
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -135,6 +136,13 @@ public class VmDeviceDaoTest extends BaseGenericDaoTestCase<VmDeviceId, VmDevice
         assertGetVMDeviceByIdTypeAndDeviceFullResult(devices);
     }
 
+    @Test
+    public void testGetVmDevicesByVmIds() {
+        List<VmDevice> devices = dao.getVmDevicesByVmIds(Arrays.asList(EXISTING_VM_ID, NON_EXISTING_VM_ID));
+        assertEquals(TOTAL_DEVICES_FOR_EXISTING_VM, devices.size());
+        assertTrue(devices.stream().allMatch(device -> EXISTING_VM_ID.equals(device.getVmId())));
+    }
+
     @Test
     public void testGetUnmanagedDeviceByVmId() {
         List<VmDevice> devices =
@@ -11,6 +11,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -262,6 +263,15 @@ public class VmStaticDaoTest extends BaseGenericDaoTestCase<Guid, VmStatic, VmSt
         assertEquals(1, version.longValue(), "db generation should be 1 by default for vm");
     }
 
+    @Test
+    public void testGetDbGenerations() {
+        Map<Guid, Long> versions = dao.getDbGenerations(
+                Arrays.asList(FixturesTool.VM_RHEL5_POOL_50, FixturesTool.VM_RHEL5_POOL_51, Guid.newGuid()));
+        assertEquals(2, versions.size(), "db generations should be returned only for existing vms");
+        assertEquals(1, versions.get(FixturesTool.VM_RHEL5_POOL_50).longValue());
+        assertEquals(1, versions.get(FixturesTool.VM_RHEL5_POOL_51).longValue());
+    }
+
     @Test
     public void testIncrementDbGenerationForAllInStoragePool() {
         dao.incrementDbGenerationForAllInStoragePool(FixturesTool.STORAGE_POOL_RHEL6_ISCSI_OTHER);
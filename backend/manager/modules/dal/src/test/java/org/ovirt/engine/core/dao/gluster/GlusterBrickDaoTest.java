@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,34 @@ public class GlusterBrickDaoTest extends BaseDaoTestCase<GlusterBrickDao> {
         assertEquals(brickToAdd, retrievedBrick);
     }
 
+    @Test
+    public void testSaveAllInBatch() {
+        GlusterBrickEntity brick1 = new GlusterBrickEntity();
+        brick1.setVolumeId(FixturesTool.GLUSTER_VOLUME_UUID1);
+        brick1.setServerId(FixturesTool.GLUSTER_SERVER_UUID3);
+        brick1.setBrickDirectory(BRICK_EXPORT_DIR);
+        brick1.setStatus(GlusterStatus.UP);
+        brick1.setBrickOrder(0);
+
+        GlusterBrickEntity brick2 = new GlusterBrickEntity();
+        brick2.setVolumeId(FixturesTool.GLUSTER_VOLUME_UUID1);
+        brick2.setServerId(FixturesTool.GLUSTER_SERVER_UUID3);
+        brick2.setBrickDirectory(BRICK_EXPORT_DIR + "_new");
+        brick2.setStatus(GlusterStatus.DOWN);
+        brick2.setBrickOrder(1);
+
+        dao.saveAllInBatch(Arrays.asList(brick1, brick2));
+
+        GlusterBrickEntity retrievedBrick1 = dao.getById(brick1.getId());
+        assertNotNull(retrievedBrick1);
+        assertEquals(BRICK_EXPORT_DIR, retrievedBrick1.getBrickDirectory());
+        assertEquals(GlusterStatus.UP, retrievedBrick1.getStatus());
+        GlusterBrickEntity retrievedBrick2 = dao.getById(brick2.getId());
+        assertNotNull(retrievedBrick2);
+        assertEquals(BRICK_EXPORT_DIR + "_new", retrievedBrick2.getBrickDirectory());
+        assertEquals(GlusterStatus.DOWN, retrievedBrick2.getStatus());
+    }
+
     @Test
     public void testAddBrickProperties() {
         Guid brickId = FixturesTool.GLUSTER_BRICK_UUID1;
@@ -274,6 +303,19 @@ public class GlusterBrickDaoTest extends BaseDaoTestCase<GlusterBrickDao> {
         dao.updateBrickStatuses(bricks);
     }
 
+    @Test
+    public void testUpdateBrickOrders() {
+        GlusterBrickEntity existingBrick1 = dao.getById(FixturesTool.GLUSTER_BRICK_UUID1);
+        GlusterBrickEntity existingBrick2 = dao.getById(FixturesTool.GLUSTER_BRICK_UUID2);
+        existingBrick1.setBrickOrder(existingBrick1.getBrickOrder() + 10);
+        existingBrick2.setBrickOrder(existingBrick2.getBrickOrder() + 10);
+
+        dao.updateBrickOrders(Arrays.asList(existingBrick1, existingBrick2));
+
+        assertEquals(existingBrick1.getBrickOrder(), dao.getById(FixturesTool.GLUSTER_BRICK_UUID1).getBrickOrder());
+        assertEquals(existingBrick2.getBrickOrder(), dao.getById(FixturesTool.GLUSTER_BRICK_UUID2).getBrickOrder());
+    }
+
     @Test
     public void testUpdateBrickTask() {
         GlusterBrickEntity existingBrick = dao.getById(FixturesTool.GLUSTER_BRICK_UUID1);
@@ -398,6 +440,19 @@ public class GlusterBrickDaoTest extends BaseDaoTestCase<GlusterBrickDao> {
         assertNotNull(bricks);
     }
 
+    @Test
+    public void testUpdateBrickNetworkIds() {
+        GlusterBrickEntity existingBrick1 = dao.getById(FixturesTool.GLUSTER_BRICK_UUID1);
+        GlusterBrickEntity existingBrick2 = dao.getById(FixturesTool.GLUSTER_BRICK_UUID2);
+        existingBrick1.setNetworkId(FixturesTool.NETWORK_ENGINE);
+        existingBrick2.setNetworkId(FixturesTool.NETWORK_ENGINE);
+
+        dao.updateBrickNetworkIds(Arrays.asList(existingBrick1, existingBrick2));
+
+        assertEquals(FixturesTool.NETWORK_ENGINE, dao.getById(FixturesTool.GLUSTER_BRICK_UUID1).getNetworkId());
+        assertEquals(FixturesTool.NETWORK_ENGINE, dao.getById(FixturesTool.GLUSTER_BRICK_UUID2).getNetworkId());
+    }
+
     @Test
     public void testGetAllByClusterAndNetworkId() {
         dao.updateBrickNetworkId(FixturesTool.GLUSTER_BRICK_UUID1, FixturesTool.NETWORK_ENGINE);
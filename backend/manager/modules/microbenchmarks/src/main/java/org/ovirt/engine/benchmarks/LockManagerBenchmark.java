@@ -0,0 +1,98 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.lock.InMemoryLockManager;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.utils.lock.EngineLock;
+
+/**
+ * <p> Benchmark's the contention of ovirt engine's {@link InMemoryLockManager}.</p>
+ * <p> All the threads share one lock manager. In the <b>uncontended</b> benchmarks every thread locks its own
+ * entity, like commands running on different VMs, while in the <b>contended</b> benchmarks the threads
+ * compete on a small set of entities, like commands running on VMs of the same pool.</p>
+ *
+ * @see InMemoryLockManager
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(8)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockManagerBenchmark {
+
+    @Benchmark
+    public void uncontendedExclusive(LockManagerState manager, ThreadState thread, Blackhole blackhole) {
+        blackhole.consume(manager.lockManager.acquireLock(thread.ownExclusiveLock));
+        manager.lockManager.releaseLock(thread.ownExclusiveLock);
+    }
+
+    @Benchmark
+    public void contendedShared(LockManagerState manager, ThreadState thread, Blackhole blackhole) {
+        blackhole.consume(manager.lockManager.acquireLock(thread.sharedLock));
+        manager.lockManager.releaseLock(thread.sharedLock);
+    }
+
+    @Benchmark
+    public void contendedExclusiveWait(LockManagerState manager, ThreadState thread) {
+        manager.lockManager.acquireLockWait(thread.contendedExclusiveLock);
+        manager.lockManager.releaseLock(thread.contendedExclusiveLock);
+    }
+
+    @State(Scope.Benchmark)
+    public static class LockManagerState {
+
+        private InMemoryLockManager lockManager;
+        private String[] contendedKeys;
+        private final AtomicInteger threadIndex = new AtomicInteger();
+
+        @Param({ "4" })
+        private int contendedKeysCount;
+
+        @Setup
+        public void setup() {
+            lockManager = new InMemoryLockManager();
+            contendedKeys = new String[contendedKeysCount];
+            for (int i = 0; i < contendedKeysCount; i++) {
+                contendedKeys[i] = UUID.randomUUID().toString();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private EngineLock ownExclusiveLock;
+        private EngineLock sharedLock;
+        private EngineLock contendedExclusiveLock;
+
+        @Setup
+        public void setup(LockManagerState manager) {
+            int index = manager.threadIndex.getAndIncrement();
+            String contendedKey = manager.contendedKeys[index % manager.contendedKeys.length];
+            ownExclusiveLock = new EngineLock(lockMap(UUID.randomUUID().toString()));
+            sharedLock = new EngineLock(null, lockMap(contendedKey));
+            contendedExclusiveLock = new EngineLock(lockMap(contendedKey));
+        }
+
+        private static Map<String, Pair<String, String>> lockMap(String key) {
+            return Collections.singletonMap(key, new Pair<>("VM", "ACTION_TYPE_FAILED_OBJECT_LOCKED"));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.MessageResolver;
+
+/**
+ * <p> Benchmark's the resolving of audit log messages, done for every event the engine logs.</p>
+ * <p> <b>resolveLoggable</b> resolves a message whose place holders are taken from the properties and the custom
+ * values of the loggable, as done by the audit log director, and <b>resolveValues</b> resolves a message from a map
+ * of values, as done for the steps of the jobs. Run it with {@code -prof gc} to see the memory allocated per
+ * message.</p>
+ *
+ * @see MessageResolver
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MessageResolverBenchmark {
+
+    @Benchmark
+    public String resolveLoggable(MessageState state) {
+        return MessageResolver.resolveMessage(state.message, state.logable);
+    }
+
+    @Benchmark
+    public String resolveValues(MessageState state) {
+        return MessageResolver.resolveMessage(state.message, state.values);
+    }
+
+    @State(Scope.Thread)
+    public static class MessageState {
+
+        private AuditLogableImpl logable;
+        private Map<String, String> values;
+
+        @Param({
+                "VM ${VmName} started on Host ${VdsName}",
+                "Failed to run VM ${VmName}${DueToError} (User: ${UserName}).",
+                "VM ${VmName} is down with error. ${ExitMessage}." })
+        private String message;
+
+        @Setup
+        public void setup() {
+            logable = new AuditLogableImpl();
+            logable.setVmName("vm-0001");
+            logable.setVdsName("host-0001");
+            logable.setClusterName("cluster-01");
+            logable.addCustomValue("DueToError", " due to an error");
+            logable.addCustomValue("UserName", "admin@internal");
+            logable.addCustomValue("ExitMessage", "Exit message: Lost connection with qemu process");
+
+            values = new HashMap<>(logable.getCustomValues());
+            values.put("vmname", logable.getVmName());
+            values.put("vdsname", logable.getVdsName());
+        }
+    }
+}
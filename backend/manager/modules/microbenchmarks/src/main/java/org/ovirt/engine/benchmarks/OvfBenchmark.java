@@ -0,0 +1,203 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.utils.ovf.xml.XmlDocument;
+import org.ovirt.engine.core.utils.ovf.xml.XmlNamespaceManager;
+import org.ovirt.engine.core.utils.ovf.xml.XmlNode;
+import org.ovirt.engine.core.utils.ovf.xml.XmlTextWriter;
+
+/**
+ * <p> Benchmark's the writing and reading of the OVFs of VMs with many disks and snapshots, as done when the OVF
+ * stores are updated and when VMs are imported or registered from a storage domain.</p>
+ * <p> <b>write</b> writes an OVF in the layout of the VM OVF writer, <b>parse</b> parses it and <b>read</b> parses
+ * it and reads the references, the disks, the devices and the snapshots the way the OVF readers do. Run it with
+ * {@code -prof gc} to see the memory allocated per OVF.</p>
+ *
+ * @see XmlDocument
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OvfBenchmark {
+
+    private static final String OVF_URI = "http://schemas.dmtf.org/ovf/envelope/1/";
+    private static final String RASD_URI =
+            "http://schemas.dmtf.org/wbem/wscim/1/cim-schema/2/CIM_ResourceAllocationSettingData";
+    private static final String XSI_URI = "http://www.w3.org/2001/XMLSchema-instance";
+
+    @Benchmark
+    public String write(OvfState state) {
+        return writeOvf(state.disks, state.snapshots);
+    }
+
+    @Benchmark
+    public XmlDocument parse(OvfState state) throws Exception {
+        return new XmlDocument(state.ovf);
+    }
+
+    @Benchmark
+    public void read(OvfState state, Blackhole blackhole) throws Exception {
+        XmlDocument document = new XmlDocument(state.ovf);
+        XmlNamespaceManager xmlns = new XmlNamespaceManager();
+        xmlns.addNamespace("ovf", OVF_URI);
+        xmlns.addNamespace("rasd", RASD_URI);
+
+        blackhole.consume(document.selectSingleNode("//ovf:Envelope", xmlns).attributes.get("ovf:version"));
+        for (XmlNode file : document.selectNodes("//*/File", xmlns)) {
+            blackhole.consume(file.attributes.get("ovf:href").getValue());
+        }
+        for (XmlNode disk : document.selectNodes("//*/Section/Disk", xmlns)) {
+            blackhole.consume(disk.attributes.get("ovf:diskId").getValue());
+            blackhole.consume(disk.attributes.get("ovf:size").getValue());
+        }
+
+        XmlNode content = document.selectSingleNode("//*/Content");
+        blackhole.consume(content.selectSingleNode("Name").innerText);
+        for (XmlNode section : content.selectNodes("Section")) {
+            for (XmlNode item : section.selectNodes("Item")) {
+                blackhole.consume(item.selectSingleNode("rasd:ResourceType", xmlns).innerText);
+                blackhole.consume(item.selectSingleNode("rasd:InstanceId", xmlns).innerText);
+                XmlNode specParams = item.selectSingleNode("SpecParams");
+                if (specParams != null) {
+                    blackhole.consume(specParams.innerText);
+                }
+            }
+            for (XmlNode snapshot : section.selectNodes("Snapshot")) {
+                blackhole.consume(snapshot.attributes.get("ovf:id").getValue());
+                blackhole.consume(snapshot.selectSingleNode("Description").innerText);
+                blackhole.consume(snapshot.selectSingleNode("vm_configuration").innerText);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OvfState {
+
+        @Param({ "10", "100" })
+        private int disks;
+
+        @Param({ "0", "50" })
+        private int snapshots;
+
+        private String ovf;
+
+        @Setup
+        public void setup() {
+            ovf = writeOvf(disks, snapshots);
+        }
+    }
+
+    private static String writeOvf(int disks, int snapshots) {
+        XmlTextWriter writer = createWriter();
+        writer.writeStartElement("References");
+        for (int i = 0; i < disks; i++) {
+            writer.writeStartElement("File");
+            writer.writeAttributeString(OVF_URI, "href", imageId(i) + "/" + imageId(i + disks));
+            writer.writeAttributeString(OVF_URI, "id", imageId(i + disks));
+            writer.writeAttributeString(OVF_URI, "size", "10737418240");
+            writer.writeAttributeString(OVF_URI, "description", "disk " + i);
+            writer.writeAttributeString(OVF_URI, "disk_storage_type", "IMAGE");
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+
+        writer.writeStartElement("Section");
+        writer.writeAttributeString(XSI_URI, "type", "ovf:DiskSection_Type");
+        writer.writeElement("Info", "List of Virtual Disks");
+        for (int i = 0; i < disks; i++) {
+            writer.writeStartElement("Disk");
+            writer.writeAttributeString(OVF_URI, "diskId", imageId(i + disks));
+            writer.writeAttributeString(OVF_URI, "size", "10");
+            writer.writeAttributeString(OVF_URI, "actual_size", "1");
+            writer.writeAttributeString(OVF_URI, "vm_snapshot_id", imageId(i + 2 * disks));
+            writer.writeAttributeString(OVF_URI, "fileRef", imageId(i) + "/" + imageId(i + disks));
+            writer.writeAttributeString(OVF_URI, "format", "http://www.vmware.com/specifications/vmdk.html#sparse");
+            writer.writeAttributeString(OVF_URI, "volume-format", "COW");
+            writer.writeAttributeString(OVF_URI, "volume-type", "Sparse");
+            writer.writeAttributeString(OVF_URI, "disk-interface", "VirtIO_SCSI");
+            writer.writeAttributeString(OVF_URI, "boot", String.valueOf(i == 0));
+            writer.writeAttributeString(OVF_URI, "pass-discard", "false");
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+
+        writer.writeStartElement("Content");
+        writer.writeAttributeString(OVF_URI, "id", "out");
+        writer.writeAttributeString(XSI_URI, "type", "ovf:VirtualSystem_Type");
+        writer.writeElement("Name", "vm-with-many-disks");
+        writer.writeElement("Description", "a VM with " + disks + " disks and " + snapshots + " snapshots");
+        writer.writeElement("CreationDate", "2020/01/01 00:00:00");
+        writer.writeElement("ClusterCompatibilityVersion", "4.7");
+        writer.writeElement("Origin", "0");
+
+        writer.writeStartElement("Section");
+        writer.writeAttributeString(XSI_URI, "type", "ovf:VirtualHardwareSection_Type");
+        writer.writeElement("Info", disks + " CPU, 4096 Memory");
+        for (int i = 0; i < disks; i++) {
+            writer.writeStartElement("Item");
+            writer.writeElement(RASD_URI, "Caption", "Drive " + (i + 1));
+            writer.writeElement(RASD_URI, "InstanceId", imageId(i + disks));
+            writer.writeElement(RASD_URI, "ResourceType", "17");
+            writer.writeElement(RASD_URI, "HostResource", imageId(i) + "/" + imageId(i + disks));
+            writer.writeElement(RASD_URI, "Parent", "00000000-0000-0000-0000-000000000000");
+            writer.writeElement(RASD_URI, "StoragePoolId", "5849b030-626e-47cb-ad90-3ce782d831b3");
+            writer.writeElement("Type", "disk");
+            writer.writeElement("Device", "disk");
+            writer.writeElement("Address", "{type=drive, bus=0, controller=0, target=0, unit=" + i + "}");
+            writer.writeElement("BootOrder", String.valueOf(i == 0 ? 1 : 0));
+            writer.writeElement("IsPlugged", "true");
+            writer.writeElement("IsReadOnly", "false");
+            writer.writeElement("Alias", "ua-" + imageId(i + disks));
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+
+        writer.writeStartElement("Section");
+        writer.writeAttributeString(XSI_URI, "type", "ovf:SnapshotsSection_Type");
+        String configuration = snapshots > 0 ? writeOvf(Math.min(disks, 10), 0) : null;
+        for (int i = 0; i < snapshots; i++) {
+            writer.writeStartElement("Snapshot");
+            writer.writeAttributeString(OVF_URI, "id", imageId(i + 3 * disks));
+            writer.writeElement("Type", "REGULAR");
+            writer.writeElement("Description", "snapshot " + i);
+            writer.writeElement("CreationDate", "2020/01/01 00:00:00");
+            writer.writeElement("vm_configuration", configuration);
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+        // closes the envelope
+        return writer.getStringXML();
+    }
+
+    private static XmlTextWriter createWriter() {
+        XmlTextWriter writer = new XmlTextWriter();
+        writer.setPrefix("ovf", OVF_URI);
+        writer.setPrefix("rasd", RASD_URI);
+        writer.setPrefix("xsi", XSI_URI);
+        writer.writeStartElement(OVF_URI, "Envelope");
+        writer.writeNamespace("ovf", OVF_URI);
+        writer.writeNamespace("rasd", RASD_URI);
+        writer.writeNamespace("xsi", XSI_URI);
+        writer.writeAttributeString(OVF_URI, "version", "4.4.0.0");
+        return writer;
+    }
+
+    private static String imageId(int i) {
+        return String.format("00000000-0000-0000-0000-%012d", i);
+    }
+}
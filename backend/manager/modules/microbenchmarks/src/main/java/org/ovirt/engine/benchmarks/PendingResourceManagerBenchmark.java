@@ -0,0 +1,114 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingCpuCores;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingCpuLoad;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingHugePages;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingMemory;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingOvercommitMemory;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingResourceManager;
+import org.ovirt.engine.core.bll.scheduling.pending.PendingVM;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * <p> Benchmark's the cost of reading and updating the pending resources tracked by
+ * ovirt engine's {@link PendingResourceManager}.</p>
+ * <p> The manager is filled with the pending resources of a mass start, <b>vmsCount</b> VMs spread over
+ * <b>hostsCount</b> hosts. The <b>collect</b> benchmarks read the pending amounts of every host, like the
+ * filter and weight policy units do during one scheduling run, while the <b>addAndClear</b> benchmark
+ * measures the bookkeeping of a single VM being scheduled and started.</p>
+ *
+ * @see PendingResourceManager
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PendingResourceManagerBenchmark {
+
+    @Benchmark
+    public void collectMemoryForAllHosts(PendingState state, Blackhole blackhole) {
+        for (Guid host : state.hosts) {
+            blackhole.consume(PendingMemory.collectForHost(state.manager, host));
+            blackhole.consume(PendingOvercommitMemory.collectForHost(state.manager, host));
+        }
+    }
+
+    @Benchmark
+    public void collectCpuForAllHosts(PendingState state, Blackhole blackhole) {
+        for (Guid host : state.hosts) {
+            blackhole.consume(PendingCpuCores.collectSharedForHost(state.manager, host));
+            blackhole.consume(PendingCpuLoad.collectSharedForHost(state.manager, host));
+        }
+    }
+
+    @Benchmark
+    public void collectHugePagesForAllHosts(PendingState state, Blackhole blackhole) {
+        for (Guid host : state.hosts) {
+            blackhole.consume(PendingHugePages.collectForHost(state.manager, host));
+        }
+    }
+
+    @Benchmark
+    public void addAndClear(PendingState state) {
+        Guid host = state.hosts[state.nextHost++ % state.hosts.length];
+        addPendingVm(state.manager, host, state.vm);
+        state.manager.clearVm(state.vm);
+    }
+
+    private static void addPendingVm(PendingResourceManager manager, Guid host, VM vm) {
+        manager.addPending(new PendingVM(host, vm));
+        manager.addPending(new PendingCpuCores(host, vm, 4, 2));
+        manager.addPending(new PendingCpuLoad(host, vm, 25));
+        manager.addPending(new PendingMemory(host, vm, 4096));
+        manager.addPending(new PendingOvercommitMemory(host, vm, 4096));
+        manager.addPending(new PendingHugePages(host, vm, 2048, 16));
+    }
+
+    @State(Scope.Benchmark)
+    public static class PendingState {
+
+        private PendingResourceManager manager;
+        private Guid[] hosts;
+        private VM vm;
+        private int nextHost;
+
+        @Param({ "1000" })
+        private int hostsCount;
+
+        @Param({ "10000" })
+        private int vmsCount;
+
+        @Setup
+        public void setup() {
+            manager = new PendingResourceManager();
+            hosts = new Guid[hostsCount];
+            for (int i = 0; i < hostsCount; i++) {
+                hosts[i] = Guid.newGuid();
+            }
+            for (int i = 0; i < vmsCount; i++) {
+                addPendingVm(manager, hosts[i % hostsCount], createVm());
+            }
+            vm = createVm();
+        }
+
+        private static VM createVm() {
+            VM vm = new VM();
+            vm.setId(Guid.newGuid());
+            return vm;
+        }
+    }
+}
@@ -18,7 +18,10 @@ import org.ovirt.engine.sdk4.Connection;
 import org.ovirt.engine.sdk4.ConnectionBuilder;
 import org.ovirt.engine.sdk4.builders.EventBuilder;
 import org.ovirt.engine.sdk4.services.SystemService;
+import org.ovirt.engine.sdk4.services.VmService;
+import org.ovirt.engine.sdk4.services.VmsService;
 import org.ovirt.engine.sdk4.types.LogSeverity;
+import org.ovirt.engine.sdk4.types.Vm;
 
 @BenchmarkMode(Mode.All)
 @OutputTimeUnit(TimeUnit.SECONDS)
@@ -31,6 +34,26 @@ public class RestInvocationBenchmark {
         blackhole.consume(state.systemService.vmsService().list().send());
     }
 
+    /**
+     * <p> Benchmark's listing the VMs together with their nics and disk attachments in a single request, with the
+     * links followed by the engine. Compare it with {@link #getVmsNicsAndDiskAttachments} that does the same with a
+     * request per VM and link.</p>
+     */
+    @Benchmark
+    public void getVmsFollowingLinks(BenchmarkState state, Blackhole blackhole) {
+        blackhole.consume(state.systemService.vmsService().list().follow("nics,disk_attachments").send());
+    }
+
+    @Benchmark
+    public void getVmsNicsAndDiskAttachments(BenchmarkState state, Blackhole blackhole) {
+        VmsService vmsService = state.systemService.vmsService();
+        for (Vm vm : vmsService.list().send().vms()) {
+            VmService vmService = vmsService.vmService(vm.id());
+            blackhole.consume(vmService.nicsService().list().send());
+            blackhole.consume(vmService.diskAttachmentsService().list().send());
+        }
+    }
+
     @Benchmark
     public void getHosts(BenchmarkState state, Blackhole blackhole) {
         blackhole.consume(state.systemService.hostsService().list().send());
@@ -0,0 +1,114 @@
+package org.ovirt.engine.benchmarks;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.config.IConfigUtilsInterface;
+import org.ovirt.engine.core.searchbackend.ISyntaxChecker;
+import org.ovirt.engine.core.searchbackend.SyntaxCheckerFactory;
+import org.ovirt.engine.core.searchbackend.SyntaxContainer;
+
+/**
+ * <p> Benchmark's the parsing of search expressions and the generation of their SQL, the work the
+ * search query cache saves for expressions that are searched repeatedly.</p>
+ *
+ * @see org.ovirt.engine.core.searchbackend.SyntaxChecker
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SearchBenchmark {
+
+    @Benchmark
+    public void analyzeSyntaxState(SearchState state, Blackhole blackhole) {
+        blackhole.consume(state.syntaxChecker.analyzeSyntaxState(state.searchText, true));
+    }
+
+    @Benchmark
+    public void generateQueryFromSyntaxContainer(SearchState state, Blackhole blackhole) {
+        blackhole.consume(state.syntaxChecker.generateQueryFromSyntaxContainer(state.syntaxContainer, false));
+    }
+
+    @Benchmark
+    public void analyzeAndGenerate(SearchState state, Blackhole blackhole) {
+        SyntaxContainer syntaxContainer = state.syntaxChecker.analyzeSyntaxState(state.searchText, true);
+        syntaxContainer.setMaxCount(100);
+        blackhole.consume(state.syntaxChecker.generateQueryFromSyntaxContainer(syntaxContainer, false));
+    }
+
+    @State(Scope.Thread)
+    public static class SearchState {
+
+        private ISyntaxChecker syntaxChecker;
+        private SyntaxContainer syntaxContainer;
+
+        @Param({
+                "Vms:",
+                "Vms: status = Up and cluster = Default sortby name",
+                "Hosts: cluster = Default and status != Maintenance and name = host*",
+                "Events: severity > normal sortby time desc page 2" })
+        private String searchText;
+
+        @Setup
+        public void setup() {
+            Config.setConfigUtils(new BenchmarkConfigUtils());
+            syntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("LDAP");
+            syntaxContainer = syntaxChecker.analyzeSyntaxState(searchText, true);
+            syntaxContainer.setMaxCount(100);
+        }
+    }
+
+    /**
+     * The configuration values the search depends on, as they are set in a default installation
+     */
+    private static class BenchmarkConfigUtils implements IConfigUtilsInterface {
+
+        private final Map<ConfigValues, Object> values = new EnumMap<>(ConfigValues.class);
+
+        BenchmarkConfigUtils() {
+            values.put(ConfigValues.DBEngine, "Postgres");
+            values.put(ConfigValues.DBI18NPrefix, "");
+            values.put(ConfigValues.DBLikeSyntax, "ILIKE");
+            values.put(ConfigValues.DBPagingSyntax, " WHERE RowNum BETWEEN %1$s AND %2$s");
+            values.put(ConfigValues.DBPagingType, "Range");
+            values.put(ConfigValues.DBSearchTemplate,
+                    "SELECT * FROM (SELECT *, ROW_NUMBER() OVER(%1$s) as RowNum FROM (%2$s)) as T1 ) as T2 %3$s");
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getValue(ConfigValues configValue, String version) {
+            return (T) values.get(configValue);
+        }
+
+        @Override
+        public void refresh() {
+        }
+
+        @Override
+        public <T> Map<String, T> getValuesForAllVersions(ConfigValues configValue) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public boolean valueExists(ConfigValues configValue, String version) {
+            return values.containsKey(configValue);
+        }
+    }
+}
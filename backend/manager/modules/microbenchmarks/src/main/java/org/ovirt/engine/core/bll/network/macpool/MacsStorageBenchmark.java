@@ -0,0 +1,102 @@
+package org.ovirt.engine.core.bll.network.macpool;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.math.LongRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <p> Benchmark's the {@link MacsStorage} backing the MAC pools of ovirt engine.</p>
+ * <p> The storage holds <b>rangesCount</b> ranges of 65536 MACs each and <b>customMacsCount</b> MACs used outside
+ * of the ranges. The <b>allocateAndFree</b> benchmark allocates the MACs of the NICs of a 1000 VMs pool and
+ * frees them back, <b>lookup</b> checks the usage of MACs spread over the ranges and the custom MACs, and
+ * <b>createStorage</b> builds the storage of a pool, as done when the engine starts.</p>
+ * <p> The benchmark is in the package of the storage, which is internal to the MAC pool. Run it with
+ * {@code -prof gc} to see the memory allocated per operation.</p>
+ *
+ * @see MacsStorage
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MacsStorageBenchmark {
+
+    private static final long FIRST_MAC = 0x001A4A160000L;
+    private static final long RANGE_SIZE = 0x10000L;
+    private static final long FIRST_CUSTOM_MAC = 0x00163E000000L;
+
+    @Benchmark
+    public void allocateAndFree(MacsStorageState state, Blackhole blackhole) {
+        List<Long> macs = state.macsStorage.allocateAvailableMacs(state.allocatedMacsCount);
+        blackhole.consume(macs);
+        for (long mac : macs) {
+            state.macsStorage.freeMac(mac);
+        }
+    }
+
+    @Benchmark
+    public void lookup(MacsStorageState state, Blackhole blackhole) {
+        for (long mac : state.lookedUpMacs) {
+            blackhole.consume(state.macsStorage.isMacInUse(mac));
+        }
+    }
+
+    @Benchmark
+    public MacsStorage createStorage(MacsStorageState state) {
+        return state.createMacsStorage();
+    }
+
+    @State(Scope.Thread)
+    public static class MacsStorageState {
+
+        private MacsStorage macsStorage;
+        private long[] lookedUpMacs;
+
+        @Param({ "4" })
+        private int rangesCount;
+
+        @Param({ "10000" })
+        private int customMacsCount;
+
+        @Param({ "1000" })
+        private int allocatedMacsCount;
+
+        @Setup
+        public void setup() {
+            macsStorage = createMacsStorage();
+
+            Random random = new Random(0);
+            lookedUpMacs = new long[1000];
+            for (int i = 0; i < lookedUpMacs.length; i++) {
+                lookedUpMacs[i] = i % 2 == 0
+                        ? FIRST_MAC + (long) (random.nextDouble() * rangesCount * RANGE_SIZE)
+                        : FIRST_CUSTOM_MAC + random.nextInt(customMacsCount);
+            }
+        }
+
+        private MacsStorage createMacsStorage() {
+            MacsStorage storage = new MacsStorage(false, any -> false);
+            for (int i = 0; i < rangesCount; i++) {
+                long firstMac = FIRST_MAC + i * RANGE_SIZE;
+                storage.addRange(new Range(new LongRange(firstMac, firstMac + RANGE_SIZE - 1)));
+            }
+            for (int i = 0; i < customMacsCount; i++) {
+                storage.useMac(FIRST_CUSTOM_MAC + i);
+            }
+            return storage;
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class LocalConfig {
     private static final String DEFAULT_VERSION = "ENGINE_API_DEFAULT_VERSION";
     private static final String FILTER_BY_DEFAULT = "ENGINE_API_FILTER_BY_DEFAULT";
     private static final String EXPLORER_DIRECTORY = "ENGINE_API_EXPLORER_DIRECTORY";
+    private static final String STREAMING_PAGE_SIZE = "ENGINE_API_STREAMING_PAGE_SIZE";
 
     // Reference to the engine local configuration, as that is what is used to actually read the configuration:
     private EngineLocalConfig config;
@@ -98,4 +99,12 @@ public class LocalConfig {
     public String getExplorerDirectory() {
         return config.getProperty(EXPLORER_DIRECTORY);
     }
+
+    /**
+     * Returns the number of entities that large collections are loaded with per backend query when they are streamed
+     * to the response, or zero if they shouldn't be streamed. Only the events collection is streamed.
+     */
+    public int getStreamingPageSize() {
+        return config.getInteger(STREAMING_PAGE_SIZE, 0);
+    }
 }
@@ -8,6 +8,8 @@ package org.ovirt.engine.api.restapi.invocation;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.common.interfaces.BackendLocal;
 import org.ovirt.engine.core.common.mode.ApplicationMode;
@@ -69,6 +71,22 @@ public class Current {
      */
     private BackendLocal backend;
 
+    /**
+     * The number of entities that collections are loaded with per backend query when they are streamed, or zero if
+     * they shouldn't be streamed.
+     */
+    private int streamingPageSize;
+
+    /**
+     * The collection returned by the resource that should be streamed to the response, if any.
+     */
+    private StreamedCollection streamedCollection;
+
+    /**
+     * The HTTP response of the request, used to add headers that are calculated by the resources.
+     */
+    private HttpServletResponse response;
+
     /**
      * Returns the request version of the API.
      */
@@ -227,4 +245,39 @@ public class Current {
     public BackendLocal getBackend() {
         return backend;
     }
+
+    /**
+     * Returns the number of entities that collections are loaded with per backend query when they are streamed, or
+     * zero if they shouldn't be streamed.
+     */
+    public int getStreamingPageSize() {
+        return streamingPageSize;
+    }
+
+    public void setStreamingPageSize(int streamingPageSize) {
+        this.streamingPageSize = streamingPageSize;
+    }
+
+    /**
+     * Returns the collection returned by the resource whose remaining entities should be loaded while the response is
+     * written, or {@code null} if there is no such collection.
+     */
+    public StreamedCollection getStreamedCollection() {
+        return streamedCollection;
+    }
+
+    public void setStreamedCollection(StreamedCollection streamedCollection) {
+        this.streamedCollection = streamedCollection;
+    }
+
+    /**
+     * Returns the HTTP response of the request, or {@code null} if the request isn't processed by the servlet.
+     */
+    public HttpServletResponse getResponse() {
+        return response;
+    }
+
+    public void setResponse(HttpServletResponse response) {
+        this.response = response;
+    }
 }
@@ -20,6 +20,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.api.restapi.LocalConfig;
 import org.ovirt.engine.core.common.businessentities.aaa.DbUser;
 import org.ovirt.engine.core.common.config.ConfigCommon;
 import org.ovirt.engine.core.common.config.ConfigValues;
@@ -97,6 +98,8 @@ public class CurrentFilter implements Filter {
         current.setPrefix(getPrefix(request));
         current.setPath(getPath(request));
         current.setBackend(backend);
+        current.setStreamingPageSize(LocalConfig.getInstance().getStreamingPageSize());
+        current.setResponse(response);
         String correlationId = getCorrelationId(request);
         current.getParameters().put(CORRELATION_ID_PARAM, correlationId);
         response.setHeader(CORRELATION_ID_HEADER, correlationId);
@@ -0,0 +1,104 @@
+/*
+ * Copyright oVirt Authors
+ * SPDX-License-Identifier: Apache-2.0
+*/
+
+package org.ovirt.engine.api.restapi.invocation;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.ovirt.engine.api.model.BaseResource;
+import org.ovirt.engine.api.model.BaseResources;
+
+/**
+ * A collection returned by a resource that is too large to be kept in memory. The collection object itself contains
+ * only the entities of the first page, and the rest of the pages are loaded and mapped one at a time while the
+ * response is written, by the message body writers, after the entities of the first page. Each page is mapped to a
+ * collection object of the same type.
+ * <p>
+ * When a page fails to load the response has already been committed, so the writers abort it instead of completing
+ * the document, and the client sees a truncated response rather than a shorter collection.
+ */
+public class StreamedCollection {
+    /**
+     * The collection object returned by the resource.
+     */
+    private final BaseResources collection;
+
+    /**
+     * The rest of the pages, each one already mapped to a collection object.
+     */
+    private final Iterator<? extends BaseResources> pages;
+
+    /**
+     * Returns the entities of a collection object.
+     */
+    private final Function<BaseResources, List<? extends BaseResource>> items;
+
+    private StreamedCollection(BaseResources collection,
+            Iterator<? extends BaseResources> pages,
+            Function<BaseResources, List<? extends BaseResource>> items) {
+        this.collection = collection;
+        this.pages = pages;
+        this.items = items;
+    }
+
+    /**
+     * Creates a streamed collection.
+     *
+     * @param collection the collection object returned by the resource, containing the entities of the first page
+     * @param pages the rest of the pages, mapped to collection objects of the same type
+     * @param items returns the entities of a collection object
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends BaseResources> StreamedCollection create(C collection,
+            Iterator<C> pages,
+            Function<C, ? extends List<? extends BaseResource>> items) {
+        return new StreamedCollection(collection, pages, page -> items.apply((C) page));
+    }
+
+    /**
+     * Returns the streamed collection of the current request if the given object is its collection object, otherwise
+     * {@code null}.
+     */
+    public static StreamedCollection of(Object object) {
+        Current current = CurrentManager.get();
+        if (current == null) {
+            return null;
+        }
+        StreamedCollection streamed = current.getStreamedCollection();
+        return streamed != null && streamed.collection == object ? streamed : null;
+    }
+
+    public BaseResources getCollection() {
+        return collection;
+    }
+
+    public boolean hasNextPage() {
+        return pages.hasNext();
+    }
+
+    /**
+     * Loads and maps the next page.
+     *
+     * @throws IOException if the page can't be loaded, so the writers abort the response
+     */
+    public BaseResources nextPage() throws IOException {
+        try {
+            return pages.next();
+        } catch (RuntimeException exception) {
+            throw new IOException("Can't load the next page of the streamed collection, aborting the response.",
+                    exception);
+        }
+    }
+
+    /**
+     * Returns the entities of the given page.
+     */
+    public List<? extends BaseResource> getItems(BaseResources page) {
+        return items.apply(page);
+    }
+}
@@ -5,20 +5,76 @@
 
 package org.ovirt.engine.api.restapi.json;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.Provider;
 
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 
 @Provider
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
 public class JSONProvider extends JacksonJsonProvider {
+
+    /**
+     * The names of the properties that contain the entities of the collection types, indexed by type.
+     */
+    private final Map<Class<?>, String> itemsNames = new ConcurrentHashMap<>();
+
     public JSONProvider() {
         super();
         setMapper(CustomObjectMapperFactory.create());
     }
 
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        StreamedCollection streamed = StreamedCollection.of(value);
+        if (streamed == null) {
+            super.writeTo(value, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+            return;
+        }
+
+        // Streamed collections are written entity by entity:
+        ObjectMapper mapper = locateMapper(type, mediaType);
+        JsonGenerator generator = mapper.getFactory().createGenerator(entityStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // A page that fails to load aborts the response, closing the generator shouldn't complete the document:
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        String itemsName = itemsNames.computeIfAbsent(type, key -> findItemsName(mapper, key));
+        try (JsonGenerator streamedGenerator = new StreamedCollectionGenerator(generator, mapper, streamed, itemsName)) {
+            mapper.writeValue(streamedGenerator, value);
+        }
+    }
+
+    /**
+     * Finds the name of the property of a collection type that contains its entities, which is the only property whose
+     * value is a collection.
+     */
+    private static String findItemsName(ObjectMapper mapper, Class<?> type) {
+        BeanDescription description = mapper.getSerializationConfig().introspect(mapper.constructType(type));
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (Collection.class.isAssignableFrom(property.getRawPrimaryType())) {
+                return property.getName();
+            }
+        }
+        throw new IllegalStateException("Collection type \"" + type.getName() + "\" doesn't contain a list");
+    }
 }
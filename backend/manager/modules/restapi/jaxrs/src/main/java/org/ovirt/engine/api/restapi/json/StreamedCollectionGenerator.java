@@ -0,0 +1,89 @@
+/*
+ * Copyright oVirt Authors
+ * SPDX-License-Identifier: Apache-2.0
+*/
+
+package org.ovirt.engine.api.restapi.json;
+
+import java.io.IOException;
+
+import org.ovirt.engine.api.model.BaseResource;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This generator writes a streamed collection. The collection object is serialized as usual, and right before the end
+ * of the array that contains its entities the rest of the entities are serialized one by one, as they are loaded,
+ * flushing the output after each page, so that only one page of entities is kept in memory. The output is the same
+ * as the one of the complete collection.
+ */
+class StreamedCollectionGenerator extends JsonGeneratorDelegate {
+
+    private final ObjectMapper mapper;
+    private final StreamedCollection streamed;
+
+    /**
+     * The name of the property of the collection object that contains the array of entities.
+     */
+    private final String itemsName;
+
+    /**
+     * Indicates if the entities are being written, so that the flushes done after each of them are ignored.
+     */
+    private boolean streaming;
+
+    StreamedCollectionGenerator(JsonGenerator generator, ObjectMapper mapper, StreamedCollection streamed,
+            String itemsName) {
+        super(generator, false);
+        this.mapper = mapper;
+        this.streamed = streamed;
+        this.itemsName = itemsName;
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        if (!streaming && isItemsArray()) {
+            streaming = true;
+            try {
+                while (true) {
+                    delegate.flush();
+                    if (!streamed.hasNextPage()) {
+                        break;
+                    }
+                    for (BaseResource entity : streamed.getItems(streamed.nextPage())) {
+                        mapper.writeValue(this, entity);
+                    }
+                }
+            } finally {
+                streaming = false;
+            }
+        }
+        super.writeEndArray();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (!streaming) {
+            super.flush();
+        }
+    }
+
+    /**
+     * Checks if the array being written is the array of entities of the collection object, which is the value of a
+     * property of the root object.
+     */
+    private boolean isItemsArray() {
+        JsonStreamContext context = getOutputContext();
+        JsonStreamContext object = context.getParent();
+        return context.inArray()
+                && object != null
+                && object.inObject()
+                && object.getParent() != null
+                && object.getParent().inRoot()
+                && itemsName.equals(object.getCurrentName());
+    }
+}
@@ -4,14 +4,21 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import java.net.URI;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.Function;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.Response;
 
 import org.ovirt.engine.api.model.ActionableResource;
 import org.ovirt.engine.api.model.BaseResource;
+import org.ovirt.engine.api.model.BaseResources;
 import org.ovirt.engine.api.model.CreationStatus;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
 import org.ovirt.engine.api.restapi.util.ExpectationHelper;
 import org.ovirt.engine.api.restapi.util.LinkHelper;
 import org.ovirt.engine.api.restapi.util.ParametersHelper;
@@ -24,6 +31,7 @@ import org.ovirt.engine.core.common.interfaces.SearchType;
 import org.ovirt.engine.core.common.queries.QueryParametersBase;
 import org.ovirt.engine.core.common.queries.QueryType;
 import org.ovirt.engine.core.common.queries.SearchParameters;
+import org.ovirt.engine.core.utils.SearchCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +42,13 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
     private static final String CREATION_STATUS_REL = "creation_status";
     public static final String FROM_CONSTRAINT_PARAMETER = "from";
     public static final String CASE_SENSITIVE_CONSTRAINT_PARAMETER = "case_sensitive";
+    public static final String CURSOR_CONSTRAINT_PARAMETER = "cursor";
+    private static final String NEXT_PAGE_REL = "next";
+    private static final String SORTBY = "sortby";
+    /**
+     * The searches whose default order is the order of the keyset, the only ones that can be streamed.
+     */
+    private static final Set<SearchType> KEYSET_ORDERED_SEARCHES = EnumSet.of(SearchType.AuditLog);
     private static final Logger log = LoggerFactory.getLogger(AbstractBackendCollectionResource.class);
 
     protected AbstractBackendCollectionResource(Class<R> modelType, Class<Q> entityType) {
@@ -45,9 +60,13 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
     }
 
     protected List<Q> getBackendCollection(SearchType searchType, String constraint) {
-        return getBackendCollection(entityType,
-                QueryType.Search,
-                getSearchParameters(searchType, constraint));
+        SearchParameters searchParams = getSearchParameters(searchType, constraint);
+        List<Q> results = getBackendCollection(entityType, QueryType.Search, searchParams);
+        if (searchParams.getSearchAfter() != null && !results.isEmpty()
+                && results.size() >= searchParams.getMaxCount()) {
+            addNextPageLink(results.get(results.size() - 1));
+        }
+        return results;
     }
 
     private SearchParameters getSearchParameters(SearchType searchType, String constraint) {
@@ -55,19 +74,140 @@ public abstract class AbstractBackendCollectionResource<R extends BaseResource,
         boolean caseSensitive = ParametersHelper.getBooleanParameter(httpHeaders, uriInfo, CASE_SENSITIVE_CONSTRAINT_PARAMETER, true, false);
         int from = ParametersHelper.getIntegerParameter(httpHeaders, uriInfo, FROM_CONSTRAINT_PARAMETER, -1, -1);
         int max = ParametersHelper.getIntegerParameter(httpHeaders, uriInfo, MAX, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        String cursor = ParametersHelper.getParameter(httpHeaders, uriInfo, CURSOR_CONSTRAINT_PARAMETER);
 
         searchParams.setCaseSensitive(caseSensitive);
         if (from != -1) {
             searchParams.setSearchFrom(from);
         }
+        searchParams.setSearchAfter(cursor);
         searchParams.setMaxCount(max);
         return searchParams;
     }
 
+    /**
+     * When the results of a search are paged with a cursor, adds to the response the link to the next page, which is
+     * the same request with the cursor pointing after the last result returned.
+     */
+    private void addNextPageLink(Q last) {
+        HttpServletResponse response = getCurrent().getResponse();
+        if (response != null) {
+            URI next = uriInfo.getRequestUriBuilder()
+                    .replaceQueryParam(CURSOR_CONSTRAINT_PARAMETER, SearchCursor.encode(getId(last)))
+                    .build();
+            response.addHeader("Link", String.format("<%s>; rel=%s", next, NEXT_PAGE_REL));
+        }
+    }
+
     protected List<Q> getBackendCollection(QueryType query, QueryParametersBase queryParams) {
         return getBackendCollection(entityType, query, queryParams);
     }
 
+    /**
+     * Runs the search query and maps its results to a collection. When streaming is enabled and the results don't fit
+     * in one page, only the first page is loaded and mapped here, and the rest of the pages are loaded and mapped one at
+     * a time while the collection is written to the response, so that the complete list of results is never kept in
+     * memory.
+     * <p>
+     * The pages are loaded with a keyset cursor, so the results are sorted by primary key. Only searches whose default
+     * order is already by primary key, currently only the one of the events, are streamed, so the order of the results
+     * doesn't depend on whether they are streamed. The results of other searches are always loaded at once.
+     *
+     * @param searchType the type of the search
+     * @param mapper maps a list of results, the complete list or a page, to a collection
+     * @param items returns the list of entities of a mapped collection
+     * @return the mapped collection, containing only the first page of results when they are streamed
+     */
+    protected <C extends BaseResources> C getStreamedCollection(SearchType searchType,
+            Function<List<Q>, C> mapper,
+            Function<C, List<R>> items) {
+        String constraint = QueryHelper.getConstraint(httpHeaders, uriInfo, "", modelType);
+        int pageSize = getCurrent().getStreamingPageSize();
+        int max = ParametersHelper.getIntegerParameter(httpHeaders, uriInfo, MAX, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        if (pageSize <= 0 || max <= pageSize || !KEYSET_ORDERED_SEARCHES.contains(searchType)
+                || !isStreamable(constraint)) {
+            return mapper.apply(getBackendCollection(searchType, constraint));
+        }
+
+        SearchPages pages = new SearchPages(getSearchParameters(searchType, constraint), pageSize, max);
+        C collection = mapper.apply(pages.next());
+        if (pages.hasNext()) {
+            Iterator<C> mappedPages = new Iterator<C>() {
+                @Override
+                public boolean hasNext() {
+                    return pages.hasNext();
+                }
+
+                @Override
+                public C next() {
+                    return mapper.apply(pages.next());
+                }
+            };
+            getCurrent().setStreamedCollection(StreamedCollection.create(collection, mappedPages, items));
+        }
+        return collection;
+    }
+
+    /**
+     * Results can't be streamed if links should be followed in them, as that is done on the complete collection, if
+     * the caller explicitly asked for a page of the results, either with the {@code page} clause or with a cursor, or
+     * if the caller asked for an order other than the order of the keyset.
+     */
+    private boolean isStreamable(String constraint) {
+        String follow = ParametersHelper.getParameter(httpHeaders, uriInfo, FOLLOW);
+        String cursor = ParametersHelper.getParameter(httpHeaders, uriInfo, CURSOR_CONSTRAINT_PARAMETER);
+        return (follow == null || follow.isEmpty())
+                && QueryHelper.parsePageNum(constraint) == null
+                && !constraint.toLowerCase().contains(SORTBY)
+                && cursor == null;
+    }
+
+    /**
+     * Loads the results of a search one page at a time, each page starting after the keyset cursor of the last result
+     * of the previous one, until a page isn't full or the maximum number of results is reached.
+     */
+    private class SearchPages implements Iterator<List<Q>> {
+        private final SearchParameters parameters;
+        private final int pageSize;
+        private int remaining;
+        private String cursor = "";
+        private boolean last;
+
+        SearchPages(SearchParameters parameters, int pageSize, int max) {
+            this.parameters = parameters;
+            this.pageSize = pageSize;
+            this.remaining = max;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !last;
+        }
+
+        @Override
+        public List<Q> next() {
+            if (last) {
+                throw new NoSuchElementException();
+            }
+            SearchParameters pageParameters =
+                    new SearchParameters(parameters.getSearchPattern(), parameters.getSearchTypeValue());
+            pageParameters.setCaseSensitive(parameters.getCaseSensitive());
+            pageParameters.setSearchFrom(parameters.getSearchFrom());
+            pageParameters.setSearchAfter(cursor);
+            pageParameters.setMaxCount(pageSize);
+            List<Q> results = getBackendCollection(entityType, QueryType.Search, pageParameters);
+            if (results.size() >= remaining) {
+                results = results.subList(0, remaining);
+            }
+            remaining -= results.size();
+            last = results.size() < pageSize || remaining == 0;
+            if (!results.isEmpty()) {
+                cursor = SearchCursor.encode(getId(results.get(results.size() - 1)));
+            }
+            return results;
+        }
+    }
+
     /**
      * get the entities according to the filter and intersect them with those resulted from running the search query
      */
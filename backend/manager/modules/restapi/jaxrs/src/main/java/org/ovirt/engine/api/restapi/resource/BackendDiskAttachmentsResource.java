@@ -38,15 +38,23 @@ public class BackendDiskAttachmentsResource
         implements DiskAttachmentsResource {
 
     private Guid vmId;
+    private List<DiskVmElement> diskVmElements;
 
     public BackendDiskAttachmentsResource(Guid vmId) {
         super(DiskAttachment.class, org.ovirt.engine.core.common.businessentities.storage.DiskVmElement.class);
         this.vmId = vmId;
     }
 
+    protected BackendDiskAttachmentsResource(Guid vmId, List<DiskVmElement> diskVmElements) {
+        this(vmId);
+        this.diskVmElements = diskVmElements;
+    }
+
     @Override
     public DiskAttachments list() {
-        return mapCollection(getBackendCollection(QueryType.GetDiskVmElementsByVmId, new IdQueryParameters(vmId)));
+        return diskVmElements == null ?
+                mapCollection(getBackendCollection(QueryType.GetDiskVmElementsByVmId, new IdQueryParameters(vmId)))
+                : mapCollection(diskVmElements);
     }
 
     @Override
@@ -117,6 +117,7 @@ public class BackendDisksResource
         //Even when filter=false the stored procedure GetAllDisksWithSnapshots is needed because of the
         //snapshot aggregation which it provides, so search alone is not enough. This is why in this case
         //the scenarios of filter=true and filter=false are not separated as they are in many other places
+        //and the disks can't be streamed a page of search results at a time
         return mapCollection(getBackendCollection(QueryType.GetAllDisksWithSnapshots, new QueryParametersBase(), SearchType.Disk));
     }
 
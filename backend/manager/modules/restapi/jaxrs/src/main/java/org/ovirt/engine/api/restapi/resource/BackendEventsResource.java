@@ -30,7 +30,12 @@ public class BackendEventsResource
 
     @Override
     public Events list() {
-        return mapCollection(getBackendCollection());
+        if (isFiltered()) {
+            return mapCollection(getBackendCollection(QueryType.GetAllEventMessages, new QueryParametersBase(),
+                    SearchType.AuditLog));
+        } else {
+            return getStreamedCollection(SearchType.AuditLog, this::mapCollection, Events::getEvents);
+        }
     }
 
     private Events mapCollection(List<AuditLog> entities) {
@@ -51,14 +56,6 @@ public class BackendEventsResource
         return inject(new BackendEventResource(id));
     }
 
-    private List<AuditLog> getBackendCollection() {
-        if (isFiltered()) {
-            return getBackendCollection(QueryType.GetAllEventMessages, new QueryParametersBase(), SearchType.AuditLog);
-        } else {
-            return getBackendCollection(SearchType.AuditLog);
-        }
-    }
-
     @Override
     public Response add(Event event) {
         validateParameters(event, "origin", "severity", "customId", "description");
@@ -97,6 +97,7 @@ public class BackendHostsResource extends AbstractBackendCollectionResource<Host
             return mapCollection(getBackendCollection(QueryType.GetValidHostsForVms, params));
         }
 
+        // Not streamed, the hosts are sorted by name and the streamed pages are sorted by id
         return mapCollection(getBackendCollection(SearchType.VDS));
     }
 
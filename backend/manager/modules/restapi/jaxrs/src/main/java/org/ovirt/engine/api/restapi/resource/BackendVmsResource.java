@@ -77,8 +77,10 @@ import org.ovirt.engine.core.common.businessentities.VmRngDevice;
 import org.ovirt.engine.core.common.businessentities.VmStatic;
 import org.ovirt.engine.core.common.businessentities.VmTemplate;
 import org.ovirt.engine.core.common.businessentities.VmWatchdog;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
 import org.ovirt.engine.core.common.businessentities.storage.BaseDisk;
 import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.common.businessentities.storage.DiskVmElement;
 import org.ovirt.engine.core.common.interfaces.SearchType;
 import org.ovirt.engine.core.common.osinfo.OsRepository;
 import org.ovirt.engine.core.common.queries.GetFilteredAndSortedParameters;
@@ -114,6 +116,8 @@ public class BackendVmsResource extends
     private static final String HOST_DEVICES = "host_devices";
     private static final String WATCHDOGS = "watchdogs";
     private static final String SNAPSHOTS = "snapshots";
+    private static final String NICS = "nics";
+    private static final String DISK_ATTACHMENTS = "disk_attachments";
 
     private Map<String, VM> vmIdToVm = Collections.emptyMap();
 
@@ -130,6 +134,7 @@ public class BackendVmsResource extends
                 return mapCollection(getBackendCollection(QueryType.GetAllVms, new QueryParametersBase(), SearchType.VM));
             }
         } else {
+            // Not streamed, the VMs are sorted by name and the streamed pages are sorted by id
             return mapCollection(getBackendCollection(SearchType.VM));
         }
     }
@@ -794,6 +799,42 @@ public class BackendVmsResource extends
             vms.getVms().forEach(this::setSnapshots);
             node.setFollowed(true);
         });
+        // the nics and the disk attachments of all the VMs are fetched at once, instead of per VM by the link follower
+        findNics(linksTree).ifPresent(node -> {
+            Vms vms = (Vms) entity;
+            Map<Guid, List<VmNetworkInterface>> interfaces =
+                    this.<VmNetworkInterface> getAllForVms(vms, QueryType.GetVmInterfacesByVmIds).stream()
+                            .collect(Collectors.groupingBy(VmNetworkInterface::getVmId));
+            vms.getVms().forEach(vm -> setNics(vm, interfaces.getOrDefault(asGuid(vm.getId()), Collections.emptyList())));
+            node.setFollowed(true);
+        });
+        findDiskAttachments(linksTree).ifPresent(node -> {
+            Vms vms = (Vms) entity;
+            Map<Guid, List<DiskVmElement>> diskVmElements =
+                    this.<DiskVmElement> getAllForVms(vms, QueryType.GetDiskVmElementsByVmIds).stream()
+                            .collect(Collectors.groupingBy(DiskVmElement::getVmId));
+            vms.getVms().forEach(vm -> setDiskAttachments(vm,
+                    diskVmElements.getOrDefault(asGuid(vm.getId()), Collections.emptyList())));
+            node.setFollowed(true);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getAllForVms(Vms vms, QueryType queryType) {
+        List<Guid> vmIds = vms.getVms().stream().map(Vm::getId).map(this::asGuid).collect(Collectors.toList());
+        return getEntity(List.class,
+                queryType,
+                new IdsQueryParameters(vmIds),
+                queryType.name(),
+                true);
+    }
+
+    private void setNics(Vm vm, List<VmNetworkInterface> interfaces) {
+        vm.setNics(inject(new BackendVmNicsResource(asGuid(vm.getId()), interfaces)).list());
+    }
+
+    private void setDiskAttachments(Vm vm, List<DiskVmElement> diskVmElements) {
+        vm.setDiskAttachments(inject(new BackendDiskAttachmentsResource(asGuid(vm.getId()), diskVmElements)).list());
     }
 
     private List<VmWatchdog> getWatchdogs(Vms vms) {
@@ -856,6 +897,14 @@ public class BackendVmsResource extends
         return findNode(linksTree, SNAPSHOTS);
     }
 
+    private Optional<LinksTreeNode> findNics(LinksTreeNode linksTree) {
+        return findNode(linksTree, NICS);
+    }
+
+    private Optional<LinksTreeNode> findDiskAttachments(LinksTreeNode linksTree) {
+        return findNode(linksTree, DISK_ATTACHMENTS);
+    }
+
     protected InstanceType lookupInstance(Template template) {
         return getEntity(InstanceType.class,
                 QueryType.GetInstanceType,
@@ -2,10 +2,17 @@ package org.ovirt.engine.api.restapi.resource.utils;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.ws.rs.GET;
 
@@ -117,7 +124,8 @@ public class LinkFollower {
      *         qos
      *
      * This method will fetch the vnic-profiles of nic11, nic12, nic13, nic21, nic22, nic23,
-     * set them in the respected Nic objects, and store them in a list.
+     * set them in the respected Nic objects, and store them in a list. A link that is shared by
+     * several entities (e.g: the same vnic-profile of several nics) is fetched only once.
      *
      * Then the method will recursively run on the list of vnic-profiles with the sub-tree
      *
@@ -128,26 +136,26 @@ public class LinkFollower {
      *    qos
      */
     private void followLinks(List<ActionableResource> entities, LinksTreeNode node) {
+        Map<String, ActionableResource> fetched = new HashMap<>();
+        List<ActionableResource> nextStepEntities = new ArrayList<>();
         for (ActionableResource entity : entities) {
-            followLink(entity, node);
+            if (EntityHelper.isCollection(entity)) {
+                nextStepEntities.addAll(fetchData((BaseResources)entity, node, fetched));
+            } else {
+                nextStepEntities.add(fetchData((BaseResource)entity, node, fetched));
+            }
+        }
+        //an entity fetched once for several entities should have its links followed once.
+        List<ActionableResource> distinctEntities = distinct(nextStepEntities);
+        for (LinksTreeNode child : node.getChildren()) {
+            followLinks(distinctEntities, child);
         }
         node.setFollowed(true);
     }
 
-    /**
-     * For the provided business entity (whether single (e.g: Nic) or collection (e.g: Nics) type,
-     * follow all links in the provided links-tree, recursively.
-     */
-    private void followLink(ActionableResource entity, LinksTreeNode node) {
-        List<ActionableResource> nextStepEntities = new LinkedList<>();
-        if (EntityHelper.isCollection(entity)) {
-            nextStepEntities.addAll(fetchData((BaseResources)entity, node));
-        } else {
-            nextStepEntities.add(fetchData((BaseResource)entity, node));
-        }
-        for (LinksTreeNode child : node.getChildren()) {
-            followLinks(nextStepEntities, child);
-        }
+    private List<ActionableResource> distinct(List<ActionableResource> entities) {
+        Set<ActionableResource> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        return entities.stream().filter(seen::add).collect(Collectors.toList());
     }
 
     /**
@@ -169,7 +177,9 @@ public class LinkFollower {
      * are purposely ignored.
      */
     @SuppressWarnings("unchecked")
-    private List<ActionableResource> fetchData(BaseResources collectionEntity, LinksTreeNode node) {
+    private List<ActionableResource> fetchData(BaseResources collectionEntity,
+            LinksTreeNode node,
+            Map<String, ActionableResource> fetched) {
         List<ActionableResource> results = new LinkedList<>();
         Method collectionGetter = EntityHelper.getCollectionGetter(collectionEntity);
         try {
@@ -178,7 +188,7 @@ public class LinkFollower {
             List<BaseResource> entities = (List<BaseResource>)collectionGetter.invoke(collectionEntity);
             //for each entity in the list, fetch link data.
             for (BaseResource entity : entities) {
-                results.add(fetchData(entity, node));
+                results.add(fetchData(entity, node, fetched));
             }
         } catch (Exception e) {
             throw new IllegalStateException("Problem following '" + node.getElement() + "' link in " + collectionEntity.getClass().getSimpleName() + " entity.", e);
@@ -196,10 +206,13 @@ public class LinkFollower {
      *        networkfilter
      *        qos
      *
-     * This method fetches all vnicprofiles of this nic object and sets them in it. The method
-     * then returns the fetched vnic-profiles. The child links networkfilter, qos are purposely ignored.
+     * This method fetches all vnicprofiles of this nic object and sets them in it, unless they were
+     * already fetched for another entity. The method then returns the fetched vnic-profiles. The
+     * child links networkfilter, qos are purposely ignored.
      */
-    private ActionableResource fetchData(BaseResource entity, LinksTreeNode link) {
+    private ActionableResource fetchData(BaseResource entity,
+            LinksTreeNode link,
+            Map<String, ActionableResource> fetched) {
         try {
             String element = underscoreToCamelCase(link.getElement());
             if (link.isFollowed()) {
@@ -207,7 +220,8 @@ public class LinkFollower {
                 return (ActionableResource)getter.invoke(entity);
             } else {
                 String href = getHref((BaseResource)entity, link.getElement());
-                ActionableResource result = fetch(href);
+                ActionableResource result = fetched.containsKey(href) ? fetched.get(href) : fetch(href);
+                fetched.put(href, result);
                 Method setter = ReflectionHelper.getSetter(entity, element);
                 setter.invoke(entity, result);
                 return result;
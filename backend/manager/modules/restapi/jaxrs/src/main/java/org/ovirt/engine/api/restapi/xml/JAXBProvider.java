@@ -5,6 +5,7 @@
 
 package org.ovirt.engine.api.restapi.xml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -12,6 +13,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,7 +36,9 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import org.ovirt.engine.api.model.Api;
+import org.ovirt.engine.api.model.BaseResources;
 import org.ovirt.engine.api.model.ObjectFactory;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -186,6 +190,23 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
     public void writeTo(Object object, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
             MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
             throws IOException, WebApplicationException {
+        JAXBElement<Object> element = createElement(type, object);
+
+        // Streamed collections are written page by page:
+        StreamedCollection streamed = StreamedCollection.of(object);
+        if (streamed != null) {
+            writeStreamed(element, streamed, entityStream);
+            return;
+        }
+
+        // Marshal the element:
+        marshal(element, entityStream);
+    }
+
+    /**
+     * Creates the JAXB element that wraps the given object, with the tag that corresponds to its type.
+     */
+    private JAXBElement<Object> createElement(Class<?> type, Object object) throws IOException {
         // Find the factory method used to create the JAXB element with the right tag:
         Method factoryMethod = factoryMethods.get(type);
         if (factoryMethod == null) {
@@ -193,21 +214,103 @@ public class JAXBProvider implements MessageBodyReader<Object>, MessageBodyWrite
         }
 
         // Invoke the method to create the JAXB element:
-        JAXBElement<Object> element;
         try {
-            element = (JAXBElement<Object>) factoryMethod.invoke(objectFactory, object);
+            return (JAXBElement<Object>) factoryMethod.invoke(objectFactory, object);
         } catch(IllegalAccessException|InvocationTargetException exception) {
             throw new IOException("Error invoking factory method for type \"" +  type.getName() + "\".", exception);
         }
+    }
 
-        // Marshal the element:
+    private void marshal(JAXBElement<Object> element, OutputStream stream) throws IOException {
         try {
             Marshaller marshaller = jaxbContext.createMarshaller();
             marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
             marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-            marshaller.marshal(element, entityStream);
+            marshaller.marshal(element, stream);
         } catch(JAXBException exception) {
-            throw new IOException("Can't marshall JAXB element of type \"" + type.getName() + "\".", exception);
+            throw new IOException("Can't marshall JAXB element of type \"" + element.getDeclaredType().getName() +
+                    "\".", exception);
+        }
+    }
+
+    private byte[] marshal(JAXBElement<Object> element) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        marshal(element, buffer);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Writes a streamed collection. The collection object is marshalled first, and it is written up to the end of its
+     * root element. Then each page is marshalled on its own, as it is loaded, and only the entities inside its root
+     * element are written, flushing the output after each page, so that only one page of entities is kept in memory.
+     * The end of the root element of the collection object is written last. As all the parts are written by the same
+     * marshaller, the output is the same as the one of the complete collection.
+     * <p>
+     * If a page fails to load the end of the root element isn't written, so the truncated document isn't well formed.
+     */
+    private void writeStreamed(JAXBElement<Object> element, StreamedCollection streamed, OutputStream entityStream)
+            throws IOException {
+        String name = element.getName().getLocalPart();
+        byte[] startTag = ("<" + name).getBytes(StandardCharsets.UTF_8);
+        byte[] endTag = ("\n</" + name + ">").getBytes(StandardCharsets.UTF_8);
+
+        byte[] document = marshal(element);
+        int tail = lastIndexOf(document, endTag);
+        if (tail < 0) {
+            // The root element is empty, there is nothing to add to it:
+            entityStream.write(document);
+            return;
+        }
+        entityStream.write(document, 0, tail);
+        while (true) {
+            entityStream.flush();
+            if (!streamed.hasNextPage()) {
+                break;
+            }
+            BaseResources page = streamed.nextPage();
+            byte[] pageDocument = marshal(createElement(page.getClass(), page));
+            int end = lastIndexOf(pageDocument, endTag);
+            if (end >= 0) {
+                int start = indexOf(pageDocument, '>', indexOf(pageDocument, startTag)) + 1;
+                entityStream.write(pageDocument, start, end - start);
+            }
         }
+        entityStream.write(document, tail, document.length - tail);
+    }
+
+    private static int indexOf(byte[] data, char c, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            if (matches(data, i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] data, byte[] pattern) {
+        for (int i = data.length - pattern.length; i >= 0; i--) {
+            if (matches(data, i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] data, int offset, byte[] pattern) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (data[offset + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 }
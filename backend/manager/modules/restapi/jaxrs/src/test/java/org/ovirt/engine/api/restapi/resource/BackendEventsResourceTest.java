@@ -1,10 +1,17 @@
 package org.ovirt.engine.api.restapi.resource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -12,11 +19,15 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.ovirt.engine.api.model.Action;
 import org.ovirt.engine.api.model.Event;
+import org.ovirt.engine.api.model.Events;
 import org.ovirt.engine.api.model.LogSeverity;
+import org.ovirt.engine.api.restapi.invocation.CurrentManager;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
 import org.ovirt.engine.core.common.AuditLogSeverity;
 import org.ovirt.engine.core.common.AuditLogType;
 import org.ovirt.engine.core.common.action.ActionParametersBase;
@@ -25,7 +36,10 @@ import org.ovirt.engine.core.common.action.AddExternalEventParameters;
 import org.ovirt.engine.core.common.businessentities.AuditLog;
 import org.ovirt.engine.core.common.interfaces.SearchType;
 import org.ovirt.engine.core.common.queries.GetAuditLogByIdParameters;
+import org.ovirt.engine.core.common.queries.QueryReturnValue;
 import org.ovirt.engine.core.common.queries.QueryType;
+import org.ovirt.engine.core.common.queries.SearchParameters;
+import org.ovirt.engine.core.utils.SearchCursor;
 
 @MockitoSettings(strictness = Strictness.LENIENT)
 public class BackendEventsResourceTest extends AbstractBackendCollectionResourceTest<Event, AuditLog, BackendEventsResource> {
@@ -84,6 +98,7 @@ public class BackendEventsResourceTest extends AbstractBackendCollectionResource
     protected org.ovirt.engine.core.common.businessentities.AuditLog getEntity(int index) {
         AuditLog auditLogMock = mock(org.ovirt.engine.core.common.businessentities.AuditLog.class);
         when(auditLogMock.getAuditLogId()).thenReturn(LOG_IDS[index]);
+        when(auditLogMock.getQueryableId()).thenReturn(LOG_IDS[index]);
         when(auditLogMock.getSeverity()).thenReturn(AuditLogSeverity.ALERT);
         when(auditLogMock.getMessage()).thenReturn(MESSAGES[index]);
         when(auditLogMock.getOrigin()).thenReturn(ORIGIN_NAMES[index]);
@@ -103,6 +118,62 @@ public class BackendEventsResourceTest extends AbstractBackendCollectionResource
         verifyCollection(getCollection());
     }
 
+    @Test
+    public void testListStreamed() throws Exception {
+        UriInfo uriInfo = setUpUriExpectations(null);
+        CurrentManager.get().setStreamingPageSize(2);
+        setUpPageExpectations("", 0, 1);
+        setUpPageExpectations(SearchCursor.encode(LOG_IDS[1]), 2);
+        collection.setUriInfo(uriInfo);
+
+        Events events = collection.list();
+        assertEquals(2, events.getEvents().size());
+        verifyModel(events.getEvents().get(0), 0);
+        verifyModel(events.getEvents().get(1), 1);
+
+        StreamedCollection streamed = CurrentManager.get().getStreamedCollection();
+        assertSame(events, streamed.getCollection());
+        assertTrue(streamed.hasNextPage());
+        Events page = (Events) streamed.nextPage();
+        assertEquals(1, page.getEvents().size());
+        verifyModel(page.getEvents().get(0), 2);
+        assertFalse(streamed.hasNextPage());
+    }
+
+    @Test
+    public void testListStreamedFailedPage() throws Exception {
+        UriInfo uriInfo = setUpUriExpectations(null);
+        CurrentManager.get().setStreamingPageSize(2);
+        setUpPageExpectations("", 0, 1);
+        when(backend.runQuery(eq(QueryType.Search), argThat(searchAfter(SearchCursor.encode(LOG_IDS[1])))))
+                .thenThrow(new IllegalStateException("connection lost"));
+        collection.setUriInfo(uriInfo);
+
+        collection.list();
+
+        StreamedCollection streamed = CurrentManager.get().getStreamedCollection();
+        assertTrue(streamed.hasNextPage());
+        assertThrows(IOException.class, streamed::nextPage);
+    }
+
+    private void setUpPageExpectations(String cursor, int... indexes) {
+        List<AuditLog> entities = new ArrayList<>();
+        for (int index : indexes) {
+            entities.add(getEntity(index));
+        }
+        QueryReturnValue queryResult = new QueryReturnValue();
+        queryResult.setSucceeded(true);
+        queryResult.setReturnValue(entities);
+        when(backend.runQuery(eq(QueryType.Search), argThat(searchAfter(cursor)))).thenReturn(queryResult);
+    }
+
+    private static ArgumentMatcher<SearchParameters> searchAfter(String cursor) {
+        return params -> params != null
+                && "Events : ".equals(params.getSearchPattern())
+                && cursor.equals(params.getSearchAfter())
+                && params.getMaxCount() == 2;
+    }
+
     @Test
     public void testUndelete() {
 
@@ -1,6 +1,7 @@
 package org.ovirt.engine.api.restapi.resource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -21,6 +22,7 @@ import org.mockito.quality.Strictness;
 import org.ovirt.engine.api.model.Cluster;
 import org.ovirt.engine.api.model.Host;
 import org.ovirt.engine.api.model.HostStatus;
+import org.ovirt.engine.api.restapi.invocation.CurrentManager;
 import org.ovirt.engine.core.common.action.ActionType;
 import org.ovirt.engine.core.common.action.hostdeploy.AddVdsActionParameters;
 import org.ovirt.engine.core.common.businessentities.VDS;
@@ -62,6 +64,17 @@ public class BackendHostsResourceTest
         verifyCollection(getCollection());
     }
 
+    @Test
+    public void testListNotStreamed() throws Exception {
+        UriInfo uriInfo = setUpUriExpectations(null);
+        CurrentManager.get().setStreamingPageSize(1);
+
+        setUpQueryExpectations("");
+        collection.setUriInfo(uriInfo);
+        verifyCollection(getCollection());
+        assertNull(CurrentManager.get().getStreamedCollection());
+    }
+
     @Test
     @Override
     public void testList() throws Exception {
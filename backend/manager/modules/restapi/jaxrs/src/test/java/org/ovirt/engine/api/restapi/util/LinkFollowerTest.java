@@ -5,19 +5,26 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.ovirt.engine.api.model.ActionableResource;
+import org.ovirt.engine.api.model.Cluster;
 import org.ovirt.engine.api.model.Disk;
 import org.ovirt.engine.api.model.DiskAttachment;
 import org.ovirt.engine.api.model.DiskAttachments;
 import org.ovirt.engine.api.model.Link;
 import org.ovirt.engine.api.model.Nic;
 import org.ovirt.engine.api.model.Nics;
+import org.ovirt.engine.api.model.Template;
 import org.ovirt.engine.api.model.Vm;
+import org.ovirt.engine.api.model.Vms;
 import org.ovirt.engine.api.restapi.resource.BackendVmNicsResource;
 import org.ovirt.engine.api.restapi.resource.ResourceLocator;
 import org.ovirt.engine.api.restapi.resource.utils.LinkFollower;
@@ -28,6 +35,8 @@ public class LinkFollowerTest {
 
     private LinkFollower linkFollower;
 
+    private List<String> fetchedHrefs = new ArrayList<>();
+
     @Mock
     private ResourceLocator resourceLocator;
 
@@ -38,6 +47,7 @@ public class LinkFollowerTest {
         linkFollower = new LinkFollower(resourceLocator) {
             //override fetch() since it requires a real environment and would crash tests.
             protected ActionableResource fetch(String href) {
+                fetchedHrefs.add(href);
                 if (href.equals("/ovirt-engine/api/vms/63978315-2d17-4e67-b393-2ea60a8aeacb/nics")){
                     return createNics();
                 } else if (href.equals("/ovirt-engine/api/vms/63978315-2d17-4e67-b393-2ea60a8aeacb/diskattachments")) {
@@ -48,6 +58,12 @@ public class LinkFollowerTest {
                     return new Disk();
                 } else if (href.equals("/ovirt-engine/api/disks/ccc")) {
                     return new Disk();
+                } else if (href.equals("/ovirt-engine/api/templates/ddd")) {
+                    Template template = new Template();
+                    template.setCluster(createCluster());
+                    return template;
+                } else if (href.equals("/ovirt-engine/api/clusters/eee")) {
+                    return new Cluster();
                 } else {
                     return null;
                 }
@@ -75,6 +91,36 @@ public class LinkFollowerTest {
         assertNotNull(vm.getDiskAttachments().getDiskAttachments().get(2).getDisk());
     }
 
+    @Test
+    public void testFollowSharedLinkOnce() {
+        LinksTreeNode linksTree = linkFollower.createLinksTree(Vms.class, "template.cluster");
+        Vms vms = new Vms();
+        vms.getVms().add(createVmWithTemplate());
+        vms.getVms().add(createVmWithTemplate());
+        linkFollower.followLinks(vms, linksTree);
+        assertEquals(Arrays.asList("/ovirt-engine/api/templates/ddd", "/ovirt-engine/api/clusters/eee"), fetchedHrefs);
+        for (Vm vm : vms.getVms()) {
+            assertNotNull(vm.getTemplate());
+            assertNotNull(vm.getTemplate().getCluster());
+        }
+    }
+
+    private Vm createVmWithTemplate() {
+        Vm vm = new Vm();
+        Template template = new Template();
+        template.setId("ddd");
+        template.setHref("/ovirt-engine/api/templates/ddd");
+        vm.setTemplate(template);
+        return vm;
+    }
+
+    private Cluster createCluster() {
+        Cluster cluster = new Cluster();
+        cluster.setId("eee");
+        cluster.setHref("/ovirt-engine/api/clusters/eee");
+        return cluster;
+    }
+
     private Vm createVm() {
         Vm vm = new Vm();
         //add an irrelevant link
@@ -0,0 +1,125 @@
+/*
+ * Copyright oVirt Authors
+ * SPDX-License-Identifier: Apache-2.0
+*/
+
+package org.ovirt.engine.api.restapi.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.api.model.Event;
+import org.ovirt.engine.api.model.Events;
+import org.ovirt.engine.api.model.LogSeverity;
+import org.ovirt.engine.api.model.Vm;
+import org.ovirt.engine.api.restapi.invocation.Current;
+import org.ovirt.engine.api.restapi.invocation.CurrentManager;
+import org.ovirt.engine.api.restapi.invocation.StreamedCollection;
+
+public class JAXBProviderTest {
+
+    private final JAXBProvider provider = new JAXBProvider();
+
+    @BeforeEach
+    public void setUp() {
+        CurrentManager.put(new Current());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CurrentManager.remove();
+    }
+
+    @Test
+    public void testStreamedIsSameAsBuffered() throws Exception {
+        String buffered = write(getEvents(0, 5));
+
+        String streamed = writeStreamed(getEvents(0, 2), Arrays.asList(getEvents(2, 4), getEvents(4, 5)).iterator());
+
+        assertEquals(buffered, streamed);
+    }
+
+    @Test
+    public void testStreamedWithEmptyPageIsSameAsBuffered() throws Exception {
+        String buffered = write(getEvents(0, 2));
+
+        String streamed = writeStreamed(getEvents(0, 2), Collections.singletonList(getEvents(2, 2)).iterator());
+
+        assertEquals(buffered, streamed);
+    }
+
+    @Test
+    public void testFailedPageLeavesDocumentIncomplete() throws Exception {
+        String buffered = write(getEvents(0, 4));
+        Iterator<Events> failing = new Iterator<Events>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Events next() {
+                throw new IllegalStateException("connection lost");
+            }
+        };
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertThrows(IOException.class, () -> writeStreamed(getEvents(0, 2), failing, output));
+
+        String partial = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(partial.contains("event1"));
+        assertTrue(buffered.startsWith(partial));
+        assertTrue(partial.length() < buffered.length());
+        assertFalse(partial.contains("</events>"));
+    }
+
+    private String write(Events events) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        provider.writeTo(events, Events.class, Events.class, new Annotation[0], MediaType.APPLICATION_XML_TYPE,
+                new MultivaluedHashMap<>(), output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String writeStreamed(Events first, Iterator<Events> pages) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writeStreamed(first, pages, output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private void writeStreamed(Events first, Iterator<Events> pages, ByteArrayOutputStream output)
+            throws IOException {
+        CurrentManager.get().setStreamedCollection(StreamedCollection.create(first, pages, Events::getEvents));
+        provider.writeTo(first, Events.class, Events.class, new Annotation[0], MediaType.APPLICATION_XML_TYPE,
+                new MultivaluedHashMap<>(), output);
+    }
+
+    private static Events getEvents(int from, int to) {
+        Events events = new Events();
+        for (int i = from; i < to; i++) {
+            Event event = new Event();
+            event.setId(String.valueOf(i));
+            event.setDescription("event" + i + " <&>");
+            event.setSeverity(LogSeverity.NORMAL);
+            // marshalled as an empty element
+            event.setVm(new Vm());
+            events.getEvents().add(event);
+        }
+        return events;
+    }
+}
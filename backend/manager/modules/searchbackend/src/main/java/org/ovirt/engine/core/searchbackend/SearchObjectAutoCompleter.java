@@ -606,6 +606,16 @@ public class SearchObjectAutoCompleter extends SearchObjectsBaseAutoCompleter {
         }
     });
 
+    /**
+     * The entities whose primary key is numeric, the primary key of the rest of them is a UUID.
+     */
+    private static final List<String> numericPrimaryKeys =
+            Arrays.asList(SearchObjects.AUDIT_OBJ_NAME, SearchObjects.SESSION_OBJ_NAME);
+
+    public static boolean isNumericPrimaryKey(String obj) {
+        return obj != null && numericPrimaryKeys.contains(singular(obj));
+    }
+
     static String singular(String key) {
         return singulars.containsKey(key) ? singulars.get(key) : key;
     }
@@ -30,6 +30,12 @@ public class SyntaxChecker implements ISyntaxChecker {
 
     private static final List<Character> DISALLOWED_CHARS = Arrays.asList('\'', ';');
 
+    /**
+     * The template of keyset paged queries, which limits the sorted results without numbering them, so that only the
+     * rows of the page are read.
+     */
+    private static final String KEYSET_SEARCH_TEMPLATE = "SELECT * FROM (%2$s) %1$s) as T1 %3$s";
+
     private final SearchObjectAutoCompleter searchObjectAC;
     private final BaseAutoCompleter colonAC;
     private final BaseAutoCompleter pluralAC;
@@ -887,6 +893,23 @@ public class SyntaxChecker implements ISyntaxChecker {
                 whereBuilder.add("not deleted");
             }
 
+            String primeryKey = searchObjectAC.getPrimeryKeyName(searchObjStr);
+            String tableName = searchObjectAC.getRelatedTableName(searchObjStr, useTags);
+
+            // with keyset paging the results are sorted by primary key, so the page starts right after the
+            // last result of the previous one, and can be read from the index without skipping any row
+            if (syntax.isKeysetPaging()) {
+                boolean keysetDescending = isKeysetDescending(searchObjStr, primeryKey);
+                sortByPhrase = StringFormat.format(" ORDER BY %1$s %2$s", primeryKey, keysetDescending ? "DESC" : "ASC");
+                if (syntax.getSearchAfter() != null) {
+                    whereBuilder.add(StringFormat.format("%1$s.%2$s %3$s %4$s",
+                            tableName,
+                            primeryKey,
+                            keysetDescending ? "<" : ">",
+                            syntax.getSearchAfter()));
+                }
+            }
+
             // adding WHERE if required and All implicit AND
             StringBuilder wherePhrase = new StringBuilder();
             if (whereBuilder.size() > 0) {
@@ -906,15 +929,15 @@ public class SyntaxChecker implements ISyntaxChecker {
                 sortByPhrase = " ORDER BY " + searchObjectAC.getDefaultSort(searchObjStr);
             }
             // adding the paging phrase
-            String pagePhrase = getPagePhrase(syntax, pageNumber);
-            String primeryKey = searchObjectAC.getPrimeryKeyName(searchObjStr);
-            String tableName = searchObjectAC.getRelatedTableName(searchObjStr, useTags);
+            String pagePhrase = syntax.isKeysetPaging()
+                    ? StringFormat.format("LIMIT %1$s", syntax.getMaxCount())
+                    : getPagePhrase(syntax, pageNumber);
             boolean usingDistinct = searchObjectAC.isUsingDistinct(searchObjStr);
 
             // adding a secondary default sort by entity name
             StringBuilder sortExpr = new StringBuilder();
             sortExpr.append(sortByPhrase);
-            if (!sortByPhrase.contains(searchObjectAC.getDefaultSort(searchObjStr))) {
+            if (!syntax.isKeysetPaging() && !sortByPhrase.contains(searchObjectAC.getDefaultSort(searchObjStr))) {
                 sortExpr.append(",");
                 sortExpr.append(searchObjectAC.getDefaultSort(searchObjStr));
             }
@@ -940,7 +963,9 @@ public class SyntaxChecker implements ISyntaxChecker {
                 inQuery = inQuery.replaceFirst("SELECT ", "SELECT  distinct ");
             }
             retval =
-                    StringFormat.format(Config.getValue(ConfigValues.DBSearchTemplate),
+                    StringFormat.format(syntax.isKeysetPaging()
+                            ? KEYSET_SEARCH_TEMPLATE
+                            : (String) Config.getValue(ConfigValues.DBSearchTemplate),
                             sortExpr.toString(),
                             inQuery,
                             pagePhrase);
@@ -966,6 +991,16 @@ public class SyntaxChecker implements ISyntaxChecker {
         }
     }
 
+    /**
+     * The keyset is sorted descending only when the default sort of the searched entities is already by descending
+     * primary key, like for events, where the newest come first.
+     */
+    private boolean isKeysetDescending(String searchObjStr, String primeryKey) {
+        String defaultSort = searchObjectAC.getDefaultSort(searchObjStr).trim();
+        return defaultSort.startsWith(primeryKey + " ")
+                && defaultSort.substring(primeryKey.length()).trim().toUpperCase().startsWith("DESC");
+    }
+
     protected String getPagePhrase(SyntaxContainer syntax, String pageNumber) {
         String result = "";
         Integer page = IntegerCompat.tryParse(pageNumber);
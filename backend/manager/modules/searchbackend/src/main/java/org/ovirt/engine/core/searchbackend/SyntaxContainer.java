@@ -18,6 +18,8 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
     private final int[] errorPos = new int[2];
     private int privateMaxCount;
     private long searchFrom = 0;
+    private boolean keysetPaging;
+    private String searchAfter;
     private boolean caseSensitive=true;
 
     /**
@@ -56,6 +58,39 @@ public class SyntaxContainer implements Iterable<SyntaxObject> {
         searchFrom = value;
     }
 
+    /**
+     * Indicates if the results are paged with a keyset, sorted by primary key and starting right after
+     * {@link #getSearchAfter()}, instead of with the {@code page} clause.
+     */
+    public boolean isKeysetPaging() {
+        return keysetPaging;
+    }
+
+    /**
+     * The keyset defines the order of the results, so a {@code sortby} clause is a syntax error when it is used.
+     */
+    public void setKeysetPaging(boolean value) {
+        keysetPaging = value;
+        if (value) {
+            for (SyntaxObject obj : objList) {
+                if (obj.getType() == SyntaxObjectType.SORTBY) {
+                    setErr(SyntaxError.SORTBY_WITH_KEYSET_PAGING, obj.getPos()[0], obj.getPos()[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * The SQL literal of the primary key of the last result of the previous page, or {@code null} for the first page.
+     */
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
+    public void setSearchAfter(String value) {
+        searchAfter = value;
+    }
+
     public boolean getvalid() {
         return valid;
     }
@@ -26,7 +26,8 @@ public enum SyntaxError {
     INVALID_POST_CROSS_REF_OBJ(19),
     FREE_TEXT_ALLOWED_ONCE_PER_OBJ(20),
     INVALID_CHARECTER(21),
-    INVALID_PAGE_FEILD(22);
+    INVALID_PAGE_FEILD(22),
+    SORTBY_WITH_KEYSET_PAGING(23);
 
     private int intValue;
     private static Map<Integer, SyntaxError> mappings;
@@ -1,6 +1,7 @@
 package org.ovirt.engine.core.searchbackend;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -243,6 +244,32 @@ public class SyntaxCheckerTest {
 
     }
 
+    @Test
+    public void testEventsKeyset() {
+        testValidKeysetSql("Events: ", 100, null,
+                "SELECT * FROM ((SELECT  audit_log.* FROM  audit_log   WHERE not deleted)  ORDER BY audit_log_id DESC) as T1 LIMIT 100");
+        testValidKeysetSql("Events: ", 100, "12345",
+                "SELECT * FROM ((SELECT  audit_log.* FROM  audit_log   WHERE not deleted AND audit_log.audit_log_id < 12345)  ORDER BY audit_log_id DESC) as T1 LIMIT 100");
+    }
+
+    @Test
+    public void testVmsKeyset() {
+        testValidKeysetSql("Vms: ", 10, "'7d9d0c5e-8e2f-4bb1-9c5e-2b0a1a3e5f11'",
+                "SELECT * FROM ((SELECT  vms.* FROM  vms   WHERE vms.vm_guid > '7d9d0c5e-8e2f-4bb1-9c5e-2b0a1a3e5f11')  ORDER BY vm_guid ASC) as T1 LIMIT 10");
+        testValidKeysetSql("Host: tag=\"tag1\"", 5, "'7d9d0c5e-8e2f-4bb1-9c5e-2b0a1a3e5f11'",
+                "SELECT * FROM (SELECT * FROM vds WHERE ( vds_id IN (SELECT distinct vds_with_tags.vds_id FROM  vds_with_tags   WHERE  vds_with_tags.tag_name IN ('tag1','all')  AND vds_with_tags.vds_id > '7d9d0c5e-8e2f-4bb1-9c5e-2b0a1a3e5f11'))  ORDER BY vds_id ASC) as T1 LIMIT 5");
+    }
+
+    @Test
+    public void testKeysetWithSortby() {
+        ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("foo");
+        SyntaxContainer res = curSyntaxChecker.analyzeSyntaxState("Vms: sortby cpu_usage desc", true);
+        assertTrue(res.getvalid());
+        res.setKeysetPaging(true);
+        assertFalse(res.getvalid());
+        assertEquals(SyntaxError.SORTBY_WITH_KEYSET_PAGING, res.getError());
+    }
+
     @Test
     public void testTemplate() {
         testValidSql("Template: ",
@@ -528,6 +555,18 @@ public class SyntaxCheckerTest {
                 "SELECT * FROM (SELECT * FROM vms WHERE ( vm_guid IN (SELECT distinct vms_with_tags.vm_guid FROM  vms_with_tags   LEFT OUTER JOIN storage_domains_with_hosts_view ON vms_with_tags.storage_id=storage_domains_with_hosts_view.id    WHERE (  vms_with_tags.status = '1'  AND  (  storage_domains_with_hosts_view.storage_comment LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_description LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_name LIKE '%iscsi%' OR  storage_domains_with_hosts_view.storage_pool_name::text LIKE '%iscsi%' )  )))  ORDER BY vm_name ASC ) as T1 OFFSET (1 -1) LIMIT 0");
     }
 
+    private void testValidKeysetSql(String dynamicQuery, int maxCount, String searchAfter, String exepctedSQLResult) {
+        SyntaxChecker chkr = new SyntaxChecker();
+        ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("foo");
+        SyntaxContainer res = curSyntaxChecker.analyzeSyntaxState(dynamicQuery, true);
+        assertTrue(res.getvalid(), "Invalid syntax: " + dynamicQuery);
+        res.setKeysetPaging(true);
+        res.setMaxCount(maxCount);
+        res.setSearchAfter(searchAfter);
+        String query = chkr.generateQueryFromSyntaxContainer(res, true);
+        assertEquals(exepctedSQLResult, query);
+    }
+
     private void testValidSql(String dynamicQuery, String exepctedSQLResult) {
         SyntaxChecker chkr = new SyntaxChecker();
         ISyntaxChecker curSyntaxChecker = SyntaxCheckerFactory.createBackendSyntaxChecker("foo");
@@ -32,8 +32,6 @@ import org.ovirt.engine.core.utils.ovf.xml.XmlNode;
 import org.ovirt.engine.core.utils.ovf.xml.XmlNodeList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 @Singleton
 public class OvfUtils {
@@ -247,11 +245,9 @@ public class OvfUtils {
 
     public boolean isExternalVM(XmlDocument xmlDocument) {
         XmlNode content = xmlDocument.selectSingleNode("//*/Content");
-        NodeList nodeList = content.getChildNodes();
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            if (node.getNodeName().equals(VM_ORIGIN) && node.getChildNodes().item(0) != null) {
-                Integer originType = Integer.valueOf(node.getChildNodes().item(0).getNodeValue());
+        for (XmlNode node : content.getChildElements()) {
+            if (node.getName().equals(VM_ORIGIN) && !node.innerText.isEmpty()) {
+                Integer originType = Integer.valueOf(node.innerText);
                 return OriginType.EXTERNAL == OriginType.forValue(originType);
             }
         }
@@ -0,0 +1,45 @@
+package org.ovirt.engine.core.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.binary.Base64;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Cursors used for keyset pagination of searches. A cursor is the primary key of the last entity of a page, encoded so
+ * that callers treat it as an opaque value and just send it back to get the next page.
+ */
+public final class SearchCursor {
+
+    private static final Pattern NUMBER = Pattern.compile("-?[0-9]{1,19}");
+
+    private SearchCursor() {
+    }
+
+    /**
+     * Creates the cursor that points right after the entity with the given primary key.
+     */
+    public static String encode(Object key) {
+        return Base64.encodeBase64URLSafeString(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the SQL literal of the primary key it points to. Only numeric and UUID primary keys are
+     * accepted, so the result is safe to be added to the generated query.
+     *
+     * @param numericKey whether the primary key of the searched entities is numeric, otherwise it is a UUID
+     * @throws IllegalArgumentException if the cursor isn't one created by {@link #encode(Object)} for a primary key
+     *                                  of that type
+     */
+    public static String toSqlLiteral(String cursor, boolean numericKey) {
+        String key = new String(Base64.decodeBase64(cursor), StandardCharsets.UTF_8);
+        if (numericKey) {
+            if (!NUMBER.matcher(key).matches()) {
+                throw new IllegalArgumentException("Cursor '" + cursor + "' doesn't point to a numeric key");
+            }
+            return Long.toString(Long.parseLong(key));
+        }
+        return "'" + Guid.createGuidFromString(key) + "'";
+    }
+}
@@ -0,0 +1,58 @@
+package org.ovirt.engine.core.utils.jmx;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registers a bean into the platform MBean server, as {@code <domain>:type=<class of the bean>}. Failures are only
+ * logged, the bean keeps working without being exposed in JMX.
+ */
+public class JmxRegistration {
+
+    private static final Logger log = LoggerFactory.getLogger(JmxRegistration.class);
+
+    private final String domain;
+    private final Object bean;
+    private volatile ObjectName objectName;
+
+    public JmxRegistration(String domain, Object bean) {
+        this.domain = domain;
+        this.bean = bean;
+    }
+
+    public void register() {
+        try {
+            ObjectName name = new ObjectName(domain + ":type=" + bean.getClass().getName());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, name);
+            objectName = name;
+        } catch (Exception e) {
+            log.warn("Problem during registration of '{}' into JMX: {}", bean.getClass().getName(), e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    public void unregister() {
+        ObjectName name = objectName;
+        if (name == null) {
+            return;
+        }
+        objectName = null;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (Exception e) {
+            log.warn("Problem during unregistration of '{}' from JMX: {}", bean.getClass().getName(), e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    /**
+     * @return the name the bean is registered with, or {@code null} if it isn't registered
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+}
@@ -0,0 +1,19 @@
+package org.ovirt.engine.core.utils.jmx;
+
+import java.util.List;
+
+/**
+ * The following interface is used as interface for the JMX beans of the statistics the engine collects
+ */
+public interface StatisticsMXBean {
+
+    /**
+     * The following method will return the collected statistics, one line per item
+     */
+    List<String> showStatistics();
+
+    /**
+     * The following method will allow to reset the collected statistics via JMX console
+     */
+    void reset();
+}
@@ -62,8 +62,6 @@ import org.ovirt.engine.core.utils.ovf.xml.XmlNode;
 import org.ovirt.engine.core.utils.ovf.xml.XmlNodeList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 public abstract class OvfReader implements IOvfBuilder {
     private static final Logger log = LoggerFactory.getLogger(OvfReader.class);
@@ -1023,22 +1021,13 @@ public abstract class OvfReader implements IOvfBuilder {
     private static Map<String, Object> getMapNode(XmlNode node) {
         Map<String, Object> returnValue = new HashMap<>();
 
-        NodeList list = node.getChildNodes();
-        for (int index = 0; index < list.getLength(); ++index) {
-            Node currNode = list.item(index);
-            short nodeType = currNode.getNodeType();
-            if (nodeType == Node.ELEMENT_NODE) {
-                NodeList childNodes = currNode.getChildNodes();
-                // If the element node has only one child, then it contains the value
-                if (childNodes.getLength() == 1) {
-                    Node valueNode = childNodes.item(0);
-                    if (valueNode.getNodeType() == Node.TEXT_NODE) {
-                        returnValue.put(currNode.getNodeName(), valueNode.getNodeValue());
-                    }
-                } else if (childNodes.getLength() > 1) {
-                    // In this case, we have a nested map, so we parse it
-                    returnValue.put(currNode.getNodeName(), getMapNode(new XmlNode(currNode)));
-                }
+        for (XmlNode childNode : node.getChildElements()) {
+            if (childNode.hasChildElements()) {
+                // In this case, we have a nested map, so we parse it
+                returnValue.put(childNode.getName(), getMapNode(childNode));
+            } else if (!childNode.innerText.isEmpty()) {
+                // If the element node has no child elements, then it contains the value
+                returnValue.put(childNode.getName(), childNode.innerText);
             }
         }
 
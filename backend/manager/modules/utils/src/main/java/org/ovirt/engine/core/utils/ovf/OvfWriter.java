@@ -34,7 +34,6 @@ import org.ovirt.engine.core.compat.RegexOptions;
 import org.ovirt.engine.core.compat.Version;
 import org.ovirt.engine.core.utils.VmInitUtils;
 import org.ovirt.engine.core.utils.customprop.DevicePropertiesUtils;
-import org.ovirt.engine.core.utils.ovf.xml.XmlDocument;
 import org.ovirt.engine.core.utils.ovf.xml.XmlTextWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,7 +43,6 @@ public abstract class OvfWriter implements IOvfBuilder {
     protected List<DiskImage> _images;
     protected List<LunDisk> lunDisks;
     protected XmlTextWriter _writer;
-    protected XmlDocument _document;
     protected VmBase vmBase;
     protected Version version;
     protected Logger logger = LoggerFactory.getLogger(getClass());
@@ -52,7 +50,6 @@ public abstract class OvfWriter implements IOvfBuilder {
     public abstract String getOvfUri();
 
     public OvfWriter(VmBase vmBase, List<DiskImage> images, List<LunDisk> lunDisks, Version version) {
-        _document = new XmlDocument();
         _images = images;
 
         // We use a specific parameter for lunDisks to avoid any additional changes in other writer classes.
@@ -1,14 +1,35 @@
 package org.ovirt.engine.core.utils.ovf.xml;
 
-import org.w3c.dom.Node;
+public class XmlAttribute {
 
-public class XmlAttribute extends XmlNode {
+    public final String innerText;
+    private final String name;
+    private final String namespaceUri;
+    private final String localName;
 
-    public XmlAttribute(Node node) {
-        super(node);
+    XmlAttribute(String name, String namespaceUri, String localName, String value) {
+        this.name = name;
+        this.namespaceUri = namespaceUri == null || namespaceUri.isEmpty() ? null : namespaceUri;
+        this.localName = localName;
+        this.innerText = value;
+    }
+
+    /**
+     * @return the qualified name of the attribute, as written in the document
+     */
+    public String getName() {
+        return name;
+    }
+
+    String getNamespaceUri() {
+        return namespaceUri;
+    }
+
+    String getLocalName() {
+        return localName;
     }
 
     public String getValue() {
-        return node.getTextContent();
+        return innerText;
     }
 }
@@ -1,23 +1,15 @@
 package org.ovirt.engine.core.utils.ovf.xml;
 
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-
 public class XmlAttributeCollection {
 
-    private NamedNodeMap nodesMap;
+    private XmlElement element;
 
-    public XmlAttributeCollection(NamedNodeMap nodesMap) {
-        this.nodesMap = nodesMap;
+    XmlAttributeCollection(XmlElement element) {
+        this.element = element;
     }
 
     public XmlAttribute get(String nodeName) {
-        Node temp = nodesMap.getNamedItem(nodeName);
-        if (temp != null) {
-            XmlAttribute returnValue = new XmlAttribute(temp);
-            return returnValue;
-        }
-        return null;
+        return element.getAttribute(nodeName);
     }
 
 }
@@ -1,117 +1,132 @@
 package org.ovirt.engine.core.utils.ovf.xml;
 
 import java.io.StringReader;
-import java.io.StringWriter;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
-
-import org.ovirt.engine.core.uutils.xml.SecureDocumentBuilderFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A parsed xml document that can be navigated with simple xpath expressions, see {@link XmlPath}.
+ *
+ * The document is read with a streaming parser into a lightweight tree of {@link XmlElement}s, which is much smaller
+ * than a W3C DOM and is built in a single pass, so large OVFs, like those of VMs with many disks and snapshots, are
+ * read faster and with less memory. Document type declarations are not allowed.
+ */
 public class XmlDocument {
 
-    private String outerXml;
-    public XmlNode[] childNodes;
+    private static final XMLInputFactory inputFactory = createInputFactory();
 
-    private Document doc;
+    private String outerXml;
 
-    public XmlDocument() {
-    }
+    private XmlElement document;
 
     public XmlDocument(String xml) throws Exception {
         loadXml(xml);
     }
 
-    private void loadXml(String ovfstring) throws Exception {
-        // load doc
-        DocumentBuilderFactory fact = SecureDocumentBuilderFactory.newDocumentBuilderFactory();
-        fact.setNamespaceAware(true);
-        DocumentBuilder builder = fact.newDocumentBuilder();
-        doc = builder.parse(new InputSource(new StringReader(ovfstring)));
-
-        // initialize all the child nodes
-        NodeList list = doc.getElementsByTagName("*");
-        childNodes = new XmlNode[list.getLength()];
-        for (int i = 0; i < list.getLength(); i++) {
-            childNodes[i] = new XmlNode(list.item(i));
-        }
-
-        outerXml = ovfstring;
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
     }
 
-    public XmlNode selectSingleNode(String string) {
+    private void loadXml(String ovfstring) throws XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(ovfstring));
         try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            Object o = xPath.evaluate(string, doc, XPathConstants.NODE);
-            return o != null ? new XmlNode((Node) o) : null;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
+            document = read(reader);
+        } finally {
+            reader.close();
         }
+        outerXml = ovfstring;
     }
 
-    public XmlNode selectSingleNode(String string, XmlNamespaceManager _xmlns) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            xPath.setNamespaceContext(_xmlns);
-            Object o = xPath.evaluate(string, doc, XPathConstants.NODE);
-            return o != null ? new XmlNode((Node) o) : null;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
+    private static XmlElement read(XMLStreamReader reader) throws XMLStreamException {
+        XmlElement document = new XmlElement(null, null, null, null, 0);
+        Deque<XmlElement> elements = new ArrayDeque<>();
+        elements.push(document);
+        int index = 0;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                XmlElement element = new XmlElement(elements.peek(),
+                        reader.getNamespaceURI(),
+                        reader.getLocalName(),
+                        qualifiedName(reader.getPrefix(), reader.getLocalName()),
+                        ++index);
+                readAttributes(reader, element);
+                elements.peek().addChild(element);
+                elements.push(element);
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                elements.pop();
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                if (elements.peek() != document) {
+                    elements.peek().addText(reader.getText());
+                }
+                break;
+            case XMLStreamConstants.DTD:
+                throw new XMLStreamException("Document type declarations are not allowed", reader.getLocation());
+            default:
+                break;
+            }
         }
+        return document;
     }
 
-    public XmlNodeList selectNodes(String string) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            Object o = xPath.evaluate(string, doc, XPathConstants.NODESET);
-            return new XmlNodeList((NodeList) o);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
+    private static void readAttributes(XMLStreamReader reader, XmlElement element) {
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            boolean isDefault = prefix == null || prefix.isEmpty();
+            element.addAttribute(new XmlAttribute(
+                    isDefault ? XMLConstants.XMLNS_ATTRIBUTE : qualifiedName(XMLConstants.XMLNS_ATTRIBUTE, prefix),
+                    XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                    isDefault ? XMLConstants.XMLNS_ATTRIBUTE : prefix,
+                    reader.getNamespaceURI(i)));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String localName = reader.getAttributeLocalName(i);
+            element.addAttribute(new XmlAttribute(
+                    qualifiedName(reader.getAttributePrefix(i), localName),
+                    reader.getAttributeNamespace(i),
+                    localName,
+                    reader.getAttributeValue(i)));
         }
     }
 
-    public XmlNodeList selectNodes(String string, XmlNamespaceManager _xmlns) {
-        try {
-            XPathFactory factory = XPathFactory.newInstance();
-            XPath xPath = factory.newXPath();
-            xPath.setNamespaceContext(_xmlns);
-            Object o = xPath.evaluate(string, doc, XPathConstants.NODESET);
-            return new XmlNodeList((NodeList) o);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to evaluate xpath: " + string, e);
-        }
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
     }
 
-    public Element createElement(String name) {
-        return doc.createElement(name);
+    public XmlNode selectSingleNode(String string) {
+        return selectSingleNode(string, null);
     }
 
-    public String getOuterXml() {
-        return outerXml;
+    public XmlNode selectSingleNode(String string, XmlNamespaceManager _xmlns) {
+        XmlElement selected = XmlPath.compile(string).selectFirst(document, _xmlns);
+        return selected != null ? new XmlNode(selected) : null;
+    }
+
+    public XmlNodeList selectNodes(String string) {
+        return selectNodes(string, null);
     }
 
-    public String convertToString() throws TransformerException {
-        TransformerFactory factory = TransformerFactory.newInstance();
-        Transformer transformer = factory.newTransformer();
-        StringWriter writer = new StringWriter();
-        transformer.transform(new DOMSource(doc), new StreamResult(writer));
-        return writer.toString();
+    public XmlNodeList selectNodes(String string, XmlNamespaceManager _xmlns) {
+        return new XmlNodeList(XmlPath.compile(string).select(document, _xmlns));
+    }
+
+    public String getOuterXml() {
+        return outerXml;
     }
 
 }
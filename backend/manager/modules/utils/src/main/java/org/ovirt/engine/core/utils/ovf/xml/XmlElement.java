@@ -0,0 +1,148 @@
+package org.ovirt.engine.core.utils.ovf.xml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A lightweight, read only element of a parsed xml document. It keeps only what is needed to navigate the document
+ * and read its values: the name, the attributes, the child elements and the text, unlike a W3C DOM node.
+ *
+ * The document itself is represented by an element without a name, whose only child is the root element.
+ */
+final class XmlElement {
+
+    private final XmlElement parent;
+    private final String namespaceUri;
+    private final String localName;
+    private final String qualifiedName;
+    /**
+     * the position of the element in the document, in document order
+     */
+    private final int index;
+
+    private List<XmlAttribute> attributes = Collections.emptyList();
+    private List<XmlElement> children = Collections.emptyList();
+    /**
+     * the text and the child elements of the element, in document order, set only if the element has text that
+     * isn't its only content
+     */
+    private List<Object> mixedContent;
+    private String text;
+    private String textContent;
+
+    XmlElement(XmlElement parent, String namespaceUri, String localName, String qualifiedName, int index) {
+        this.parent = parent;
+        this.namespaceUri = namespaceUri == null || namespaceUri.isEmpty() ? null : namespaceUri;
+        this.localName = localName;
+        this.qualifiedName = qualifiedName;
+        this.index = index;
+    }
+
+    XmlElement getParent() {
+        return parent;
+    }
+
+    String getNamespaceUri() {
+        return namespaceUri;
+    }
+
+    String getLocalName() {
+        return localName;
+    }
+
+    String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    List<XmlAttribute> getAttributes() {
+        return attributes;
+    }
+
+    XmlAttribute getAttribute(String qualifiedName) {
+        for (XmlAttribute attribute : attributes) {
+            if (attribute.getName().equals(qualifiedName)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    List<XmlElement> getChildren() {
+        return children;
+    }
+
+    void addAttribute(XmlAttribute attribute) {
+        if (attributes.isEmpty()) {
+            attributes = new ArrayList<>(4);
+        }
+        attributes.add(attribute);
+    }
+
+    void addChild(XmlElement child) {
+        if (children.isEmpty()) {
+            children = new ArrayList<>(4);
+        }
+        children.add(child);
+        if (mixedContent != null) {
+            mixedContent.add(child);
+        } else if (text != null) {
+            mixedContent = new ArrayList<>();
+            mixedContent.add(text);
+            mixedContent.add(child);
+            text = null;
+        }
+    }
+
+    void addText(String value) {
+        if (mixedContent != null) {
+            mixedContent.add(value);
+        } else if (!children.isEmpty()) {
+            mixedContent = new ArrayList<>(children);
+            mixedContent.add(value);
+        } else {
+            text = text == null ? value : text + value;
+        }
+    }
+
+    /**
+     * @return the text of the element and of all its descendants, in document order, like
+     *         {@link org.w3c.dom.Node#getTextContent()}
+     */
+    String getTextContent() {
+        if (textContent == null) {
+            if (mixedContent == null && children.isEmpty()) {
+                textContent = text == null ? "" : text;
+            } else {
+                StringBuilder builder = new StringBuilder();
+                appendTextContent(builder);
+                textContent = builder.toString();
+            }
+        }
+        return textContent;
+    }
+
+    private void appendTextContent(StringBuilder builder) {
+        if (textContent != null) {
+            builder.append(textContent);
+        } else if (mixedContent != null) {
+            for (Object content : mixedContent) {
+                if (content instanceof XmlElement) {
+                    ((XmlElement) content).appendTextContent(builder);
+                } else {
+                    builder.append((String) content);
+                }
+            }
+        } else if (!children.isEmpty()) {
+            for (XmlElement child : children) {
+                child.appendTextContent(builder);
+            }
+        } else if (text != null) {
+            builder.append(text);
+        }
+    }
+}
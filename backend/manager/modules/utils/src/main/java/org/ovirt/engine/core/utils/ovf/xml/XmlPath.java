@@ -0,0 +1,313 @@
+package org.ovirt.engine.core.utils.ovf.xml;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.namespace.NamespaceContext;
+
+/**
+ * A compiled location path, evaluated directly on the {@link XmlElement}s of a document instead of through
+ * {@link javax.xml.xpath.XPath}.
+ *
+ * Only the subset of XPath used to read the OVFs and the domain xmls is supported: paths that are relative or start
+ * with {@code /} or {@code //}, made of child steps separated by {@code /} or {@code //}, where each step is
+ * {@code .}, {@code *} or a (prefixed) element name, optionally followed by a position predicate like {@code [1]}
+ * or an attribute predicate like {@code [@model='nvdimm']} or {@code [@model != 'nvdimm']}. The results are the same
+ * as of the equivalent XPath expression, in document order.
+ */
+final class XmlPath {
+
+    private static final int MAX_CACHED_PATHS = 10000;
+    private static final Map<String, XmlPath> cache = new ConcurrentHashMap<>();
+    private static final Comparator<XmlElement> DOCUMENT_ORDER = Comparator.comparingInt(XmlElement::getIndex);
+
+    private final String expression;
+    private final boolean absolute;
+    private final List<Step> steps;
+
+    private XmlPath(String expression, boolean absolute, List<Step> steps) {
+        this.expression = expression;
+        this.absolute = absolute;
+        this.steps = steps;
+    }
+
+    static XmlPath compile(String expression) {
+        XmlPath path = cache.get(expression);
+        if (path == null) {
+            path = parse(expression);
+            if (cache.size() < MAX_CACHED_PATHS) {
+                cache.put(expression, path);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * @return the elements selected by the path from the given element, in document order
+     */
+    List<XmlElement> select(XmlElement context, NamespaceContext namespaceContext) {
+        List<XmlElement> current = Collections.singletonList(absolute ? getDocument(context) : context);
+        for (Step step : steps) {
+            current = step.select(current, namespaceContext);
+            if (current.isEmpty()) {
+                break;
+            }
+        }
+        return current;
+    }
+
+    XmlElement selectFirst(XmlElement context, NamespaceContext namespaceContext) {
+        List<XmlElement> elements = select(context, namespaceContext);
+        return elements.isEmpty() ? null : elements.get(0);
+    }
+
+    private static XmlElement getDocument(XmlElement element) {
+        while (element.getParent() != null) {
+            element = element.getParent();
+        }
+        return element;
+    }
+
+    private static XmlPath parse(String expression) {
+        String remaining = expression.trim();
+        boolean absolute = remaining.startsWith("/");
+        boolean descendant = false;
+        List<Step> steps = new ArrayList<>();
+        if (remaining.startsWith("//")) {
+            descendant = true;
+            remaining = remaining.substring(2);
+        } else if (absolute) {
+            remaining = remaining.substring(1);
+        }
+
+        while (true) {
+            int end = findStepEnd(remaining);
+            steps.add(parseStep(expression, remaining.substring(0, end).trim(), descendant));
+            if (end == remaining.length()) {
+                break;
+            }
+            descendant = remaining.startsWith("//", end);
+            remaining = remaining.substring(end + (descendant ? 2 : 1));
+        }
+        return new XmlPath(expression, absolute, steps);
+    }
+
+    private static int findStepEnd(String remaining) {
+        int depth = 0;
+        for (int i = 0; i < remaining.length(); i++) {
+            char c = remaining.charAt(i);
+            if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            } else if (c == '/' && depth == 0) {
+                return i;
+            }
+        }
+        return remaining.length();
+    }
+
+    private static Step parseStep(String expression, String step, boolean descendant) {
+        String nameTest = step;
+        Predicate predicate = null;
+        int predicateStart = step.indexOf('[');
+        if (predicateStart >= 0) {
+            if (!step.endsWith("]")) {
+                throw unsupported(expression);
+            }
+            nameTest = step.substring(0, predicateStart).trim();
+            predicate = parsePredicate(expression, step.substring(predicateStart + 1, step.length() - 1).trim());
+        }
+
+        if (nameTest.isEmpty() || !isNameTest(nameTest)) {
+            throw unsupported(expression);
+        }
+        if (".".equals(nameTest) && (predicate != null || descendant)) {
+            throw unsupported(expression);
+        }
+        return new Step(expression, nameTest, descendant, predicate);
+    }
+
+    private static boolean isNameTest(String nameTest) {
+        if (".".equals(nameTest) || "*".equals(nameTest)) {
+            return true;
+        }
+        int colon = nameTest.indexOf(':');
+        return isName(colon < 0 ? nameTest : nameTest.substring(0, colon))
+                && (colon < 0 || isName(nameTest.substring(colon + 1)));
+    }
+
+    private static boolean isName(String name) {
+        if (name.isEmpty() || !Character.isLetter(name.charAt(0)) && name.charAt(0) != '_') {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Predicate parsePredicate(String expression, String predicate) {
+        if (!predicate.isEmpty() && predicate.chars().allMatch(Character::isDigit)) {
+            return new Predicate(Integer.parseInt(predicate));
+        }
+        if (!predicate.startsWith("@")) {
+            throw unsupported(expression);
+        }
+
+        boolean negate = true;
+        int operator = predicate.indexOf("!=");
+        if (operator < 0) {
+            negate = false;
+            operator = predicate.indexOf('=');
+        }
+        if (operator < 0) {
+            throw unsupported(expression);
+        }
+        String attribute = predicate.substring(1, operator).trim();
+        String value = predicate.substring(operator + (negate ? 2 : 1)).trim();
+        if (!isName(attribute) || value.length() < 2 || value.charAt(0) != value.charAt(value.length() - 1)
+                || value.charAt(0) != '\'' && value.charAt(0) != '"') {
+            throw unsupported(expression);
+        }
+        return new Predicate(attribute, value.substring(1, value.length() - 1), negate);
+    }
+
+    private static RuntimeException unsupported(String expression) {
+        return new IllegalArgumentException("Unsupported xpath: " + expression);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static class Step {
+        private final String expression;
+        private final boolean self;
+        private final String prefix;
+        private final String localName;
+        private final boolean descendant;
+        private final Predicate predicate;
+
+        Step(String expression, String nameTest, boolean descendant, Predicate predicate) {
+            this.expression = expression;
+            this.self = ".".equals(nameTest);
+            int colon = nameTest.indexOf(':');
+            this.prefix = colon < 0 ? null : nameTest.substring(0, colon);
+            this.localName = "*".equals(nameTest) ? null : nameTest.substring(colon + 1);
+            this.descendant = descendant;
+            this.predicate = predicate;
+        }
+
+        List<XmlElement> select(List<XmlElement> context, NamespaceContext namespaceContext) {
+            if (self) {
+                return context;
+            }
+
+            String namespaceUri = null;
+            if (prefix != null) {
+                if (namespaceContext == null) {
+                    // an unresolvable prefix doesn't match any element
+                    return Collections.emptyList();
+                }
+                namespaceUri = namespaceContext.getNamespaceURI(prefix);
+                if (namespaceUri == null || namespaceUri.isEmpty()) {
+                    throw new RuntimeException("Failed to evaluate xpath: " + expression,
+                            new IllegalArgumentException("Prefix must resolve to a namespace: " + prefix));
+                }
+            }
+
+            List<XmlElement> result = new ArrayList<>();
+            int subtreeEnd = -1;
+            for (XmlElement element : context) {
+                if (!descendant) {
+                    selectChildren(element, namespaceUri, result);
+                } else if (element.getIndex() > subtreeEnd) {
+                    // the descendants of an element that is a descendant of a previous one were already selected
+                    subtreeEnd = selectDescendants(element, namespaceUri, result);
+                }
+            }
+            if (context.size() > 1 || descendant) {
+                result.sort(DOCUMENT_ORDER);
+            }
+            return result;
+        }
+
+        /**
+         * Selects the matching children of the element and of all its descendants
+         *
+         * @return the index of the last descendant of the element
+         */
+        private int selectDescendants(XmlElement element, String namespaceUri, List<XmlElement> result) {
+            selectChildren(element, namespaceUri, result);
+            int last = element.getIndex();
+            for (XmlElement child : element.getChildren()) {
+                last = selectDescendants(child, namespaceUri, result);
+            }
+            return last;
+        }
+
+        private void selectChildren(XmlElement element, String namespaceUri, List<XmlElement> result) {
+            int position = 0;
+            for (XmlElement child : element.getChildren()) {
+                if (matches(child, namespaceUri)) {
+                    position++;
+                    if (predicate == null || predicate.matches(child, position)) {
+                        result.add(child);
+                    }
+                }
+            }
+        }
+
+        private boolean matches(XmlElement element, String namespaceUri) {
+            if (localName == null) {
+                return true;
+            }
+            return localName.equals(element.getLocalName())
+                    && (namespaceUri == null ? element.getNamespaceUri() == null
+                            : namespaceUri.equals(element.getNamespaceUri()));
+        }
+    }
+
+    private static class Predicate {
+        private final int position;
+        private final String attribute;
+        private final String value;
+        private final boolean negate;
+
+        Predicate(int position) {
+            this.position = position;
+            this.attribute = null;
+            this.value = null;
+            this.negate = false;
+        }
+
+        Predicate(String attribute, String value, boolean negate) {
+            this.position = 0;
+            this.attribute = attribute;
+            this.value = value;
+            this.negate = negate;
+        }
+
+        boolean matches(XmlElement element, int elementPosition) {
+            if (attribute == null) {
+                return position == elementPosition;
+            }
+            for (XmlAttribute xmlAttribute : element.getAttributes()) {
+                if (xmlAttribute.getNamespaceUri() == null && attribute.equals(xmlAttribute.getLocalName())) {
+                    return negate != value.equals(xmlAttribute.getValue());
+                }
+            }
+            // comparing a missing attribute is false for both = and !=
+            return false;
+        }
+    }
+}
@@ -10,14 +10,15 @@ import javax.xml.stream.XMLStreamWriter;
 
 public class XmlTextWriter {
 
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+
     private XMLStreamWriter writer;
     private StringWriter stream;
 
     public XmlTextWriter() {
         stream = new StringWriter();
         try {
-            XMLOutputFactory factory = XMLOutputFactory.newInstance();
-            writer = factory.createXMLStreamWriter(stream);
+            writer = outputFactory.createXMLStreamWriter(stream);
             writer.writeStartDocument("UTF-8", "1.0");
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize xml writer: ", e);
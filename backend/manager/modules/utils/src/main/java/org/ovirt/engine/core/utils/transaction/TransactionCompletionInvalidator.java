@@ -0,0 +1,33 @@
+package org.ovirt.engine.core.utils.transaction;
+
+import javax.inject.Singleton;
+
+/**
+ * Invalidates in-memory copies of database data again when the transaction that changed the data completes.
+ * <p>
+ * A copy invalidated during a transaction may be loaded again by another thread before the transaction is committed,
+ * without the change, or after it is rolled back, with a change that was never done. Invalidating it again on
+ * completion makes sure such a copy isn't kept.
+ */
+@Singleton
+public class TransactionCompletionInvalidator {
+
+    /**
+     * Runs the invalidation when the current transaction, if any, is committed or rolled back
+     */
+    public void invalidateOnCompletion(Runnable invalidation) {
+        if (TransactionSupport.current() != null) {
+            TransactionSupport.registerRollbackHandler(new TransactionCompletionListener() {
+                @Override
+                public void onSuccess() {
+                    invalidation.run();
+                }
+
+                @Override
+                public void onRollback() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.ovirt.engine.core.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.compat.Guid;
+
+public class SearchCursorTest {
+
+    @Test
+    public void testNumericKey() {
+        assertEquals("1234567", SearchCursor.toSqlLiteral(SearchCursor.encode(1234567L), true));
+    }
+
+    @Test
+    public void testGuidKey() {
+        Guid id = Guid.newGuid();
+        assertEquals("'" + id + "'", SearchCursor.toSqlLiteral(SearchCursor.encode(id), false));
+    }
+
+    @Test
+    public void testInvalidCursor() {
+        String cursor = SearchCursor.encode("0 or 1=1");
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.toSqlLiteral(cursor, true));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.toSqlLiteral(cursor, false));
+    }
+
+    @Test
+    public void testNumericKeyOverflow() {
+        String cursor = SearchCursor.encode("99999999999999999999");
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.toSqlLiteral(cursor, true));
+    }
+
+    @Test
+    public void testKeyOfOtherType() {
+        String guidCursor = SearchCursor.encode(Guid.newGuid());
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.toSqlLiteral(guidCursor, true));
+        String numericCursor = SearchCursor.encode(1234567L);
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.toSqlLiteral(numericCursor, false));
+    }
+}
@@ -0,0 +1,84 @@
+package org.ovirt.engine.core.utils.jmx;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class JmxRegistrationTest {
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private final TestStatistics statistics = new TestStatistics();
+    private final JmxRegistration registration = new JmxRegistration("JmxRegistrationTest", statistics);
+
+    @AfterEach
+    public void tearDown() {
+        registration.unregister();
+    }
+
+    @Test
+    public void testStatisticsAreExposed() throws Exception {
+        registration.register();
+        ObjectName name = registration.getObjectName();
+        statistics.items.add("item: 1");
+
+        assertEquals(new ObjectName("JmxRegistrationTest:type=" + TestStatistics.class.getName()), name);
+        // the list is exposed as an array of strings
+        assertArrayEquals(new String[] { "item: 1" }, (String[]) server.invoke(name, "showStatistics", null, null));
+
+        server.invoke(name, "reset", null, null);
+
+        assertTrue(statistics.items.isEmpty());
+    }
+
+    @Test
+    public void testUnregister() {
+        registration.register();
+        ObjectName name = registration.getObjectName();
+
+        registration.unregister();
+
+        assertFalse(server.isRegistered(name));
+        assertNull(registration.getObjectName());
+    }
+
+    @Test
+    public void testFailedRegistrationIsIgnored() {
+        JmxRegistration other = new JmxRegistration("JmxRegistrationTest", new TestStatistics());
+        registration.register();
+
+        // the name is already taken
+        other.register();
+        other.unregister();
+
+        assertNull(other.getObjectName());
+        assertTrue(server.isRegistered(registration.getObjectName()));
+    }
+
+    public static class TestStatistics implements StatisticsMXBean {
+
+        private final List<String> items = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public List<String> showStatistics() {
+            return new ArrayList<>(items);
+        }
+
+        @Override
+        public void reset() {
+            items.clear();
+        }
+    }
+}
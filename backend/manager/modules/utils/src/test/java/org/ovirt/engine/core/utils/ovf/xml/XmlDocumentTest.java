@@ -0,0 +1,149 @@
+package org.ovirt.engine.core.utils.ovf.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class XmlDocumentTest {
+
+    private static final String OVF_URI = "http://schemas.dmtf.org/ovf/envelope/1/";
+    private static final String RASD_URI =
+            "http://schemas.dmtf.org/wbem/wscim/1/cim-schema/2/CIM_ResourceAllocationSettingData";
+
+    private static final String OVF = "<?xml version='1.0' encoding='UTF-8'?>"
+            + "<ovf:Envelope xmlns:ovf=\"" + OVF_URI + "\" xmlns:rasd=\"" + RASD_URI + "\" ovf:version=\"4.4\">"
+            + "<References>"
+            + "<File ovf:href=\"a/1\" ovf:id=\"1\"/>"
+            + "<File ovf:href=\"b/2\" ovf:id=\"2\"/>"
+            + "</References>"
+            + "<Content ovf:id=\"out\">"
+            + "<Name>vm1</Name>"
+            + "<Description><![CDATA[a <b>]]> &amp; c</Description>"
+            + "<Section ovf:id=\"1\">"
+            + "<Item><rasd:Caption>1 virtual cpu</rasd:Caption><rasd:ResourceType>3</rasd:ResourceType></Item>"
+            + "<Item><rasd:Caption>disk</rasd:Caption><rasd:ResourceType>17</rasd:ResourceType></Item>"
+            + "</Section>"
+            + "<Memory model=\"nvdimm\">8</Memory><Memory model=\"dimm\">4</Memory><Memory>2</Memory>"
+            + "<Section ovf:id=\"2\"><Snapshot ovf:id=\"s1\"><Type>ACTIVE</Type></Snapshot></Section>"
+            + "</Content>"
+            + "</ovf:Envelope>";
+
+    private XmlDocument document;
+    private XmlNamespaceManager xmlns;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        document = new XmlDocument(OVF);
+        xmlns = new XmlNamespaceManager();
+        xmlns.addNamespace("ovf", OVF_URI);
+        xmlns.addNamespace("rasd", RASD_URI);
+    }
+
+    private static List<String> texts(XmlNodeList nodes) {
+        List<String> texts = new ArrayList<>();
+        nodes.forEach(node -> texts.add(node.innerText));
+        return texts;
+    }
+
+    private static List<String> attributes(XmlNodeList nodes, String name) {
+        List<String> values = new ArrayList<>();
+        nodes.forEach(node -> values.add(node.attributes.get(name).getValue()));
+        return values;
+    }
+
+    @Test
+    public void testSelectByPrefixedName() {
+        XmlNode envelope = document.selectSingleNode("//ovf:Envelope", xmlns);
+        assertEquals("ovf:Envelope", envelope.getName());
+        assertEquals("4.4", envelope.attributes.get("ovf:version").getValue());
+        assertEquals(OVF_URI, envelope.attributes.get("xmlns:ovf").getValue());
+    }
+
+    @Test
+    public void testUnprefixedNameDoesNotMatchNamespacedElement() {
+        assertNull(document.selectSingleNode("//Envelope"));
+        assertNull(document.selectSingleNode("//*/Envelope"));
+    }
+
+    @Test
+    public void testPrefixedNameWithoutNamespacesMatchesNothing() {
+        assertFalse(document.selectNodes("//ovf:Envelope").iterator().hasNext());
+    }
+
+    @Test
+    public void testUnknownPrefixFails() {
+        assertThrows(RuntimeException.class, () -> document.selectNodes("//*/vssd:Name", xmlns));
+    }
+
+    @Test
+    public void testSelectDescendants() {
+        assertEquals(List.of("a/1", "b/2"), attributes(document.selectNodes("//*/File"), "ovf:href"));
+        assertEquals(List.of("1", "2"), attributes(document.selectNodes("//*/Content/Section"), "ovf:id"));
+        assertEquals("ACTIVE", document.selectSingleNode("//*/Section//Type").innerText);
+    }
+
+    @Test
+    public void testSelectRelative() {
+        XmlNode content = document.selectSingleNode("//*/Content");
+        assertEquals("vm1", content.selectSingleNode("Name").innerText);
+        assertEquals(List.of("1 virtual cpu", "disk"), texts(content.selectNodes("Section/Item/rasd:Caption", xmlns)));
+        assertEquals("out", content.selectSingleNode(".").attributes.get("ovf:id").getValue());
+        assertNull(content.selectSingleNode("Item"));
+    }
+
+    @Test
+    public void testSelectByPosition() {
+        assertEquals("disk", document.selectSingleNode("//*/Item[2]/rasd:Caption", xmlns).innerText);
+        assertNull(document.selectSingleNode("//*/Item[3]"));
+    }
+
+    @Test
+    public void testSelectByAttribute() {
+        assertEquals(List.of("8"), texts(document.selectNodes("//*/Memory[@model='nvdimm']")));
+        // like in xpath, an element without the attribute doesn't match either comparison
+        assertEquals(List.of("4"), texts(document.selectNodes("//*/Memory[@model != 'nvdimm']")));
+        // attributes in a namespace are not matched by their local name
+        assertFalse(document.selectNodes("//*/Section[@id='2']").iterator().hasNext());
+    }
+
+    @Test
+    public void testInnerText() {
+        XmlNode content = document.selectSingleNode("//*/Content");
+        assertEquals("a <b> & c", content.selectSingleNode("Description").innerText);
+        assertEquals("1 virtual cpu3", content.selectSingleNode("Section/Item").innerText);
+    }
+
+    @Test
+    public void testChildElements() {
+        XmlNode item = document.selectSingleNode("//*/Item");
+        List<String> names = new ArrayList<>();
+        item.getChildElements().forEach(node -> names.add(node.getName()));
+        assertEquals(List.of("rasd:Caption", "rasd:ResourceType"), names);
+        assertTrue(item.hasChildElements());
+        assertFalse(item.selectSingleNode("rasd:Caption", xmlns).hasChildElements());
+    }
+
+    @Test
+    public void testOuterXml() {
+        assertEquals(OVF, document.getOuterXml());
+    }
+
+    @Test
+    public void testDoctypeIsNotAllowed() {
+        assertThrows(Exception.class,
+                () -> new XmlDocument("<!DOCTYPE a [<!ENTITY e SYSTEM \"file:///etc/passwd\">]><a>&e;</a>"));
+    }
+
+    @Test
+    public void testUnsupportedExpression() {
+        assertThrows(IllegalArgumentException.class, () -> document.selectNodes("//*/Item[last()]"));
+    }
+}
@@ -1,6 +1,7 @@
 package org.ovirt.engine.core.vdsbroker;
 
 import java.lang.reflect.Constructor;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -49,10 +50,10 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
-import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.ReflectionUtils;
 import org.ovirt.engine.core.utils.threadpool.ThreadPools;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringMetadataCache;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringWatchdog;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.FutureVDSCommand;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsCommandExecutor;
@@ -91,15 +92,15 @@ public class ResourceManager implements BackendService {
     @Inject
     private VmDynamicDao vmDynamicDao;
 
-    @Inject
-    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
-
     @Inject
     Instance<VdsCommandExecutor> commandExecutor;
 
     @Inject
     private VdsManagerFactory vdsManagerFactory;
 
+    @Inject
+    private HostMonitoringMetadataCache hostMonitoringMetadataCache;
+
     @PostConstruct
     private void init() {
         log.info("Start initializing {}", getClass().getSimpleName());
@@ -220,6 +221,7 @@ public class ResourceManager implements BackendService {
             vdsManager.dispose();
             vdsManagersDict.remove(vdsId);
         }
+        hostMonitoringMetadataCache.removeHost(vdsId);
     }
 
     public VdsManager getVdsManager(Guid vdsId) {
@@ -236,6 +238,13 @@ public class ResourceManager implements BackendService {
         return vdsManger;
     }
 
+    /**
+     * @return read only view of the managers of all the hosts known to the engine
+     */
+    public Collection<VdsManager> getVdsManagers() {
+        return Collections.unmodifiableCollection(vdsManagersDict.values());
+    }
+
     /**
      * Set vm status to Unknown and save to DB.
      */
@@ -254,12 +263,13 @@ public class ResourceManager implements BackendService {
 
     private void storeVm(VM vm) {
         vmDynamicDao.update(vm.getDynamicData());
-        getVmManager(vm.getId()).update(vm.getStatisticsData());
+        VmManager vmManager = getVmManager(vm.getId());
+        vmManager.update(vm.getStatisticsData());
         List<VmNetworkInterface> interfaces = vm.getInterfaces();
         if (interfaces != null) {
             for (VmNetworkInterface ifc : interfaces) {
                 VmNetworkStatistics stats = ifc.getStatistics();
-                vmNetworkStatisticsDao.update(stats);
+                vmManager.update(stats);
             }
         }
     }
@@ -39,6 +39,7 @@ import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
 import org.ovirt.engine.core.common.businessentities.VdsSpmStatus;
 import org.ovirt.engine.core.common.businessentities.VdsStatistics;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkStatistics;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.locks.LockingGroup;
@@ -54,16 +55,12 @@ import org.ovirt.engine.core.compat.Version;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
-import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.SupportedHostFeatureDao;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
-import org.ovirt.engine.core.dao.VdsStatisticsDao;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
-import org.ovirt.engine.core.dao.network.InterfaceDao;
-import org.ovirt.engine.core.dao.network.NetworkDao;
 import org.ovirt.engine.core.dao.provider.ProviderDao;
 import org.ovirt.engine.core.utils.crypt.EngineEncryptionUtils;
 import org.ovirt.engine.core.utils.lock.EngineLock;
@@ -77,9 +74,11 @@ import org.ovirt.engine.core.vdsbroker.kubevirt.PrometheusUrlResolver;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostConnectionRefresherInterface;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoring;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringInterface;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringMetadataCache;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategy;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategyFactory;
 import org.ovirt.engine.core.vdsbroker.monitoring.RefresherFactory;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsStore;
 import org.ovirt.engine.core.vdsbroker.monitoring.VmStatsRefresher;
 import org.ovirt.engine.core.vdsbroker.monitoring.kubevirt.KubevirtNodesMonitoring;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.HostNetworkTopologyPersister;
@@ -115,9 +114,6 @@ public class VdsManager {
     @Inject
     private VdsDao vdsDao;
 
-    @Inject
-    private ClusterDao clusterDao;
-
     @Inject
     private VdsDynamicDao vdsDynamicDao;
 
@@ -131,7 +127,7 @@ public class VdsManager {
     private VmDao vmDao;
 
     @Inject
-    private VdsStatisticsDao vdsStatisticsDao;
+    private StatisticsStore statisticsStore;
 
     @Inject
     private VdsNumaNodeDao vdsNumaNodeDao;
@@ -140,10 +136,7 @@ public class VdsManager {
     private SupportedHostFeatureDao hostFeatureDao;
 
     @Inject
-    private InterfaceDao interfaceDao;
-
-    @Inject
-    private NetworkDao networkDao;
+    private HostMonitoringMetadataCache hostMonitoringMetadataCache;
 
     @Inject
     private HostNetworkTopologyPersister hostNetworkTopologyPersister;
@@ -341,11 +334,9 @@ public class VdsManager {
                     cachedVds,
                     monitoringStrategy,
                     resourceManager,
-                    clusterDao,
                     vdsDynamicDao,
-                    interfaceDao,
                     vdsNumaNodeDao,
-                    networkDao,
+                    hostMonitoringMetadataCache,
                     auditLogDirector);
         }
     }
@@ -541,11 +532,18 @@ public class VdsManager {
         vdsDynamicDao.updateUpdateAvailable(cachedVds.getId(), updatesAvailable);
     }
 
+    /**
+     * Save the statistics of the host network interfaces to DB.
+     */
+    public void updateInterfaceStatistics(List<VdsNetworkStatistics> statistics) {
+        statisticsStore.saveVdsNetworkStatistics(statistics);
+    }
+
     /**
      * Save statistics data to cache and DB.
      */
     public void updateStatisticsData(VdsStatistics statisticsData) {
-        vdsStatisticsDao.update(statisticsData);
+        statisticsStore.saveVdsStatistics(statisticsData);
         cachedVds.setStatisticsData(statisticsData);
 
         statisticsData.getCpuCoreStatistics().stream().forEach(statistics -> {
@@ -629,6 +627,7 @@ public class VdsManager {
                     }
                     return null;
                 });
+        hostMonitoringMetadataCache.invalidateHostNumaNodes(vds.getId());
     }
 
     public void refreshHostSync(VDS vds) {
@@ -1,8 +1,12 @@
 package org.ovirt.engine.core.vdsbroker;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
@@ -24,6 +28,7 @@ import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmStatic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
 import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
 import org.ovirt.engine.core.common.scheduling.VmOverheadCalculator;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.Version;
@@ -31,8 +36,7 @@ import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
-import org.ovirt.engine.core.dao.VmStatisticsDao;
-import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsStore;
 import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,7 +65,9 @@ public class VmManager {
 
     private boolean failedSchedulingDueToLeaseSd;
 
-    private Long vmDataChangedTime;
+    /** The runtime state of the VM, replaced as a whole on every change so it can be read without locking */
+    private final AtomicReference<VmRuntimeState> runtimeState;
+
     /** how long to wait for a response for power-off operation, in nanoseconds */
     private long powerOffTimeout;
 
@@ -69,10 +75,13 @@ public class VmManager {
     private String convertOperationDescription;
     private Guid convertProxyHostId;
 
-    private Double lastStatusEventTimestamp;
-    private Guid lastStatusEventReporterId;
     private VmStatistics statistics;
 
+    /** the disk image dynamic data last written to the database by the monitoring, by disk id */
+    private final Map<Guid, DiskImageDynamic> persistedDiskImageDynamics;
+    /** when all the disk image dynamic data of the VM was last written, in nanoseconds */
+    private Long diskImageDynamicsWriteTime;
+
     private boolean coldReboot;
 
     private ExternalDataStatus externalDataStatus;
@@ -93,9 +102,7 @@ public class VmManager {
     @Inject
     private VmDynamicDao vmDynamicDao;
     @Inject
-    private VmStatisticsDao vmStatisticsDao;
-    @Inject
-    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
+    private StatisticsStore statisticsStore;
     @Inject
     private VmStaticDao vmStaticDao;
     @Inject
@@ -107,8 +114,10 @@ public class VmManager {
         this.vmId = vmId;
         vmLock = new ReentrantLock();
         vmDevicesLock = new VmDevicesLock();
+        runtimeState = new AtomicReference<>(VmRuntimeState.INITIAL);
         convertOperationProgress = -1;
         statistics = new VmStatistics(vmId);
+        persistedDiskImageDynamics = new HashMap<>();
         vmMemoryWithOverheadInMB = 0;
         externalDataStatus = new ExternalDataStatus();
         devicesBeingHotUnplugged = new HashSet<>();
@@ -189,12 +198,12 @@ public class VmManager {
     }
 
     public void update(VmStatistics statistics) {
-        vmStatisticsDao.update(statistics);
+        statisticsStore.saveVmStatistics(Collections.singletonList(statistics));
         setStatistics(statistics);
     }
 
     public void update(VmNetworkStatistics networkStatistics) {
-        vmNetworkStatisticsDao.update(networkStatistics);
+        statisticsStore.saveVmNetworkStatistics(Collections.singletonList(networkStatistics));
     }
 
     public void update(VmStatic vmStatic) {
@@ -233,8 +242,15 @@ public class VmManager {
         return convertProxyHostId;
     }
 
+    /**
+     * @return the current runtime state of the VM, read without locking
+     */
+    public VmRuntimeState getRuntimeState() {
+        return runtimeState.get();
+    }
+
     public Long getVmDataChangedTime () {
-        return vmDataChangedTime;
+        return runtimeState.get().getDataChangedTime();
     }
 
     /**
@@ -244,11 +260,13 @@ public class VmManager {
      * in general this should be called while holding the manager lock
      */
     public final void updateVmDataChangedTime() {
-        vmDataChangedTime = System.nanoTime();
+        long time = System.nanoTime();
+        runtimeState.updateAndGet(state -> state.withDataChangedTime(time));
     }
 
     /**
-     * Check whether the given data is the latest we got from the given host
+     * Check whether the given data is the latest we got from the given host, and if so remember it as the latest.
+     * The check and the update are done atomically, without locking the VM
      * @param vdsmVm - the data received
      * @param vdsId - the host that sent the data
      * @return false if newer data was already processed, true otherwise
@@ -259,18 +277,21 @@ public class VmManager {
             return true;
         }
         Double statusEventTimestamp = vdsmVm.getTimestamp();
-        if (!vdsId.equals(lastStatusEventReporterId) || lastStatusEventTimestamp <= statusEventTimestamp) {
-            lastStatusEventTimestamp = statusEventTimestamp;
-            lastStatusEventReporterId = vdsId;
-            return true;
+        while (true) {
+            VmRuntimeState state = runtimeState.get();
+            if (!state.isLatestData(statusEventTimestamp, vdsId)) {
+                return false;
+            }
+            if (runtimeState.compareAndSet(state, state.withStatusEvent(statusEventTimestamp, vdsId))) {
+                return true;
+            }
         }
-        return false;
     }
 
     void clearLastStatusEventStampIfFromVds(Guid vdsId) {
-        if (vdsId.equals(lastStatusEventReporterId)) {
-            lastStatusEventReporterId = null;
-        }
+        runtimeState.updateAndGet(state -> vdsId.equals(state.getStatusEventReporterId())
+                ? state.withoutStatusEventReporter()
+                : state);
     }
 
     public boolean isColdReboot() {
@@ -289,6 +310,36 @@ public class VmManager {
         this.statistics = statistics;
     }
 
+    public DiskImageDynamic getPersistedDiskImageDynamic(Guid diskId) {
+        return persistedDiskImageDynamics.get(diskId);
+    }
+
+    public Long getDiskImageDynamicsWriteTime() {
+        return diskImageDynamicsWriteTime;
+    }
+
+    /**
+     * Remember the disk image dynamic data that was written to the database, so the monitoring
+     * can skip writing it again as long as it doesn't change.
+     *
+     * in general this should be called while holding the manager lock
+     *
+     * @param diskImageDynamics - the written data
+     * @param complete - whether the data of all the disks of the VM was written
+     */
+    public void diskImageDynamicsPersisted(Collection<DiskImageDynamic> diskImageDynamics, boolean complete) {
+        if (complete) {
+            persistedDiskImageDynamics.clear();
+            diskImageDynamicsWriteTime = System.nanoTime();
+        }
+        diskImageDynamics.forEach(dynamic -> persistedDiskImageDynamics.put(dynamic.getId(), dynamic));
+    }
+
+    public void clearPersistedDiskImageDynamics() {
+        persistedDiskImageDynamics.clear();
+        diskImageDynamicsWriteTime = null;
+    }
+
     public String getName() {
         return name;
     }
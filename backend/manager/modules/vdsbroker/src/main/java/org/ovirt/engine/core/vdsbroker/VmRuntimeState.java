@@ -0,0 +1,74 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * An immutable snapshot of the timestamps the monitoring of a VM relies on, as kept by its {@link VmManager}. Every
+ * change creates a new snapshot with a higher version that replaces the previous one by compare-and-set, so the
+ * timestamps are consistent with each other when read or updated without taking the lock of the VM. The monitoring
+ * still analyzes a VM only while holding its lock, and skips it for the cycle if a command holds it.
+ */
+public final class VmRuntimeState {
+
+    static final VmRuntimeState INITIAL = new VmRuntimeState(0, null, null, null);
+
+    private final long version;
+    private final Double statusEventTimestamp;
+    private final Guid statusEventReporterId;
+    private final Long dataChangedTime;
+
+    private VmRuntimeState(long version,
+            Double statusEventTimestamp,
+            Guid statusEventReporterId,
+            Long dataChangedTime) {
+        this.version = version;
+        this.statusEventTimestamp = statusEventTimestamp;
+        this.statusEventReporterId = statusEventReporterId;
+        this.dataChangedTime = dataChangedTime;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the VDSM timestamp of the last processed data of the VM
+     */
+    public Double getStatusEventTimestamp() {
+        return statusEventTimestamp;
+    }
+
+    /**
+     * @return the host that reported the last processed data of the VM
+     */
+    public Guid getStatusEventReporterId() {
+        return statusEventReporterId;
+    }
+
+    /**
+     * @return the time, in terms of {@link System#nanoTime()}, the data of the VM was last changed by the engine
+     */
+    public Long getDataChangedTime() {
+        return dataChangedTime;
+    }
+
+    /**
+     * Checks whether the data reported by the given host with the given VDSM timestamp isn't older than data
+     * that was already processed.
+     */
+    boolean isLatestData(Double timestamp, Guid vdsId) {
+        return !vdsId.equals(statusEventReporterId) || statusEventTimestamp <= timestamp;
+    }
+
+    VmRuntimeState withStatusEvent(Double timestamp, Guid vdsId) {
+        return new VmRuntimeState(version + 1, timestamp, vdsId, dataChangedTime);
+    }
+
+    VmRuntimeState withoutStatusEventReporter() {
+        return new VmRuntimeState(version + 1, statusEventTimestamp, null, dataChangedTime);
+    }
+
+    VmRuntimeState withDataChangedTime(long time) {
+        return new VmRuntimeState(version + 1, statusEventTimestamp, statusEventReporterId, time);
+    }
+}
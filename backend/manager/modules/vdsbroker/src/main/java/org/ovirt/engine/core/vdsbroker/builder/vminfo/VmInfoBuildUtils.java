@@ -104,7 +104,6 @@ import org.ovirt.engine.core.dao.StorageServerConnectionDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
 import org.ovirt.engine.core.dao.VdsStaticDao;
-import org.ovirt.engine.core.dao.VdsStatisticsDao;
 import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmNumaNodeDao;
@@ -121,6 +120,7 @@ import org.ovirt.engine.core.utils.StringMapUtils;
 import org.ovirt.engine.core.utils.archstrategy.ArchStrategyFactory;
 import org.ovirt.engine.core.utils.collections.ComparatorUtils;
 import org.ovirt.engine.core.vdsbroker.architecture.GetControllerIndices;
+import org.ovirt.engine.core.vdsbroker.monitoring.StatisticsStore;
 import org.ovirt.engine.core.vdsbroker.monitoring.VmDevicesMonitoring;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.CloudInitHandler;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.IgnitionHandler;
@@ -168,7 +168,7 @@ public class VmInfoBuildUtils {
     private final VdsNumaNodeDao vdsNumaNodeDao;
     private final VdsStaticDao vdsStaticDao;
     private final VdsDynamicDao vdsDynamicDao;
-    private final VdsStatisticsDao vdsStatisticsDao;
+    private final StatisticsStore statisticsStore;
     private final HostDeviceDao hostDeviceDao;
     private final DiskVmElementDao diskVmElementDao;
     private final VmDevicesMonitoring vmDevicesMonitoring;
@@ -208,7 +208,7 @@ public class VmInfoBuildUtils {
             VdsNumaNodeDao vdsNumaNodeDao,
             VdsStaticDao vdsStaticDao,
             VdsDynamicDao vdsDynamicDao,
-            VdsStatisticsDao vdsStatisticsDao,
+            StatisticsStore statisticsStore,
             HostDeviceDao hostDeviceDao,
             VmSerialNumberBuilder vmSerialNumberBuilder,
             DiskVmElementDao diskVmElementDao,
@@ -232,7 +232,7 @@ public class VmInfoBuildUtils {
         this.vdsNumaNodeDao = Objects.requireNonNull(vdsNumaNodeDao);
         this.vdsStaticDao = Objects.requireNonNull(vdsStaticDao);
         this.vdsDynamicDao = Objects.requireNonNull(vdsDynamicDao);
-        this.vdsStatisticsDao = Objects.requireNonNull(vdsStatisticsDao);
+        this.statisticsStore = Objects.requireNonNull(statisticsStore);
         this.hostDeviceDao = Objects.requireNonNull(hostDeviceDao);
         this.vmSerialNumberBuilder = Objects.requireNonNull(vmSerialNumberBuilder);
         this.diskVmElementDao = Objects.requireNonNull(diskVmElementDao);
@@ -1421,7 +1421,7 @@ public class VmInfoBuildUtils {
     }
 
     public VdsStatistics getVdsStatistics(Guid hostId) {
-        return vdsStatisticsDao.get(hostId);
+        return statisticsStore.getVdsStatistics(hostId);
     }
 
     public Map<String, HostDevice> getHostDevices(Guid hostId) {
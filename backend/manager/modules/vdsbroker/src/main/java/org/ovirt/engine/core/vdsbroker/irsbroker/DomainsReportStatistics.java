@@ -0,0 +1,83 @@
+package org.ovirt.engine.core.vdsbroker.irsbroker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+
+/**
+ * Counts the domains reports of the hosts processed by the storage pools, and the database queries done and avoided
+ * by sharing the status of the domains of the pool between the reports.
+ */
+@Singleton
+public class DomainsReportStatistics implements StatisticsMXBean {
+
+    private final LongAdder processedReports = new LongAdder();
+    private final LongAdder neededQueries = new LongAdder();
+    private final LongAdder executedQueries = new LongAdder();
+    private volatile long startTime = System.nanoTime();
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("IrsBroker", this);
+
+    @PostConstruct
+    public void registerInJMX() {
+        jmxRegistration.register();
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    /**
+     * Records the processing of one domains report
+     * @param needed - number of database queries processing the report took before the status of the domains was
+     * shared between the reports
+     */
+    public void recordReport(int needed) {
+        processedReports.increment();
+        neededQueries.add(needed);
+    }
+
+    /**
+     * Records database queries done to load the status of the domains of a pool
+     * @param executed - number of queries
+     */
+    public void recordQueries(int executed) {
+        executedQueries.add(executed);
+    }
+
+    private long getProcessedReports() {
+        return processedReports.sum();
+    }
+
+    private long getAvoidedQueries() {
+        return neededQueries.sum() - executedQueries.sum();
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime));
+        long processed = getProcessedReports();
+        return Arrays.asList(
+                "processed reports: " + processed,
+                String.format("processed reports per second: %.2f", (double) processed / seconds),
+                "executed queries: " + executedQueries.sum(),
+                "avoided queries: " + getAvoidedQueries());
+    }
+
+    @Override
+    public void reset() {
+        processedReports.reset();
+        neededQueries.reset();
+        executedQueries.reset();
+        startTime = System.nanoTime();
+    }
+}
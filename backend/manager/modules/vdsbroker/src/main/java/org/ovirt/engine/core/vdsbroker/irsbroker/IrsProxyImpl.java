@@ -17,6 +17,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
@@ -168,6 +169,9 @@ public class IrsProxyImpl implements IrsProxy {
     @Inject
     private AuditLogDirector auditLogDirector;
 
+    @Inject
+    private DomainsReportStatistics domainsReportStatistics;
+
     @Inject
     @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
     private ManagedScheduledExecutorService schedulerService;
@@ -213,6 +217,15 @@ public class IrsProxyImpl implements IrsProxy {
 
     private Guid storagePoolId = Guid.Empty;
 
+    /**
+     * The status of the pool and its domains shared by the handling of the domains reports of the hosts, reloaded
+     * when older than a host refresh interval, or dropped when the engine changes it.
+     */
+    private volatile PoolDomainsStatus poolDomainsStatus;
+    private final Object poolDomainsStatusLock = new Object();
+    private final AtomicLong poolDomainsStatusGeneration = new AtomicLong();
+    private long poolDomainsStatusMaxAge;
+
     public IrsProxyImpl(Guid storagePoolId) {
         this.storagePoolId = storagePoolId;
     }
@@ -220,6 +233,7 @@ public class IrsProxyImpl implements IrsProxy {
     @PostConstruct
     public void init() {
         long storagePoolRefreshTime = Config.<Long> getValue(ConfigValues.StoragePoolRefreshTimeInSeconds);
+        poolDomainsStatusMaxAge = TimeUnit.SECONDS.toNanos(Config.<Long> getValue(ConfigValues.VdsRefreshRate));
         storagePoolRefreshJob = schedulerService.scheduleWithFixedDelay(this::updatingTimerElapsed,
                 storagePoolRefreshTime,
                 storagePoolRefreshTime,
@@ -233,6 +247,48 @@ public class IrsProxyImpl implements IrsProxy {
 
     private void updateStoragePoolStatus(Guid poolId, StoragePoolStatus status, AuditLogType auditLogType, EngineError error) {
         getEventListener().storagePoolStatusChange(poolId, status, auditLogType, error);
+        invalidatePoolDomainsStatus();
+    }
+
+    /**
+     * Returns the status of the pool and its domains, loading it if it isn't loaded or it's older than a host
+     * refresh interval. The hosts report their domains every refresh interval, so all the reports of an interval
+     * share one load instead of querying the domains by status for each report.
+     */
+    private PoolDomainsStatus getPoolDomainsStatus() {
+        PoolDomainsStatus status = poolDomainsStatus;
+        if (isPoolDomainsStatusValid(status)) {
+            return status;
+        }
+        synchronized (poolDomainsStatusLock) {
+            status = poolDomainsStatus;
+            if (isPoolDomainsStatusValid(status)) {
+                return status;
+            }
+            long generation = poolDomainsStatusGeneration.get();
+            status = new PoolDomainsStatus(storagePoolDao.get(storagePoolId),
+                    storagePoolIsoMapDao.getAllForStoragePool(storagePoolId),
+                    storageDomainStaticDao.getAllForStoragePool(storagePoolId),
+                    System.nanoTime());
+            domainsReportStatistics.recordQueries(3);
+            // don't keep a status that the engine changed while it was loaded
+            if (generation == poolDomainsStatusGeneration.get()) {
+                poolDomainsStatus = status;
+            }
+            return status;
+        }
+    }
+
+    private boolean isPoolDomainsStatusValid(PoolDomainsStatus status) {
+        return status != null && System.nanoTime() - status.getLoadTime() < poolDomainsStatusMaxAge;
+    }
+
+    /**
+     * Drops the loaded status of the pool and its domains, called when the engine changes it.
+     */
+    private void invalidatePoolDomainsStatus() {
+        poolDomainsStatusGeneration.incrementAndGet();
+        poolDomainsStatus = null;
     }
 
     public void updatingTimerElapsed() {
@@ -260,6 +316,9 @@ public class IrsProxyImpl implements IrsProxy {
                     }
                 }
             } catch (Exception ignore) {
+            } finally {
+                // the refresh may have changed the status of the pool and its domains
+                invalidatePoolDomainsStatus();
             }
         });
     }
@@ -1195,11 +1254,11 @@ public class IrsProxyImpl implements IrsProxy {
             return;
         }
 
-        StoragePool storagePool =
-                storagePoolDao.get(storagePoolId);
-        if (storagePool != null
-                && (storagePool.getStatus() == StoragePoolStatus.Up
-                || storagePool.getStatus() == StoragePoolStatus.NonResponsive)) {
+        PoolDomainsStatus poolDomainsStatus = getPoolDomainsStatus();
+        // the queries that handling the report would take if the status was queried for each report
+        int neededQueries = 1;
+        if (poolDomainsStatus.getPoolStatus() == StoragePoolStatus.Up
+                || poolDomainsStatus.getPoolStatus() == StoragePoolStatus.NonResponsive) {
 
             Guid vdsId = vds.getId();
             String vdsName = vds.getName();
@@ -1212,16 +1271,19 @@ public class IrsProxyImpl implements IrsProxy {
                 Map<Guid, DomainMonitoringResult> domainsProblematicReportInfo = Collections.emptyMap();
 
                 if (StoragePoolDomainHelper.vdsDomainsActiveMonitoringStatus.contains(vds.getStatus())) {
+                    neededQueries += 3 + data.size();
                     domainsProblematicReportInfo =
                             handleMonitoredDomainsForHost(vdsId,
                                     vdsName,
                                     data,
-                                    monitoredDomains);
+                                    monitoredDomains,
+                                    poolDomainsStatus);
                 }
 
                 Set<Guid> domainsInMaintenance = Collections.emptySet();
                 if (StoragePoolDomainHelper.vdsDomainsMaintenanceMonitoringStatus.contains(vds.getStatus())) {
-                    domainsInMaintenance = handleDomainsInMaintenanceForHost(monitoredDomains);
+                    neededQueries += 2;
+                    domainsInMaintenance = handleDomainsInMaintenanceForHost(monitoredDomains, poolDomainsStatus);
                 }
 
                 updateDomainInProblem(vdsId, vdsName, domainsProblematicReportInfo, domainsInMaintenance);
@@ -1230,6 +1292,7 @@ public class IrsProxyImpl implements IrsProxy {
                 log.debug("Exception", ex);
             }
         }
+        domainsReportStatistics.recordReport(neededQueries);
     }
 
     private static boolean shouldProcessVdsDomainReport(VDS vds) {
@@ -1245,16 +1308,15 @@ public class IrsProxyImpl implements IrsProxy {
      * The methods inspects which domains status can be changed to Maintenance according to the host
      * domains report.
      * @param monitoredDomains domains that the host monitors
+     * @param poolDomainsStatus the status of the domains of the pool
      * @return domains that are not monitored by the host and are in
      * @link StorageDomainStatus#Maintenance or @link StorageDomainStatus#PreparingForMaintenance.
      */
-    private Set<Guid> handleDomainsInMaintenanceForHost(Collection<Guid> monitoredDomains) {
+    private Set<Guid> handleDomainsInMaintenanceForHost(Collection<Guid> monitoredDomains,
+            PoolDomainsStatus poolDomainsStatus) {
         Set<Guid>  domainsInMaintenance = new HashSet<>();
-        Set<Guid> maintInPool = new HashSet<>(
-                storageDomainStaticDao.getAllIds(
-                        storagePoolId, StorageDomainStatus.Maintenance));
-        maintInPool.addAll(storageDomainStaticDao.getAllIds(
-                storagePoolId, StorageDomainStatus.PreparingForMaintenance));
+        Set<Guid> maintInPool = new HashSet<>(poolDomainsStatus.getDomainIds(StorageDomainStatus.Maintenance));
+        maintInPool.addAll(poolDomainsStatus.getDomainIds(StorageDomainStatus.PreparingForMaintenance));
 
         for (Guid tempDomainId : maintInPool) {
             if (!monitoredDomains.contains(tempDomainId)) {
@@ -1271,17 +1333,14 @@ public class IrsProxyImpl implements IrsProxy {
      * the host reporting is problematic for.
      */
     private Map<Guid, DomainMonitoringResult> handleMonitoredDomainsForHost(final Guid vdsId, final String vdsName,
-            final ArrayList<VDSDomainsData> data, Collection<Guid> monitoredDomains) {
+            final ArrayList<VDSDomainsData> data, Collection<Guid> monitoredDomains,
+            PoolDomainsStatus poolDomainsStatus) {
         Map<Guid, DomainMonitoringResult> domainsProblematicReportInfo = new HashMap<>();
         // build a list of all domains in pool
         // which are in status Active or Unknown
-        Set<Guid> activeDomainsInPool = new HashSet<>(
-                storageDomainStaticDao.getAllIds(
-                        storagePoolId, StorageDomainStatus.Active));
-        Set<Guid> unknownDomainsInPool = new HashSet<>(storageDomainStaticDao.getAllIds(
-                storagePoolId, StorageDomainStatus.Unknown));
-        Set<Guid> inActiveDomainsInPool =
-                new HashSet<>(storageDomainStaticDao.getAllIds(storagePoolId, StorageDomainStatus.Inactive));
+        Set<Guid> activeDomainsInPool = poolDomainsStatus.getDomainIds(StorageDomainStatus.Active);
+        Set<Guid> unknownDomainsInPool = poolDomainsStatus.getDomainIds(StorageDomainStatus.Unknown);
+        Set<Guid> inActiveDomainsInPool = poolDomainsStatus.getDomainIds(StorageDomainStatus.Inactive);
 
         // build a list of all the domains in
         // pool (activeDomainsInPool and unknownDomainsInPool) that are not
@@ -1306,7 +1365,7 @@ public class IrsProxyImpl implements IrsProxy {
         // and are contained in the Active or
         // Unknown domains in pool
         for (VDSDomainsData tempData : data) {
-            StorageDomainStatic storageDomain = storageDomainStaticDao.get(tempData.getDomainId());
+            StorageDomainStatic storageDomain = poolDomainsStatus.getDomain(tempData.getDomainId());
             if (activeDomainsInPool.contains(tempData.getDomainId()) || unknownDomainsInPool.contains(tempData.getDomainId())) {
                 DomainMonitoringResult domainMonitoringResult = analyzeDomainReport(tempData, false);
                 if (domainMonitoringResult.invalidAndActual()) {
@@ -1316,14 +1375,21 @@ public class IrsProxyImpl implements IrsProxy {
                 }
             } else if (inActiveDomainsInPool.contains(tempData.getDomainId())
                     && analyzeDomainReport(tempData, false).validAndActual()) {
+                StoragePoolIsoMap map =
+                        storagePoolIsoMapDao.get(new StoragePoolIsoMapId(tempData.getDomainId(), storagePoolId));
+                // the shared status may be up to a refresh interval old, the domain may have been moved out of
+                // inactive since it was loaded
+                if (map == null || map.getStatus() != StorageDomainStatus.Inactive) {
+                    invalidatePoolDomainsStatus();
+                    continue;
+                }
                 log.warn("Storage Domain '{}' was reported by Host '{}' as Active in Pool '{}', moving to active status",
                         getDomainIdTuple(tempData.getDomainId()),
                         vdsName,
                         storagePoolId);
-                StoragePoolIsoMap map =
-                        storagePoolIsoMapDao.get(new StoragePoolIsoMapId(tempData.getDomainId(), storagePoolId));
                 map.setStatus(StorageDomainStatus.Active);
                 storagePoolIsoMapDao.update(map);
+                invalidatePoolDomainsStatus();
 
                 if (storageDomain.getStorageType().isBlockDomain()) {
                     storageDomainsToSync.add(storageDomain.getId());
@@ -1363,11 +1429,9 @@ public class IrsProxyImpl implements IrsProxy {
     @Override
     public List<Guid> obtainDomainsReportedAsProblematic(List<VDSDomainsData> vdsDomainsData) {
         List<Guid> domainsInProblem = new LinkedList<>();
-        Set<Guid> domainsInPool = new HashSet<>(
-                storageDomainStaticDao.getAllIds(
-                        storagePoolId, StorageDomainStatus.Active));
-        domainsInPool.addAll(storageDomainStaticDao.getAllIds(
-                storagePoolId, StorageDomainStatus.Unknown));
+        PoolDomainsStatus poolDomainsStatus = getPoolDomainsStatus();
+        Set<Guid> domainsInPool = new HashSet<>(poolDomainsStatus.getDomainIds(StorageDomainStatus.Active));
+        domainsInPool.addAll(poolDomainsStatus.getDomainIds(StorageDomainStatus.Unknown));
         List<Guid> domainWhichWereSeen = new ArrayList<>();
         for (VDSDomainsData vdsDomainData : vdsDomainsData) {
             if (domainsInPool.contains(vdsDomainData.getDomainId())) {
@@ -1779,6 +1843,7 @@ public class IrsProxyImpl implements IrsProxy {
 
         // clear from cache of domainsInProblem
         clearDomainFromCache(domainId, nonOpVdss);
+        invalidatePoolDomainsStatus();
         return result;
     }
 
@@ -1855,6 +1920,7 @@ public class IrsProxyImpl implements IrsProxy {
         // clear lists
         timersMap.clear();
         domainsInProblem.clear();
+        invalidatePoolDomainsStatus();
     }
 
     @Override
@@ -0,0 +1,76 @@
+package org.ovirt.engine.core.vdsbroker.irsbroker;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ovirt.engine.core.common.businessentities.StorageDomainStatic;
+import org.ovirt.engine.core.common.businessentities.StorageDomainStatus;
+import org.ovirt.engine.core.common.businessentities.StoragePool;
+import org.ovirt.engine.core.common.businessentities.StoragePoolIsoMap;
+import org.ovirt.engine.core.common.businessentities.StoragePoolStatus;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * An immutable snapshot of the status of a storage pool and of its storage domains. It is loaded with one query per
+ * table and shared by the handling of the domains reports of all the hosts of the pool, instead of querying the
+ * domains by status for every report.
+ */
+class PoolDomainsStatus {
+
+    private final StoragePoolStatus poolStatus;
+    private final Map<StorageDomainStatus, Set<Guid>> domainIdsByStatus;
+    private final Map<Guid, StorageDomainStatic> domains;
+    private final long loadTime;
+
+    PoolDomainsStatus(StoragePool storagePool,
+            List<StoragePoolIsoMap> isoMaps,
+            List<StorageDomainStatic> poolDomains,
+            long loadTime) {
+        this.poolStatus = storagePool != null ? storagePool.getStatus() : null;
+        this.domains = new HashMap<>();
+        poolDomains.forEach(domain -> domains.put(domain.getId(), domain));
+        this.domainIdsByStatus = new EnumMap<>(StorageDomainStatus.class);
+        for (StoragePoolIsoMap isoMap : isoMaps) {
+            StorageDomainStatic domain = domains.get(isoMap.getStorageId());
+            // Cinder and managed block domains aren't monitored by the hosts
+            if (isoMap.getStatus() == null || domain == null
+                    || domain.getStorageType().isCinderDomain()
+                    || domain.getStorageType().isManagedBlockStorage()) {
+                continue;
+            }
+            domainIdsByStatus.computeIfAbsent(isoMap.getStatus(), status -> new HashSet<>())
+                    .add(isoMap.getStorageId());
+        }
+        this.loadTime = loadTime;
+    }
+
+    /**
+     * @return the status of the pool, or {@code null} if the pool doesn't exist
+     */
+    StoragePoolStatus getPoolStatus() {
+        return poolStatus;
+    }
+
+    /**
+     * @return the ids of the domains of the pool that are in the given status
+     */
+    Set<Guid> getDomainIds(StorageDomainStatus status) {
+        return Collections.unmodifiableSet(domainIdsByStatus.getOrDefault(status, Collections.emptySet()));
+    }
+
+    StorageDomainStatic getDomain(Guid domainId) {
+        return domains.get(domainId);
+    }
+
+    /**
+     * @return the time, in terms of {@link System#nanoTime()}, the snapshot was loaded
+     */
+    long getLoadTime() {
+        return loadTime;
+    }
+}
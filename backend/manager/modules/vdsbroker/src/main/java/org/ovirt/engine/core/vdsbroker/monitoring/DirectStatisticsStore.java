@@ -0,0 +1,79 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.Collection;
+
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.compat.TransactionScopeOption;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+
+/**
+ * Writes the statistics to the database as soon as they are saved, in the calling thread.
+ */
+public class DirectStatisticsStore implements StatisticsStore {
+
+    private final VmStatisticsDao vmStatisticsDao;
+    private final VmNetworkStatisticsDao vmNetworkStatisticsDao;
+    private final VdsStatisticsDao vdsStatisticsDao;
+    private final InterfaceDao interfaceDao;
+
+    public DirectStatisticsStore(VmStatisticsDao vmStatisticsDao,
+            VmNetworkStatisticsDao vmNetworkStatisticsDao,
+            VdsStatisticsDao vdsStatisticsDao,
+            InterfaceDao interfaceDao) {
+        this.vmStatisticsDao = vmStatisticsDao;
+        this.vmNetworkStatisticsDao = vmNetworkStatisticsDao;
+        this.vdsStatisticsDao = vdsStatisticsDao;
+        this.interfaceDao = interfaceDao;
+    }
+
+    @Override
+    public void saveVmStatistics(Collection<VmStatistics> statistics) {
+        vmStatisticsDao.updateAllInBatch(statistics);
+    }
+
+    @Override
+    public void saveVmNetworkStatistics(Collection<VmNetworkStatistics> statistics) {
+        vmNetworkStatisticsDao.updateAllInBatch(statistics);
+    }
+
+    @Override
+    public void saveVdsStatistics(VdsStatistics statistics) {
+        vdsStatisticsDao.update(statistics);
+    }
+
+    @Override
+    public void saveVdsNetworkStatistics(Collection<VdsNetworkStatistics> statistics) {
+        if (statistics.isEmpty()) {
+            return;
+        }
+
+        TransactionSupport.executeInScope(TransactionScopeOption.Required,
+                () -> {
+                    interfaceDao.massUpdateStatisticsForVds(statistics);
+                    return null;
+                });
+    }
+
+    @Override
+    public VmStatistics getVmStatistics(Guid vmId) {
+        return vmStatisticsDao.get(vmId);
+    }
+
+    @Override
+    public VdsStatistics getVdsStatistics(Guid vdsId) {
+        return vdsStatisticsDao.get(vdsId);
+    }
+
+    @Override
+    public void flush() {
+        // nothing is kept in memory
+    }
+}
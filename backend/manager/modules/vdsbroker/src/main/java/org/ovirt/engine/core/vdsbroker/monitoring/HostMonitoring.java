@@ -38,17 +38,12 @@ import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdAndVdsVDSCommandParametersBase;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.compat.TransactionScopeOption;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogable;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableImpl;
-import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
-import org.ovirt.engine.core.dao.network.InterfaceDao;
-import org.ovirt.engine.core.dao.network.NetworkDao;
 import org.ovirt.engine.core.utils.NetworkUtils;
-import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
 import org.ovirt.engine.core.vdsbroker.VmManager;
@@ -70,33 +65,27 @@ public class HostMonitoring implements HostMonitoringInterface {
     private final Map<String, InterfaceStatus> oldInterfaceStatus = new HashMap<>();
     private final ResourceManager resourceManager;
     private final AuditLogDirector auditLogDirector;
-    private final ClusterDao clusterDao;
     private final VdsDynamicDao vdsDynamicDao;
-    private final InterfaceDao interfaceDao;
     private final VdsNumaNodeDao vdsNumaNodeDao;
-    private final NetworkDao networkDao;
+    private final HostMonitoringMetadataCache metadataCache;
     private static final Logger log = LoggerFactory.getLogger(HostMonitoring.class);
 
     public HostMonitoring(VdsManager vdsManager,
             VDS vds,
             MonitoringStrategy monitoringStrategy,
             ResourceManager resourceManager,
-            ClusterDao clusterDao,
             VdsDynamicDao vdsDynamicDao,
-            InterfaceDao interfaceDao,
             VdsNumaNodeDao vdsNumaNodeDao,
-            NetworkDao networkDao,
+            HostMonitoringMetadataCache metadataCache,
             AuditLogDirector auditLogDirector) {
         this.vdsManager = vdsManager;
         this.vds = vds;
         firstStatus = vds.getStatus();
         this.monitoringStrategy = monitoringStrategy;
         this.resourceManager = resourceManager;
-        this.clusterDao = clusterDao;
         this.vdsDynamicDao = vdsDynamicDao;
-        this.interfaceDao = interfaceDao;
         this.vdsNumaNodeDao = vdsNumaNodeDao;
-        this.networkDao = networkDao;
+        this.metadataCache = metadataCache;
         this.auditLogDirector = auditLogDirector;
     }
 
@@ -267,7 +256,7 @@ public class HostMonitoring implements HostMonitoringInterface {
         if (saveVdsStatistics) {
             VdsStatistics stat = vds.getStatisticsData();
             vdsManager.updateStatisticsData(stat);
-            checkVdsMemoryThreshold(clusterDao.get(vds.getClusterId()), stat);
+            checkVdsMemoryThreshold(metadataCache.getCluster(vds.getClusterId()), stat);
             checkVdsCpuThreshold(stat);
             checkVdsNetworkThreshold();
             checkVdsSwapThreshold(stat);
@@ -276,13 +265,7 @@ public class HostMonitoring implements HostMonitoringInterface {
             for (VdsNetworkInterface iface : vds.getInterfaces()) {
                 statistics.add(iface.getStatistics());
             }
-            if (!statistics.isEmpty()) {
-                TransactionSupport.executeInScope(TransactionScopeOption.Required,
-                        () -> {
-                            interfaceDao.massUpdateStatisticsForVds(statistics);
-                            return null;
-                        });
-            }
+            vdsManager.updateInterfaceStatistics(statistics);
             saveNumaStatisticsDataToDb();
         }
     }
@@ -291,7 +274,7 @@ public class HostMonitoring implements HostMonitoringInterface {
         final List<VdsNumaNode> vdsNumaNodesToSave = new ArrayList<>();
         List<VdsNumaNode> updateNumaNodes = vds.getNumaNodeList();
         if (!updateNumaNodes.isEmpty()) {
-            List<VdsNumaNode> dbVdsNumaNodes = vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(vds.getId());
+            List<VdsNumaNode> dbVdsNumaNodes = metadataCache.getHostNumaNodes(vds.getId());
             Map<Integer, VdsNumaNode> nodesMap = new HashMap<>();
             for (VdsNumaNode node : dbVdsNumaNodes) {
                 nodesMap.put(node.getIndex(), node);
@@ -300,8 +283,12 @@ public class HostMonitoring implements HostMonitoringInterface {
                 VdsNumaNode dbNode = nodesMap.get(node.getIndex());
                 if (dbNode != null) {
                     if (node.getNumaNodeStatistics() != null) {
-                        dbNode.setNumaNodeStatistics(node.getNumaNodeStatistics());
-                        vdsNumaNodesToSave.add(dbNode);
+                        // the nodes of the cache are shared, so the statistics are saved on a copy
+                        VdsNumaNode nodeToSave = new VdsNumaNode();
+                        nodeToSave.setId(dbNode.getId());
+                        nodeToSave.setIndex(dbNode.getIndex());
+                        nodeToSave.setNumaNodeStatistics(node.getNumaNodeStatistics());
+                        vdsNumaNodesToSave.add(nodeToSave);
                     }
                 }
             }
@@ -590,7 +577,7 @@ public class HostMonitoring implements HostMonitoringInterface {
     private void fetchHostInterfaces() {
         List<VdsNetworkInterface> nics;
         if (vds.getInterfaces().isEmpty()) {
-             nics = interfaceDao.getAllInterfacesForVds(vds.getId());
+             nics = metadataCache.getHostNics(vds.getId());
             vds.getInterfaces().addAll(nics);
         } else {
             nics = vds.getInterfaces();
@@ -668,7 +655,7 @@ public class HostMonitoring implements HostMonitoringInterface {
             NetworkMonitoringHelper networkMonitoringHelper = new NetworkMonitoringHelper();
             reportNicStatusChanges();
             problematicNicsWithNetworks = networkMonitoringHelper.determineProblematicNics(vds.getInterfaces(),
-                    networkDao.getAllForCluster(vds.getClusterId()));
+                    metadataCache.getClusterNetworks(vds.getClusterId()));
         } catch (Exception e) {
             log.error("Failure on checkInterfaces on update runtime info for host '{}': {}",
                     vds.getName(), e.getMessage());
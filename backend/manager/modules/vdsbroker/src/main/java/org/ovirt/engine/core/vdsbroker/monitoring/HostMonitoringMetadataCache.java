@@ -0,0 +1,268 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.businessentities.network.Network;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.common.qualifiers.ClusterNetworksUpdated;
+import org.ovirt.engine.core.common.qualifiers.ClusterUpdated;
+import org.ovirt.engine.core.common.qualifiers.HostNicsUpdated;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.ClusterDao;
+import org.ovirt.engine.core.dao.VdsNumaNodeDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.dao.network.NetworkDao;
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionInvalidator;
+
+/**
+ * Read-through cache of the clusters, cluster networks, host NICs and host NUMA nodes that the host monitoring reads
+ * on every refresh and that change only when the configuration does.
+ * <p>
+ * Each entry is invalidated when the engine changes its data, either directly or by firing the matching event, and
+ * again when the transaction that changed it completes. Every invalidation bumps the version of the entry, so a value
+ * that was loaded while the entry was invalidated is not kept. Entries are also reloaded once they are older than
+ * {@link #MAX_ENTRY_AGE}, for changes the engine isn't notified of, e.g. done by the database itself.
+ */
+@Singleton
+public class HostMonitoringMetadataCache implements StatisticsMXBean {
+
+    static final long MAX_ENTRY_AGE = TimeUnit.MINUTES.toMillis(5);
+
+    public enum Region {
+        CLUSTER("cluster"),
+        CLUSTER_NETWORKS("cluster networks"),
+        HOST_NICS("host nics"),
+        HOST_NUMA_NODES("host numa nodes");
+
+        private final String regionName;
+
+        Region(String regionName) {
+            this.regionName = regionName;
+        }
+    }
+
+    @Inject
+    private ClusterDao clusterDao;
+
+    @Inject
+    private NetworkDao networkDao;
+
+    @Inject
+    private InterfaceDao interfaceDao;
+
+    @Inject
+    private VdsNumaNodeDao vdsNumaNodeDao;
+
+    @Inject
+    private TransactionCompletionInvalidator transactionCompletionInvalidator;
+
+    private final CachedRegion<Cluster> clusters = new CachedRegion<>(Region.CLUSTER);
+    private final CachedRegion<List<Network>> clusterNetworks = new CachedRegion<>(Region.CLUSTER_NETWORKS);
+    private final CachedRegion<List<VdsNetworkInterface>> hostNics = new CachedRegion<>(Region.HOST_NICS);
+    private final CachedRegion<List<VdsNumaNode>> hostNumaNodes = new CachedRegion<>(Region.HOST_NUMA_NODES);
+    private final Map<Region, CachedRegion<?>> regions = new EnumMap<>(Region.class);
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("HostMonitoring", this);
+
+    public HostMonitoringMetadataCache() {
+        Arrays.asList(clusters, clusterNetworks, hostNics, hostNumaNodes).forEach(r -> regions.put(r.region, r));
+    }
+
+    @PostConstruct
+    public void registerInJMX() {
+        jmxRegistration.register();
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    public Cluster getCluster(Guid clusterId) {
+        return clusters.get(clusterId, currentTimeMillis(), clusterDao::get);
+    }
+
+    /**
+     * @return the networks attached to the cluster, as returned by {@link NetworkDao#getAllForCluster(Guid)}
+     */
+    public List<Network> getClusterNetworks(Guid clusterId) {
+        return clusterNetworks.get(clusterId,
+                currentTimeMillis(),
+                id -> Collections.unmodifiableList(networkDao.getAllForCluster(id)));
+    }
+
+    public List<VdsNetworkInterface> getHostNics(Guid hostId) {
+        return hostNics.get(hostId,
+                currentTimeMillis(),
+                id -> Collections.unmodifiableList(interfaceDao.getAllInterfacesForVds(id)));
+    }
+
+    /**
+     * @return the NUMA nodes of the host, shared by all the callers, so they must not be modified
+     */
+    public List<VdsNumaNode> getHostNumaNodes(Guid hostId) {
+        return hostNumaNodes.get(hostId,
+                currentTimeMillis(),
+                id -> Collections.unmodifiableList(vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(id)));
+    }
+
+    public void invalidateCluster(Guid clusterId) {
+        invalidate(clusters, clusterId);
+    }
+
+    public void invalidateClusterNetworks(Guid clusterId) {
+        invalidate(clusterNetworks, clusterId);
+    }
+
+    public void invalidateHostNics(Guid hostId) {
+        invalidate(hostNics, hostId);
+    }
+
+    public void invalidateHostNumaNodes(Guid hostId) {
+        invalidate(hostNumaNodes, hostId);
+    }
+
+    /**
+     * Drops the metadata of a host that is no longer monitored
+     */
+    public void removeHost(Guid hostId) {
+        hostNics.invalidate(hostId);
+        hostNumaNodes.invalidate(hostId);
+    }
+
+    private void onClusterUpdated(@Observes @ClusterUpdated Guid clusterId) {
+        invalidateCluster(clusterId);
+    }
+
+    private void onClusterNetworksUpdated(@Observes @ClusterNetworksUpdated Guid clusterId) {
+        invalidateClusterNetworks(clusterId);
+    }
+
+    private void onHostNicsUpdated(@Observes @HostNicsUpdated Guid hostId) {
+        invalidateHostNics(hostId);
+    }
+
+    private void invalidate(CachedRegion<?> region, Guid id) {
+        region.invalidate(id);
+        transactionCompletionInvalidator.invalidateOnCompletion(() -> region.invalidate(id));
+    }
+
+    long getVersion(Region region, Guid id) {
+        return regions.get(region).getVersion(id);
+    }
+
+    private long getHits(Region region) {
+        return regions.get(region).hits.sum();
+    }
+
+    private long getMisses(Region region) {
+        return regions.get(region).misses.sum();
+    }
+
+    private long getInvalidations(Region region) {
+        return regions.get(region).invalidations.sum();
+    }
+
+    private double getHitRatio(Region region) {
+        long hits = getHits(region);
+        long lookups = hits + getMisses(region);
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        return Arrays.stream(Region.values())
+                .map(region -> String.format("%s: hits %d, misses %d, invalidations %d, hit ratio %.2f",
+                        region.regionName,
+                        getHits(region),
+                        getMisses(region),
+                        getInvalidations(region),
+                        getHitRatio(region)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void reset() {
+        regions.values().forEach(region -> {
+            region.hits.reset();
+            region.misses.reset();
+            region.invalidations.reset();
+        });
+    }
+
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static class CachedEntry<V> {
+        private final V value;
+        private final long loadTime;
+
+        CachedEntry(V value, long loadTime) {
+            this.value = value;
+            this.loadTime = loadTime;
+        }
+    }
+
+    private static class CachedRegion<V> {
+        private final Region region;
+        private final ConcurrentMap<Guid, Long> versions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Guid, CachedEntry<V>> entries = new ConcurrentHashMap<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+
+        CachedRegion(Region region) {
+            this.region = region;
+        }
+
+        V get(Guid id, long now, Function<Guid, V> loader) {
+            CachedEntry<V> entry = entries.get(id);
+            if (entry != null && now - entry.loadTime < MAX_ENTRY_AGE) {
+                hits.increment();
+                return entry.value;
+            }
+
+            misses.increment();
+            long version = getVersion(id);
+            V value = loader.apply(id);
+            if (value != null) {
+                // the version is bumped before the entry is removed on invalidation, so a value loaded before the
+                // invalidation is either removed by it or not stored at all
+                entries.compute(id,
+                        (key, current) -> getVersion(key) == version ? new CachedEntry<>(value, now) : current);
+            }
+            return value;
+        }
+
+        void invalidate(Guid id) {
+            versions.merge(id, 1L, Long::sum);
+            entries.remove(id);
+            invalidations.increment();
+        }
+
+        long getVersion(Guid id) {
+            return versions.getOrDefault(id, 0L);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.Collection;
+
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Persists the statistics reported by the monitoring of hosts and VMs.
+ *
+ * An implementation may write the statistics to the database asynchronously, so code that needs the
+ * latest statistics of an entity should read them through the store rather than from the database.
+ * Only the VM statistics used when building the VM parameters are read through the store, all other
+ * readers (scheduling, UI, REST API, DWH) query the database and may see statistics as old as the
+ * write-behind interval, see {@link WriteBehindStatisticsStore}.
+ */
+public interface StatisticsStore {
+
+    void saveVmStatistics(Collection<VmStatistics> statistics);
+
+    void saveVmNetworkStatistics(Collection<VmNetworkStatistics> statistics);
+
+    void saveVdsStatistics(VdsStatistics statistics);
+
+    void saveVdsNetworkStatistics(Collection<VdsNetworkStatistics> statistics);
+
+    VmStatistics getVmStatistics(Guid vmId);
+
+    VdsStatistics getVdsStatistics(Guid vdsId);
+
+    /**
+     * Write all the statistics that were saved to the store but not yet to the database
+     */
+    void flush();
+}
@@ -0,0 +1,75 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.utils.threadpool.ThreadPools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the {@link StatisticsStore} of the engine. The statistics are written behind when
+ * StatisticsWriteBehindInterval is set, and directly otherwise, which is the default.
+ */
+@Singleton
+public class StatisticsStoreProducer {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsStoreProducer.class);
+
+    @Inject
+    private VmStatisticsDao vmStatisticsDao;
+    @Inject
+    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
+    @Inject
+    private VdsStatisticsDao vdsStatisticsDao;
+    @Inject
+    private InterfaceDao interfaceDao;
+    @Inject
+    @ThreadPools(ThreadPools.ThreadPoolType.EngineScheduledThreadPool)
+    private ManagedScheduledExecutorService executor;
+
+    private StatisticsStore statisticsStore;
+    private WriteBehindStatisticsStore writeBehindStatisticsStore;
+
+    @PostConstruct
+    public void init() {
+        StatisticsStore directStatisticsStore = new DirectStatisticsStore(vmStatisticsDao,
+                vmNetworkStatisticsDao,
+                vdsStatisticsDao,
+                interfaceDao);
+        int flushInterval = Config.<Integer> getValue(ConfigValues.StatisticsWriteBehindInterval);
+        if (flushInterval > 0) {
+            int maxPending = Config.<Integer> getValue(ConfigValues.StatisticsWriteBehindMaxPending);
+            log.info("Writing statistics behind, every {} seconds or when {} entities have pending statistics",
+                    flushInterval,
+                    maxPending);
+            writeBehindStatisticsStore = new WriteBehindStatisticsStore(directStatisticsStore, executor, maxPending);
+            writeBehindStatisticsStore.start(flushInterval);
+            statisticsStore = writeBehindStatisticsStore;
+        } else {
+            statisticsStore = directStatisticsStore;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writeBehindStatisticsStore != null) {
+            writeBehindStatisticsStore.stop();
+        }
+    }
+
+    @Produces
+    public StatisticsStore statisticsStore() {
+        return statisticsStore;
+    }
+}
@@ -17,6 +17,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -81,6 +83,8 @@ public class VmAnalyzer {
     private boolean unmanagedVm;
     private boolean coldRebootVmToRun;
     private Collection<Pair<Guid, DiskImageDynamic>> vmDiskImageDynamicToSave;
+    private boolean allVmDiskImageDynamicToSave;
+    private int unchangedVmDiskImageDynamicCount;
     private List<VmGuestAgentInterface> vmGuestAgentNics;
     private boolean vmBalloonDriverRequestedAndUnavailable;
     private boolean vmBalloonDriverNotRequestedOrAvailable;
@@ -90,6 +94,9 @@ public class VmAnalyzer {
     private List<VmJob> vmJobs;
     private VmStatistics statistics;
     private List<VmNetworkInterface> ifaces;
+    /** the statistics of the network interfaces as they were loaded from the database */
+    private Map<Guid, VmNetworkStatistics> persistedNetworkStatistics = Collections.emptyMap();
+    private List<VmNetworkStatistics> vmNetworkStatisticsToSave;
 
     private static final int TO_MEGA_BYTES = 1024;
     /** names of fields in {@link org.ovirt.engine.core.common.businessentities.VmDynamic} that may change by VDSM */
@@ -459,10 +466,42 @@ public class VmAnalyzer {
         return vmDynamicToSave;
     }
 
-    public List<VmNetworkStatistics> getVmNetworkStatistics() {
-        return ifaces != null ?
-                ifaces.stream().map(VmNetworkInterface::getStatistics).collect(Collectors.toList())
-                : Collections.emptyList();
+    /**
+     * @return the statistics of the network interfaces that changed since they were last written to the database
+     */
+    public List<VmNetworkStatistics> getVmNetworkStatisticsToSave() {
+        if (vmNetworkStatisticsToSave == null) {
+            int writeInterval = getUnchangedRowsWriteInterval();
+            vmNetworkStatisticsToSave = ifaces != null ?
+                    ifaces.stream()
+                            .map(VmNetworkInterface::getStatistics)
+                            .filter(stats -> isNetworkStatisticsChanged(
+                                    persistedNetworkStatistics.get(stats.getId()), stats, writeInterval))
+                            .collect(Collectors.toList())
+                    : Collections.emptyList();
+        }
+        return vmNetworkStatisticsToSave;
+    }
+
+    public int getUnchangedVmNetworkStatisticsCount() {
+        return ifaces != null ? ifaces.size() - getVmNetworkStatisticsToSave().size() : 0;
+    }
+
+    /**
+     * The sample time changes on every report, so it is ignored unless the interval for writing
+     * unchanged statistics elapsed since the persisted sample was taken.
+     */
+    static boolean isNetworkStatisticsChanged(VmNetworkStatistics persisted, VmNetworkStatistics current,
+            int writeInterval) {
+        if (persisted == null || writeInterval <= 0
+                || persisted.getSampleTime() == null || current.getSampleTime() == null
+                || current.getSampleTime() < persisted.getSampleTime()
+                || current.getSampleTime() - persisted.getSampleTime() >= writeInterval) {
+            return true;
+        }
+        VmNetworkStatistics comparable = new VmNetworkStatistics(persisted);
+        comparable.setSampleTime(current.getSampleTime());
+        return !comparable.equals(current);
     }
 
     // TODO Method with Side-Effect - move to VmsMonitoring
@@ -961,9 +1000,26 @@ public class VmAnalyzer {
     }
 
     private void updateDiskImageDynamics() {
-        vmDiskImageDynamicToSave =  vdsmVm.getDiskStatistics().stream()
+        VmManager vmManager = getVmManager();
+        List<DiskImageDynamic> diskStatistics = vdsmVm.getDiskStatistics();
+        allVmDiskImageDynamicToSave = isUnchangedRowsWriteDue(vmManager.getDiskImageDynamicsWriteTime(),
+                getUnchangedRowsWriteInterval());
+        vmDiskImageDynamicToSave = diskStatistics.stream()
+                .filter(diskImageDynamic -> allVmDiskImageDynamicToSave
+                        || !diskImageDynamic.equals(vmManager.getPersistedDiskImageDynamic(diskImageDynamic.getId())))
                 .map(diskImageDynamic -> new Pair<>(dbVm.getId(), diskImageDynamic))
                 .collect(Collectors.toList());
+        unchangedVmDiskImageDynamicCount = diskStatistics.size() - vmDiskImageDynamicToSave.size();
+    }
+
+    static boolean isUnchangedRowsWriteDue(Long lastWriteTime, int writeInterval) {
+        return writeInterval <= 0
+                || lastWriteTime == null
+                || System.nanoTime() - lastWriteTime >= TimeUnit.SECONDS.toNanos(writeInterval);
+    }
+
+    private int getUnchangedRowsWriteInterval() {
+        return Config.<Integer> getValue(ConfigValues.VmMonitoringUnchangedRowsWriteInterval);
     }
 
     private void updateInterfaceStatistics() {
@@ -1151,6 +1207,10 @@ public class VmAnalyzer {
     protected void loadVmNetworkInterfaces() {
         if (ifaces == null) {
             ifaces = vmNetworkInterfaceDao.getAllForMonitoredVm(getVmId());
+            persistedNetworkStatistics = ifaces.stream()
+                    .map(VmNetworkInterface::getStatistics)
+                    .map(VmNetworkStatistics::new)
+                    .collect(Collectors.toMap(VmNetworkStatistics::getId, Function.identity()));
         }
     }
 
@@ -1162,6 +1222,17 @@ public class VmAnalyzer {
         return vmDiskImageDynamicToSave != null ? vmDiskImageDynamicToSave : Collections.emptyList();
     }
 
+    /**
+     * @return whether the data of all the disks is saved, regardless of whether it changed
+     */
+    public boolean isAllVmDiskImageDynamicToSave() {
+        return allVmDiskImageDynamicToSave;
+    }
+
+    public int getUnchangedVmDiskImageDynamicCount() {
+        return unchangedVmDiskImageDynamicCount;
+    }
+
     public List<VmGuestAgentInterface> getVmGuestAgentNics() {
         return vmGuestAgentNics;
     }
@@ -27,6 +27,8 @@ import org.ovirt.engine.core.common.businessentities.Entities;
 import org.ovirt.engine.core.common.businessentities.VmDevice;
 import org.ovirt.engine.core.common.businessentities.VmDeviceGeneralType;
 import org.ovirt.engine.core.common.businessentities.VmDeviceId;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.qualifiers.VmDeleted;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.common.utils.VmDeviceCommonUtils;
@@ -67,6 +69,10 @@ public class VmDevicesMonitoring {
      *         VMs as whole added by {@link #updateVm} method. In this case, <code>FullList</code> query is sent to
      *         the corresponding VDSM returning list of devices for each VM. This list is then compared to the one
      *         in the DB to detect individual changes. (<b>Note</b>: this works only if <code>vdsId</code> was set).
+     *         The devices of all the VMs of the change are fetched with one <code>FullList</code> query and compared
+     *         to the devices loaded from the DB with one query too. At most <code>VmDevicesRefreshMaxVmsPerHost</code>
+     *         VMs are processed by one change, the rest are left to the next ones, so a host with many changed VMs
+     *         doesn't keep the monitoring busy.
      *     </li>
      * </ul>
      * After adding all the changes, call {@link #flush} to process them and store the result in the DB.
@@ -76,6 +82,7 @@ public class VmDevicesMonitoring {
         private Guid vdsId;
 
         private List<Guid> vmsToProcess;
+        private List<Map<String, Object>> vmInfosToProcess;
         private List<VmDevice> devicesToProcess;
 
         private List<VmDevice> devicesToAdd;
@@ -87,13 +94,18 @@ public class VmDevicesMonitoring {
 
         private long fetchTime;
 
+        private int maxVmsToProcess;
+        private int postponedVms;
+
         private Change(long fetchTime) {
             this.fetchTime = fetchTime;
+            this.maxVmsToProcess = Integer.MAX_VALUE;
         }
 
         private Change(Guid vdsId, long fetchTime) {
             this.vdsId = vdsId;
             this.fetchTime = fetchTime;
+            this.maxVmsToProcess = Config.<Integer>getValue(ConfigValues.VmDevicesRefreshMaxVmsPerHost);
         }
 
         public Guid getVdsId() {
@@ -118,6 +130,14 @@ public class VmDevicesMonitoring {
             vmsToProcess = addToOptionalList(vmsToProcess, vmId);
         }
 
+        private List<Map<String, Object>> getVmInfosToProcess() {
+            return getOptionalList(vmInfosToProcess);
+        }
+
+        private void addVmInfoToProcess(Map<String, Object> vmInfo) {
+            vmInfosToProcess = addToOptionalList(vmInfosToProcess, vmInfo);
+        }
+
         private List<VmDevice> getDevicesToProcess() {
             return getOptionalList(devicesToProcess);
         }
@@ -167,6 +187,12 @@ public class VmDevicesMonitoring {
             DevicesChange devicesChange = isVmDevicesChanged(vmId, vdsmHash, fetchTime);
             switch(devicesChange) {
             case CHANGED:
+                if (getVmsToProcess().size() >= maxVmsToProcess) {
+                    // Forget the hash, so the devices of the VM are checked by one of the next changes
+                    refreshVmDevices(vmId);
+                    postponedVms++;
+                    break;
+                }
                 if (!tryLockVmDevices(vmId)) {
                     break;
                 }
@@ -180,8 +206,8 @@ public class VmDevicesMonitoring {
         }
 
         /**
-         * Process FullList VDSM command result and mark the remembered device information hash to be updated
-         * as soon as possible. If any hash for this VM is already remembered, ignore this FullList.
+         * Add FullList VDSM command result to be processed and mark the remembered device information hash to be
+         * updated as soon as possible. If any hash for this VM is already remembered, ignore this FullList.
          *
          * @param vmInfo FullList VDSM command result
          */
@@ -189,24 +215,41 @@ public class VmDevicesMonitoring {
             Guid vmId = getVmId(vmInfo);
             if (isVmDevicesChanged(vmId, UPDATE_HASH, fetchTime) == DevicesChange.CHANGED) {
                 addVmToSaveHash(vmId);
-                processFullList(vmInfo);
+                addVmInfoToProcess(vmInfo);
             }
         }
 
         /**
-         * Process FullList VDSM command result and add/remove/update devices in accordance to the information in it.
-         *
-         * @param vmInfo FullList VDSM command result
+         * Process FullList VDSM command results and individual device changes, and add/remove/update devices in
+         * accordance to the information in them. The devices of all the VMs are loaded from the DB at once.
          */
-        private void processFullList(Map<String, Object> vmInfo) {
-            Guid vmId = getVmId(vmInfo);
-            if (vmId == null) {
-                log.error("Received NULL VM or VM id when processing VM devices, abort.");
+        private void processVmInfosAndDevices() {
+            List<Map<String, Object>> vmInfos = new ArrayList<>();
+            for (Map<String, Object> vmInfo : getVmInfosToProcess()) {
+                Guid vmId = getVmId(vmInfo);
+                if (vmId == null) {
+                    log.error("Received NULL VM or VM id when processing VM devices, abort.");
+                    continue;
+                }
+                lockTouchedVm(vmId);
+                vmInfos.add(vmInfo);
+            }
+            if (vmInfos.isEmpty() && getDevicesToProcess().isEmpty()) {
                 return;
             }
 
-            lockTouchedVm(vmId);
-            processVmDevices(this, vmInfo);
+            Set<Guid> vmIds = new HashSet<>();
+            vmInfos.forEach(vmInfo -> vmIds.add(getVmId(vmInfo)));
+            getDevicesToProcess().forEach(device -> vmIds.add(device.getVmId()));
+            Map<Guid, List<VmDevice>> dbDevices = getVmDeviceDao().getVmDevicesByVmIds(vmIds).stream()
+                    .collect(Collectors.groupingBy(VmDevice::getVmId));
+
+            vmInfos.forEach(vmInfo -> processVmDevices(this,
+                    vmInfo,
+                    dbDevices.getOrDefault(getVmId(vmInfo), Collections.emptyList())));
+            getDevicesToProcess().forEach(device -> processDevice(this,
+                    device,
+                    dbDevices.getOrDefault(device.getVmId(), Collections.emptyList())));
         }
 
         public void updateDevice(VmDevice device) {
@@ -228,12 +271,15 @@ public class VmDevicesMonitoring {
          */
         public void flush() {
             List<Guid> vmIdsToProcess = getVmsToProcess();
+            if (postponedVms > 0) {
+                log.debug("The devices of {} VMs changed on host {} will be checked later", postponedVms, vdsId);
+            }
             try {
                 Map<String, Object>[] vmInfos = getVmInfo(vdsId, vmIdsToProcess);
                 if (vmInfos != null) {
-                    Stream.of(vmInfos).forEach(this::processFullList);
+                    Stream.of(vmInfos).forEach(this::addVmInfoToProcess);
                 }
-                getDevicesToProcess().forEach(device -> processDevice(this, device));
+                processVmInfosAndDevices();
                 saveDevicesToDb(this);
             } catch (RuntimeException ex) {
                 log.error("Failed during vm devices monitoring on host {} error is: {}", vdsId, ex);
@@ -466,10 +512,9 @@ public class VmDevicesMonitoring {
      * Actually process the VM device update and store individual device additions/updates/removals
      * in the <code>change</code>.
      */
-    private void processVmDevices(Change change, Map<String, Object> vmInfo) {
+    private void processVmDevices(Change change, Map<String, Object> vmInfo, List<VmDevice> dbDevices) {
         Guid vmId = getVmId(vmInfo);
         Set<Guid> processedDeviceIds = new HashSet<>();
-        List<VmDevice> dbDevices = getVmDeviceDao().getVmDeviceByVmId(vmId);
         Map<VmDeviceId, VmDevice> dbDeviceMap = Entities.businessEntitiesById(dbDevices);
 
         for (Object o: (Object[]) vmInfo.get(VdsProperties.Devices)) {
@@ -524,9 +569,8 @@ public class VmDevicesMonitoring {
         return null;
     }
 
-    private void processDevice(Change change, VmDevice device) {
-        List<VmDevice> dbDevices = getVmDeviceDao().getVmDevicesByDeviceId(device.getDeviceId(), device.getVmId());
-        if (dbDevices.isEmpty()) {
+    private void processDevice(Change change, VmDevice device, List<VmDevice> dbDevices) {
+        if (dbDevices.stream().noneMatch(dbDevice -> dbDevice.getDeviceId().equals(device.getDeviceId()))) {
             change.addDeviceToAdd(device);
         } else {
             change.addDeviceToUpdate(device);
@@ -14,6 +14,8 @@ import javax.inject.Singleton;
 import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImageDynamic;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.TransactionScopeOption;
@@ -23,13 +25,12 @@ import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmGuestAgentInterfaceDao;
 import org.ovirt.engine.core.dao.VmNumaNodeDao;
-import org.ovirt.engine.core.dao.VmStatisticsDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
-import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
 import org.ovirt.engine.core.vdsbroker.VmManager;
+import org.ovirt.engine.core.vdsbroker.monitoring.VmsMonitoringStatistics.Table;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,16 +52,16 @@ public class VmsMonitoring {
     private LunDisksMonitoring lunDisksMonitoring;
     @Inject
     private VmJobsMonitoring vmJobsMonitoring;
+    @Inject
+    private VmsMonitoringStatistics vmsMonitoringStatistics;
+    @Inject
+    private StatisticsStore statisticsStore;
 
     @Inject
     private DiskImageDynamicDao diskImageDynamicDao;
     @Inject
     private VmDynamicDao vmDynamicDao;
     @Inject
-    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
-    @Inject
-    private VmStatisticsDao vmStatisticsDao;
-    @Inject
     private VmGuestAgentInterfaceDao vmGuestAgentInterfaceDao;
     @Inject
     private VmNetworkInterfaceDao vmNetworkInterfaceDao;
@@ -296,24 +297,48 @@ public class VmsMonitoring {
     }
 
     private void saveVmDiskImageStatistics(List<VmAnalyzer> vmAnalyzers) {
-        diskImageDynamicDao.updateAllDiskImageDynamicWithDiskIdByVmId(vmAnalyzers.stream()
+        List<Pair<Guid, DiskImageDynamic>> diskImageDynamics = vmAnalyzers.stream()
                 .map(VmAnalyzer::getVmDiskImageDynamicToSave)
                 .flatMap(Collection::stream)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
+        diskImageDynamicDao.updateAllDiskImageDynamicWithDiskIdByVmId(diskImageDynamics);
+        vmsMonitoringStatistics.record(Table.DISK_IMAGE_DYNAMIC,
+                diskImageDynamics.size(),
+                vmAnalyzers.stream().mapToInt(VmAnalyzer::getUnchangedVmDiskImageDynamicCount).sum());
+        vmAnalyzers.forEach(vmAnalyzer -> {
+            VmManager vmManager = getVmManager(vmAnalyzer.getVmId(), false);
+            if (vmManager == null) {
+                return;
+            }
+            if (vmAnalyzer.isMovedToDown()) {
+                vmManager.clearPersistedDiskImageDynamics();
+            } else {
+                vmManager.diskImageDynamicsPersisted(vmAnalyzer.getVmDiskImageDynamicToSave().stream()
+                        .map(Pair::getSecond)
+                        .collect(Collectors.toList()),
+                        vmAnalyzer.isAllVmDiskImageDynamicToSave());
+            }
+        });
     }
 
     private void saveVmDynamic(List<VmAnalyzer> vmAnalyzers) {
-        vmDynamicDao.updateAllInBatch(vmAnalyzers.stream()
+        List<VmDynamic> vmDynamics = vmAnalyzers.stream()
                 .map(VmAnalyzer::getVmDynamicToSave)
                 .filter(Objects::nonNull)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
+        vmDynamicDao.updateAllInBatch(vmDynamics);
+        vmsMonitoringStatistics.record(Table.VM_DYNAMIC, vmDynamics.size(), vmAnalyzers.size() - vmDynamics.size());
     }
 
     private void saveVmInterfaceStatistics(List<VmAnalyzer> vmAnalyzers) {
-        vmNetworkStatisticsDao.updateAllInBatch(vmAnalyzers.stream()
-                .map(VmAnalyzer::getVmNetworkStatistics)
+        List<VmNetworkStatistics> networkStatistics = vmAnalyzers.stream()
+                .map(VmAnalyzer::getVmNetworkStatisticsToSave)
                 .flatMap(List::stream)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
+        statisticsStore.saveVmNetworkStatistics(networkStatistics);
+        vmsMonitoringStatistics.record(Table.VM_INTERFACE_STATISTICS,
+                networkStatistics.size(),
+                vmAnalyzers.stream().mapToInt(VmAnalyzer::getUnchangedVmNetworkStatisticsCount).sum());
     }
 
     private void saveVmStatistics(List<VmAnalyzer> vmAnalyzers) {
@@ -321,7 +346,8 @@ public class VmsMonitoring {
                 .map(VmAnalyzer::getVmStatisticsToSave)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-        vmStatisticsDao.updateAllInBatch(statistics);
+        statisticsStore.saveVmStatistics(statistics);
+        vmsMonitoringStatistics.record(Table.VM_STATISTICS, statistics.size(), vmAnalyzers.size() - statistics.size());
         statistics.forEach(stats -> {
             VmManager vmManager = getVmManager(stats.getId(), false);
             if (vmManager != null) {
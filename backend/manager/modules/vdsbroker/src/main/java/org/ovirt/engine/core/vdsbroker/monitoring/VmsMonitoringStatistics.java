@@ -0,0 +1,93 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.utils.jmx.JmxRegistration;
+import org.ovirt.engine.core.utils.jmx.StatisticsMXBean;
+
+/**
+ * Counts the rows the VMs monitoring wrote to the database and the rows it skipped because nothing changed
+ * since they were last written.
+ */
+@Singleton
+public class VmsMonitoringStatistics implements StatisticsMXBean {
+
+    public enum Table {
+        VM_DYNAMIC("vm_dynamic"),
+        VM_STATISTICS("vm_statistics"),
+        VM_INTERFACE_STATISTICS("vm_interface_statistics"),
+        DISK_IMAGE_DYNAMIC("disk_image_dynamic");
+
+        private final String tableName;
+
+        Table(String tableName) {
+            this.tableName = tableName;
+        }
+    }
+
+    private final Map<Table, LongAdder> writtenRows = new EnumMap<>(Table.class);
+    private final Map<Table, LongAdder> skippedRows = new EnumMap<>(Table.class);
+
+    private final JmxRegistration jmxRegistration = new JmxRegistration("VmsMonitoring", this);
+
+    public VmsMonitoringStatistics() {
+        for (Table table : Table.values()) {
+            writtenRows.put(table, new LongAdder());
+            skippedRows.put(table, new LongAdder());
+        }
+    }
+
+    @PostConstruct
+    public void registerInJMX() {
+        jmxRegistration.register();
+    }
+
+    @PreDestroy
+    public void unregisterFromJMX() {
+        jmxRegistration.unregister();
+    }
+
+    /**
+     * Records the outcome of saving one table in a monitoring cycle
+     * @param table - the table that was saved
+     * @param written - number of rows written to the database
+     * @param skipped - number of rows that did not change and were not written
+     */
+    public void record(Table table, int written, int skipped) {
+        writtenRows.get(table).add(written);
+        skippedRows.get(table).add(skipped);
+    }
+
+    private long getWrittenRows(Table table) {
+        return writtenRows.get(table).sum();
+    }
+
+    private long getSkippedRows(Table table) {
+        return skippedRows.get(table).sum();
+    }
+
+    @Override
+    public List<String> showStatistics() {
+        return Arrays.stream(Table.values())
+                .map(table -> String.format("%s: written %d, skipped %d",
+                        table.tableName,
+                        getWrittenRows(table),
+                        getSkippedRows(table)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void reset() {
+        writtenRows.values().forEach(LongAdder::reset);
+        skippedRows.values().forEach(LongAdder::reset);
+    }
+}
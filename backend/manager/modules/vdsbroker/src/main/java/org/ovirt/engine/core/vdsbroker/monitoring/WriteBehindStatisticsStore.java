@@ -0,0 +1,171 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
+import org.ovirt.engine.core.compat.Guid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the saved statistics in memory and writes them to the database in the background.
+ *
+ * Only the latest statistics of each entity are kept, so no matter how many times the statistics of
+ * an entity are saved between two flushes, they are written once. The store is flushed on a fixed
+ * interval and whenever the number of entities with pending statistics reaches the configured maximum.
+ * Statistics that fail to be written are kept for the next flush unless newer ones were saved meanwhile.
+ *
+ * Statistics in the database are therefore at most one flush interval plus the duration of a flush behind
+ * the saved ones, as long as the writes succeed. Readers of the database, like the scheduling, see them that
+ * stale, which is why writing behind is off unless StatisticsWriteBehindInterval is set.
+ *
+ * Monitoring keeps updating the statistics objects it saves, so the store keeps copies of them. The written values
+ * are the ones the statistics had when they were saved, and reads get copies of the pending statistics.
+ */
+public class WriteBehindStatisticsStore implements StatisticsStore {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindStatisticsStore.class);
+
+    private final StatisticsStore delegate;
+    private final ScheduledExecutorService executor;
+    private final int maxPending;
+
+    private final Map<Guid, VmStatistics> vmStatistics = new ConcurrentHashMap<>();
+    private final Map<Guid, VmNetworkStatistics> vmNetworkStatistics = new ConcurrentHashMap<>();
+    private final Map<Guid, VdsStatistics> vdsStatistics = new ConcurrentHashMap<>();
+    private final Map<Guid, VdsNetworkStatistics> vdsNetworkStatistics = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private ScheduledFuture<?> flushJob;
+
+    /**
+     * @param delegate - the store the statistics are written to when flushed
+     * @param executor - executor to run the flushes on
+     * @param maxPending - number of entities with pending statistics that triggers a flush
+     */
+    public WriteBehindStatisticsStore(StatisticsStore delegate, ScheduledExecutorService executor, int maxPending) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxPending = maxPending;
+    }
+
+    public void start(int flushIntervalInSeconds) {
+        flushJob = executor.scheduleWithFixedDelay(this::flush,
+                flushIntervalInSeconds,
+                flushIntervalInSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the periodic flushes and write what is pending
+     */
+    public void stop() {
+        if (flushJob != null) {
+            flushJob.cancel(false);
+        }
+        flush();
+    }
+
+    @Override
+    public void saveVmStatistics(Collection<VmStatistics> statistics) {
+        publish(vmStatistics, statistics, VmStatistics::getId, VmStatistics::new);
+    }
+
+    @Override
+    public void saveVmNetworkStatistics(Collection<VmNetworkStatistics> statistics) {
+        publish(vmNetworkStatistics, statistics, VmNetworkStatistics::getId, VmNetworkStatistics::new);
+    }
+
+    @Override
+    public void saveVdsStatistics(VdsStatistics statistics) {
+        publish(vdsStatistics,
+                Collections.singletonList(statistics),
+                VdsStatistics::getId,
+                VdsStatistics::new);
+    }
+
+    @Override
+    public void saveVdsNetworkStatistics(Collection<VdsNetworkStatistics> statistics) {
+        publish(vdsNetworkStatistics,
+                statistics,
+                VdsNetworkStatistics::getId,
+                VdsNetworkStatistics::new);
+    }
+
+    @Override
+    public VmStatistics getVmStatistics(Guid vmId) {
+        VmStatistics statistics = vmStatistics.get(vmId);
+        return statistics != null ? new VmStatistics(statistics) : delegate.getVmStatistics(vmId);
+    }
+
+    @Override
+    public VdsStatistics getVdsStatistics(Guid vdsId) {
+        VdsStatistics statistics = vdsStatistics.get(vdsId);
+        return statistics != null ? new VdsStatistics(statistics) : delegate.getVdsStatistics(vdsId);
+    }
+
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            flushRequested.set(false);
+            flush(vmStatistics, delegate::saveVmStatistics);
+            flush(vmNetworkStatistics, delegate::saveVmNetworkStatistics);
+            flush(vdsStatistics, statistics -> statistics.forEach(delegate::saveVdsStatistics));
+            flush(vdsNetworkStatistics, delegate::saveVdsNetworkStatistics);
+        }
+    }
+
+    public int getPendingCount() {
+        return vmStatistics.size() + vmNetworkStatistics.size() + vdsStatistics.size() + vdsNetworkStatistics.size();
+    }
+
+    private <T> void publish(Map<Guid, T> pending,
+            Collection<T> statistics,
+            Function<T, Guid> idExtractor,
+            UnaryOperator<T> copier) {
+        statistics.forEach(stats -> pending.put(idExtractor.apply(stats), copier.apply(stats)));
+        if (getPendingCount() >= maxPending && flushRequested.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    private <T> void flush(Map<Guid, T> pending, Consumer<Collection<T>> writer) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Guid, T> drained = new HashMap<>();
+        for (Guid id : pending.keySet()) {
+            T statistics = pending.remove(id);
+            if (statistics != null) {
+                drained.put(id, statistics);
+            }
+        }
+
+        try {
+            writer.accept(drained.values());
+            log.debug("Wrote {} statistics rows to the database", drained.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to write statistics to the database, will retry on next flush: {}",
+                    ExceptionUtils.getRootCauseMessage(e));
+            log.debug("Exception", e);
+            drained.forEach(pending::putIfAbsent);
+        }
+    }
+}
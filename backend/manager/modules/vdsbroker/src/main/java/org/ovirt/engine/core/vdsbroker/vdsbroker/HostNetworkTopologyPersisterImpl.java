@@ -37,6 +37,7 @@ import org.ovirt.engine.core.dao.provider.HostProviderBindingDao;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
 import org.ovirt.engine.core.vdsbroker.NetworkImplementationDetailsUtils;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringMetadataCache;
 import org.ovirt.engine.core.vdsbroker.monitoring.NetworkMonitoringHelper;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.predicates.DisplayInterfaceEqualityPredicate;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.predicates.IsNetworkOnInterfacePredicate;
@@ -54,6 +55,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
     private final NetworkImplementationDetailsUtils networkImplementationDetailsUtils;
     private final VdsDynamicDao vdsDynamicDao;
     private final HostProviderBindingDao hostProviderBindingDao;
+    private final HostMonitoringMetadataCache hostMonitoringMetadataCache;
 
     @Inject
     HostNetworkTopologyPersisterImpl(VmDynamicDao vmDynamicDao,
@@ -65,7 +67,8 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
                                      ManagementNetworkUtil managementNetworkUtil,
                                      AuditLogDirector auditLogDirector,
                                      VdsDynamicDao vdsDynamicDao,
-                                     HostProviderBindingDao hostProviderBindingDao) {
+                                     HostProviderBindingDao hostProviderBindingDao,
+                                     HostMonitoringMetadataCache hostMonitoringMetadataCache) {
         Validate.notNull(networkDao, "networkAttachmentDao can not be null");
         Validate.notNull(networkDao, "networkDao can not be null");
         Validate.notNull(interfaceDao, "interfaceDao can not be null");
@@ -76,6 +79,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
         Validate.notNull(auditLogDirector, "auditLogDirector can not be null");
         Validate.notNull(vdsDynamicDao, "vdsDynamicDao can not be null");
         Validate.notNull(hostProviderBindingDao, "hostProviderBindingDaoImpl can not be null");
+        Validate.notNull(hostMonitoringMetadataCache, "hostMonitoringMetadataCache can not be null");
 
         this.vmDynamicDao = vmDynamicDao;
         this.interfaceDao = interfaceDao;
@@ -87,6 +91,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
         this.auditLogDirector = auditLogDirector;
         this.vdsDynamicDao = vdsDynamicDao;
         this.hostProviderBindingDao = hostProviderBindingDao;
+        this.hostMonitoringMetadataCache = hostMonitoringMetadataCache;
     }
 
     @Override
@@ -296,6 +301,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
                 userConfiguredData.getUserOverriddenNicValuesByNicName());
 
         networkInterfacesPersister.persistTopology();
+        hostMonitoringMetadataCache.invalidateHostNics(host.getId());
 
         createHostNetworkAttachmentsPersister(host, clusterNetworks, userConfiguredData).persistNetworkAttachments();
     }
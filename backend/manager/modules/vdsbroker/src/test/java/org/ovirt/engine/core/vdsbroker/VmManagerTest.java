@@ -0,0 +1,93 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.monitoring.VdsmVm;
+
+public class VmManagerTest {
+
+    private static final Guid VM_ID = Guid.newGuid();
+    private static final Guid VDS_ID = Guid.newGuid();
+    private static final Guid OTHER_VDS_ID = Guid.newGuid();
+
+    private VmManager vmManager;
+
+    @BeforeEach
+    public void setUp() {
+        vmManager = new VmManager(VM_ID);
+    }
+
+    @Test
+    public void testIsLatestData() {
+        assertTrue(vmManager.isLatestData(new VdsmVm(2.0), VDS_ID));
+        assertTrue(vmManager.isLatestData(new VdsmVm(2.0), VDS_ID));
+        assertFalse(vmManager.isLatestData(new VdsmVm(1.0), VDS_ID));
+        assertTrue(vmManager.isLatestData(new VdsmVm(1.0), OTHER_VDS_ID));
+        assertEquals(1.0, vmManager.getRuntimeState().getStatusEventTimestamp());
+    }
+
+    @Test
+    public void testClearLastStatusEventStamp() {
+        vmManager.isLatestData(new VdsmVm(2.0), VDS_ID);
+        vmManager.clearLastStatusEventStampIfFromVds(OTHER_VDS_ID);
+        assertFalse(vmManager.isLatestData(new VdsmVm(1.0), VDS_ID));
+
+        vmManager.clearLastStatusEventStampIfFromVds(VDS_ID);
+        assertTrue(vmManager.isLatestData(new VdsmVm(1.0), VDS_ID));
+    }
+
+    @Test
+    public void testUpdateVmDataChangedTime() {
+        vmManager.isLatestData(new VdsmVm(2.0), VDS_ID);
+        VmRuntimeState previous = vmManager.getRuntimeState();
+
+        vmManager.updateVmDataChangedTime();
+
+        VmRuntimeState state = vmManager.getRuntimeState();
+        assertTrue(state.getVersion() > previous.getVersion());
+        assertNotNull(state.getDataChangedTime());
+        assertEquals(2.0, state.getStatusEventTimestamp());
+        assertEquals(VDS_ID, state.getStatusEventReporterId());
+        assertNull(previous.getDataChangedTime());
+    }
+
+    @Test
+    public void testConcurrentStatusEvents() throws Exception {
+        int threads = 8;
+        int eventsPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < eventsPerThread; j++) {
+                        vmManager.isLatestData(new VdsmVm((double) (j * threads + thread)), VDS_ID);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        VmRuntimeState state = vmManager.getRuntimeState();
+        assertEquals((double) (eventsPerThread * threads - 1), state.getStatusEventTimestamp());
+    }
+}
@@ -0,0 +1,172 @@
+package org.ovirt.engine.core.vdsbroker.irsbroker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.businessentities.StorageDomainStatic;
+import org.ovirt.engine.core.common.businessentities.StorageDomainStatus;
+import org.ovirt.engine.core.common.businessentities.StoragePool;
+import org.ovirt.engine.core.common.businessentities.StoragePoolIsoMap;
+import org.ovirt.engine.core.common.businessentities.StoragePoolIsoMapId;
+import org.ovirt.engine.core.common.businessentities.StoragePoolStatus;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSDomainsData;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+import org.ovirt.engine.core.common.businessentities.storage.StorageType;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.eventqueue.EventQueue;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.StorageDomainStaticDao;
+import org.ovirt.engine.core.dao.StoragePoolDao;
+import org.ovirt.engine.core.dao.StoragePoolIsoMapDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class IrsProxyImplTest {
+
+    private static final Guid POOL_ID = Guid.newGuid();
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.StoragePoolRefreshTimeInSeconds, 10L),
+                MockConfigDescriptor.of(ConfigValues.HostStorageConnectionAndPoolRefreshTimeInSeconds, 30L),
+                // long enough for the shared status not to expire during a test
+                MockConfigDescriptor.of(ConfigValues.VdsRefreshRate, 3600L),
+                MockConfigDescriptor.of(ConfigValues.MaxStorageVdsTimeoutCheckSec, 30.0),
+                MockConfigDescriptor.of(ConfigValues.MaxStorageVdsDelayCheckSec, 5.0));
+    }
+
+    @Mock
+    private StoragePoolDao storagePoolDao;
+
+    @Mock
+    private StoragePoolIsoMapDao storagePoolIsoMapDao;
+
+    @Mock
+    private StorageDomainStaticDao storageDomainStaticDao;
+
+    @Mock
+    private DomainsReportStatistics domainsReportStatistics;
+
+    @Mock
+    private EventQueue eventQueue;
+
+    @Mock
+    private ManagedScheduledExecutorService schedulerService;
+
+    @InjectMocks
+    private IrsProxyImpl irsProxy = new IrsProxyImpl(POOL_ID);
+
+    private final StorageDomainStatic domain = new StorageDomainStatic();
+
+    @BeforeEach
+    public void setUp() {
+        StoragePool pool = new StoragePool();
+        pool.setId(POOL_ID);
+        pool.setStatus(StoragePoolStatus.Up);
+        when(storagePoolDao.get(POOL_ID)).thenReturn(pool);
+
+        domain.setId(Guid.newGuid());
+        domain.setStorageType(StorageType.NFS);
+        when(storageDomainStaticDao.getAllForStoragePool(POOL_ID)).thenReturn(Collections.singletonList(domain));
+        StoragePoolIsoMap isoMap = new StoragePoolIsoMap(domain.getId(), POOL_ID, StorageDomainStatus.Inactive);
+        when(storagePoolIsoMapDao.getAllForStoragePool(POOL_ID)).thenReturn(Collections.singletonList(isoMap));
+
+        irsProxy.init();
+    }
+
+    @Test
+    public void testPoolDomainsStatusIsSharedWithinRefreshInterval() {
+        irsProxy.obtainDomainsReportedAsProblematic(Collections.emptyList());
+        irsProxy.updateVdsDomainsData(createHost(), new ArrayList<>());
+        irsProxy.obtainDomainsReportedAsProblematic(Collections.emptyList());
+
+        verify(storagePoolDao, times(1)).get(POOL_ID);
+        verify(storagePoolIsoMapDao, times(1)).getAllForStoragePool(POOL_ID);
+        verify(storageDomainStaticDao, times(1)).getAllForStoragePool(POOL_ID);
+    }
+
+    @Test
+    public void testPoolDomainsStatusIsReloadedWhenInvalidated() {
+        irsProxy.obtainDomainsReportedAsProblematic(Collections.emptyList());
+        irsProxy.clearCache();
+        irsProxy.obtainDomainsReportedAsProblematic(Collections.emptyList());
+
+        verify(storagePoolDao, times(2)).get(POOL_ID);
+        verify(storagePoolIsoMapDao, times(2)).getAllForStoragePool(POOL_ID);
+    }
+
+    @Test
+    public void testInactiveDomainReportedAsActiveIsActivated() {
+        mockIsoMapInDb(StorageDomainStatus.Inactive);
+
+        irsProxy.updateVdsDomainsData(createHost(), createReport());
+
+        ArgumentCaptor<StoragePoolIsoMap> captor = ArgumentCaptor.forClass(StoragePoolIsoMap.class);
+        verify(storagePoolIsoMapDao).update(captor.capture());
+        assertEquals(StorageDomainStatus.Active, captor.getValue().getStatus());
+
+        // the activation changed the status, so it's reloaded
+        irsProxy.obtainDomainsReportedAsProblematic(Collections.emptyList());
+        verify(storagePoolDao, times(2)).get(POOL_ID);
+    }
+
+    @Test
+    public void testDomainNoLongerInactiveIsNotActivated() {
+        // moved to maintenance after the shared status was loaded
+        mockIsoMapInDb(StorageDomainStatus.Maintenance);
+
+        irsProxy.updateVdsDomainsData(createHost(), createReport());
+
+        verify(storagePoolIsoMapDao, never()).update(any());
+
+        // the shared status is stale, so it's reloaded
+        irsProxy.obtainDomainsReportedAsProblematic(Collections.emptyList());
+        verify(storagePoolDao, times(2)).get(POOL_ID);
+    }
+
+    private void mockIsoMapInDb(StorageDomainStatus status) {
+        when(storagePoolIsoMapDao.get(new StoragePoolIsoMapId(domain.getId(), POOL_ID)))
+                .thenReturn(new StoragePoolIsoMap(domain.getId(), POOL_ID, status));
+    }
+
+    private static VDS createHost() {
+        VDS vds = new VDS();
+        vds.setId(Guid.newGuid());
+        vds.setVdsName("host");
+        vds.setStatus(VDSStatus.Up);
+        vds.setClusterSupportsVirtService(true);
+        return vds;
+    }
+
+    private ArrayList<VDSDomainsData> createReport() {
+        VDSDomainsData domainData = new VDSDomainsData();
+        domainData.setDomainId(domain.getId());
+        domainData.setCode(0);
+        domainData.setActual(true);
+        ArrayList<VDSDomainsData> report = new ArrayList<>();
+        report.add(domainData);
+        return report;
+    }
+}
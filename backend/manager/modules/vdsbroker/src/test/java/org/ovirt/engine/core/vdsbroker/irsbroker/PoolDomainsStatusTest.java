@@ -0,0 +1,107 @@
+package org.ovirt.engine.core.vdsbroker.irsbroker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.ovirt.engine.core.common.businessentities.StorageDomainStatic;
+import org.ovirt.engine.core.common.businessentities.StorageDomainStatus;
+import org.ovirt.engine.core.common.businessentities.StoragePool;
+import org.ovirt.engine.core.common.businessentities.StoragePoolIsoMap;
+import org.ovirt.engine.core.common.businessentities.StoragePoolStatus;
+import org.ovirt.engine.core.common.businessentities.storage.StorageType;
+import org.ovirt.engine.core.compat.Guid;
+
+public class PoolDomainsStatusTest {
+
+    private static final Guid POOL_ID = Guid.newGuid();
+
+    @Test
+    public void testDomainsAreGroupedByStatus() {
+        StorageDomainStatic firstActive = createDomain(StorageType.NFS);
+        StorageDomainStatic secondActive = createDomain(StorageType.ISCSI);
+        StorageDomainStatic inactive = createDomain(StorageType.FCP);
+        StorageDomainStatic maintenance = createDomain(StorageType.NFS);
+
+        PoolDomainsStatus status = new PoolDomainsStatus(createPool(StoragePoolStatus.Up),
+                Arrays.asList(createIsoMap(firstActive, StorageDomainStatus.Active),
+                        createIsoMap(secondActive, StorageDomainStatus.Active),
+                        createIsoMap(inactive, StorageDomainStatus.Inactive),
+                        createIsoMap(maintenance, StorageDomainStatus.Maintenance)),
+                Arrays.asList(firstActive, secondActive, inactive, maintenance),
+                42);
+
+        assertEquals(StoragePoolStatus.Up, status.getPoolStatus());
+        assertEquals(new HashSet<>(Arrays.asList(firstActive.getId(), secondActive.getId())),
+                status.getDomainIds(StorageDomainStatus.Active));
+        assertEquals(Collections.singleton(inactive.getId()), status.getDomainIds(StorageDomainStatus.Inactive));
+        assertEquals(Collections.singleton(maintenance.getId()),
+                status.getDomainIds(StorageDomainStatus.Maintenance));
+        assertTrue(status.getDomainIds(StorageDomainStatus.Unknown).isEmpty());
+        assertSame(inactive, status.getDomain(inactive.getId()));
+        assertEquals(42, status.getLoadTime());
+    }
+
+    @Test
+    public void testDomainsNotMonitoredByHostsAreSkipped() {
+        StorageDomainStatic nfs = createDomain(StorageType.NFS);
+        StorageDomainStatic cinder = createDomain(StorageType.CINDER);
+        StorageDomainStatic managedBlock = createDomain(StorageType.MANAGED_BLOCK_STORAGE);
+
+        PoolDomainsStatus status = new PoolDomainsStatus(createPool(StoragePoolStatus.Up),
+                Arrays.asList(createIsoMap(nfs, StorageDomainStatus.Active),
+                        createIsoMap(cinder, StorageDomainStatus.Active),
+                        createIsoMap(managedBlock, StorageDomainStatus.Active)),
+                Arrays.asList(nfs, cinder, managedBlock),
+                0);
+
+        assertEquals(Collections.singleton(nfs.getId()), status.getDomainIds(StorageDomainStatus.Active));
+    }
+
+    @Test
+    public void testMapsWithoutStatusOrDomainAreSkipped() {
+        StorageDomainStatic withoutStatus = createDomain(StorageType.NFS);
+        StorageDomainStatic notInPool = createDomain(StorageType.NFS);
+
+        PoolDomainsStatus status = new PoolDomainsStatus(createPool(StoragePoolStatus.Up),
+                Arrays.asList(createIsoMap(withoutStatus, null), createIsoMap(notInPool, StorageDomainStatus.Active)),
+                Collections.singletonList(withoutStatus),
+                0);
+
+        for (StorageDomainStatus domainStatus : StorageDomainStatus.values()) {
+            assertTrue(status.getDomainIds(domainStatus).isEmpty());
+        }
+        assertNull(status.getDomain(notInPool.getId()));
+    }
+
+    @Test
+    public void testMissingPool() {
+        PoolDomainsStatus status = new PoolDomainsStatus(null, Collections.emptyList(), Collections.emptyList(), 0);
+
+        assertNull(status.getPoolStatus());
+    }
+
+    private static StoragePool createPool(StoragePoolStatus status) {
+        StoragePool pool = new StoragePool();
+        pool.setId(POOL_ID);
+        pool.setStatus(status);
+        return pool;
+    }
+
+    private static StorageDomainStatic createDomain(StorageType storageType) {
+        StorageDomainStatic domain = new StorageDomainStatic();
+        domain.setId(Guid.newGuid());
+        domain.setStorageType(storageType);
+        return domain;
+    }
+
+    private static StoragePoolIsoMap createIsoMap(StorageDomainStatic domain, StorageDomainStatus status) {
+        return new StoragePoolIsoMap(domain.getId(), POOL_ID, status);
+    }
+}
@@ -0,0 +1,251 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.ClusterDao;
+import org.ovirt.engine.core.dao.VdsNumaNodeDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.dao.network.NetworkDao;
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionInvalidator;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoringMetadataCache.Region;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class HostMonitoringMetadataCacheTest {
+
+    private static final Guid CLUSTER_ID = new Guid("b7dfe5e6-5667-4e40-8ecb-000000000001");
+    private static final Guid HOST_ID = new Guid("b7dfe5e6-5667-4e40-8ecb-000000000002");
+
+    @Mock
+    private ClusterDao clusterDao;
+    @Mock
+    private NetworkDao networkDao;
+    @Mock
+    private InterfaceDao interfaceDao;
+    @Mock
+    private VdsNumaNodeDao vdsNumaNodeDao;
+    @Mock
+    private TransactionCompletionInvalidator transactionCompletionInvalidator;
+
+    @Spy
+    @InjectMocks
+    private HostMonitoringMetadataCache cache;
+
+    /**
+     * The NICs of the host in the database
+     */
+    private final AtomicReference<List<VdsNetworkInterface>> dbNics = new AtomicReference<>();
+
+    @BeforeEach
+    public void setUp() {
+        when(clusterDao.get(CLUSTER_ID)).thenReturn(new Cluster());
+        dbNics.set(createNics(0));
+        when(interfaceDao.getAllInterfacesForVds(HOST_ID)).thenAnswer(invocation -> dbNics.get());
+    }
+
+    @Test
+    public void testLoadedOnce() {
+        Cluster cluster = cache.getCluster(CLUSTER_ID);
+
+        assertSame(cluster, cache.getCluster(CLUSTER_ID));
+        verify(clusterDao).get(CLUSTER_ID);
+        assertEquals(statisticsLine("cluster", 1, 1, 0, 0.5), statisticsOf(Region.CLUSTER));
+    }
+
+    @Test
+    public void testCachedListCantBeModified() {
+        List<VdsNetworkInterface> nics = cache.getHostNics(HOST_ID);
+
+        assertThrows(UnsupportedOperationException.class, () -> nics.add(new VdsNetworkInterface()));
+    }
+
+    @Test
+    public void testInvalidationReloads() {
+        cache.getHostNics(HOST_ID);
+        dbNics.set(createNics(1));
+        cache.invalidateHostNics(HOST_ID);
+
+        assertEquals(dbNics.get(), cache.getHostNics(HOST_ID));
+        verify(interfaceDao, times(2)).getAllInterfacesForVds(HOST_ID);
+        verify(transactionCompletionInvalidator).invalidateOnCompletion(any());
+        assertEquals(statisticsLine("host nics", 0, 2, 1, 0), statisticsOf(Region.HOST_NICS));
+        assertEquals(1, cache.getVersion(Region.HOST_NICS, HOST_ID));
+    }
+
+    @Test
+    public void testInvalidationIsPerRegionAndId() {
+        cache.getCluster(CLUSTER_ID);
+        cache.getHostNics(HOST_ID);
+
+        cache.invalidateClusterNetworks(CLUSTER_ID);
+        cache.invalidateHostNics(Guid.newGuid());
+        cache.getCluster(CLUSTER_ID);
+        cache.getHostNics(HOST_ID);
+
+        verify(clusterDao).get(CLUSTER_ID);
+        verify(interfaceDao).getAllInterfacesForVds(HOST_ID);
+    }
+
+    @Test
+    public void testOldEntriesAreReloaded() {
+        doReturn(0L, HostMonitoringMetadataCache.MAX_ENTRY_AGE - 1, HostMonitoringMetadataCache.MAX_ENTRY_AGE)
+                .when(cache)
+                .currentTimeMillis();
+
+        cache.getCluster(CLUSTER_ID);
+        cache.getCluster(CLUSTER_ID);
+        cache.getCluster(CLUSTER_ID);
+
+        verify(clusterDao, times(2)).get(CLUSTER_ID);
+        assertEquals(statisticsLine("cluster", 1, 2, 0, 1.0 / 3), statisticsOf(Region.CLUSTER));
+    }
+
+    @Test
+    public void testValueLoadedDuringInvalidationIsNotKept() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        AtomicBoolean firstLoad = new AtomicBoolean(true);
+        when(interfaceDao.getAllInterfacesForVds(HOST_ID)).thenAnswer(invocation -> {
+            List<VdsNetworkInterface> nics = dbNics.get();
+            if (firstLoad.compareAndSet(true, false)) {
+                loading.countDown();
+                invalidated.await();
+            }
+            return nics;
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            List<VdsNetworkInterface> oldNics = dbNics.get();
+            Future<List<VdsNetworkInterface>> staleLoad = executor.submit(() -> cache.getHostNics(HOST_ID));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+            dbNics.set(createNics(1));
+            cache.invalidateHostNics(HOST_ID);
+            invalidated.countDown();
+
+            assertEquals(oldNics, staleLoad.get(10, TimeUnit.SECONDS));
+            assertEquals(dbNics.get(), cache.getHostNics(HOST_ID));
+            assertEquals(dbNics.get(), cache.getHostNics(HOST_ID));
+            verify(interfaceDao, times(2)).getAllInterfacesForVds(HOST_ID);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentHostNetworkChanges() throws Exception {
+        int readers = 4;
+        int changes = 500;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        try {
+            List<Future<?>> readerFutures = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                readerFutures.add(executor.submit(() -> {
+                    // bounded, as the invocations on the spied cache are recorded
+                    for (int j = 0; j < changes * 4 && !done.get(); j++) {
+                        cache.getHostNics(HOST_ID);
+                    }
+                }));
+            }
+
+            // each change is persisted and then invalidated, as the engine does, so a read that starts after the
+            // invalidation must see the change even though the readers keep loading the NICs concurrently
+            Future<?> writer = executor.submit(() -> {
+                try {
+                    for (int i = 1; i <= changes; i++) {
+                        List<VdsNetworkInterface> nics = createNics(i);
+                        dbNics.set(nics);
+                        cache.invalidateHostNics(HOST_ID);
+                        assertEquals(nics, cache.getHostNics(HOST_ID));
+                    }
+                } finally {
+                    done.set(true);
+                }
+            });
+
+            writer.get(60, TimeUnit.SECONDS);
+            for (Future<?> reader : readerFutures) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            done.set(true);
+            executor.shutdownNow();
+        }
+
+        assertEquals(dbNics.get(), cache.getHostNics(HOST_ID));
+        assertEquals(changes, cache.getVersion(Region.HOST_NICS, HOST_ID));
+    }
+
+    @Test
+    public void testStatistics() {
+        cache.getCluster(CLUSTER_ID);
+        cache.getCluster(CLUSTER_ID);
+
+        cache.invalidateCluster(CLUSTER_ID);
+
+        assertEquals(statisticsLine("cluster", 1, 1, 1, 0.5), statisticsOf(Region.CLUSTER));
+        assertEquals(statisticsLine("host nics", 0, 0, 0, 0), statisticsOf(Region.HOST_NICS));
+
+        cache.reset();
+
+        assertEquals(statisticsLine("cluster", 0, 0, 0, 0), statisticsOf(Region.CLUSTER));
+
+        cache.getCluster(CLUSTER_ID);
+
+        assertEquals(statisticsLine("cluster", 0, 1, 0, 0), statisticsOf(Region.CLUSTER));
+    }
+
+    private String statisticsOf(Region region) {
+        return cache.showStatistics().get(region.ordinal());
+    }
+
+    private static String statisticsLine(String region, int hits, int misses, int invalidations, double hitRatio) {
+        return String.format("%s: hits %d, misses %d, invalidations %d, hit ratio %.2f",
+                region,
+                hits,
+                misses,
+                invalidations,
+                hitRatio);
+    }
+
+    private static List<VdsNetworkInterface> createNics(int generation) {
+        VdsNetworkInterface nic = new VdsNetworkInterface();
+        nic.setId(Guid.newGuid());
+        nic.setName("eth" + generation);
+        nic.setVdsId(HOST_ID);
+        return Collections.singletonList(nic);
+    }
+}
@@ -17,11 +17,8 @@ import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
-import org.ovirt.engine.core.dao.ClusterDao;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
 import org.ovirt.engine.core.dao.VdsNumaNodeDao;
-import org.ovirt.engine.core.dao.network.InterfaceDao;
-import org.ovirt.engine.core.dao.network.NetworkDao;
 import org.ovirt.engine.core.utils.MockConfigDescriptor;
 import org.ovirt.engine.core.utils.MockConfigExtension;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
@@ -41,8 +38,6 @@ public class HostMonitoringTest {
     @Mock
     private VDS vds;
     @Mock
-    InterfaceDao interfaceDao;
-    @Mock
     Cluster cluster;
     @Mock
     ResourceManager resourceManager;
@@ -53,13 +48,11 @@ public class HostMonitoringTest {
     @Mock
     private MonitoringStrategy monitoringStrategy;
     @Mock
-    private ClusterDao clusterDao;
-    @Mock
     private VdsDynamicDao vdsDynamicDao;
     @Mock
     private VdsNumaNodeDao vdsNumaNodeDao;
     @Mock
-    private NetworkDao networkDao;
+    private HostMonitoringMetadataCache metadataCache;
     @InjectMocks
     private HostMonitoring updater;
 
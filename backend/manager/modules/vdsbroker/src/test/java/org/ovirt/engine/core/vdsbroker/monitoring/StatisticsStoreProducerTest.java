@@ -0,0 +1,82 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.dao.VdsStatisticsDao;
+import org.ovirt.engine.core.dao.VmStatisticsDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
+import org.ovirt.engine.core.utils.MockConfigExtension;
+import org.ovirt.engine.core.utils.MockedConfig;
+
+@ExtendWith({ MockitoExtension.class, MockConfigExtension.class })
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class StatisticsStoreProducerTest {
+
+    private static final int FLUSH_INTERVAL = 15;
+
+    @Mock
+    private VmStatisticsDao vmStatisticsDao;
+    @Mock
+    private VmNetworkStatisticsDao vmNetworkStatisticsDao;
+    @Mock
+    private VdsStatisticsDao vdsStatisticsDao;
+    @Mock
+    private InterfaceDao interfaceDao;
+    @Mock
+    private ManagedScheduledExecutorService executor;
+
+    @InjectMocks
+    private StatisticsStoreProducer producer;
+
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.StatisticsWriteBehindInterval, 0),
+                MockConfigDescriptor.of(ConfigValues.StatisticsWriteBehindMaxPending, 10000));
+    }
+
+    @Test
+    public void testStatisticsAreWrittenDirectlyByDefault() {
+        producer.init();
+
+        assertTrue(producer.statisticsStore() instanceof DirectStatisticsStore);
+        verify(executor, never()).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @MockedConfig("mockWriteBehindConfiguration")
+    public void testStatisticsAreWrittenBehindWhenIntervalIsSet() {
+        producer.init();
+
+        assertTrue(producer.statisticsStore() instanceof WriteBehindStatisticsStore);
+        verify(executor).scheduleWithFixedDelay(any(),
+                eq((long) FLUSH_INTERVAL),
+                eq((long) FLUSH_INTERVAL),
+                eq(TimeUnit.SECONDS));
+    }
+
+    public static Stream<MockConfigDescriptor<?>> mockWriteBehindConfiguration() {
+        return Stream.of(
+                MockConfigDescriptor.of(ConfigValues.StatisticsWriteBehindInterval, FLUSH_INTERVAL),
+                MockConfigDescriptor.of(ConfigValues.StatisticsWriteBehindMaxPending, 10000));
+    }
+}
@@ -18,6 +18,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigInteger;
 import java.util.Objects;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -41,10 +42,12 @@ import org.ovirt.engine.core.common.businessentities.VmExitReason;
 import org.ovirt.engine.core.common.businessentities.VmExitStatus;
 import org.ovirt.engine.core.common.businessentities.VmPauseStatus;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkStatistics;
 import org.ovirt.engine.core.common.vdscommands.DestroyVmVDSCommandParameters;
 import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSParametersBase;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
+import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
 import org.ovirt.engine.core.dao.VdsDynamicDao;
@@ -317,6 +320,51 @@ public class VmAnalyzerTest {
         // TODO add tests
     }
 
+    @Test
+    public void networkStatisticsChangedIgnoresSampleTime() {
+        VmNetworkStatistics persisted = createNetworkStatistics(100.0);
+        VmNetworkStatistics current = new VmNetworkStatistics(persisted);
+        current.setSampleTime(115.0);
+        assertFalse(VmAnalyzer.isNetworkStatisticsChanged(persisted, current, 300));
+
+        current.setReceivedBytes(BigInteger.valueOf(2048));
+        assertTrue(VmAnalyzer.isNetworkStatisticsChanged(persisted, current, 300));
+    }
+
+    @Test
+    public void networkStatisticsChangedWhenWriteIntervalElapsed() {
+        VmNetworkStatistics persisted = createNetworkStatistics(100.0);
+        VmNetworkStatistics current = new VmNetworkStatistics(persisted);
+        current.setSampleTime(400.0);
+        assertTrue(VmAnalyzer.isNetworkStatisticsChanged(persisted, current, 300));
+        assertTrue(VmAnalyzer.isNetworkStatisticsChanged(persisted, current, 0));
+        assertTrue(VmAnalyzer.isNetworkStatisticsChanged(null, current, 300));
+
+        // the host was restarted and its clock started over
+        current.setSampleTime(10.0);
+        assertTrue(VmAnalyzer.isNetworkStatisticsChanged(persisted, current, 300));
+    }
+
+    @Test
+    public void unchangedRowsWriteDue() {
+        assertTrue(VmAnalyzer.isUnchangedRowsWriteDue(null, 300));
+        assertTrue(VmAnalyzer.isUnchangedRowsWriteDue(System.nanoTime(), 0));
+        assertFalse(VmAnalyzer.isUnchangedRowsWriteDue(System.nanoTime(), 300));
+        assertTrue(VmAnalyzer.isUnchangedRowsWriteDue(System.nanoTime() - 301_000_000_000L, 300));
+    }
+
+    private static VmNetworkStatistics createNetworkStatistics(double sampleTime) {
+        VmNetworkStatistics statistics = new VmNetworkStatistics();
+        statistics.setId(Guid.newGuid());
+        statistics.setVmId(Guid.newGuid());
+        statistics.setReceivedBytes(BigInteger.valueOf(1024));
+        statistics.setTransmittedBytes(BigInteger.valueOf(1024));
+        statistics.setReceiveRate(0.0);
+        statistics.setTransmitRate(0.0);
+        statistics.setSampleTime(sampleTime);
+        return statistics;
+    }
+
     @BeforeEach
     public void before() {
         for (VmTestPairs data: VmTestPairs.values()) {
@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 import javax.transaction.TransactionManager;
 
@@ -34,6 +35,7 @@ import org.mockito.quality.Strictness;
 import org.ovirt.engine.core.common.businessentities.VmDevice;
 import org.ovirt.engine.core.common.businessentities.VmDeviceGeneralType;
 import org.ovirt.engine.core.common.businessentities.VmDeviceId;
+import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.compat.Guid;
@@ -42,6 +44,7 @@ import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.utils.InjectedMock;
 import org.ovirt.engine.core.utils.InjectorExtension;
+import org.ovirt.engine.core.utils.MockConfigDescriptor;
 import org.ovirt.engine.core.utils.MockConfigExtension;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
@@ -69,6 +72,7 @@ public class VmDevicesMonitoringTest {
 
     private static final Guid VDS_ID = new Guid("b7dfe5e6-5667-4e40-8ecb-6d97c8df504d");
     private static final Guid VM_ID = new Guid("7cfc3666-5185-4438-8381-646de77ca9a7");
+    private static final Guid VM_ID_2 = new Guid("0b1b8e25-5e43-4d6a-9b5f-0e52d8d0c7a1");
     private static final Guid VIDEO_DEVICE_ID = new Guid("5987c100-a653-4a6e-87ae-fe1f808225ed");
     private static final Guid CDROM_DEVICE_ID = new Guid("dbf244e9-b91c-4304-a96e-f6868b362443");
     private static final String VIDEO_DEVICE_ADDRESS = "address1";
@@ -77,16 +81,24 @@ public class VmDevicesMonitoringTest {
     private static final String INITIAL_HASH = "123";
     private static final String NEW_HASH = "012";
 
+    public static Stream<MockConfigDescriptor<?>> mockConfiguration() {
+        return Stream.of(MockConfigDescriptor.of(ConfigValues.VmDevicesRefreshMaxVmsPerHost, 1));
+    }
+
     @BeforeEach
     public void init() {
         List<Pair<Guid, String>> initialHashes = new ArrayList<>();
         initialHashes.add(new Pair<>(VM_ID, INITIAL_HASH));
+        initialHashes.add(new Pair<>(VM_ID_2, INITIAL_HASH));
         doReturn(initialHashes).when(vmDynamicDao).getAllDevicesHashes();
         doReturn(Version.getLast()).when(vdsManager).getCompatibilityVersion();
         doReturn(vdsManager).when(fullListAdapter).getVdsManager(any());
         VmManager vmManagerMock = mock(VmManager.class);
         doReturn(new ReentrantLock()).when(vmManagerMock).getVmDevicesLock();
         doReturn(vmManagerMock).when(resourceManager).getVmManager(eq(VM_ID));
+        VmManager vmManagerMock2 = mock(VmManager.class);
+        doReturn(new ReentrantLock()).when(vmManagerMock2).getVmDevicesLock();
+        doReturn(vmManagerMock2).when(resourceManager).getVmManager(eq(VM_ID_2));
     }
 
     private static Map<String, Object> getDeviceInfo(Guid id, String deviceType, String device, String address) {
@@ -125,11 +137,7 @@ public class VmDevicesMonitoringTest {
     }
 
     private void initDevices(VmDevice... devices) {
-        doReturn(Arrays.asList(devices)).when(vmDeviceDao).getVmDeviceByVmId(VM_ID);
-        for (VmDevice device : devices) {
-            doReturn(Collections.singletonList(device)).when(vmDeviceDao)
-                    .getVmDevicesByDeviceId(device.getDeviceId(), device.getVmId());
-        }
+        doReturn(Arrays.asList(devices)).when(vmDeviceDao).getVmDevicesByVmIds(any());
     }
 
     private Map<String, Object> getDumpXmls(Guid vmId, Map<String, Object>... deviceInfos) {
@@ -231,6 +239,29 @@ public class VmDevicesMonitoringTest {
         assertEquals(NEW_HASH, hashInfo.getSecond());
     }
 
+    @Test
+    public void testPostponeVmsOverLimit() {
+        initDevices();
+        initDumpXmls();
+
+        vmDevicesMonitoring.initDevicesStatuses(1L);
+
+        VmDevicesMonitoring.Change change = vmDevicesMonitoring.createChange(VDS_ID, 2L);
+        change.updateVm(VM_ID, NEW_HASH);
+        change.updateVm(VM_ID_2, NEW_HASH);
+        change.flush();
+
+        verify(fullListAdapter, times(1)).getVmFullList(any(), eq(Collections.singletonList(VM_ID)), anyBoolean());
+
+        change = vmDevicesMonitoring.createChange(VDS_ID, 3L);
+        change.updateVm(VM_ID, NEW_HASH);
+        change.updateVm(VM_ID_2, NEW_HASH);
+        change.flush();
+
+        verify(fullListAdapter, times(1)).getVmFullList(any(), eq(Collections.singletonList(VM_ID_2)), anyBoolean());
+        verify(vmDeviceDao, times(2)).getVmDevicesByVmIds(any());
+    }
+
     @Test
     public void testUpdateVmFromFullList() {
         initDevices();
@@ -420,7 +451,6 @@ public class VmDevicesMonitoringTest {
         change.flush();
 
         initDevices();
-        doReturn(Collections.emptyList()).when(vmDeviceDao).getVmDevicesByDeviceId(controllerId, VM_ID);
 
         change = vmDevicesMonitoring.createChange(3L);
         change.updateDevice(controller);
@@ -0,0 +1,207 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.ovirt.engine.core.common.businessentities.CpuStatistics;
+import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmStatistics;
+import org.ovirt.engine.core.compat.Guid;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class WriteBehindStatisticsStoreTest {
+
+    private static final Guid VM_ID_1 = new Guid("b7dfe5e6-5667-4e40-8ecb-6d97c8df504c");
+    private static final Guid VM_ID_2 = new Guid("b7dfe5e6-5667-4e40-8ecb-6d97c8df504d");
+    private static final Guid HOST_ID = new Guid("b7dfe5e6-5667-4e40-8ecb-000000000001");
+    private static final int MAX_PENDING = 3;
+    private static final int FLUSH_INTERVAL = 15;
+
+    @Mock
+    private StatisticsStore delegate;
+    @Mock
+    private ScheduledExecutorService executor;
+    @Mock
+    private ScheduledFuture<?> flushJob;
+    @Captor
+    private ArgumentCaptor<Collection<VmStatistics>> vmStatisticsCaptor;
+    @Captor
+    private ArgumentCaptor<Runnable> flushCaptor;
+
+    private WriteBehindStatisticsStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new WriteBehindStatisticsStore(delegate, executor, MAX_PENDING);
+    }
+
+    @Test
+    public void testSavedStatisticsAreNotWrittenBeforeFlush() {
+        store.saveVmStatistics(Collections.singletonList(new VmStatistics(VM_ID_1)));
+        verify(delegate, never()).saveVmStatistics(anyCollection());
+        assertEquals(1, store.getPendingCount());
+    }
+
+    @Test
+    public void testStatisticsOfSameEntityAreCoalesced() {
+        VmStatistics first = new VmStatistics(VM_ID_1);
+        first.setUsageCpuPercent(10);
+        VmStatistics latest = new VmStatistics(VM_ID_1);
+        latest.setUsageCpuPercent(20);
+        VmStatistics other = new VmStatistics(VM_ID_2);
+        store.saveVmStatistics(Arrays.asList(first, other));
+        store.saveVmStatistics(Collections.singletonList(latest));
+        assertEquals(2, store.getPendingCount());
+
+        store.flush();
+
+        verify(delegate, times(1)).saveVmStatistics(vmStatisticsCaptor.capture());
+        Collection<VmStatistics> written = vmStatisticsCaptor.getValue();
+        assertEquals(2, written.size());
+        assertEquals(1, written.stream().filter(latest::equals).count());
+        assertEquals(0, written.stream().filter(first::equals).count());
+        assertEquals(0, store.getPendingCount());
+    }
+
+    @Test
+    public void testReadsArePendingStatisticsFirst() {
+        VdsStatistics pending = new VdsStatistics();
+        pending.setId(HOST_ID);
+        VdsStatistics persisted = new VdsStatistics();
+        persisted.setId(HOST_ID);
+        when(delegate.getVdsStatistics(HOST_ID)).thenReturn(persisted);
+
+        store.saveVdsStatistics(pending);
+        assertEquals(pending, store.getVdsStatistics(HOST_ID));
+
+        store.flush();
+        verify(delegate).saveVdsStatistics(pending);
+        assertSame(persisted, store.getVdsStatistics(HOST_ID));
+    }
+
+    @Test
+    public void testReachingMaxPendingTriggersFlush() {
+        store.saveVmStatistics(Arrays.asList(new VmStatistics(VM_ID_1), new VmStatistics(VM_ID_2)));
+        verify(executor, never()).execute(any());
+
+        VdsStatistics hostStatistics = new VdsStatistics();
+        hostStatistics.setId(HOST_ID);
+        store.saveVdsStatistics(hostStatistics);
+        verify(executor).execute(any());
+
+        // no additional flush is requested until the requested one runs
+        store.saveVmStatistics(Collections.singletonList(new VmStatistics(VM_ID_1)));
+        verify(executor, times(1)).execute(any());
+    }
+
+    @Test
+    public void testFailedWriteIsRetriedOnNextFlush() {
+        VmStatistics statistics = new VmStatistics(VM_ID_1);
+        store.saveVmStatistics(Collections.singletonList(statistics));
+        doThrow(new RuntimeException("database is down")).when(delegate).saveVmStatistics(anyCollection());
+
+        store.flush();
+        assertEquals(1, store.getPendingCount());
+        assertEquals(statistics, store.getVmStatistics(VM_ID_1));
+
+        store.flush();
+        verify(delegate, times(2)).saveVmStatistics(anyCollection());
+    }
+
+    @Test
+    public void testStatisticsChangedAfterSaveAreWrittenAsSaved() {
+        VmStatistics vmStatistics = new VmStatistics(VM_ID_1);
+        vmStatistics.setUsageCpuPercent(10);
+        vmStatistics.setCpuUsageHistory(new ArrayList<>(Collections.singletonList(10)));
+        VdsStatistics hostStatistics = new VdsStatistics();
+        hostStatistics.setId(HOST_ID);
+        hostStatistics.setMemFree(1024L);
+        CpuStatistics cpuStatistics = new CpuStatistics();
+        cpuStatistics.setCpuUsagePercent(10);
+        hostStatistics.getCpuCoreStatistics().add(cpuStatistics);
+        store.saveVmStatistics(Collections.singletonList(vmStatistics));
+        store.saveVdsStatistics(hostStatistics);
+
+        // monitoring updates the same objects on its next cycle
+        vmStatistics.setUsageCpuPercent(90);
+        vmStatistics.getCpuUsageHistory().add(90);
+        hostStatistics.setMemFree(0L);
+        cpuStatistics.setCpuUsagePercent(90);
+        assertEquals(10, store.getVmStatistics(VM_ID_1).getUsageCpuPercent().intValue());
+
+        store.flush();
+
+        verify(delegate).saveVmStatistics(vmStatisticsCaptor.capture());
+        VmStatistics writtenVmStatistics = vmStatisticsCaptor.getValue().iterator().next();
+        assertEquals(10, writtenVmStatistics.getUsageCpuPercent().intValue());
+        assertEquals(Collections.singletonList(10), writtenVmStatistics.getCpuUsageHistory());
+        ArgumentCaptor<VdsStatistics> hostStatisticsCaptor = ArgumentCaptor.forClass(VdsStatistics.class);
+        verify(delegate).saveVdsStatistics(hostStatisticsCaptor.capture());
+        VdsStatistics writtenHostStatistics = hostStatisticsCaptor.getValue();
+        assertEquals(1024L, writtenHostStatistics.getMemFree().longValue());
+        assertEquals(10, writtenHostStatistics.getCpuCoreStatistics().get(0).getCpuUsagePercent());
+    }
+
+    @Test
+    public void testPendingStatisticsAreWrittenWithinFlushInterval() {
+        store.start(FLUSH_INTERVAL);
+        verify(executor).scheduleWithFixedDelay(flushCaptor.capture(),
+                eq((long) FLUSH_INTERVAL),
+                eq((long) FLUSH_INTERVAL),
+                eq(TimeUnit.SECONDS));
+        VmStatistics vmStatistics = new VmStatistics(VM_ID_1);
+        VdsStatistics hostStatistics = new VdsStatistics();
+        hostStatistics.setId(HOST_ID);
+        store.saveVmStatistics(Collections.singletonList(vmStatistics));
+        store.saveVdsStatistics(hostStatistics);
+
+        // the scheduled flush is what bounds how stale the statistics in the database are
+        flushCaptor.getValue().run();
+
+        verify(delegate).saveVmStatistics(vmStatisticsCaptor.capture());
+        assertEquals(Collections.singletonList(vmStatistics), new ArrayList<>(vmStatisticsCaptor.getValue()));
+        verify(delegate).saveVdsStatistics(hostStatistics);
+        assertEquals(0, store.getPendingCount());
+    }
+
+    @Test
+    public void testStopCancelsPeriodicFlushAndWritesPending() {
+        doReturn(flushJob).when(executor).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        store.start(FLUSH_INTERVAL);
+        store.saveVmStatistics(Collections.singletonList(new VmStatistics(VM_ID_1)));
+
+        store.stop();
+
+        verify(flushJob).cancel(false);
+        verify(delegate).saveVmStatistics(anyCollection());
+        assertEquals(0, store.getPendingCount());
+    }
+}
@@ -29,6 +29,23 @@ END;$FUNCTION$
 LANGUAGE plpgsql;
 
 
+-- get All Affinity Groups with members by vm ids
+CREATE OR REPLACE FUNCTION getAllAffinityGroupsByVmIds (v_vm_ids UUID[])
+RETURNS SETOF affinity_groups_view STABLE AS $FUNCTION$
+BEGIN
+    RETURN QUERY
+
+    SELECT affinity_groups_view.*
+    FROM affinity_groups_view
+    WHERE affinity_groups_view.id IN (
+            SELECT affinity_group_members.affinity_group_id
+            FROM affinity_group_members
+            WHERE affinity_group_members.vm_id = ANY(v_vm_ids)
+            );
+END;$FUNCTION$
+LANGUAGE plpgsql;
+
+
 -- get All Affinity Groups with members from labels by vm id
 CREATE OR REPLACE FUNCTION getAllAffinityGroupsWithFlatLabelsByVmId (v_vm_id UUID)
 RETURNS SETOF affinity_groups_with_members_from_labels_view STABLE AS $FUNCTION$
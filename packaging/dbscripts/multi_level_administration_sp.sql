@@ -673,6 +673,21 @@ LANGUAGE plpgsql;
 
 
 
+CREATE OR REPLACE FUNCTION GetEntityParents(
+    v_object_id UUID,
+    v_object_type_id INTEGER)
+RETURNS SETOF UUID STABLE
+   AS $FUNCTION$
+BEGIN
+   RETURN QUERY
+   SELECT id
+   FROM fn_get_entity_parents(v_object_id, v_object_type_id)
+   WHERE id IS NOT NULL;
+END; $FUNCTION$
+LANGUAGE plpgsql;
+
+
+
 CREATE OR REPLACE FUNCTION DeletePermissionsByEntityId(v_id UUID)
 RETURNS VOID
 	-- SET NOCOUNT ON added to prevent extra result sets from
@@ -789,3 +804,13 @@ BEGIN
         AND object_id = v_object_id;
 END; $FUNCTION$
 LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION GetPermissionsByObjectIds(v_object_ids UUID[])
+RETURNS SETOF permissions_view STABLE
+    AS $FUNCTION$
+BEGIN
+    RETURN QUERY SELECT *
+    FROM permissions_view
+    WHERE object_id = ANY(v_object_ids);
+END; $FUNCTION$
+LANGUAGE plpgsql;
@@ -259,6 +259,38 @@ BEGIN
 END;$FUNCTION$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetAllFromSnapshotsByVmIds (
+    v_vm_ids UUID[],
+    v_fill_configuration BOOLEAN
+    )
+RETURNS SETOF GetAllFromSnapshotsByVmId_rs STABLE AS $FUNCTION$
+BEGIN
+    RETURN QUERY
+
+    SELECT snapshot_id,
+        vm_id,
+        snapshot_type,
+        status,
+        description,
+        creation_date,
+        app_list,
+        memory_dump_disk_id,
+        memory_metadata_disk_id,
+        CASE
+            WHEN v_fill_configuration = TRUE
+                THEN vm_configuration
+            ELSE NULL
+            END,
+        vm_configuration IS NOT NULL
+        AND LENGTH(vm_configuration) > 0,
+        vm_configuration_broken,
+        changed_fields
+    FROM snapshots
+    WHERE vm_id = ANY(v_vm_ids)
+    ORDER BY creation_date ASC;
+END;$FUNCTION$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetSnapshotBySnapshotId (
     v_snapshot_id UUID,
     v_user_id UUID,
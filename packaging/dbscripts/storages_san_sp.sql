@@ -734,6 +734,19 @@ BEGIN
 END;$FUNCTION$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetLUN_storage_server_connection_mapByLUNs (
+    v_LUN_ids VARCHAR(255)[]
+    )
+RETURNS SETOF LUN_storage_server_connection_map STABLE AS $FUNCTION$
+BEGIN
+    RETURN QUERY
+
+    SELECT *
+    FROM LUN_storage_server_connection_map lUN_storage_server_connection_map
+    WHERE LUN_id = ANY(v_LUN_ids);
+END;$FUNCTION$
+LANGUAGE plpgsql;
+
 
 CREATE OR REPLACE FUNCTION GetLUN_storage_server_connection_mapByLUNBystorage_server_conn (
     v_LUN_id VARCHAR(255),
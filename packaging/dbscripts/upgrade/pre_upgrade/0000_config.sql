@@ -58,12 +58,16 @@ select fn_db_add_config_value('AllowClusterWithVirtGlusterEnabled','true','gener
 select fn_db_add_config_value('ApplicationMode','255','general');
 select fn_db_add_config_value('AsyncCommandPollingLoopInSeconds','1','general');
 select fn_db_add_config_value('AsyncCommandPollingRateInSeconds','10','general');
+select fn_db_add_config_value('AsyncCommandCallbacksMaxConcurrency','10','general');
 select fn_db_add_config_value('AsyncTaskPollingRate','10','general');
 select fn_db_add_config_value('AsyncTaskStatusCacheRefreshRateInSeconds','30','general');
 select fn_db_add_config_value('AsyncTaskStatusCachingTimeInMinutes','1','general');
 select fn_db_add_config_value('AsyncTaskZombieTaskLifeInMinutes','300','general');
 select fn_db_add_config_value('AuditLogAgingThreshold','30','general');
 select fn_db_add_config_value('AuditLogCleanupTime','03:35:35','general');
+select fn_db_add_config_value('AuditLogWriteQueueSize','0','general');
+select fn_db_add_config_value('AuditLogWriteBatchSize','100','general');
+select fn_db_add_config_value('AuditLogWriteCoalesceInterval','30','general');
 select fn_db_add_config_value('CoCoLifeInMinutes','3000','general');
 select fn_db_add_config_value('CoCoWaitForEventInMinutes','300','general');
 select fn_db_add_config_value('CommandEntityAgingThreshold','30','general');
@@ -152,6 +156,8 @@ select fn_db_add_config_value('GlusterRefreshRateTasks', '60', 'general');
 select fn_db_add_config_value('GlusterPeerStatusRetries', '2', 'general');
 select fn_db_add_config_value('GlusterTaskMinWaitForCleanupInMins', '10', 'general');
 select fn_db_add_config_value('GlusterRefreshRateHealInfo', '600', 'general');
+select fn_db_add_config_value('GlusterSyncMaxConcurrency', '5', 'general');
+select fn_db_add_config_value('GlusterSyncClusterTimeoutInSeconds', '60', 'general');
 select fn_db_add_config_value('GlusterUnSyncedEntriesHistoryLimit', '40', 'general');
 select fn_db_add_config_value_for_versions_up_to('LibgfApiSupported', 'false', '4.8');
 select fn_db_add_config_value_for_versions_up_to('UseNativeIOForGluster', 'false', '4.8');
@@ -357,6 +363,10 @@ select fn_db_add_config_value('NicDHCPDelayGraceInMS','60','general');
 select fn_db_add_config_value('NumberOfFailedRunsOnVds','3','general');
 select fn_db_add_config_value('NumberOfUSBSlots','4','general');
 select fn_db_add_config_value('NumberVmRefreshesBeforeSave','5','general');
+select fn_db_add_config_value('VmMonitoringUnchangedRowsWriteInterval','300','general');
+select fn_db_add_config_value('VmDevicesRefreshMaxVmsPerHost','100','general');
+select fn_db_add_config_value('StatisticsWriteBehindInterval','0','general');
+select fn_db_add_config_value('StatisticsWriteBehindMaxPending','10000','general');
 select fn_db_add_config_value('NumberVdsRefreshesBeforeTryToStartUnknownVms','10','general');
 select fn_db_add_config_value('NumberVdsRefreshesBeforeRetryToStartUnknownVms','100','general');
 select fn_db_add_config_value('EnableMACAntiSpoofingFilterRules','true', 'general');
@@ -364,6 +374,8 @@ select fn_db_add_config_value('MaxSchedulerWeight','1000','general');
 select fn_db_add_config_value('SpeedOptimizationSchedulingThreshold','10','general');
 select fn_db_add_config_value('SchedulerAllowOverBooking','false','general');
 select fn_db_add_config_value('SchedulerOverBookingThreshold','10','general');
+select fn_db_add_config_value('SchedulerParallelism','4','general');
+select fn_db_add_config_value('SchedulerHostsSnapshotMaxAge','60','general');
 select fn_db_add_config_value_for_versions_up_to('IgnoreVmToVmAffinityForHostMaintenance', 'false', '4.2');
 select fn_db_add_config_value_for_versions_up_to('IgnoreVmToVmAffinityForHostMaintenance', 'true', '4.8');
 select fn_db_add_config_value('UploadFileMaxTimeInMinutes','5','general');
@@ -382,6 +394,7 @@ select fn_db_add_config_value('oVirtUpgradeScriptName','/usr/share/vdsm-reg/vdsm
 select fn_db_add_config_value('oVirtUploadPath','/data/updates/ovirt-node-image.iso','general');
 select fn_db_add_config_value('OvfUpdateIntervalInMinutes','60','general');
 select fn_db_add_config_value('OvfItemsCountPerUpdate','100','general');
+select fn_db_add_config_value('OvfUpdateParallelism','4','general');
 select fn_db_add_config_value('PayloadSize','8192','general');
 -- Power management health check
 select fn_db_add_config_value('PMHealthCheckEnabled','false','general');
@@ -400,6 +413,7 @@ select fn_db_add_config_value('QuotaThresholdCluster','80','general');
 select fn_db_add_config_value('SANWipeAfterDelete','false','general');
 --Handling SASL QOP
 select fn_db_add_config_value('SearchResultsLimit','100','general');
+select fn_db_add_config_value('SearchQueryCacheSize','1000','general');
 select fn_db_add_config_value('SendSMPOnRunVm','true','general');
 
 select fn_db_add_config_value('ServerCPUList',
@@ -665,6 +679,7 @@ select fn_db_add_config_value('TimeToReduceFailedRunOnVdsInMinutes','30','genera
 select fn_db_add_config_value('UnknownTaskPrePollingLapse','60000','general');
 select fn_db_add_config_value_for_versions_up_to('UserDefinedVMProperties', '','4.8');
 select fn_db_add_config_value('UserSessionTimeOutInterval','30','general');
+select fn_db_add_config_value('PermissionGraphMaxAgeInSeconds','60','general');
 select fn_db_add_config_value('UtilizationThresholdInPercent','80','general');
 select fn_db_add_config_value('ValidNumOfMonitors','1,2,4','general');
 select fn_db_add_config_value('VcpuConsumptionPercentage','10','general');
@@ -298,6 +298,25 @@ LANGUAGE plpgsql;
 
     LANGUAGE plpgsql;
 
+    CREATE
+        OR REPLACE FUNCTION GetUsersByVmGuids (v_vm_guids UUID[])
+    RETURNS SETOF users STABLE AS $FUNCTION$
+
+    BEGIN
+        RETURN QUERY
+
+        SELECT users.*
+        FROM users
+        WHERE users.user_id IN (
+                SELECT permissions.ad_element_id
+                FROM permissions
+                WHERE permissions.object_type_id = 2
+                    AND permissions.object_id = ANY(v_vm_guids)
+                );
+    END;$FUNCTION$
+
+    LANGUAGE plpgsql;
+
     CREATE OR REPLACE FUNCTION GetUsersByTemplateGuid (v_template_guid UUID)
     RETURNS SETOF users STABLE AS $FUNCTION$
 
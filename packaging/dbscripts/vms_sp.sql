@@ -984,6 +984,22 @@ BEGIN
 END; $FUNCTION$
 LANGUAGE plpgsql;
 
+DROP TYPE IF EXISTS GetDbGenerationsByIds_rs CASCADE;
+CREATE TYPE GetDbGenerationsByIds_rs AS (
+        vm_guid UUID,
+        db_generation BIGINT
+        );
+
+Create or replace FUNCTION GetDbGenerationsByIds(v_vm_guids UUID[])
+RETURNS SETOF GetDbGenerationsByIds_rs STABLE
+   AS $FUNCTION$
+BEGIN
+      RETURN QUERY SELECT vm_guid, db_generation
+      FROM vm_static
+      WHERE vm_guid = ANY(v_vm_guids);
+END; $FUNCTION$
+LANGUAGE plpgsql;
+
 
 
 